@@ -37,7 +37,7 @@ public final class DatabaseProtos {
 
     /**
      * <pre>
-     * The key to get, set or delete.
+     * The key to get, set or delete, or the first key of a SCAN.
      * </pre>
      *
      * <code>optional string key = 2;</code>
@@ -45,7 +45,7 @@ public final class DatabaseProtos {
     boolean hasKey();
     /**
      * <pre>
-     * The key to get, set or delete.
+     * The key to get, set or delete, or the first key of a SCAN.
      * </pre>
      *
      * <code>optional string key = 2;</code>
@@ -53,7 +53,7 @@ public final class DatabaseProtos {
     java.lang.String getKey();
     /**
      * <pre>
-     * The key to get, set or delete.
+     * The key to get, set or delete, or the first key of a SCAN.
      * </pre>
      *
      * <code>optional string key = 2;</code>
@@ -86,6 +86,218 @@ public final class DatabaseProtos {
      */
     com.google.protobuf.ByteString
         getValueBytes();
+
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    boolean hasId();
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    long getId();
+
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    java.util.List<sfsu.DatabaseProtos.Request> 
+        getBatchList();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.Request getBatch(int index);
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    int getBatchCount();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+        getBatchOrBuilderList();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    boolean hasClient();
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    java.lang.String getClient();
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    com.google.protobuf.ByteString
+        getClientBytes();
+
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    boolean hasPriority();
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    sfsu.DatabaseProtos.Request.Priority getPriority();
+
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    boolean hasEnd();
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    java.lang.String getEnd();
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    com.google.protobuf.ByteString
+        getEndBytes();
+
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    boolean hasLimit();
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    int getLimit();
+
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    boolean hasCursor();
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    java.lang.String getCursor();
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    com.google.protobuf.ByteString
+        getCursorBytes();
+
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    boolean hasCredit();
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    int getCredit();
+
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    boolean hasTtl();
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    long getTtl();
   }
   /**
    * <pre>
@@ -107,6 +319,11 @@ public final class DatabaseProtos {
       operation_ = 0;
       key_ = "";
       value_ = "";
+      batch_ = java.util.Collections.emptyList();
+      client_ = "";
+      priority_ = 0;
+      end_ = "";
+      cursor_ = "";
     }
 
     @java.lang.Override
@@ -157,6 +374,65 @@ public final class DatabaseProtos {
               value_ = bs;
               break;
             }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              id_ = input.readUInt64();
+              break;
+            }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) != 0)) {
+                batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Request>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              batch_.add(
+                  input.readMessage(sfsu.DatabaseProtos.Request.PARSER, extensionRegistry));
+              break;
+            }
+            case 50: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000010;
+              client_ = bs;
+              break;
+            }
+            case 56: {
+              int rawValue = input.readEnum();
+                @SuppressWarnings("deprecation")
+              sfsu.DatabaseProtos.Request.Priority value = sfsu.DatabaseProtos.Request.Priority.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(7, rawValue);
+              } else {
+                bitField0_ |= 0x00000020;
+                priority_ = rawValue;
+              }
+              break;
+            }
+            case 66: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000040;
+              end_ = bs;
+              break;
+            }
+            case 72: {
+              bitField0_ |= 0x00000080;
+              limit_ = input.readUInt32();
+              break;
+            }
+            case 82: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000100;
+              cursor_ = bs;
+              break;
+            }
+            case 88: {
+              bitField0_ |= 0x00000200;
+              credit_ = input.readUInt32();
+              break;
+            }
+            case 96: {
+              bitField0_ |= 0x00000400;
+              ttl_ = input.readUInt64();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -172,6 +448,9 @@ public final class DatabaseProtos {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000010) != 0)) {
+          batch_ = java.util.Collections.unmodifiableList(batch_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -206,6 +485,42 @@ public final class DatabaseProtos {
        * <code>DELETE = 2;</code>
        */
       DELETE(2),
+      /**
+       * <pre>
+       * Executes the requests in batch, in order, and answers them all in a single response. A batch is not atomic: if
+       * a request fails, the requests before it stay applied, and the response is ERROR. Its batch then answers every
+       * request, OK up to the failure and ERROR from there on; the failed ones may have been applied, in part for
+       * consecutive writes, which are handed to the engine together, and the ones after were not executed.
+       * </pre>
+       *
+       * <code>BATCH = 3;</code>
+       */
+      BATCH(3),
+      /**
+       * <pre>
+       * Lists the keys from key (included) to end (excluded) in order, with their values, a page at a time. Only
+       * engines that keep their keys in order can scan; the others answer ERROR.
+       * </pre>
+       *
+       * <code>SCAN = 4;</code>
+       */
+      SCAN(4),
+      /**
+       * <pre>
+       * Lets the streamed SCAN with the same id send credit more responses. Not answered.
+       * </pre>
+       *
+       * <code>CREDIT = 5;</code>
+       */
+      CREDIT(5),
+      /**
+       * <pre>
+       * Stops the streamed SCAN with the same id, which ends with the response it sends next. Not answered.
+       * </pre>
+       *
+       * <code>CANCEL = 6;</code>
+       */
+      CANCEL(6),
       ;
 
       /**
@@ -220,6 +535,42 @@ public final class DatabaseProtos {
        * <code>DELETE = 2;</code>
        */
       public static final int DELETE_VALUE = 2;
+      /**
+       * <pre>
+       * Executes the requests in batch, in order, and answers them all in a single response. A batch is not atomic: if
+       * a request fails, the requests before it stay applied, and the response is ERROR. Its batch then answers every
+       * request, OK up to the failure and ERROR from there on; the failed ones may have been applied, in part for
+       * consecutive writes, which are handed to the engine together, and the ones after were not executed.
+       * </pre>
+       *
+       * <code>BATCH = 3;</code>
+       */
+      public static final int BATCH_VALUE = 3;
+      /**
+       * <pre>
+       * Lists the keys from key (included) to end (excluded) in order, with their values, a page at a time. Only
+       * engines that keep their keys in order can scan; the others answer ERROR.
+       * </pre>
+       *
+       * <code>SCAN = 4;</code>
+       */
+      public static final int SCAN_VALUE = 4;
+      /**
+       * <pre>
+       * Lets the streamed SCAN with the same id send credit more responses. Not answered.
+       * </pre>
+       *
+       * <code>CREDIT = 5;</code>
+       */
+      public static final int CREDIT_VALUE = 5;
+      /**
+       * <pre>
+       * Stops the streamed SCAN with the same id, which ends with the response it sends next. Not answered.
+       * </pre>
+       *
+       * <code>CANCEL = 6;</code>
+       */
+      public static final int CANCEL_VALUE = 6;
 
 
       public final int getNumber() {
@@ -239,6 +590,10 @@ public final class DatabaseProtos {
           case 0: return GET;
           case 1: return PUT;
           case 2: return DELETE;
+          case 3: return BATCH;
+          case 4: return SCAN;
+          case 5: return CREDIT;
+          case 6: return CANCEL;
           default: return null;
         }
       }
@@ -288,71 +643,166 @@ public final class DatabaseProtos {
       // @@protoc_insertion_point(enum_scope:sfsu.Request.OperationType)
     }
 
-    private int bitField0_;
-    public static final int OPERATION_FIELD_NUMBER = 1;
-    private int operation_;
-    /**
-     * <pre>
-     * All requests must specify the type of operation to be executed.
-     * </pre>
-     *
-     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-     */
-    public boolean hasOperation() {
-      return ((bitField0_ & 0x00000001) != 0);
-    }
     /**
      * <pre>
-     * All requests must specify the type of operation to be executed.
+     * When the server runs priority lanes, high priority requests run on threads of their own, so low priority work
+     * never queues in front of them. Without it, GETs have high priority and everything else low.
      * </pre>
      *
-     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     * Protobuf enum {@code sfsu.Request.Priority}
      */
-    public sfsu.DatabaseProtos.Request.OperationType getOperation() {
-      @SuppressWarnings("deprecation")
-      sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
-      return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
-    }
+    public enum Priority
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>HIGH = 0;</code>
+       */
+      HIGH(0),
+      /**
+       * <code>LOW = 1;</code>
+       */
+      LOW(1),
+      ;
 
-    public static final int KEY_FIELD_NUMBER = 2;
-    private volatile java.lang.Object key_;
-    /**
-     * <pre>
-     * The key to get, set or delete.
-     * </pre>
-     *
-     * <code>optional string key = 2;</code>
-     */
-    public boolean hasKey() {
-      return ((bitField0_ & 0x00000002) != 0);
-    }
-    /**
-     * <pre>
-     * The key to get, set or delete.
-     * </pre>
-     *
-     * <code>optional string key = 2;</code>
-     */
-    public java.lang.String getKey() {
-      java.lang.Object ref = key_;
-      if (ref instanceof java.lang.String) {
-        return (java.lang.String) ref;
-      } else {
-        com.google.protobuf.ByteString bs = 
-            (com.google.protobuf.ByteString) ref;
-        java.lang.String s = bs.toStringUtf8();
-        if (bs.isValidUtf8()) {
-          key_ = s;
-        }
-        return s;
-      }
-    }
-    /**
-     * <pre>
-     * The key to get, set or delete.
-     * </pre>
-     *
-     * <code>optional string key = 2;</code>
+      /**
+       * <code>HIGH = 0;</code>
+       */
+      public static final int HIGH_VALUE = 0;
+      /**
+       * <code>LOW = 1;</code>
+       */
+      public static final int LOW_VALUE = 1;
+
+
+      public final int getNumber() {
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Priority valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static Priority forNumber(int value) {
+        switch (value) {
+          case 0: return HIGH;
+          case 1: return LOW;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Priority>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Priority> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Priority>() {
+              public Priority findValueByNumber(int number) {
+                return Priority.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.Request.getDescriptor().getEnumTypes().get(1);
+      }
+
+      private static final Priority[] VALUES = values();
+
+      public static Priority valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int value;
+
+      private Priority(int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:sfsu.Request.Priority)
+    }
+
+    private int bitField0_;
+    public static final int OPERATION_FIELD_NUMBER = 1;
+    private int operation_;
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    public boolean hasOperation() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    public sfsu.DatabaseProtos.Request.OperationType getOperation() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
+      return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
+    }
+
+    public static final int KEY_FIELD_NUMBER = 2;
+    private volatile java.lang.Object key_;
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    public boolean hasKey() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    public java.lang.String getKey() {
+      java.lang.Object ref = key_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          key_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
      */
     public com.google.protobuf.ByteString
         getKeyBytes() {
@@ -422,77 +872,517 @@ public final class DatabaseProtos {
       }
     }
 
-    private byte memoizedIsInitialized = -1;
-    @java.lang.Override
-    public final boolean isInitialized() {
-      byte isInitialized = memoizedIsInitialized;
-      if (isInitialized == 1) return true;
-      if (isInitialized == 0) return false;
-
-      memoizedIsInitialized = 1;
-      return true;
+    public static final int ID_FIELD_NUMBER = 4;
+    private long id_;
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000008) != 0);
     }
-
-    @java.lang.Override
-    public void writeTo(com.google.protobuf.CodedOutputStream output)
-                        throws java.io.IOException {
-      if (((bitField0_ & 0x00000001) != 0)) {
-        output.writeEnum(1, operation_);
-      }
-      if (((bitField0_ & 0x00000002) != 0)) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, key_);
-      }
-      if (((bitField0_ & 0x00000004) != 0)) {
-        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, value_);
-      }
-      unknownFields.writeTo(output);
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    public long getId() {
+      return id_;
     }
 
-    @java.lang.Override
-    public int getSerializedSize() {
-      int size = memoizedSize;
-      if (size != -1) return size;
+    public static final int BATCH_FIELD_NUMBER = 5;
+    private java.util.List<sfsu.DatabaseProtos.Request> batch_;
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public java.util.List<sfsu.DatabaseProtos.Request> getBatchList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+        getBatchOrBuilderList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public int getBatchCount() {
+      return batch_.size();
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.Request getBatch(int index) {
+      return batch_.get(index);
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+        int index) {
+      return batch_.get(index);
+    }
 
-      size = 0;
-      if (((bitField0_ & 0x00000001) != 0)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeEnumSize(1, operation_);
-      }
-      if (((bitField0_ & 0x00000002) != 0)) {
-        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, key_);
+    public static final int CLIENT_FIELD_NUMBER = 6;
+    private volatile java.lang.Object client_;
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public boolean hasClient() {
+      return ((bitField0_ & 0x00000010) != 0);
+    }
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public java.lang.String getClient() {
+      java.lang.Object ref = client_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          client_ = s;
+        }
+        return s;
       }
-      if (((bitField0_ & 0x00000004) != 0)) {
-        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, value_);
+    }
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public com.google.protobuf.ByteString
+        getClientBytes() {
+      java.lang.Object ref = client_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        client_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
       }
-      size += unknownFields.getSerializedSize();
-      memoizedSize = size;
-      return size;
     }
 
-    @java.lang.Override
-    public boolean equals(final java.lang.Object obj) {
-      if (obj == this) {
-       return true;
-      }
-      if (!(obj instanceof sfsu.DatabaseProtos.Request)) {
-        return super.equals(obj);
-      }
-      sfsu.DatabaseProtos.Request other = (sfsu.DatabaseProtos.Request) obj;
+    public static final int PRIORITY_FIELD_NUMBER = 7;
+    private int priority_;
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    public boolean hasPriority() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    public sfsu.DatabaseProtos.Request.Priority getPriority() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Request.Priority result = sfsu.DatabaseProtos.Request.Priority.valueOf(priority_);
+      return result == null ? sfsu.DatabaseProtos.Request.Priority.HIGH : result;
+    }
 
-      if (hasOperation() != other.hasOperation()) return false;
-      if (hasOperation()) {
-        if (operation_ != other.operation_) return false;
-      }
-      if (hasKey() != other.hasKey()) return false;
-      if (hasKey()) {
-        if (!getKey()
-            .equals(other.getKey())) return false;
+    public static final int END_FIELD_NUMBER = 8;
+    private volatile java.lang.Object end_;
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public boolean hasEnd() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public java.lang.String getEnd() {
+      java.lang.Object ref = end_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          end_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public com.google.protobuf.ByteString
+        getEndBytes() {
+      java.lang.Object ref = end_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        end_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int LIMIT_FIELD_NUMBER = 9;
+    private int limit_;
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    public boolean hasLimit() {
+      return ((bitField0_ & 0x00000080) != 0);
+    }
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    public int getLimit() {
+      return limit_;
+    }
+
+    public static final int CURSOR_FIELD_NUMBER = 10;
+    private volatile java.lang.Object cursor_;
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public boolean hasCursor() {
+      return ((bitField0_ & 0x00000100) != 0);
+    }
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public java.lang.String getCursor() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          cursor_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCursorBytes() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        cursor_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int CREDIT_FIELD_NUMBER = 11;
+    private int credit_;
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    public boolean hasCredit() {
+      return ((bitField0_ & 0x00000200) != 0);
+    }
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    public int getCredit() {
+      return credit_;
+    }
+
+    public static final int TTL_FIELD_NUMBER = 12;
+    private long ttl_;
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    public boolean hasTtl() {
+      return ((bitField0_ & 0x00000400) != 0);
+    }
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    public long getTtl() {
+      return ttl_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeEnum(1, operation_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, key_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, value_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeUInt64(4, id_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        output.writeMessage(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, client_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeEnum(7, priority_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 8, end_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        output.writeUInt32(9, limit_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 10, cursor_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        output.writeUInt32(11, credit_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        output.writeUInt64(12, ttl_);
+      }
+      unknownFields.writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(1, operation_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, key_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, value_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(4, id_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, client_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(7, priority_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(8, end_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(9, limit_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, cursor_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(11, credit_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(12, ttl_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof sfsu.DatabaseProtos.Request)) {
+        return super.equals(obj);
+      }
+      sfsu.DatabaseProtos.Request other = (sfsu.DatabaseProtos.Request) obj;
+
+      if (hasOperation() != other.hasOperation()) return false;
+      if (hasOperation()) {
+        if (operation_ != other.operation_) return false;
+      }
+      if (hasKey() != other.hasKey()) return false;
+      if (hasKey()) {
+        if (!getKey()
+            .equals(other.getKey())) return false;
       }
       if (hasValue() != other.hasValue()) return false;
       if (hasValue()) {
         if (!getValue()
             .equals(other.getValue())) return false;
       }
+      if (hasId() != other.hasId()) return false;
+      if (hasId()) {
+        if (getId()
+            != other.getId()) return false;
+      }
+      if (!getBatchList()
+          .equals(other.getBatchList())) return false;
+      if (hasClient() != other.hasClient()) return false;
+      if (hasClient()) {
+        if (!getClient()
+            .equals(other.getClient())) return false;
+      }
+      if (hasPriority() != other.hasPriority()) return false;
+      if (hasPriority()) {
+        if (priority_ != other.priority_) return false;
+      }
+      if (hasEnd() != other.hasEnd()) return false;
+      if (hasEnd()) {
+        if (!getEnd()
+            .equals(other.getEnd())) return false;
+      }
+      if (hasLimit() != other.hasLimit()) return false;
+      if (hasLimit()) {
+        if (getLimit()
+            != other.getLimit()) return false;
+      }
+      if (hasCursor() != other.hasCursor()) return false;
+      if (hasCursor()) {
+        if (!getCursor()
+            .equals(other.getCursor())) return false;
+      }
+      if (hasCredit() != other.hasCredit()) return false;
+      if (hasCredit()) {
+        if (getCredit()
+            != other.getCredit()) return false;
+      }
+      if (hasTtl() != other.hasTtl()) return false;
+      if (hasTtl()) {
+        if (getTtl()
+            != other.getTtl()) return false;
+      }
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -516,6 +1406,44 @@ public final class DatabaseProtos {
         hash = (37 * hash) + VALUE_FIELD_NUMBER;
         hash = (53 * hash) + getValue().hashCode();
       }
+      if (hasId()) {
+        hash = (37 * hash) + ID_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getId());
+      }
+      if (getBatchCount() > 0) {
+        hash = (37 * hash) + BATCH_FIELD_NUMBER;
+        hash = (53 * hash) + getBatchList().hashCode();
+      }
+      if (hasClient()) {
+        hash = (37 * hash) + CLIENT_FIELD_NUMBER;
+        hash = (53 * hash) + getClient().hashCode();
+      }
+      if (hasPriority()) {
+        hash = (37 * hash) + PRIORITY_FIELD_NUMBER;
+        hash = (53 * hash) + priority_;
+      }
+      if (hasEnd()) {
+        hash = (37 * hash) + END_FIELD_NUMBER;
+        hash = (53 * hash) + getEnd().hashCode();
+      }
+      if (hasLimit()) {
+        hash = (37 * hash) + LIMIT_FIELD_NUMBER;
+        hash = (53 * hash) + getLimit();
+      }
+      if (hasCursor()) {
+        hash = (37 * hash) + CURSOR_FIELD_NUMBER;
+        hash = (53 * hash) + getCursor().hashCode();
+      }
+      if (hasCredit()) {
+        hash = (37 * hash) + CREDIT_FIELD_NUMBER;
+        hash = (53 * hash) + getCredit();
+      }
+      if (hasTtl()) {
+        hash = (37 * hash) + TTL_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTtl());
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -648,6 +1576,7 @@ public final class DatabaseProtos {
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessageV3
                 .alwaysUseFieldBuilders) {
+          getBatchFieldBuilder();
         }
       }
       @java.lang.Override
@@ -659,6 +1588,28 @@ public final class DatabaseProtos {
         bitField0_ = (bitField0_ & ~0x00000002);
         value_ = "";
         bitField0_ = (bitField0_ & ~0x00000004);
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        } else {
+          batchBuilder_.clear();
+        }
+        client_ = "";
+        bitField0_ = (bitField0_ & ~0x00000020);
+        priority_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        end_ = "";
+        bitField0_ = (bitField0_ & ~0x00000080);
+        limit_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000100);
+        cursor_ = "";
+        bitField0_ = (bitField0_ & ~0x00000200);
+        credit_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000400);
+        ttl_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000800);
         return this;
       }
 
@@ -699,6 +1650,47 @@ public final class DatabaseProtos {
           to_bitField0_ |= 0x00000004;
         }
         result.value_ = value_;
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.id_ = id_;
+          to_bitField0_ |= 0x00000008;
+        }
+        if (batchBuilder_ == null) {
+          if (((bitField0_ & 0x00000010) != 0)) {
+            batch_ = java.util.Collections.unmodifiableList(batch_);
+            bitField0_ = (bitField0_ & ~0x00000010);
+          }
+          result.batch_ = batch_;
+        } else {
+          result.batch_ = batchBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.client_ = client_;
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.priority_ = priority_;
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.end_ = end_;
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.limit_ = limit_;
+          to_bitField0_ |= 0x00000080;
+        }
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          to_bitField0_ |= 0x00000100;
+        }
+        result.cursor_ = cursor_;
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.credit_ = credit_;
+          to_bitField0_ |= 0x00000200;
+        }
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.ttl_ = ttl_;
+          to_bitField0_ |= 0x00000400;
+        }
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -761,6 +1753,62 @@ public final class DatabaseProtos {
           value_ = other.value_;
           onChanged();
         }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (batchBuilder_ == null) {
+          if (!other.batch_.isEmpty()) {
+            if (batch_.isEmpty()) {
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+            } else {
+              ensureBatchIsMutable();
+              batch_.addAll(other.batch_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.batch_.isEmpty()) {
+            if (batchBuilder_.isEmpty()) {
+              batchBuilder_.dispose();
+              batchBuilder_ = null;
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+              batchBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getBatchFieldBuilder() : null;
+            } else {
+              batchBuilder_.addAllMessages(other.batch_);
+            }
+          }
+        }
+        if (other.hasClient()) {
+          bitField0_ |= 0x00000020;
+          client_ = other.client_;
+          onChanged();
+        }
+        if (other.hasPriority()) {
+          setPriority(other.getPriority());
+        }
+        if (other.hasEnd()) {
+          bitField0_ |= 0x00000080;
+          end_ = other.end_;
+          onChanged();
+        }
+        if (other.hasLimit()) {
+          setLimit(other.getLimit());
+        }
+        if (other.hasCursor()) {
+          bitField0_ |= 0x00000200;
+          cursor_ = other.cursor_;
+          onChanged();
+        }
+        if (other.hasCredit()) {
+          setCredit(other.getCredit());
+        }
+        if (other.hasTtl()) {
+          setTtl(other.getTtl());
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -847,7 +1895,7 @@ public final class DatabaseProtos {
       private java.lang.Object key_ = "";
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -857,7 +1905,7 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -878,7 +1926,7 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -898,7 +1946,7 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -915,7 +1963,7 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -928,7 +1976,7 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The key to get, set or delete.
+       * The key to get, set or delete, or the first key of a SCAN.
        * </pre>
        *
        * <code>optional string key = 2;</code>
@@ -1043,11 +2091,878 @@ public final class DatabaseProtos {
         onChanged();
         return this;
       }
-      @java.lang.Override
-      public final Builder setUnknownFields(
-          final com.google.protobuf.UnknownFieldSet unknownFields) {
-        return super.setUnknownFields(unknownFields);
-      }
+
+      private long id_ ;
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000008;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<sfsu.DatabaseProtos.Request> batch_ =
+        java.util.Collections.emptyList();
+      private void ensureBatchIsMutable() {
+        if (!((bitField0_ & 0x00000010) != 0)) {
+          batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Request>(batch_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder> batchBuilder_;
+
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Request> getBatchList() {
+        if (batchBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(batch_);
+        } else {
+          return batchBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public int getBatchCount() {
+        if (batchBuilder_ == null) {
+          return batch_.size();
+        } else {
+          return batchBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request getBatch(int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);
+        } else {
+          return batchBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.set(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addAllBatch(
+          java.lang.Iterable<? extends sfsu.DatabaseProtos.Request> values) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, batch_);
+          onChanged();
+        } else {
+          batchBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder clearBatch() {
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+          onChanged();
+        } else {
+          batchBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder removeBatch(int index) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.remove(index);
+          onChanged();
+        } else {
+          batchBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder getBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+          int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);  } else {
+          return batchBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+           getBatchOrBuilderList() {
+        if (batchBuilder_ != null) {
+          return batchBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(batch_);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder addBatchBuilder() {
+        return getBatchFieldBuilder().addBuilder(
+            sfsu.DatabaseProtos.Request.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder addBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().addBuilder(
+            index, sfsu.DatabaseProtos.Request.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Request.Builder> 
+           getBatchBuilderList() {
+        return getBatchFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder> 
+          getBatchFieldBuilder() {
+        if (batchBuilder_ == null) {
+          batchBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder>(
+                  batch_,
+                  ((bitField0_ & 0x00000010) != 0),
+                  getParentForChildren(),
+                  isClean());
+          batch_ = null;
+        }
+        return batchBuilder_;
+      }
+
+      private java.lang.Object client_ = "";
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public boolean hasClient() {
+        return ((bitField0_ & 0x00000020) != 0);
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public java.lang.String getClient() {
+        java.lang.Object ref = client_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            client_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public com.google.protobuf.ByteString
+          getClientBytes() {
+        java.lang.Object ref = client_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          client_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder setClient(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        client_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder clearClient() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        client_ = getDefaultInstance().getClient();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder setClientBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        client_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int priority_ = 0;
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public boolean hasPriority() {
+        return ((bitField0_ & 0x00000040) != 0);
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Priority getPriority() {
+        @SuppressWarnings("deprecation")
+        sfsu.DatabaseProtos.Request.Priority result = sfsu.DatabaseProtos.Request.Priority.valueOf(priority_);
+        return result == null ? sfsu.DatabaseProtos.Request.Priority.HIGH : result;
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public Builder setPriority(sfsu.DatabaseProtos.Request.Priority value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000040;
+        priority_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public Builder clearPriority() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        priority_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object end_ = "";
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public boolean hasEnd() {
+        return ((bitField0_ & 0x00000080) != 0);
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public java.lang.String getEnd() {
+        java.lang.Object ref = end_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            end_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public com.google.protobuf.ByteString
+          getEndBytes() {
+        java.lang.Object ref = end_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          end_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder setEnd(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        end_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder clearEnd() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        end_ = getDefaultInstance().getEnd();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder setEndBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        end_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int limit_ ;
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public boolean hasLimit() {
+        return ((bitField0_ & 0x00000100) != 0);
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public int getLimit() {
+        return limit_;
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public Builder setLimit(int value) {
+        bitField0_ |= 0x00000100;
+        limit_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public Builder clearLimit() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        limit_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object cursor_ = "";
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public boolean hasCursor() {
+        return ((bitField0_ & 0x00000200) != 0);
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public java.lang.String getCursor() {
+        java.lang.Object ref = cursor_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            cursor_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCursorBytes() {
+        java.lang.Object ref = cursor_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          cursor_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder setCursor(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder clearCursor() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        cursor_ = getDefaultInstance().getCursor();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder setCursorBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int credit_ ;
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public boolean hasCredit() {
+        return ((bitField0_ & 0x00000400) != 0);
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public int getCredit() {
+        return credit_;
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public Builder setCredit(int value) {
+        bitField0_ |= 0x00000400;
+        credit_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public Builder clearCredit() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        credit_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long ttl_ ;
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public boolean hasTtl() {
+        return ((bitField0_ & 0x00000800) != 0);
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public long getTtl() {
+        return ttl_;
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public Builder setTtl(long value) {
+        bitField0_ |= 0x00000800;
+        ttl_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public Builder clearTtl() {
+        bitField0_ = (bitField0_ & ~0x00000800);
+        ttl_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
 
       @java.lang.Override
       public final Builder mergeUnknownFields(
@@ -1115,42 +3030,168 @@ public final class DatabaseProtos {
      *
      * <code>optional string key = 1;</code>
      */
-    java.lang.String getKey();
+    java.lang.String getKey();
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getKeyBytes();
+
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    boolean hasValue();
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    java.lang.String getValue();
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getValueBytes();
+
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    boolean hasId();
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    long getId();
+
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    boolean hasStatus();
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    sfsu.DatabaseProtos.Response.Status getStatus();
+
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    java.util.List<sfsu.DatabaseProtos.Response> 
+        getBatchList();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.Response getBatch(int index);
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    int getBatchCount();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+        getBatchOrBuilderList();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+        int index);
+
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    boolean hasCursor();
     /**
      * <pre>
-     * The key that was operated upon.
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
      * </pre>
      *
-     * <code>optional string key = 1;</code>
+     * <code>optional string cursor = 6;</code>
      */
-    com.google.protobuf.ByteString
-        getKeyBytes();
-
+    java.lang.String getCursor();
     /**
      * <pre>
-     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
      * </pre>
      *
-     * <code>optional string value = 2;</code>
+     * <code>optional string cursor = 6;</code>
      */
-    boolean hasValue();
+    com.google.protobuf.ByteString
+        getCursorBytes();
+
     /**
      * <pre>
-     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * Set on every response of a streamed SCAN but the last one.
      * </pre>
      *
-     * <code>optional string value = 2;</code>
+     * <code>optional bool more = 7;</code>
      */
-    java.lang.String getValue();
+    boolean hasMore();
     /**
      * <pre>
-     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * Set on every response of a streamed SCAN but the last one.
      * </pre>
      *
-     * <code>optional string value = 2;</code>
+     * <code>optional bool more = 7;</code>
      */
-    com.google.protobuf.ByteString
-        getValueBytes();
+    boolean getMore();
   }
   /**
    * <pre>
@@ -1171,6 +3212,9 @@ public final class DatabaseProtos {
     private Response() {
       key_ = "";
       value_ = "";
+      status_ = 0;
+      batch_ = java.util.Collections.emptyList();
+      cursor_ = "";
     }
 
     @java.lang.Override
@@ -1209,6 +3253,43 @@ public final class DatabaseProtos {
               value_ = bs;
               break;
             }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              id_ = input.readUInt64();
+              break;
+            }
+            case 32: {
+              int rawValue = input.readEnum();
+                @SuppressWarnings("deprecation")
+              sfsu.DatabaseProtos.Response.Status value = sfsu.DatabaseProtos.Response.Status.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(4, rawValue);
+              } else {
+                bitField0_ |= 0x00000008;
+                status_ = rawValue;
+              }
+              break;
+            }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) != 0)) {
+                batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Response>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              batch_.add(
+                  input.readMessage(sfsu.DatabaseProtos.Response.PARSER, extensionRegistry));
+              break;
+            }
+            case 50: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000010;
+              cursor_ = bs;
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000020;
+              more_ = input.readBool();
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -1224,6 +3305,9 @@ public final class DatabaseProtos {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000010) != 0)) {
+          batch_ = java.util.Collections.unmodifiableList(batch_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -1241,6 +3325,125 @@ public final class DatabaseProtos {
               sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
     }
 
+    /**
+     * Protobuf enum {@code sfsu.Response.Status}
+     */
+    public enum Status
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>OK = 0;</code>
+       */
+      OK(0),
+      /**
+       * <pre>
+       * The request could not be executed. A read changed nothing, but a write may have been applied before it failed,
+       * for instance when the write-ahead log could not force it to disk; whether it survives a restart is unknown.
+       * </pre>
+       *
+       * <code>ERROR = 1;</code>
+       */
+      ERROR(1),
+      /**
+       * <pre>
+       * The server is overloaded and turned the request away without executing it. Nothing was changed; the client
+       * may retry later.
+       * </pre>
+       *
+       * <code>BUSY = 2;</code>
+       */
+      BUSY(2),
+      ;
+
+      /**
+       * <code>OK = 0;</code>
+       */
+      public static final int OK_VALUE = 0;
+      /**
+       * <pre>
+       * The request could not be executed. A read changed nothing, but a write may have been applied before it failed,
+       * for instance when the write-ahead log could not force it to disk; whether it survives a restart is unknown.
+       * </pre>
+       *
+       * <code>ERROR = 1;</code>
+       */
+      public static final int ERROR_VALUE = 1;
+      /**
+       * <pre>
+       * The server is overloaded and turned the request away without executing it. Nothing was changed; the client
+       * may retry later.
+       * </pre>
+       *
+       * <code>BUSY = 2;</code>
+       */
+      public static final int BUSY_VALUE = 2;
+
+
+      public final int getNumber() {
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Status valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static Status forNumber(int value) {
+        switch (value) {
+          case 0: return OK;
+          case 1: return ERROR;
+          case 2: return BUSY;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Status> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Status>() {
+              public Status findValueByNumber(int number) {
+                return Status.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.Response.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final Status[] VALUES = values();
+
+      public static Status valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int value;
+
+      private Status(int value) {
+        this.value = value;
+      }
+
+      // @@protoc_insertion_point(enum_scope:sfsu.Response.Status)
+    }
+
     private int bitField0_;
     public static final int KEY_FIELD_NUMBER = 1;
     private volatile java.lang.Object key_;
@@ -1350,6 +3553,191 @@ public final class DatabaseProtos {
       }
     }
 
+    public static final int ID_FIELD_NUMBER = 3;
+    private long id_;
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    public long getId() {
+      return id_;
+    }
+
+    public static final int STATUS_FIELD_NUMBER = 4;
+    private int status_;
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    public boolean hasStatus() {
+      return ((bitField0_ & 0x00000008) != 0);
+    }
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    public sfsu.DatabaseProtos.Response.Status getStatus() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Response.Status result = sfsu.DatabaseProtos.Response.Status.valueOf(status_);
+      return result == null ? sfsu.DatabaseProtos.Response.Status.OK : result;
+    }
+
+    public static final int BATCH_FIELD_NUMBER = 5;
+    private java.util.List<sfsu.DatabaseProtos.Response> batch_;
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public java.util.List<sfsu.DatabaseProtos.Response> getBatchList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+        getBatchOrBuilderList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public int getBatchCount() {
+      return batch_.size();
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.Response getBatch(int index) {
+      return batch_.get(index);
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+        int index) {
+      return batch_.get(index);
+    }
+
+    public static final int CURSOR_FIELD_NUMBER = 6;
+    private volatile java.lang.Object cursor_;
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public boolean hasCursor() {
+      return ((bitField0_ & 0x00000010) != 0);
+    }
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public java.lang.String getCursor() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          cursor_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCursorBytes() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        cursor_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    public static final int MORE_FIELD_NUMBER = 7;
+    private boolean more_;
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    public boolean hasMore() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    public boolean getMore() {
+      return more_;
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -1370,6 +3758,21 @@ public final class DatabaseProtos {
       if (((bitField0_ & 0x00000002) != 0)) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 2, value_);
       }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        output.writeUInt64(3, id_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeEnum(4, status_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        output.writeMessage(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, cursor_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeBool(7, more_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -1385,6 +3788,25 @@ public final class DatabaseProtos {
       if (((bitField0_ & 0x00000002) != 0)) {
         size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, value_);
       }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, id_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(4, status_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, cursor_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(7, more_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1410,6 +3832,27 @@ public final class DatabaseProtos {
         if (!getValue()
             .equals(other.getValue())) return false;
       }
+      if (hasId() != other.hasId()) return false;
+      if (hasId()) {
+        if (getId()
+            != other.getId()) return false;
+      }
+      if (hasStatus() != other.hasStatus()) return false;
+      if (hasStatus()) {
+        if (status_ != other.status_) return false;
+      }
+      if (!getBatchList()
+          .equals(other.getBatchList())) return false;
+      if (hasCursor() != other.hasCursor()) return false;
+      if (hasCursor()) {
+        if (!getCursor()
+            .equals(other.getCursor())) return false;
+      }
+      if (hasMore() != other.hasMore()) return false;
+      if (hasMore()) {
+        if (getMore()
+            != other.getMore()) return false;
+      }
       if (!unknownFields.equals(other.unknownFields)) return false;
       return true;
     }
@@ -1425,9 +3868,31 @@ public final class DatabaseProtos {
         hash = (37 * hash) + KEY_FIELD_NUMBER;
         hash = (53 * hash) + getKey().hashCode();
       }
-      if (hasValue()) {
-        hash = (37 * hash) + VALUE_FIELD_NUMBER;
-        hash = (53 * hash) + getValue().hashCode();
+      if (hasValue()) {
+        hash = (37 * hash) + VALUE_FIELD_NUMBER;
+        hash = (53 * hash) + getValue().hashCode();
+      }
+      if (hasId()) {
+        hash = (37 * hash) + ID_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getId());
+      }
+      if (hasStatus()) {
+        hash = (37 * hash) + STATUS_FIELD_NUMBER;
+        hash = (53 * hash) + status_;
+      }
+      if (getBatchCount() > 0) {
+        hash = (37 * hash) + BATCH_FIELD_NUMBER;
+        hash = (53 * hash) + getBatchList().hashCode();
+      }
+      if (hasCursor()) {
+        hash = (37 * hash) + CURSOR_FIELD_NUMBER;
+        hash = (53 * hash) + getCursor().hashCode();
+      }
+      if (hasMore()) {
+        hash = (37 * hash) + MORE_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getMore());
       }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
@@ -1539,288 +4004,899 @@ public final class DatabaseProtos {
           getDescriptor() {
         return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
       }
-
-      @java.lang.Override
-      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-          internalGetFieldAccessorTable() {
-        return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
-            .ensureFieldAccessorsInitialized(
-                sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
+      }
+
+      // Construct using sfsu.DatabaseProtos.Response.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getBatchFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        key_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        value_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        status_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        } else {
+          batchBuilder_.clear();
+        }
+        cursor_ = "";
+        bitField0_ = (bitField0_ & ~0x00000020);
+        more_ = false;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
+        return sfsu.DatabaseProtos.Response.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response build() {
+        sfsu.DatabaseProtos.Response result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response buildPartial() {
+        sfsu.DatabaseProtos.Response result = new sfsu.DatabaseProtos.Response(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.key_ = key_;
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.value_ = value_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.id_ = id_;
+          to_bitField0_ |= 0x00000004;
+        }
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.status_ = status_;
+        if (batchBuilder_ == null) {
+          if (((bitField0_ & 0x00000010) != 0)) {
+            batch_ = java.util.Collections.unmodifiableList(batch_);
+            bitField0_ = (bitField0_ & ~0x00000010);
+          }
+          result.batch_ = batch_;
+        } else {
+          result.batch_ = batchBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.cursor_ = cursor_;
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          result.more_ = more_;
+          to_bitField0_ |= 0x00000020;
+        }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof sfsu.DatabaseProtos.Response) {
+          return mergeFrom((sfsu.DatabaseProtos.Response)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(sfsu.DatabaseProtos.Response other) {
+        if (other == sfsu.DatabaseProtos.Response.getDefaultInstance()) return this;
+        if (other.hasKey()) {
+          bitField0_ |= 0x00000001;
+          key_ = other.key_;
+          onChanged();
+        }
+        if (other.hasValue()) {
+          bitField0_ |= 0x00000002;
+          value_ = other.value_;
+          onChanged();
+        }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (other.hasStatus()) {
+          setStatus(other.getStatus());
+        }
+        if (batchBuilder_ == null) {
+          if (!other.batch_.isEmpty()) {
+            if (batch_.isEmpty()) {
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+            } else {
+              ensureBatchIsMutable();
+              batch_.addAll(other.batch_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.batch_.isEmpty()) {
+            if (batchBuilder_.isEmpty()) {
+              batchBuilder_.dispose();
+              batchBuilder_ = null;
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+              batchBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getBatchFieldBuilder() : null;
+            } else {
+              batchBuilder_.addAllMessages(other.batch_);
+            }
+          }
+        }
+        if (other.hasCursor()) {
+          bitField0_ |= 0x00000020;
+          cursor_ = other.cursor_;
+          onChanged();
+        }
+        if (other.hasMore()) {
+          setMore(other.getMore());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        sfsu.DatabaseProtos.Response parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (sfsu.DatabaseProtos.Response) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object key_ = "";
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public boolean hasKey() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public java.lang.String getKey() {
+        java.lang.Object ref = key_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            key_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getKeyBytes() {
+        java.lang.Object ref = key_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          key_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder setKey(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        key_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder clearKey() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        key_ = getDefaultInstance().getKey();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder setKeyBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        key_ = value;
+        onChanged();
+        return this;
       }
 
-      // Construct using sfsu.DatabaseProtos.Response.newBuilder()
-      private Builder() {
-        maybeForceBuilderInitialization();
+      private java.lang.Object value_ = "";
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000002) != 0);
       }
-
-      private Builder(
-          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-        super(parent);
-        maybeForceBuilderInitialization();
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public java.lang.String getValue() {
+        java.lang.Object ref = value_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            value_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
       }
-      private void maybeForceBuilderInitialization() {
-        if (com.google.protobuf.GeneratedMessageV3
-                .alwaysUseFieldBuilders) {
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getValueBytes() {
+        java.lang.Object ref = value_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          value_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
         }
       }
-      @java.lang.Override
-      public Builder clear() {
-        super.clear();
-        key_ = "";
-        bitField0_ = (bitField0_ & ~0x00000001);
-        value_ = "";
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder setValue(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        value_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder clearValue() {
         bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = getDefaultInstance().getValue();
+        onChanged();
         return this;
       }
-
-      @java.lang.Override
-      public com.google.protobuf.Descriptors.Descriptor
-          getDescriptorForType() {
-        return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder setValueBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        value_ = value;
+        onChanged();
+        return this;
       }
 
-      @java.lang.Override
-      public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
-        return sfsu.DatabaseProtos.Response.getDefaultInstance();
+      private long id_ ;
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000004) != 0);
       }
-
-      @java.lang.Override
-      public sfsu.DatabaseProtos.Response build() {
-        sfsu.DatabaseProtos.Response result = buildPartial();
-        if (!result.isInitialized()) {
-          throw newUninitializedMessageException(result);
-        }
-        return result;
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public long getId() {
+        return id_;
       }
-
-      @java.lang.Override
-      public sfsu.DatabaseProtos.Response buildPartial() {
-        sfsu.DatabaseProtos.Response result = new sfsu.DatabaseProtos.Response(this);
-        int from_bitField0_ = bitField0_;
-        int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) != 0)) {
-          to_bitField0_ |= 0x00000001;
-        }
-        result.key_ = key_;
-        if (((from_bitField0_ & 0x00000002) != 0)) {
-          to_bitField0_ |= 0x00000002;
-        }
-        result.value_ = value_;
-        result.bitField0_ = to_bitField0_;
-        onBuilt();
-        return result;
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000004;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        id_ = 0L;
+        onChanged();
+        return this;
       }
 
-      @java.lang.Override
-      public Builder clone() {
-        return super.clone();
+      private int status_ = 0;
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public boolean hasStatus() {
+        return ((bitField0_ & 0x00000008) != 0);
       }
-      @java.lang.Override
-      public Builder setField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return super.setField(field, value);
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Status getStatus() {
+        @SuppressWarnings("deprecation")
+        sfsu.DatabaseProtos.Response.Status result = sfsu.DatabaseProtos.Response.Status.valueOf(status_);
+        return result == null ? sfsu.DatabaseProtos.Response.Status.OK : result;
       }
-      @java.lang.Override
-      public Builder clearField(
-          com.google.protobuf.Descriptors.FieldDescriptor field) {
-        return super.clearField(field);
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public Builder setStatus(sfsu.DatabaseProtos.Response.Status value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000008;
+        status_ = value.getNumber();
+        onChanged();
+        return this;
       }
-      @java.lang.Override
-      public Builder clearOneof(
-          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-        return super.clearOneof(oneof);
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public Builder clearStatus() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        status_ = 0;
+        onChanged();
+        return this;
       }
-      @java.lang.Override
-      public Builder setRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          int index, java.lang.Object value) {
-        return super.setRepeatedField(field, index, value);
+
+      private java.util.List<sfsu.DatabaseProtos.Response> batch_ =
+        java.util.Collections.emptyList();
+      private void ensureBatchIsMutable() {
+        if (!((bitField0_ & 0x00000010) != 0)) {
+          batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Response>(batch_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder> batchBuilder_;
+
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Response> getBatchList() {
+        if (batchBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(batch_);
+        } else {
+          return batchBuilder_.getMessageList();
+        }
       }
-      @java.lang.Override
-      public Builder addRepeatedField(
-          com.google.protobuf.Descriptors.FieldDescriptor field,
-          java.lang.Object value) {
-        return super.addRepeatedField(field, value);
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public int getBatchCount() {
+        if (batchBuilder_ == null) {
+          return batch_.size();
+        } else {
+          return batchBuilder_.getCount();
+        }
       }
-      @java.lang.Override
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof sfsu.DatabaseProtos.Response) {
-          return mergeFrom((sfsu.DatabaseProtos.Response)other);
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response getBatch(int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);
         } else {
-          super.mergeFrom(other);
-          return this;
+          return batchBuilder_.getMessage(index);
         }
       }
-
-      public Builder mergeFrom(sfsu.DatabaseProtos.Response other) {
-        if (other == sfsu.DatabaseProtos.Response.getDefaultInstance()) return this;
-        if (other.hasKey()) {
-          bitField0_ |= 0x00000001;
-          key_ = other.key_;
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.set(index, value);
           onChanged();
+        } else {
+          batchBuilder_.setMessage(index, value);
         }
-        if (other.hasValue()) {
-          bitField0_ |= 0x00000002;
-          value_ = other.value_;
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.set(index, builderForValue.build());
           onChanged();
+        } else {
+          batchBuilder_.setMessage(index, builderForValue.build());
         }
-        this.mergeUnknownFields(other.unknownFields);
-        onChanged();
         return this;
       }
-
-      @java.lang.Override
-      public final boolean isInitialized() {
-        return true;
-      }
-
-      @java.lang.Override
-      public Builder mergeFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws java.io.IOException {
-        sfsu.DatabaseProtos.Response parsedMessage = null;
-        try {
-          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (sfsu.DatabaseProtos.Response) e.getUnfinishedMessage();
-          throw e.unwrapIOException();
-        } finally {
-          if (parsedMessage != null) {
-            mergeFrom(parsedMessage);
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addBatch(sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
           }
+          ensureBatchIsMutable();
+          batch_.add(value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(value);
         }
         return this;
       }
-      private int bitField0_;
-
-      private java.lang.Object key_ = "";
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public boolean hasKey() {
-        return ((bitField0_ & 0x00000001) != 0);
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, value);
+        }
+        return this;
       }
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public java.lang.String getKey() {
-        java.lang.Object ref = key_;
-        if (!(ref instanceof java.lang.String)) {
-          com.google.protobuf.ByteString bs =
-              (com.google.protobuf.ByteString) ref;
-          java.lang.String s = bs.toStringUtf8();
-          if (bs.isValidUtf8()) {
-            key_ = s;
-          }
-          return s;
+      public Builder addBatch(
+          sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(builderForValue.build());
+          onChanged();
         } else {
-          return (java.lang.String) ref;
+          batchBuilder_.addMessage(builderForValue.build());
         }
+        return this;
       }
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public com.google.protobuf.ByteString
-          getKeyBytes() {
-        java.lang.Object ref = key_;
-        if (ref instanceof String) {
-          com.google.protobuf.ByteString b = 
-              com.google.protobuf.ByteString.copyFromUtf8(
-                  (java.lang.String) ref);
-          key_ = b;
-          return b;
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(index, builderForValue.build());
+          onChanged();
         } else {
-          return (com.google.protobuf.ByteString) ref;
+          batchBuilder_.addMessage(index, builderForValue.build());
         }
+        return this;
       }
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public Builder setKey(
-          java.lang.String value) {
-        if (value == null) {
-    throw new NullPointerException();
-  }
-  bitField0_ |= 0x00000001;
-        key_ = value;
-        onChanged();
+      public Builder addAllBatch(
+          java.lang.Iterable<? extends sfsu.DatabaseProtos.Response> values) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, batch_);
+          onChanged();
+        } else {
+          batchBuilder_.addAllMessages(values);
+        }
         return this;
       }
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public Builder clearKey() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        key_ = getDefaultInstance().getKey();
-        onChanged();
+      public Builder clearBatch() {
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+          onChanged();
+        } else {
+          batchBuilder_.clear();
+        }
         return this;
       }
       /**
        * <pre>
-       * The key that was operated upon.
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
        * </pre>
        *
-       * <code>optional string key = 1;</code>
+       * <code>repeated .sfsu.Response batch = 5;</code>
        */
-      public Builder setKeyBytes(
-          com.google.protobuf.ByteString value) {
-        if (value == null) {
-    throw new NullPointerException();
-  }
-  bitField0_ |= 0x00000001;
-        key_ = value;
-        onChanged();
+      public Builder removeBatch(int index) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.remove(index);
+          onChanged();
+        } else {
+          batchBuilder_.remove(index);
+        }
         return this;
       }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder getBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+          int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);  } else {
+          return batchBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+           getBatchOrBuilderList() {
+        if (batchBuilder_ != null) {
+          return batchBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(batch_);
+        }
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder addBatchBuilder() {
+        return getBatchFieldBuilder().addBuilder(
+            sfsu.DatabaseProtos.Response.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder addBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().addBuilder(
+            index, sfsu.DatabaseProtos.Response.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Response.Builder> 
+           getBatchBuilderList() {
+        return getBatchFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder> 
+          getBatchFieldBuilder() {
+        if (batchBuilder_ == null) {
+          batchBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder>(
+                  batch_,
+                  ((bitField0_ & 0x00000010) != 0),
+                  getParentForChildren(),
+                  isClean());
+          batch_ = null;
+        }
+        return batchBuilder_;
+      }
 
-      private java.lang.Object value_ = "";
+      private java.lang.Object cursor_ = "";
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
-      public boolean hasValue() {
-        return ((bitField0_ & 0x00000002) != 0);
+      public boolean hasCursor() {
+        return ((bitField0_ & 0x00000020) != 0);
       }
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
-      public java.lang.String getValue() {
-        java.lang.Object ref = value_;
+      public java.lang.String getCursor() {
+        java.lang.Object ref = cursor_;
         if (!(ref instanceof java.lang.String)) {
           com.google.protobuf.ByteString bs =
               (com.google.protobuf.ByteString) ref;
           java.lang.String s = bs.toStringUtf8();
           if (bs.isValidUtf8()) {
-            value_ = s;
+            cursor_ = s;
           }
           return s;
         } else {
@@ -1829,19 +4905,19 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
       public com.google.protobuf.ByteString
-          getValueBytes() {
-        java.lang.Object ref = value_;
+          getCursorBytes() {
+        java.lang.Object ref = cursor_;
         if (ref instanceof String) {
           com.google.protobuf.ByteString b = 
               com.google.protobuf.ByteString.copyFromUtf8(
                   (java.lang.String) ref);
-          value_ = b;
+          cursor_ = b;
           return b;
         } else {
           return (com.google.protobuf.ByteString) ref;
@@ -1849,48 +4925,96 @@ public final class DatabaseProtos {
       }
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
-      public Builder setValue(
+      public Builder setCursor(
           java.lang.String value) {
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000002;
-        value_ = value;
+  bitField0_ |= 0x00000020;
+        cursor_ = value;
         onChanged();
         return this;
       }
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
-      public Builder clearValue() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        value_ = getDefaultInstance().getValue();
+      public Builder clearCursor() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        cursor_ = getDefaultInstance().getCursor();
         onChanged();
         return this;
       }
       /**
        * <pre>
-       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
        * </pre>
        *
-       * <code>optional string value = 2;</code>
+       * <code>optional string cursor = 6;</code>
        */
-      public Builder setValueBytes(
+      public Builder setCursorBytes(
           com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000002;
-        value_ = value;
+  bitField0_ |= 0x00000020;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+
+      private boolean more_ ;
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public boolean hasMore() {
+        return ((bitField0_ & 0x00000040) != 0);
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public boolean getMore() {
+        return more_;
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public Builder setMore(boolean value) {
+        bitField0_ |= 0x00000040;
+        more_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public Builder clearMore() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        more_ = false;
         onChanged();
         return this;
       }
@@ -1966,12 +5090,22 @@ public final class DatabaseProtos {
       descriptor;
   static {
     java.lang.String[] descriptorData = {
-      "\n\027src/sfsu/database.proto\022\004sfsu\"\204\001\n\007Requ" +
+      "\n\027src/sfsu/database.proto\022\004sfsu\"\375\002\n\007Requ" +
       "est\022.\n\toperation\030\001 \001(\0162\033.sfsu.Request.Op" +
-      "erationType\022\013\n\003key\030\002 \001(\t\022\r\n\005value\030\003 \001(\t\"" +
-      "-\n\rOperationType\022\007\n\003GET\020\000\022\007\n\003PUT\020\001\022\n\n\006DE" +
-      "LETE\020\002\"&\n\010Response\022\013\n\003key\030\001 \001(\t\022\r\n\005value" +
-      "\030\002 \001(\tB\026\n\004sfsuB\016DatabaseProtos"
+      "erationType\022\013\n\003key\030\002 \001(\t\022\r\n\005value\030\003 \001(\t\022" +
+      "\n\n\002id\030\004 \001(\004\022\034\n\005batch\030\005 \003(\0132\r.sfsu.Reques" +
+      "t\022\016\n\006client\030\006 \001(\t\022(\n\010priority\030\007 \001(\0162\026.sf" +
+      "su.Request.Priority\022\013\n\003end\030\010 \001(\t\022\r\n\005limi" +
+      "t\030\t \001(\r\022\016\n\006cursor\030\n \001(\t\022\016\n\006credit\030\013 \001(\r\022" +
+      "\013\n\003ttl\030\014 \001(\004\"Z\n\rOperationType\022\007\n\003GET\020\000\022\007" +
+      "\n\003PUT\020\001\022\n\n\006DELETE\020\002\022\t\n\005BATCH\020\003\022\010\n\004SCAN\020\004" +
+      "\022\n\n\006CREDIT\020\005\022\n\n\006CANCEL\020\006\"\035\n\010Priority\022\010\n\004" +
+      "HIGH\020\000\022\007\n\003LOW\020\001\"\275\001\n\010Response\022\013\n\003key\030\001 \001(" +
+      "\t\022\r\n\005value\030\002 \001(\t\022\n\n\002id\030\003 \001(\004\022%\n\006status\030\004" +
+      " \001(\0162\025.sfsu.Response.Status\022\035\n\005batch\030\005 \003" +
+      "(\0132\016.sfsu.Response\022\016\n\006cursor\030\006 \001(\t\022\014\n\004mo" +
+      "re\030\007 \001(\010\"%\n\006Status\022\006\n\002OK\020\000\022\t\n\005ERROR\020\001\022\010\n" +
+      "\004BUSY\020\002B\026\n\004sfsuB\016DatabaseProtos"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -1990,13 +5124,13 @@ public final class DatabaseProtos {
     internal_static_sfsu_Request_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_sfsu_Request_descriptor,
-        new java.lang.String[] { "Operation", "Key", "Value", });
+        new java.lang.String[] { "Operation", "Key", "Value", "Id", "Batch", "Client", "Priority", "End", "Limit", "Cursor", "Credit", "Ttl", });
     internal_static_sfsu_Response_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_sfsu_Response_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_sfsu_Response_descriptor,
-        new java.lang.String[] { "Key", "Value", });
+        new java.lang.String[] { "Key", "Value", "Id", "Status", "Batch", "Cursor", "More", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
@@ -0,0 +1,107 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Loads the same keys into a BTreeDatabase and an LsmDatabase, each given the same memory, a page cache or memtables
+ * of MEMORY bytes, and compares them side by side: write throughput, GET latency for keys that exist and keys that do
+ * not, a full ordered iteration and the size on disk. For the B+tree it also reports how many pages a GET reads from
+ * the file, which should stay at most one however large the data set grows.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.BTreeBenchmark [keys] [seconds of reads] [directory]
+ */
+public class BTreeBenchmark {
+
+    static final int VALUE_SIZE = 100;
+    static final long MEMORY = 16 << 20;
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path parent = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+        report.println(String.format("%d keys of %d byte values, %d MB, with %d MB of cache or memtables", keys,
+                VALUE_SIZE, (long) keys * (VALUE_SIZE + Benchmark.key(0).size()) >> 20, MEMORY >> 20));
+
+        Path btreeDirectory = Files.createTempDirectory(parent, "btree");
+        BTreeDatabase btree = new BTreeDatabase(btreeDirectory.resolve("tree"),
+                (int) (MEMORY / BTreeDatabase.PAGE_SIZE));
+        Map<String, String> btreeResults = run(btree, keys, seconds, btree::checkpoint, btree::diskBytes);
+        btreeResults.put("tree height", Integer.toString(btree.height()));
+        btree.close();
+        Benchmark.delete(btreeDirectory);
+
+        Path lsmDirectory = Files.createTempDirectory(parent, "lsm");
+        LsmDatabase lsm = new LsmDatabase(lsmDirectory, MEMORY);
+        Map<String, String> lsmResults = run(lsm, keys, seconds, lsm::awaitCompaction, lsm::diskBytes);
+        lsmResults.put("tables", Integer.toString(lsm.tables()));
+        lsm.close();
+        Benchmark.delete(lsmDirectory);
+
+        report.println(String.format("%-28s %24s %24s", "", "btree", "lsm"));
+        for (String name : btreeResults.keySet()) {
+            report.println(String.format("%-28s %24s %24s", name, btreeResults.get(name),
+                    lsmResults.getOrDefault(name, "-")));
+        }
+        for (String name : lsmResults.keySet()) {
+            if (!btreeResults.containsKey(name)) {
+                report.println(String.format("%-28s %24s %24s", name, "-", lsmResults.get(name)));
+            }
+        }
+    }
+
+    interface Settle {
+        void run() throws IOException;
+    }
+
+    private static Map<String, String> run(StorageEngine database, int keys, int seconds, Settle settle,
+                                           LongSupplier size) throws Exception {
+        Map<String, String> results = new LinkedHashMap<>();
+        byte[] value = new byte[VALUE_SIZE];
+        long begin = System.nanoTime();
+        for (int i = 0; i < keys; ++i) {
+            ThreadLocalRandom.current().nextBytes(value);
+            database.PUT(Benchmark.key(Benchmark.scramble(i, keys)), ByteString.copyFrom(value));
+        }
+        settle.run();
+        results.put("PUTs/sec", String.format("%.0f", keys / ((System.nanoTime() - begin) / 1e9)));
+        results.put("disk MB", Long.toString(size.getAsLong() >> 20));
+
+        LongAdder misses = Metrics.counter("btree.cache.misses");
+        long missesBefore = misses.sum();
+        int gets = reads(results, "GET existing key", database, keys, 0, seconds);
+        if (database instanceof BTreeDatabase) {
+            results.put("pages read per GET", String.format("%.2f", (misses.sum() - missesBefore) / (double) gets));
+        }
+        reads(results, "GET missing key", database, keys, keys, seconds);
+
+        long[] count = new long[1];
+        begin = System.nanoTime();
+        database.forEach((key, v) -> ++count[0]);
+        double iterationSeconds = (System.nanoTime() - begin) / 1e9;
+        results.put("ordered iteration keys/sec", String.format("%.0f", count[0] / iterationSeconds));
+        return results;
+    }
+
+    private static int reads(Map<String, String> results, String name, StorageEngine database, int keys, int offset,
+                             int seconds) throws Exception {
+        Benchmark.Latencies latencies = Benchmark.reads(database, keys, offset, seconds * 1000L);
+        results.put(name + "/sec", String.format("%.0f", latencies.count() / (double) seconds));
+        results.put(name + " p50/p99 us", String.format("%.1f / %.1f", latencies.percentile(50) / 1e3,
+                latencies.percentile(99) / 1e3));
+        return latencies.count();
+    }
+}
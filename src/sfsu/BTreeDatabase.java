@@ -0,0 +1,821 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * A B+tree in a single file of fixed size pages, for read-heavy data sets larger than the heap. Every node is one
+ * page; keys and values live in the leaves, which are linked left to right for ordered iteration, and the inner nodes
+ * only route. The inner nodes are few and stay in the page cache, so a GET reads at most one page from disk.
+ * <p>
+ * Pages are read through a bounded PageCache and changed there. A checkpoint writes the changed pages back: first all
+ * of them, with a checksum, to a journal file next to the tree, which is forced, and only then over their old
+ * versions in the tree file. A crash during the in-place writes is repaired on open by writing the journal again; a
+ * crash while writing the journal leaves the tree file as of the previous checkpoint. A checkpoint runs whenever
+ * CHECKPOINT_PAGES pages are dirty, or half the cache if that is less, and on close(). Writes since the last checkpoint
+ * are lost if the server crashes; wrap the engine in a LoggedDatabase to log them ahead.
+ * <p>
+ * Page 0 holds the root, the number of pages, the number of keys and the first free page. A node page is a CRC32C of
+ * the rest of the page, the kind of node, the number of keys and a link: the right sibling of a leaf, or the leftmost
+ * child of an inner node. Then come the entries, each a key length, a value length, the key and the value in a leaf,
+ * and a key length, the key and the child right of the key in an inner node. Pages that empty out are not merged.
+ * <p>
+ * A key and its value are kept in the leaf if they fit in a quarter of a page, so that a split always leaves two halves
+ * that fit. A larger value goes to a chain of overflow pages, each holding the length of its piece and the next page,
+ * and the leaf keeps the first page in its place. Overflow pages whose value is replaced or deleted go to a free list,
+ * linked the same way, and are used again before the file grows. Keys must always fit in the leaf.
+ * <p>
+ * GETs, iteration and SCANs share a read lock; writes take the write lock one at a time.
+ */
+public class BTreeDatabase implements StorageEngine, Closeable {
+
+    static final int PAGE_SIZE = 4096;
+    static final int DEFAULT_CACHE_PAGES = 16384;
+    static final int CHECKPOINT_PAGES = 1024;
+    static final int MAGIC = 0x53425431;    // "SBT1"
+
+    private static final byte LEAF = 1;
+    private static final byte INNER = 2;
+    private static final byte OVERFLOW = 3;
+    private static final int HEADER_SIZE = 11;
+    static final int MAX_RECORD_SIZE = (PAGE_SIZE - HEADER_SIZE) / 4 - 4;
+    static final int OVERFLOW_CHUNK = PAGE_SIZE - HEADER_SIZE;
+    // The value length in a leaf entry whose value is in overflow pages, followed by the first of them.
+    private static final int SPILLED = 0xffff;
+
+    private static final class Node {
+        final boolean leaf;
+        final ArrayList<ByteString> keys = new ArrayList<>();
+        final ArrayList<ByteString> values;
+        final ArrayList<Integer> overflows;     // the first overflow page of each value, or 0 if it is in the leaf
+        final ArrayList<Integer> children;
+        ByteString chunk;                       // the piece of a value in an overflow page
+        int next;
+
+        Node(boolean leaf) {
+            this.leaf = leaf;
+            this.values = leaf ? new ArrayList<>() : null;
+            this.overflows = leaf ? new ArrayList<>() : null;
+            this.children = leaf ? null : new ArrayList<>();
+        }
+
+        static Node overflow(ByteString chunk, int next) {
+            Node node = new Node(false);
+            node.chunk = chunk;
+            node.next = next;
+            return node;
+        }
+
+        int encodedSize() {
+            int size = HEADER_SIZE;
+            for (int i = 0; i < keys.size(); ++i) {
+                size += entrySize(i);
+            }
+            return size;
+        }
+
+        int entrySize(int i) {
+            if (!leaf) {
+                return 6 + keys.get(i).size();
+            }
+            return 4 + keys.get(i).size() + (overflows.get(i) != 0 ? 4 : values.get(i).size());
+        }
+
+        /**
+         * Returns the index of the child whose keys include the key.
+         */
+        int childFor(ByteString key) {
+            int index = Collections.binarySearch(keys, key, SortedTable.KEY_ORDER);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+
+    private final Path file;
+    private final Path journalFile;
+    private final FileChannel channel;
+    private final FileChannel journal;
+    private final PageCache<Node> cache;
+    private final int checkpointPages;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int root;
+    private int pageCount;
+    private long keyCount;
+    private int freePage;
+
+    private final LongAdder checkpoints = Metrics.counter("btree.checkpoints");
+    private final LongAdder pagesWritten = Metrics.counter("btree.pages.written");
+
+    /**
+     * Opens the tree in the given file, creating it if needed.
+     */
+    public BTreeDatabase(Path file) throws IOException {
+        this(file, DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Opens the tree in the given file, creating it if needed, with a cache of the given number of pages.
+     */
+    public BTreeDatabase(Path file, int cachePages) throws IOException {
+        this.file = file;
+        this.journalFile = file.resolveSibling(file.getFileName() + ".journal");
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            this.journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.cache = new PageCache<>(cachePages, this::readNode, "btree.cache");
+        this.checkpointPages = Math.max(1, Math.min(CHECKPOINT_PAGES, cachePages / 2));
+        try {
+            recover();
+            if (channel.size() == 0) {
+                root = 1;
+                pageCount = 2;
+                cache.release(cache.create(root, new Node(true)));
+                checkpoint();
+            } else {
+                ByteBuffer meta = readPage(0);
+                if (meta.getInt() != MAGIC || meta.getInt() != PAGE_SIZE) {
+                    throw new IOException("Not a B+tree file: " + file);
+                }
+                root = meta.getInt();
+                pageCount = meta.getInt();
+                keyCount = meta.getLong();
+                freePage = meta.getInt();
+            }
+        } catch (IOException | RuntimeException e) {
+            journal.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        lock.readLock().lock();
+        try {
+            return get(k);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        checkKey(key);
+        lock.writeLock().lock();
+        try {
+            put(key, value);
+            checkpointIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        lock.writeLock().lock();
+        try {
+            delete(k);
+            checkpointIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        List<ByteString> values = new ArrayList<>(keys.size());
+        lock.readLock().lock();
+        try {
+            for (ByteString key : keys) {
+                values.add(get(key));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return values;
+    }
+
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        for (ByteString key : keys) {
+            checkKey(key);
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < keys.size(); ++i) {
+                put(keys.get(i), values.get(i));
+            }
+            checkpointIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        lock.writeLock().lock();
+        try {
+            for (ByteString key : keys) {
+                delete(key);
+            }
+            checkpointIfDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hands every key to the action in key order. The read lock is held for one leaf at a time and never while the
+     * action runs.
+     */
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        List<ByteString> keys = new ArrayList<>();
+        List<ByteString> values = new ArrayList<>();
+        readLeaf(ByteString.EMPTY, true, keys, values);
+        while (!keys.isEmpty()) {
+            for (int i = 0; i < keys.size(); ++i) {
+                action.accept(keys.get(i), values.get(i));
+            }
+            ByteString last = keys.get(keys.size() - 1);
+            keys.clear();
+            values.clear();
+            readLeaf(last, false, keys, values);
+        }
+    }
+
+    /**
+     * Collects the range a leaf at a time, with the read lock held for one leaf only.
+     */
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        List<Map.Entry<ByteString, ByteString>> pairs = new ArrayList<>();
+        List<ByteString> keys = new ArrayList<>();
+        List<ByteString> values = new ArrayList<>();
+        readLeaf(start, true, keys, values);
+        while (!keys.isEmpty()) {
+            for (int i = 0; i < keys.size(); ++i) {
+                if (pairs.size() == limit || end != null && SortedTable.KEY_ORDER.compare(keys.get(i), end) >= 0) {
+                    return pairs;
+                }
+                pairs.add(new AbstractMap.SimpleImmutableEntry<>(keys.get(i), values.get(i)));
+            }
+            ByteString last = keys.get(keys.size() - 1);
+            keys.clear();
+            values.clear();
+            readLeaf(last, false, keys, values);
+        }
+        return pairs;
+    }
+
+    /**
+     * Writes every dirty page back to the file, through the journal.
+     */
+    public void checkpoint() throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<PageCache.Frame<Node>> dirty = cache.dirtyFrames();
+            // Page 0 goes last and the journal holds every page, so the order of the in-place writes does not matter.
+            List<ByteBuffer> pages = new ArrayList<>(dirty.size() + 1);
+            List<Integer> numbers = new ArrayList<>(dirty.size() + 1);
+            for (PageCache.Frame<Node> frame : dirty) {
+                pages.add(encode(frame.content));
+                numbers.add(frame.page);
+            }
+            pages.add(encodeMeta());
+            numbers.add(0);
+
+            // The journal: the number of pages, every page number and page, and a CRC32C of everything before it.
+            ByteBuffer header = ByteBuffer.allocate(8).putInt(MAGIC).putInt(pages.size());
+            header.flip();
+            CRC32C crc = new CRC32C();
+            crc.update(header.duplicate());
+            journal.truncate(0);
+            writeFully(journal, header, 0);
+            long position = 8;
+            ByteBuffer number = ByteBuffer.allocate(4);
+            for (int i = 0; i < pages.size(); ++i) {
+                number.clear();
+                number.putInt(numbers.get(i)).flip();
+                crc.update(number.duplicate());
+                crc.update(pages.get(i).duplicate());
+                writeFully(journal, number, position);
+                writeFully(journal, pages.get(i).duplicate(), position + 4);
+                position += 4 + PAGE_SIZE;
+            }
+            writeFully(journal, ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip(), position);
+            journal.force(false);
+
+            for (int i = 0; i < pages.size(); ++i) {
+                writeFully(channel, pages.get(i), (long) numbers.get(i) * PAGE_SIZE);
+            }
+            channel.force(false);
+            journal.truncate(0);
+            journal.force(false);
+
+            cache.markClean(dirty);
+            checkpoints.increment();
+            pagesWritten.add(pages.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of keys.
+     */
+    public long keys() {
+        lock.readLock().lock();
+        try {
+            return keyCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the tree file in bytes, including pages allocated since the last checkpoint.
+     */
+    public long diskBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) pageCount * PAGE_SIZE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of levels of the tree, the leaves included.
+     */
+    public int height() {
+        lock.readLock().lock();
+        try {
+            int height = 1;
+            PageCache.Frame<Node> frame = cache.fetch(root);
+            while (!frame.content.leaf) {
+                PageCache.Frame<Node> child = cache.fetch(frame.content.children.get(0));
+                cache.release(frame);
+                frame = child;
+                ++height;
+            }
+            cache.release(frame);
+            return height;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checkpoints and closes the files.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkpoint();
+        } finally {
+            journal.close();
+            channel.close();
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ByteString get(ByteString key) throws IOException {
+        PageCache.Frame<Node> leaf = findLeaf(key);
+        try {
+            Node node = leaf.content;
+            int index = Collections.binarySearch(node.keys, key, SortedTable.KEY_ORDER);
+            return index >= 0 ? value(node, index) : null;
+        } finally {
+            cache.release(leaf);
+        }
+    }
+
+    /**
+     * Returns the leaf whose keys include the key, pinned.
+     */
+    private PageCache.Frame<Node> findLeaf(ByteString key) throws IOException {
+        PageCache.Frame<Node> frame = cache.fetch(root);
+        while (!frame.content.leaf) {
+            PageCache.Frame<Node> child = cache.fetch(frame.content.children.get(frame.content.childFor(key)));
+            cache.release(frame);
+            frame = child;
+        }
+        return frame;
+    }
+
+    /**
+     * Adds the pairs of the first leaf that has keys from the given one on, included or not, to the lists, and only
+     * those. The leaf is found again from the root every time, so splits between two calls do no harm.
+     */
+    private void readLeaf(ByteString from, boolean included, List<ByteString> keys, List<ByteString> values) {
+        lock.readLock().lock();
+        try {
+            PageCache.Frame<Node> leaf = findLeaf(from);
+            int index = Collections.binarySearch(leaf.content.keys, from, SortedTable.KEY_ORDER);
+            int start = index < 0 ? -index - 1 : included ? index : index + 1;
+            // A leaf with nothing from there on is passed over, still under the lock.
+            while (start == leaf.content.keys.size() && leaf.content.next != 0) {
+                PageCache.Frame<Node> next = cache.fetch(leaf.content.next);
+                cache.release(leaf);
+                leaf = next;
+                start = 0;
+            }
+            Node node = leaf.content;
+            for (int i = start; i < node.keys.size(); ++i) {
+                keys.add(node.keys.get(i));
+                values.add(value(node, i));
+            }
+            cache.release(leaf);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(ByteString key, ByteString value) throws IOException {
+        // The pages from the root down to the leaf stay pinned, since a split changes every one of them that is full.
+        List<PageCache.Frame<Node>> path = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        try {
+            PageCache.Frame<Node> frame = cache.fetch(root);
+            path.add(frame);
+            while (!frame.content.leaf) {
+                int slot = frame.content.childFor(key);
+                slots.add(slot);
+                frame = cache.fetch(frame.content.children.get(slot));
+                path.add(frame);
+            }
+            Node leaf = frame.content;
+            int overflow = key.size() + value.size() > MAX_RECORD_SIZE ? writeOverflow(value) : 0;
+            if (overflow != 0) {
+                value = ByteString.EMPTY;
+            }
+            int index = Collections.binarySearch(leaf.keys, key, SortedTable.KEY_ORDER);
+            if (index >= 0) {
+                freeOverflow(leaf.overflows.get(index));
+                leaf.values.set(index, value);
+                leaf.overflows.set(index, overflow);
+            } else {
+                leaf.keys.add(-index - 1, key);
+                leaf.values.add(-index - 1, value);
+                leaf.overflows.add(-index - 1, overflow);
+                ++keyCount;
+            }
+            cache.markDirty(frame);
+            for (int level = path.size() - 1; level >= 0; --level) {
+                if (path.get(level).content.encodedSize() <= PAGE_SIZE) {
+                    break;
+                }
+                split(path, slots, level);
+            }
+        } finally {
+            for (PageCache.Frame<Node> frame : path) {
+                cache.release(frame);
+            }
+        }
+    }
+
+    /**
+     * Moves the upper half of the node at the level of the path to a new page, and adds that page to the parent, or
+     * to a new root if the node is the root.
+     */
+    private void split(List<PageCache.Frame<Node>> path, List<Integer> slots, int level) throws IOException {
+        PageCache.Frame<Node> frame = path.get(level);
+        Node left = frame.content;
+        Node right = new Node(left.leaf);
+        int rightPage = allocate();
+        ByteString separator;
+        if (left.leaf) {
+            // Split by bytes rather than by count, so that both halves fit whatever the sizes of the records.
+            int half = left.encodedSize() / 2;
+            int size = HEADER_SIZE;
+            int middle = 0;
+            while (middle < left.keys.size() - 1 && size < half) {
+                size += left.entrySize(middle);
+                ++middle;
+            }
+            moveTail(left.keys, right.keys, middle);
+            moveTail(left.values, right.values, middle);
+            moveTail(left.overflows, right.overflows, middle);
+            right.next = left.next;
+            left.next = rightPage;
+            separator = right.keys.get(0);
+        } else {
+            int middle = left.keys.size() / 2;
+            separator = left.keys.get(middle);
+            moveTail(left.keys, right.keys, middle + 1);
+            left.keys.remove(middle);
+            moveTail(left.children, right.children, middle + 1);
+        }
+        cache.release(cache.create(rightPage, right));
+        cache.markDirty(frame);
+
+        if (level == 0) {
+            Node newRoot = new Node(false);
+            newRoot.keys.add(separator);
+            newRoot.children.add(frame.page);
+            newRoot.children.add(rightPage);
+            root = allocate();
+            cache.release(cache.create(root, newRoot));
+        } else {
+            PageCache.Frame<Node> parent = path.get(level - 1);
+            int slot = slots.get(level - 1);
+            parent.content.keys.add(slot, separator);
+            parent.content.children.add(slot + 1, rightPage);
+            cache.markDirty(parent);
+        }
+    }
+
+    private static <T> void moveTail(ArrayList<T> from, ArrayList<T> to, int start) {
+        List<T> tail = from.subList(start, from.size());
+        to.addAll(tail);
+        tail.clear();
+    }
+
+    private void delete(ByteString key) throws IOException {
+        PageCache.Frame<Node> leaf = findLeaf(key);
+        try {
+            Node node = leaf.content;
+            int index = Collections.binarySearch(node.keys, key, SortedTable.KEY_ORDER);
+            if (index >= 0) {
+                freeOverflow(node.overflows.get(index));
+                node.keys.remove(index);
+                node.values.remove(index);
+                node.overflows.remove(index);
+                --keyCount;
+                cache.markDirty(leaf);
+            }
+        } finally {
+            cache.release(leaf);
+        }
+    }
+
+    /**
+     * Returns the value of an entry of a leaf, read from its overflow pages if it has them.
+     */
+    private ByteString value(Node leaf, int index) throws IOException {
+        int page = leaf.overflows.get(index);
+        if (page == 0) {
+            return leaf.values.get(index);
+        }
+        ByteString value = ByteString.EMPTY;
+        while (page != 0) {
+            PageCache.Frame<Node> frame = cache.fetch(page);
+            value = value.concat(frame.content.chunk);
+            page = frame.content.next;
+            cache.release(frame);
+        }
+        return value;
+    }
+
+    /**
+     * Writes the value to a chain of overflow pages and returns the first one. Pieces are written last first, so that
+     * each page knows the next.
+     */
+    private int writeOverflow(ByteString value) throws IOException {
+        int next = 0;
+        for (int start = (value.size() - 1) / OVERFLOW_CHUNK * OVERFLOW_CHUNK; start >= 0; start -= OVERFLOW_CHUNK) {
+            int page = allocate();
+            ByteString chunk = value.substring(start, Math.min(value.size(), start + OVERFLOW_CHUNK));
+            cache.release(cache.create(page, Node.overflow(chunk, next)));
+            next = page;
+        }
+        return next;
+    }
+
+    /**
+     * Puts a chain of overflow pages, if there is one, in front of the free list.
+     */
+    private void freeOverflow(int first) throws IOException {
+        if (first == 0) {
+            return;
+        }
+        PageCache.Frame<Node> frame = cache.fetch(first);
+        while (frame.content.next != 0) {
+            PageCache.Frame<Node> next = cache.fetch(frame.content.next);
+            cache.release(frame);
+            frame = next;
+        }
+        frame.content.next = freePage;
+        cache.markDirty(frame);
+        cache.release(frame);
+        freePage = first;
+    }
+
+    /**
+     * Returns a page for a new node, from the free list if it has one. The caller puts the node in the cache.
+     */
+    private int allocate() throws IOException {
+        if (freePage == 0) {
+            return pageCount++;
+        }
+        int page = freePage;
+        PageCache.Frame<Node> frame = cache.fetch(page);
+        freePage = frame.content.next;
+        cache.release(frame);
+        return page;
+    }
+
+    private static void checkKey(ByteString key) {
+        if (key.size() + 4 > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("key too large: " + key.size() + " bytes");
+        }
+    }
+
+    private void checkpointIfDue() throws IOException {
+        if (cache.dirty() >= checkpointPages) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Writes a complete journal left by a checkpoint that crashed over the tree file, and discards an incomplete one.
+     */
+    private void recover() throws IOException {
+        long size = journal.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer contents = ByteBuffer.allocate((int) size);
+        while (contents.hasRemaining() && journal.read(contents, contents.position()) >= 0) {
+        }
+        contents.flip();
+        int pages = contents.remaining() >= 8 && contents.getInt() == MAGIC ? contents.getInt() : -1;
+        if (pages > 0 && size == 8 + (long) pages * (4 + PAGE_SIZE) + 4) {
+            CRC32C crc = new CRC32C();
+            crc.update(contents.array(), 0, (int) size - 4);
+            if ((int) crc.getValue() == contents.getInt((int) size - 4)) {
+                for (int i = 0; i < pages; ++i) {
+                    int page = contents.getInt();
+                    ByteBuffer image = contents.slice().limit(PAGE_SIZE);
+                    contents.position(contents.position() + PAGE_SIZE);
+                    writeFully(channel, image, (long) page * PAGE_SIZE);
+                }
+                channel.force(false);
+                Log.info("Recovered {} pages of {} from its journal", pages, file);
+            }
+        }
+        journal.truncate(0);
+        journal.force(false);
+    }
+
+    private Node readNode(int page) throws IOException {
+        ByteBuffer buffer = readPage(page);
+        byte kind = buffer.get();
+        int count = buffer.getShort() & 0xffff;
+        int link = buffer.getInt();
+        if (kind == OVERFLOW) {
+            return Node.overflow(ByteString.copyFrom(buffer, count), link);
+        }
+        Node node = new Node(kind == LEAF);
+        if (node.leaf) {
+            node.next = link;
+        } else {
+            node.children.add(link);
+        }
+        for (int i = 0; i < count; ++i) {
+            int keySize = buffer.getShort() & 0xffff;
+            if (node.leaf) {
+                int valueSize = buffer.getShort() & 0xffff;
+                node.keys.add(ByteString.copyFrom(buffer, keySize));
+                if (valueSize == SPILLED) {
+                    node.values.add(ByteString.EMPTY);
+                    node.overflows.add(buffer.getInt());
+                } else {
+                    node.values.add(ByteString.copyFrom(buffer, valueSize));
+                    node.overflows.add(0);
+                }
+            } else {
+                node.keys.add(ByteString.copyFrom(buffer, keySize));
+                node.children.add(buffer.getInt());
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Reads a page and checks its checksum. Returns it positioned after the checksum.
+     */
+    private ByteBuffer readPage(int page) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, (long) page * PAGE_SIZE + buffer.position()) < 0) {
+                throw new IOException("Page " + page + " is past the end of " + file);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 4, PAGE_SIZE - 4);
+        if ((int) crc.getValue() != buffer.getInt(0)) {
+            throw new IOException("Corrupt page " + page + " in " + file);
+        }
+        return buffer.position(4);
+    }
+
+    private static ByteBuffer encode(Node node) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.position(4);
+        if (node.chunk != null) {
+            buffer.put(OVERFLOW).putShort((short) node.chunk.size()).putInt(node.next);
+            node.chunk.copyTo(buffer);
+            return seal(buffer);
+        }
+        buffer.put(node.leaf ? LEAF : INNER);
+        buffer.putShort((short) node.keys.size());
+        buffer.putInt(node.leaf ? node.next : node.children.get(0));
+        for (int i = 0; i < node.keys.size(); ++i) {
+            ByteString key = node.keys.get(i);
+            buffer.putShort((short) key.size());
+            if (node.leaf) {
+                int overflow = node.overflows.get(i);
+                ByteString value = node.values.get(i);
+                buffer.putShort((short) (overflow != 0 ? SPILLED : value.size()));
+                key.copyTo(buffer);
+                if (overflow != 0) {
+                    buffer.putInt(overflow);
+                } else {
+                    value.copyTo(buffer);
+                }
+            } else {
+                key.copyTo(buffer);
+                buffer.putInt(node.children.get(i + 1));
+            }
+        }
+        return seal(buffer);
+    }
+
+    private ByteBuffer encodeMeta() {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.position(4);
+        buffer.putInt(MAGIC).putInt(PAGE_SIZE).putInt(root).putInt(pageCount).putLong(keyCount).putInt(freePage);
+        return seal(buffer);
+    }
+
+    // Puts the checksum of the rest of the page in front and returns the whole page, ready to write.
+    private static ByteBuffer seal(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 4, PAGE_SIZE - 4);
+        buffer.putInt(0, (int) crc.getValue());
+        return buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Small helpers shared by the benchmark programs. Not a replacement for JMH, but good enough to compare two
+ * implementations run back to back in the same JVM.
+ */
+final class Benchmark {
+
+    static final int MAX_SAMPLES = 1 << 20;
+
+    /**
+     * The body of a benchmark loop. Called repeatedly until the measurement interval is over.
+     */
+    interface Operation {
+        void run(int thread, long iteration) throws Exception;
+    }
+
+    /**
+     * A single call whose latency is measured. The argument is prepared before the clock starts.
+     */
+    interface Call<T> {
+        void run(T argument) throws Exception;
+    }
+
+    /**
+     * Latencies of single operations, in nanoseconds, sorted so that percentiles can be read off.
+     */
+    static final class Latencies {
+        private final long[] sorted;
+
+        /**
+         * Takes the first count samples.
+         */
+        Latencies(long[] samples, int count) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+        }
+
+        int count() {
+            return sorted.length;
+        }
+
+        /**
+         * Returns the latency that the given percentage of the operations did not exceed, or 0 if there were none.
+         */
+        long percentile(double percent) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * percent / 100))];
+        }
+
+        long max() {
+            return percentile(100);
+        }
+    }
+
+    private Benchmark() {
+    }
+
+    /**
+     * Keeps the INFO records of the code under test, such as servers starting or snapshots loading, out of the report.
+     * Warnings and errors are still logged.
+     */
+    static void quietLog() {
+        Log.configure(Log.Level.WARN, 1);
+    }
+
+    /**
+     * Makes calls one after another on the calling thread for a fixed amount of time, or until MAX_SAMPLES calls have
+     * been made, and returns the latency of each.
+     */
+    static <T> Latencies latencies(long millis, Supplier<T> arguments, Call<T> call) throws Exception {
+        long[] samples = new long[MAX_SAMPLES];
+        int count = 0;
+        long end = System.nanoTime() + millis * 1_000_000L;
+        while (System.nanoTime() < end && count < MAX_SAMPLES) {
+            T argument = arguments.get();
+            long begin = System.nanoTime();
+            call.run(argument);
+            samples[count++] = System.nanoTime() - begin;
+        }
+        return new Latencies(samples, count);
+    }
+
+    /**
+     * Measures GETs of random keys made with key(), numbered from offset to offset + keys.
+     */
+    static Latencies reads(StorageEngine database, int keys, int offset, long millis) throws Exception {
+        return latencies(millis, () -> key(offset + ThreadLocalRandom.current().nextInt(keys)), database::GET);
+    }
+
+    static ByteString key(int i) {
+        return ByteString.copyFromUtf8(String.format("key:%010d", i));
+    }
+
+    /**
+     * Visits every number below keys once, in an order that jumps all over the key space.
+     */
+    static int scramble(int i, int keys) {
+        return (int) ((i * 0x9E3779B1L) % keys);
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     */
+    static void delete(Path directory) throws IOException {
+        try (var files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Runs the operation on the given number of threads for a fixed amount of time and returns the aggregate number
+     * of operations per second. All threads start at the same time and stop at the same time.
+     */
+    static double throughput(int threads, long millis, Operation operation) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        long[] counts = new long[threads];
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; ++t) {
+            final int thread = t;
+            workers[t] = new Thread(() -> {
+                long count = 0;
+                try {
+                    start.await();
+                    while (!stop.get()) {
+                        operation.run(thread, count);
+                        ++count;
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                counts[thread] = count;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+}
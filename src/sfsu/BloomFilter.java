@@ -0,0 +1,108 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * A set of keys that answers "maybe" or "certainly not", in a few bits per key. A key is set as k bits of a bit array,
+ * picked by double hashing one 64 bit hash of the key; a key some of whose bits are clear was never added. With b bits
+ * per key and k = b ln 2, the chance of a wrong "maybe" is about 0.6185^b, 1% at 10 bits per key.
+ * <p>
+ * Bits are set atomically, so keys may be added and looked up from many threads at once, and a lookup that starts
+ * after an add returned sees the key.
+ */
+final class BloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final int hashes;
+
+    /**
+     * Creates an empty filter for the expected number of keys.
+     */
+    BloomFilter(long expectedKeys, int bitsPerKey) {
+        long bits = Math.max(64, expectedKeys * bitsPerKey);
+        this.words = new long[(int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64)];
+        this.hashes = Math.max(1, (int) Math.round(bitsPerKey * Math.log(2)));
+    }
+
+    private BloomFilter(long[] words, int hashes) {
+        this.words = words;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Adds the key. Returns whether it set a bit that was clear, in which case the key was certainly not in the filter.
+     */
+    boolean add(ByteString key) {
+        long hash = hash(key);
+        long bits = 64L * words.length;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 0; i < hashes; ++i) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bits;
+            long mask = 1L << bit;
+            changed |= ((long) WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), mask) & mask) == 0;
+        }
+        return changed;
+    }
+
+    boolean mightContain(ByteString key) {
+        long hash = hash(key);
+        long bits = 64L * words.length;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; ++i) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bits;
+            if (((long) WORDS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes writeTo writes.
+     */
+    int serializedSize() {
+        return 8 + 8 * words.length;
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.putInt(hashes);
+        out.putInt(words.length);
+        for (long word : words) {
+            out.putLong(word);
+        }
+    }
+
+    static BloomFilter readFrom(ByteBuffer in) {
+        int hashes = in.getInt();
+        long[] words = new long[in.getInt()];
+        for (int i = 0; i < words.length; ++i) {
+            words[i] = in.getLong();
+        }
+        return new BloomFilter(words, hashes);
+    }
+
+    /**
+     * FNV-1a over the key, finished with the MurmurHash3 mixer so that both halves are well spread.
+     */
+    static long hash(ByteString key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.size(); ++i) {
+            hash = (hash ^ (key.byteAt(i) & 0xff)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
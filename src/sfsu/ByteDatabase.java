@@ -0,0 +1,66 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Database that stores keys and values as the ByteStrings parsed off the wire, in a ConcurrentHashMap. A GET hands the
+ * stored value straight back to the response, so values are never converted to a String or copied on their way
+ * through the server.
+ */
+public class ByteDatabase implements StorageEngine {
+
+    private final ConcurrentHashMap<ByteString, ByteString> table;
+
+    /**
+     * Creates an empty database.
+     */
+    public ByteDatabase() {
+        table = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an empty database sized for the expected number of keys, to avoid resizing while loading.
+     */
+    public ByteDatabase(int expectedKeys) {
+        table = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        return table.get(k);
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        table.put(key, value);
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        table.remove(k);
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        table.forEach(action);
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+}
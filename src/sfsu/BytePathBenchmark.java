@@ -0,0 +1,84 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares serving a GET through String keys and values against serving it through the ByteStrings parsed off the
+ * wire. Each iteration parses a delimited request, looks the key up and writes the delimited response, like the
+ * server does, and the benchmark reports throughput and bytes allocated per request for several value sizes.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.BytePathBenchmark [iterations]
+ */
+public class BytePathBenchmark {
+
+    static final int[] VALUE_SIZES = {100, 10_000, 100_000, 1_000_000};
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        ByteArrayOutputStream wire = new ByteArrayOutputStream();
+        DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.GET)
+                .setKey("key")
+                .build()
+                .writeDelimitedTo(wire);
+        byte[] request = wire.toByteArray();
+        OutputStream socket = OutputStream.nullOutputStream();
+
+        System.out.println(String.format("%-8s %10s %15s %18s", "path", "value size", "GETs/sec", "bytes/request"));
+        for (int size : VALUE_SIZES) {
+            StringBuilder value = new StringBuilder(size);
+            for (int i = 0; i < size; ++i) {
+                value.append((char) ('a' + i % 26));
+            }
+
+            ConcurrentDatabase strings = new ConcurrentDatabase();
+            strings.PUT("key", value.toString());
+            ByteDatabase bytes = new ByteDatabase();
+            bytes.PUT(ByteString.copyFromUtf8("key"), ByteString.copyFromUtf8(value.toString()));
+
+            for (int round = 0; round < 2; ++round) {    // the first round only warms up
+                long allocated = allocatedBytes();
+                long begin = System.nanoTime();
+                for (int i = 0; i < iterations; ++i) {
+                    DatabaseProtos.Request parsed =
+                            DatabaseProtos.Request.parseDelimitedFrom(new ByteArrayInputStream(request));
+                    String key = parsed.getKey();
+                    DatabaseProtos.Response.newBuilder()
+                            .setKey(key)
+                            .setValue(strings.GET(key))
+                            .build()
+                            .writeDelimitedTo(socket);
+                }
+                report(round, "string", size, iterations, System.nanoTime() - begin, allocatedBytes() - allocated);
+
+                allocated = allocatedBytes();
+                begin = System.nanoTime();
+                for (int i = 0; i < iterations; ++i) {
+                    DatabaseProtos.Request parsed =
+                            DatabaseProtos.Request.parseDelimitedFrom(new ByteArrayInputStream(request));
+                    RequestProcessor.execute(bytes, parsed).writeDelimitedTo(socket);
+                }
+                report(round, "bytes", size, iterations, System.nanoTime() - begin, allocatedBytes() - allocated);
+            }
+        }
+    }
+
+    private static void report(int round, String path, int size, int iterations, long nanos, long allocated) {
+        if (round > 0) {
+            System.out.println(String.format("%-8s %10d %15.0f %18d", path, size, iterations * 1e9 / nanos,
+                    allocated / iterations));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,185 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replays key traces against the cache engine and against a plain LRU cache with the same byte budget, each key read
+ * and, on a miss, written as a cache client would, and reports the hit rates. The traces are Zipfian reads, the same
+ * reads interrupted by long scans over keys read only once, and a loop over slightly more keys than fit. Then reports
+ * the throughput of the cache engine and of the bytes engine under Zipfian reads and writes.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.CacheBenchmark [keys] [cached share of the keys in %] [threads]
+ */
+public class CacheBenchmark {
+
+    static final int VALUE_SIZE = 100;
+    static final int ACCESSES = 5_000_000;
+    static final double SKEW = 0.99;
+
+    /**
+     * Samples ranks from 0 to n - 1 with probability proportional to 1 / (rank + 1)^skew, by binary search in the
+     * cumulative distribution.
+     */
+    static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; ++i) {
+                sum += 1 / Math.pow(i + 1, skew);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; ++i) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next(Random random) {
+            int rank = java.util.Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, rank < 0 ? -rank - 1 : rank);
+        }
+    }
+
+    /**
+     * The baseline: least recently used eviction within a byte budget.
+     */
+    static final class LruCache implements StorageEngine {
+        private final long maxBytes;
+        private long bytes;
+        private final LinkedHashMap<ByteString, ByteString> table = new LinkedHashMap<>(16, 0.75f, true);
+
+        LruCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ByteString GET(ByteString k) {
+            return table.get(k);
+        }
+
+        @Override
+        public void PUT(ByteString key, ByteString value) {
+            ByteString old = table.put(key, value);
+            bytes += weight(key, value) - (old == null ? 0 : weight(key, old));
+            while (bytes > maxBytes) {
+                Map.Entry<ByteString, ByteString> eldest = table.entrySet().iterator().next();
+                bytes -= weight(eldest.getKey(), eldest.getValue());
+                table.remove(eldest.getKey());
+            }
+        }
+
+        @Override
+        public void DELETE(ByteString k) {
+            ByteString old = table.remove(k);
+            if (old != null) {
+                bytes -= weight(k, old);
+            }
+        }
+
+        private static long weight(ByteString key, ByteString value) {
+            return key.size() + value.size() + CacheDatabase.ENTRY_OVERHEAD;
+        }
+
+        @Override
+        public String GET(String k) {
+            ByteString value = GET(ByteString.copyFromUtf8(k));
+            return value == null ? null : value.toStringUtf8();
+        }
+
+        @Override
+        public void PUT(String key, String value) {
+            PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+        }
+
+        @Override
+        public void DELETE(String k) {
+            DELETE(ByteString.copyFromUtf8(k));
+        }
+    }
+
+    interface Trace {
+        int next(Random random, long access);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double cachedPercent = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        ByteString sample = key(keys);
+        long entryBytes = sample.size() + VALUE_SIZE + CacheDatabase.ENTRY_OVERHEAD;
+        long budget = (long) (keys * cachedPercent / 100 * entryBytes);
+        int cachedKeys = (int) (budget / entryBytes);
+        System.out.println(String.format("%d keys, a budget of %d KB for about %d of them", keys, budget >> 10,
+                cachedKeys));
+        Zipf zipf = new Zipf(keys, SKEW);
+
+        // Zipfian reads, with a scan of twice the cache over keys read once after every ten times the cache.
+        Trace zipfian = (random, access) -> zipf.next(random);
+        Trace scans = (random, access) -> {
+            long round = access / (12L * cachedKeys);
+            long offset = access % (12L * cachedKeys);
+            return offset < 10L * cachedKeys ? zipf.next(random) : (int) (keys + round * 2L * cachedKeys + offset);
+        };
+        Trace loop = (random, access) -> (int) (access % (cachedKeys + cachedKeys / 4));
+
+        System.out.println(String.format("%-24s %12s %12s", "hit rate %", "W-TinyLFU", "LRU"));
+        for (String name : new String[] {"zipf", "zipf+scans", "loop"}) {
+            Trace trace = name.equals("zipf") ? zipfian : name.equals("zipf+scans") ? scans : loop;
+            double tinyLfu = hitRate(new CacheDatabase(budget), trace);
+            double lru = hitRate(new LruCache(budget), trace);
+            System.out.println(String.format("%-24s %12.2f %12.2f", name, tinyLfu, lru));
+        }
+
+        System.out.println(String.format("%-24s %12s %12s", "ops/sec, 90% reads", "cache", "bytes"));
+        double cache = throughput(new CacheDatabase(budget), zipf, threads);
+        double bytes = throughput(new ByteDatabase(), zipf, threads);
+        System.out.println(String.format("%-24s %12.0f %12.0f", threads + " threads", cache, bytes));
+    }
+
+    /**
+     * Reads every key of the trace, writing it on a miss, and returns the share of reads that hit, in percent. The
+     * first tenth of the trace warms the cache up and is not counted.
+     */
+    private static double hitRate(StorageEngine cache, Trace trace) {
+        Random random = new Random(42);
+        ByteString value = ByteString.copyFrom(new byte[VALUE_SIZE]);
+        long hits = 0;
+        for (long access = 0; access < ACCESSES; ++access) {
+            ByteString key = key(trace.next(random, access));
+            boolean hit = cache.GET(key) != null;
+            if (!hit) {
+                cache.PUT(key, value);
+            }
+            if (hit && access >= ACCESSES / 10) {
+                ++hits;
+            }
+        }
+        return 100.0 * hits / (ACCESSES - ACCESSES / 10);
+    }
+
+    private static double throughput(StorageEngine engine, Zipf zipf, int threads) throws InterruptedException {
+        ByteString value = ByteString.copyFrom(new byte[VALUE_SIZE]);
+        Benchmark.throughput(threads, 1000, (thread, iteration) -> step(engine, zipf, value));
+        return Benchmark.throughput(threads, 3000, (thread, iteration) -> step(engine, zipf, value));
+    }
+
+    private static void step(StorageEngine engine, Zipf zipf, ByteString value) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ByteString key = key(zipf.next(random));
+        if (random.nextInt(10) == 0 || engine.GET(key) == null) {
+            engine.PUT(key, value);
+        }
+    }
+
+    private static ByteString key(int i) {
+        return ByteString.copyFromUtf8(String.format("key%010d", i));
+    }
+}
@@ -0,0 +1,270 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Database that behaves as a cache: it never holds more than a budget of bytes, and makes room for new keys by
+ * evicting old ones with W-TinyLFU. New keys enter a small LRU window, 1% of the budget. A key pushed out of the window
+ * is a candidate for the main space, and gets in only if a FrequencySketch says it was asked for more often than the
+ * key it would evict, so a burst of keys seen once, such as a scan, passes through the window and leaves the popular
+ * keys alone. The main space is a segmented LRU: keys are admitted on probation and promoted to the protected segment,
+ * 80% of it, when they are read again.
+ * <p>
+ * Keys are found through a ConcurrentHashMap without locking. The queues and the sketch are guarded by a lock, which
+ * writers wait for and readers only try: a read that finds it taken is not recorded, which loses a little accuracy
+ * and never makes reads queue behind each other.
+ * <p>
+ * The size of an entry is the size of its key and value plus a fixed overhead for the objects that hold them.
+ */
+public class CacheDatabase implements StorageEngine {
+
+    // Bytes charged to every entry for the node, the map entry and the ByteStrings, on top of its key and value.
+    static final int ENTRY_OVERHEAD = 128;
+
+    static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private static final class Node {
+        final ByteString key;
+        volatile ByteString value;
+        int weight;
+        Queue queue;    // null once removed
+        Node prev;
+        Node next;
+
+        Node(ByteString key, ByteString value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * A queue of nodes from least to most recently used, and their total weight.
+     */
+    private static final class Queue {
+        Node head;
+        Node tail;
+        long bytes;
+
+        void addLast(Node node) {
+            node.queue = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            bytes += node.weight;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.queue = null;
+            bytes -= node.weight;
+        }
+    }
+
+    private final ConcurrentHashMap<ByteString, Node> table = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long maxBytes;
+    private final long windowMaxBytes;
+    private final long protectedMaxBytes;
+
+    // Guarded by lock.
+    private final Queue window = new Queue();
+    private final Queue probation = new Queue();
+    private final Queue protectedSegment = new Queue();
+    private final FrequencySketch sketch;
+
+    private final LongAdder hits = Metrics.counter("cache.hits");
+    private final LongAdder misses = Metrics.counter("cache.misses");
+    private final LongAdder evictions = Metrics.counter("cache.evictions");
+    private final LongAdder rejections = Metrics.counter("cache.rejections");
+
+    /**
+     * Creates an empty cache that holds at most the given number of bytes.
+     */
+    public CacheDatabase(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.windowMaxBytes = Math.max(1, maxBytes / 100);
+        this.protectedMaxBytes = (maxBytes - windowMaxBytes) * 8 / 10;
+        // Sized for entries of a few hundred bytes. Smaller ones collide more, which only blurs frequencies a little.
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxBytes / 256));
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        Node node = table.get(k);
+        if (node == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(k);
+                if (node != null && node.queue != null) {
+                    touch(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        int weight = key.size() + value.size() + ENTRY_OVERHEAD;
+        lock.lock();
+        try {
+            sketch.increment(key);
+            Node node = table.get(key);
+            if (node == null) {
+                node = new Node(key, value, weight);
+                table.put(key, node);
+                window.addLast(node);
+            } else {
+                node.value = value;
+                node.queue.bytes += weight - node.weight;
+                node.weight = weight;
+                touch(node);
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        lock.lock();
+        try {
+            Node node = table.remove(k);
+            if (node != null) {
+                node.queue.remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        table.forEach((key, node) -> action.accept(key, node.value));
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    /**
+     * Returns the number of bytes the entries are charged, at most the budget.
+     */
+    public long bytes() {
+        lock.lock();
+        try {
+            return window.bytes + probation.bytes + protectedSegment.bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of keys in the cache.
+     */
+    public long keys() {
+        return table.size();
+    }
+
+    /**
+     * Moves a node that was used to the most recent end of its queue, promoting it out of probation. Called holding
+     * the lock.
+     */
+    private void touch(Node node) {
+        Queue queue = node.queue;
+        queue.remove(node);
+        (queue == probation ? protectedSegment : queue).addLast(node);
+        while (protectedSegment.bytes > protectedMaxBytes) {
+            Node demoted = protectedSegment.head;
+            protectedSegment.remove(demoted);
+            probation.addLast(demoted);
+        }
+    }
+
+    /**
+     * Moves what no longer fits in the window to the main space, if it wins against the keys it would evict, and
+     * evicts until the entries fit in the budget. Called holding the lock.
+     */
+    private void evict() {
+        long mainMaxBytes = maxBytes - windowMaxBytes;
+        while (window.bytes > windowMaxBytes) {
+            Node candidate = window.head;
+            window.remove(candidate);
+            if (admit(candidate, mainMaxBytes)) {
+                probation.addLast(candidate);
+            } else {
+                table.remove(candidate.key);
+                rejections.increment();
+            }
+        }
+        // A value that grew may have left the main space over its share.
+        while (probation.bytes + protectedSegment.bytes > mainMaxBytes) {
+            evict(probation.head != null ? probation.head : protectedSegment.head);
+        }
+    }
+
+    /**
+     * Evicts keys from the main space to make room for the candidate as long as it was used more often than each of
+     * them, and returns whether it fits.
+     */
+    private boolean admit(Node candidate, long mainMaxBytes) {
+        if (candidate.weight > mainMaxBytes) {
+            return false;
+        }
+        while (probation.bytes + protectedSegment.bytes + candidate.weight > mainMaxBytes) {
+            Node victim = probation.head != null ? probation.head : protectedSegment.head;
+            if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                return false;
+            }
+            evict(victim);
+        }
+        return true;
+    }
+
+    private void evict(Node node) {
+        node.queue.remove(node);
+        table.remove(node.key);
+        evictions.increment();
+    }
+}
@@ -1,11 +1,15 @@
 package sfsu;
 
-import java.net.Socket;
 import java.util.Random;
+import java.util.concurrent.Semaphore;
 
 /**
  * Verifies that the database server is able to receive a client request. Prints the response from the server.
  * <p>
+ * All requests are sent over a single connection. Run with -Dsfsu.pipeline=N to keep up to N requests in flight
+ * instead of waiting for each response, or with -Dsfsu.reconnect=true to open a new connection for every request,
+ * which is how the client used to work. Compare the operations per second printed at the end.
+ * <p>
  * Invocation and arguments:
  * java -cp lib/*:out/src/sfsu sfsu.Client <IP> <port>
  */
@@ -15,7 +19,7 @@ public class Client {
     static int BOUND = 1000;
 
     /**
-     * Connects to the sever process. Sends a dummy request and receives a response.
+     * Connects to the sever process. Sends random requests and receives a response for each.
      *
      * @throws Exception whenever anything bad happens. This avoids the need to wrap most instructions in try/catch
      *                   blocks. Good enough for a dummy tester.
@@ -29,87 +33,55 @@ public class Client {
         // Parse the IP and port
         String serverAddress = args[0];
         int port = Integer.parseInt(args[1]);
+        boolean reconnect = Boolean.getBoolean("sfsu.reconnect");
+        int pipeline = Integer.getInteger("sfsu.pipeline", 1);
 
-        for (int i = 0; i > REQUEST_AMOUNTS; ++i) {
-
-            //if random out come is 0 then PUT operation. 1 = GET. 2 = DELETE
-            int randomResult = getRandomNumberInRange(0, 2);
-
-            if (randomResult == 0) {    //PUT operation
-
-                // Create a dummy request. None of the arguments are important, as long as the request is syntactically valid.
-                DatabaseProtos.Request request = DatabaseProtos.Request.newBuilder()
-                        .setOperation(DatabaseProtos.Request.OperationType.PUT)
-                        .setKey(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .setValue(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .build();
-
-                // Create a socket and attempt to connect.
-                Socket clientSocket = new Socket(serverAddress, port);
-
-                // Write the request message to the socket.
-                request.writeDelimitedTo(clientSocket.getOutputStream());
-                System.out.println("Request sent, waiting for response.");
-
-                // Receive and parse a response from the server.
-                DatabaseProtos.Response response = DatabaseProtos.Response.parseDelimitedFrom(clientSocket.getInputStream());
-                System.out.println(String.format("Response received: %s\n", response));
-
-                // Close the sockets and finish.
-                clientSocket.close();
-            }
-
-            if (randomResult == 1) {    //GET operation
+        // Attempt to connect. The same connection is used for every request.
+        DatabaseClient client = new DatabaseClient(serverAddress, port);
+        Semaphore window = new Semaphore(pipeline);
 
-                // Create a dummy request. None of the arguments are important, as long as the request is syntactically valid.
-                DatabaseProtos.Request request = DatabaseProtos.Request.newBuilder()
-                        .setOperation(DatabaseProtos.Request.OperationType.GET)
-                        .setKey(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .setValue(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .build();
+        long begin = System.nanoTime();
+        for (int i = 0; i < REQUEST_AMOUNTS; ++i) {
 
-                // Create a socket and attempt to connect.
-                Socket clientSocket = new Socket(serverAddress, port);
-
-                // Write the request message to the socket.
-                request.writeDelimitedTo(clientSocket.getOutputStream());
-                System.out.println("Request sent, waiting for response.");
-
-                // Receive and parse a response from the server.
-                DatabaseProtos.Response response = DatabaseProtos.Response.parseDelimitedFrom(clientSocket.getInputStream());
-                System.out.println(String.format("Response received: %s\n", response));
+            //if random out come is 0 then GET operation. 1 = PUT. 2 = DELETE
+            int randomResult = getRandomNumberInRange(0, 2);
 
-                // Close the sockets and finish.
-                clientSocket.close();
+            // Create a dummy request. None of the arguments are important, as long as the request is syntactically
+            // valid. The value is ignored by everything but PUT.
+            DatabaseProtos.Request request = DatabaseProtos.Request.newBuilder()
+                    .setOperation(DatabaseProtos.Request.OperationType.forNumber(randomResult))
+                    .setKey(Integer.toString(getRandomNumberInRange(0, BOUND)))
+                    .setValue(Integer.toString(getRandomNumberInRange(0, BOUND)))
+                    .build();
+
+            if (reconnect && i > 0) {
+                client.close();
+                client = new DatabaseClient(serverAddress, port);
             }
 
-            if (randomResult == 2) {    //DELETE operation
-
-                // Create a dummy request. None of the arguments are important, as long as the request is syntactically valid.
-                DatabaseProtos.Request request = DatabaseProtos.Request.newBuilder()
-                        .setOperation(DatabaseProtos.Request.OperationType.DELETE)
-                        .setKey(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .setValue(Integer.toString(getRandomNumberInRange(0, BOUND)))
-                        .build();
-
-                // Create a socket and attempt to connect.
-                Socket clientSocket = new Socket(serverAddress, port);
-
-                // Write the request message to the socket.
-                request.writeDelimitedTo(clientSocket.getOutputStream());
-                System.out.println("Request sent, waiting for response.");
-
-                // Receive and parse a response from the server.
-                DatabaseProtos.Response response = DatabaseProtos.Response.parseDelimitedFrom(clientSocket.getInputStream());
-                System.out.println(String.format("Response received: %s\n", response));
-
-                // Close the sockets and finish.
-                clientSocket.close();
+            // Send the request and print its response once it arrives. Stop sending while the window is full.
+            window.acquire();
+            client.send(request).whenComplete((response, failure) -> {
+                if (failure != null) {
+                    failure.printStackTrace();
+                } else {
+                    System.out.println(String.format("Response received: %s\n", response));
+                }
+                window.release();
+            });
+            if (reconnect) {
+                window.acquire(pipeline);
+                window.release(pipeline);
             }
-
-        }   //ends the if statement that makes the requests
-
-        return;
+        }
+        // Wait for the last responses.
+        window.acquire(pipeline);
+        long elapsed = System.nanoTime() - begin;
+
+        // Close the connection and finish.
+        client.close();
+        System.out.println(String.format("%d requests in %d ms, %.0f ops/sec", REQUEST_AMOUNTS, elapsed / 1_000_000,
+                REQUEST_AMOUNTS * 1e9 / elapsed));
     }
 
     private static int getRandomNumberInRange(int min, int max) {
@@ -0,0 +1,46 @@
+package sfsu;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A bounded FIFO work queue that sheds load with Controlled Delay (CoDel): tasks run in the order they arrived, and
+ * once the queue is standing rather than absorbing a burst, the ones that waited longer than the target are dropped
+ * as they are taken. See ControlledDelay.
+ */
+final class CoDelQueue extends SheddingQueue {
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+
+    CoDelQueue(int capacity, ControlledDelay delay, Consumer<Runnable> dropHandler) {
+        super(capacity, delay, dropHandler);
+    }
+
+    @Override
+    void enqueue(Entry entry) {
+        entries.add(entry);
+    }
+
+    @Override
+    Entry dequeue() {
+        return entries.poll();
+    }
+
+    @Override
+    Entry head() {
+        return entries.peek();
+    }
+
+    @Override
+    boolean removeEntry(Object task) {
+        return entries.removeIf(entry -> entry.task.equals(task));
+    }
+
+    @Override
+    void collect(List<Runnable> tasks) {
+        for (Entry entry : entries) {
+            tasks.add(entry.task);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Database backed by a java.util.concurrent.ConcurrentHashMap. Locking is striped per hash bin, so operations on
+ * different keys do not contend with each other and reads never block.
+ * <p>
+ * This is the engine the server shares between all of its client connections.
+ */
+public class ConcurrentDatabase implements StorageEngine {
+
+    private final ConcurrentHashMap<String, String> table;
+
+    /**
+     * Creates an empty database.
+     */
+    public ConcurrentDatabase() {
+        table = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates an empty database sized for the expected number of keys, to avoid resizing while loading.
+     */
+    public ConcurrentDatabase(int expectedKeys) {
+        table = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    @Override
+    public String GET(String k) {
+        return table.get(k);
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        table.put(key, value);
+    }
+
+    @Override
+    public void DELETE(String k) {
+        table.remove(k);
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        table.forEach((key, value) -> action.accept(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value)));
+    }
+}
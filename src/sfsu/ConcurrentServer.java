@@ -1,11 +1,28 @@
 package sfsu;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * A multithreaded server that listens for a fixed number of clients simultaneously. It does not do much, but it is much
@@ -16,15 +33,72 @@ import java.util.concurrent.Future;
  */
 public class ConcurrentServer implements Runnable {
 
+    // How long a connection may stay idle between two requests before the server closes it.
+    static final int IDLE_TIMEOUT_MILLIS = 60_000;
+
+    // The number of threads executing requests, shared by all connections.
+    static final int REQUEST_THREADS = 10;
+
+    // How many requests may wait for a request thread, from all connections together. Requests beyond that are
+    // answered BUSY at once. Overridden with -Dsfsu.queue.
+    static final int QUEUE_CAPACITY = 1000;
+
+    // The number of threads executing low priority requests, when they run apart from high priority ones.
+    static final int LOW_PRIORITY_THREADS = 4;
+
+    // How many keys of requests a client may run on its turn, when clients take turns at the request threads.
+    static final int FAIR_QUANTUM = 16;
+
+    // How many accepted connections may wait for a connection thread. Connections beyond that are closed at once.
+    static final int CONNECTION_QUEUE_CAPACITY = 1000;
+
+    // How many requests a single connection may have queued or running before the server stops reading from it.
+    static final int MAX_IN_FLIGHT = 128;
+
+    // How many connections the operating system queues before they are accepted. Thousands of clients connecting at
+    // once overflow the default of 50, and the ones that do not fit only retry a second later.
+    static final int ACCEPT_BACKLOG = 1024;
+
     // The port that this server will bind to.
     private final int port;
-//    private Database database = new Database();
+
+    // Executes the requests of every client connection against the shared storage engine.
+    private final RequestProcessor processor;
+
+    // Whether connections run on virtual threads rather than on a fixed pool.
+    private final boolean virtualThreads;
 
     /**
      * Creates a server in the specified port. The server will not start to listen until run is called.
      */
     public ConcurrentServer(int port) {
+        this(port, new ByteDatabase());
+    }
+
+    /**
+     * Creates a server in the specified port that serves every client from the given storage engine.
+     */
+    public ConcurrentServer(int port, StorageEngine database) {
+        this(port, database, false);
+    }
+
+    /**
+     * Creates a server in the specified port that serves every client from the given storage engine. With virtual
+     * threads every connection and every request gets its own virtual thread, instead of sharing fixed pools.
+     */
+    public ConcurrentServer(int port, StorageEngine database, boolean virtualThreads) {
+        this(port, new RequestProcessor(database, virtualThreads
+                ? newVirtualThreadPerTaskExecutor()
+                : newRequestThreads()), virtualThreads);
+    }
+
+    /**
+     * Creates a server in the specified port that hands every request to the given processor.
+     */
+    public ConcurrentServer(int port, RequestProcessor processor, boolean virtualThreads) {
         this.port = port;
+        this.processor = processor;
+        this.virtualThreads = virtualThreads;
     }
 
     /**
@@ -37,59 +111,113 @@ public class ConcurrentServer implements Runnable {
 
     /**
      * Parses and processes client requests using network sockets.
+     * <p>
+     * The parser reads requests off its connection and hands each one to the request processor, which runs it on a
+     * shared pool of request threads, so that a client may send many requests without waiting for their responses.
+     * Responses are written back as requests complete, possibly out of order, carrying the id of the request they
+     * answer.
      */
     static class ClientParser implements Runnable {
 
-        private Database db = new Database();
+        private final RequestProcessor processor;
         private final Socket socket;
 
-        ClientParser(Socket socket) {
+        // The address of the client, which is what fair scheduling tells clients apart by.
+        private final String client;
+
+        // Bounds the number of requests of this connection that are queued or running. When it is exhausted the
+        // parser stops reading, and TCP flow control pushes back on the client.
+        private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+
+        // Responses from different request threads must not interleave on the socket.
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private OutputStream out;
+
+        // The parser itself plus every request still running. Whoever brings it to zero closes the socket.
+        private final AtomicInteger users = new AtomicInteger(1);
+
+        // The SCANs this connection is streaming.
+        private final RequestProcessor.Streams streams = new RequestProcessor.Streams();
+
+        ClientParser(Socket socket, RequestProcessor processor) {
             this.socket = socket;
+            this.processor = processor;
+            this.client = socket.getInetAddress().getHostAddress();
         }
 
         /**
-         * Parses a client request form a socket and pretends to sleep to make things interesting. Sends a dummy
-         * response and closes the socket.
+         * Closes the connection without serving it.
+         */
+        void reject() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+            }
+        }
+
+        /**
+         * Parses client requests from a socket and submits them to the request processor. Keeps serving the same
+         * connection until the client closes it or stays idle for too long.
          */
         @Override
         public void run() {
             try {
-                // Parse the client request directly from the socket. Thank you protobuf.
-                DatabaseProtos.Response result = DatabaseProtos.Response.newBuilder().build();
-                DatabaseProtos.Request request = DatabaseProtos.Request.parseDelimitedFrom(socket.getInputStream());
-                System.out.println(String.format("Received request: %s\n", request));
-
-                DatabaseProtos.Request.OperationType operation = request.getOperation();
-                String key = request.getKey();
-                if (operation == DatabaseProtos.Request.OperationType.GET) {    //if operation is GET
-                    String value = db.GET(request.getKey());
-                    result = DatabaseProtos.Response.newBuilder().setValue(value).setKey(key).build();
-                } else if (operation == DatabaseProtos.Request.OperationType.PUT) {
-                    String value = request.getValue();
-                    db.PUT(key, value);
-                    result = DatabaseProtos.Response.newBuilder().setValue(value).setKey(key).build();
-                } else if (operation == DatabaseProtos.Request.OperationType.DELETE) {
-                    db.DELETE(key);
-                    result = DatabaseProtos.Response.newBuilder().setKey(key).build();
-                }
-
-                // Pretend some heavy lifting is going on.
-                Thread.sleep(5000);
+                socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                // Protobuf flushes its own small buffer several times per message. Buffer the whole response and
+                // flush it once, so that each response leaves in a single segment.
+                out = new BufferedOutputStream(socket.getOutputStream());
 
-                // Create a dummy response and send it to the client.
-//                DatabaseProtos.Response response = DatabaseProtos.Response.newBuilder()
-//                        .setValue("This is a test value")
-//                        .setKey("This is a test key")
-//                        .build();
-
-                result.writeDelimitedTo(socket.getOutputStream());
-                System.out.println("Response type; " + result);
-
-                // This interaction is done. A better server would allow the client to request other things in the same
-                // connection. Not here.
-                socket.close();
+                // Parse the client requests directly from the socket. Thank you protobuf. A null request means the
+                // client closed its side of the connection.
+                DatabaseProtos.Request request;
+                while ((request = DatabaseProtos.Request.parseDelimitedFrom(in)) != null) {
+                    if (RequestProcessor.control(request, streams)) {
+                        continue;
+                    }
+                    inFlight.acquire();
+                    users.incrementAndGet();
+                    processor.submit(request, client, this::respond, streams);
+                }
             } catch (IOException e) {
+                // The client went away or was idle for longer than the timeout (SocketTimeoutException).
             } catch (InterruptedException e) {
+            } finally {
+                streams.cancelAll();
+                release();
+            }
+        }
+
+        /**
+         * Writes the response to a request. Runs on a request thread. A streamed SCAN stays in flight until its last
+         * response.
+         */
+        private void respond(DatabaseProtos.Response result) {
+            try {
+                writeLock.lock();
+                try {
+                    result.writeDelimitedTo(out);
+                    out.flush();
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (IOException e) {
+                // The client went away, the parser will notice as well.
+            } finally {
+                if (!result.getMore()) {
+                    inFlight.release();
+                    release();
+                }
+            }
+        }
+
+        private void release() {
+            if (users.decrementAndGet() == 0) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                }
             }
         }
     }
@@ -97,27 +225,202 @@ public class ConcurrentServer implements Runnable {
     /**
      * Creates a fixed size thread pool and listens for clients on a given port. All clients will be accepted and the
      * processing will be submitted to the thread pool.
+     * <p>
+     * With virtual threads there is no pool: every client gets a virtual thread of its own right away, and so does
+     * every request if the processor was built by the constructor. The storage engines and the parser wait for I/O
+     * and for each other only with java.util.concurrent locks or with no lock held, so a virtual thread that blocks
+     * does not pin its carrier thread. The few synchronized sections on the request path, in TimingWheel and in
+     * streamed SCANs, only touch memory.
      */
     private void multiThreadListen() {
-        ExecutorService serverThreads = Executors.newFixedThreadPool(10);
+        LongAdder rejected = Metrics.counter("connections.rejected");
+        ExecutorService serverThreads;
+        if (virtualThreads) {
+            serverThreads = newVirtualThreadPerTaskExecutor();
+        } else {
+            // With fair scheduling, connections from different addresses take turns at the free threads, so a client
+            // that opens hundreds of connections does not make everybody else wait behind all of them.
+            BlockingQueue<Runnable> queue = Boolean.getBoolean("sfsu.fair")
+                    ? new FairQueue(CONNECTION_QUEUE_CAPACITY, 1, null, parser -> ((ClientParser) parser).client,
+                            parser -> 1, parser -> {
+                                rejected.increment();
+                                ((ClientParser) parser).reject();
+                            })
+                    : new ArrayBlockingQueue<>(CONNECTION_QUEUE_CAPACITY);
+            Metrics.gauge("connections.queued", queue::size);
+            serverThreads = new ThreadPoolExecutor(10, 10, 0, TimeUnit.MILLISECONDS, queue);
+        }
 
         try {
             // Create a server socket for the specified port.
-            ServerSocket serverSocket = new ServerSocket(port);
-            System.out.println(String.format("Server on port %d ready\n", port));
+            ServerSocket serverSocket = new ServerSocket(port, ACCEPT_BACKLOG);
+            Log.info("Server on port {} ready", port);
 
             // Listen for clients until interrupted.
             while (true) {
-                System.out.println("Accepting the next client\n");
                 Socket clientSocket = serverSocket.accept();
+                Log.debug("Accepted client {}", clientSocket.getRemoteSocketAddress());
 
                 // Create a new future using the ClientParser. The future will start to run as soon as there is a thread
                 // available in the pool.
-                serverThreads.submit(new ClientParser(clientSocket));
+                try {
+                    serverThreads.execute(new ClientParser(clientSocket, processor));
+                } catch (RejectedExecutionException e) {
+                    // Every connection thread is busy and too many connections are waiting already.
+                    rejected.increment();
+                    clientSocket.close();
+                }
                 // Resume to accept incoming clients immediatly.
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            Log.error("Server stopped", e);
+        }
+    }
+
+    /**
+     * Creates a server of the given kind. See main for the options.
+     */
+    static Runnable createServer(String kind, int port, StorageEngine database, FaultInjector injector) {
+        switch (kind) {
+            case "threads":
+                return new ConcurrentServer(port, newRequestProcessor(database, injector), false);
+            case "virtual":
+                return new ConcurrentServer(port,
+                        new RequestProcessor(database, newVirtualThreadPerTaskExecutor(), injector), true);
+            case "nio":
+                int eventLoops = Integer.getInteger("sfsu.eventLoops", Runtime.getRuntime().availableProcessors());
+                return new NioServer(port, newRequestProcessor(database, injector), eventLoops);
+            default:
+                throw new IllegalArgumentException("Unknown server: " + kind);
+        }
+    }
+
+    /**
+     * Creates the request processor of a server, with request threads of its own. With -Dsfsu.lanes=true high and low
+     * priority requests run on separate pools.
+     */
+    static RequestProcessor newRequestProcessor(StorageEngine database, FaultInjector injector) {
+        if (Boolean.getBoolean("sfsu.lanes")) {
+            return new RequestProcessor(database, newRequestThreads("requests.high", REQUEST_THREADS),
+                    newRequestThreads("requests.low", LOW_PRIORITY_THREADS), injector);
+        }
+        return new RequestProcessor(database, newRequestThreads(), injector);
+    }
+
+    /**
+     * Creates the pool of request threads, with a bounded queue. The pool rejects requests when the queue is full.
+     * With -Dsfsu.codel=TARGET:INTERVAL, in milliseconds, the queue also drops requests once the queueing delay has
+     * stayed above the target for an interval, see ControlledDelay. With -Dsfsu.fair=true clients take turns, see
+     * FairQueue.
+     */
+    static ExecutorService newRequestThreads() {
+        return newRequestThreads("requests", REQUEST_THREADS);
+    }
+
+    /**
+     * Creates a pool of request threads like newRequestThreads(), with its metrics named after the given prefix.
+     */
+    static ExecutorService newRequestThreads(String name, int threads) {
+        int capacity = Integer.getInteger("sfsu.queue", QUEUE_CAPACITY);
+        ControlledDelay delay = ControlledDelay.fromProperties();
+        LongAdder dropped = Metrics.counter(name + ".dropped");
+        Consumer<Runnable> drop = task -> {
+            dropped.increment();
+            RequestProcessor.reject(task);
+        };
+        if (Boolean.getBoolean("sfsu.fair")) {
+            FairQueue queue = new FairQueue(capacity, FAIR_QUANTUM, delay, RequestProcessor::clientOf,
+                    RequestProcessor::costOf, drop);
+            Metrics.gauge(name + ".clients", queue::clients);
+            return newRequestThreads(name, threads, queue);
+        }
+        if (delay != null) {
+            return newRequestThreads(name, threads, new CoDelQueue(capacity, delay, drop));
+        }
+        return newRequestThreads(name, threads, new ArrayBlockingQueue<>(capacity));
+    }
+
+    /**
+     * Creates the pool of request threads around the given queue.
+     */
+    static ExecutorService newRequestThreads(BlockingQueue<Runnable> queue) {
+        return newRequestThreads("requests", REQUEST_THREADS, queue);
+    }
+
+    private static ExecutorService newRequestThreads(String name, int threads, BlockingQueue<Runnable> queue) {
+        Metrics.gauge(name + ".queued", queue::size);
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue);
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task. Virtual threads need Java 21 or later; on
+     * older runtimes this falls back to a new platform thread for every task.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            Log.warn("Virtual threads are not available on Java {}, using a platform thread per task instead",
+                    Runtime.version().feature());
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Creates the storage engine with the given name.
+     */
+    static StorageEngine createEngine(String name) {
+        switch (name) {
+            case "concurrent":
+                return new ConcurrentDatabase();
+            case "ordered":
+                return new OrderedDatabase();
+            case "database":
+                return Database.create();
+            case "offheap":
+                OffHeapDatabase offHeap = new OffHeapDatabase();
+                Metrics.gauge("offheap.bytes", offHeap::offHeapBytes);
+                return offHeap;
+            case "lsm":
+                try {
+                    LsmDatabase lsm = new LsmDatabase(Paths.get(System.getProperty("sfsu.lsm.dir", "lsm")));
+                    Metrics.gauge("lsm.tables", lsm::tables);
+                    Metrics.gauge("lsm.disk.bytes", lsm::diskBytes);
+                    return lsm;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case "btree":
+                try {
+                    BTreeDatabase btree = new BTreeDatabase(Paths.get(System.getProperty("sfsu.btree.file", "btree")),
+                            Integer.getInteger("sfsu.btree.cachePages", BTreeDatabase.DEFAULT_CACHE_PAGES));
+                    Metrics.gauge("btree.keys", btree::keys);
+                    Metrics.gauge("btree.disk.bytes", btree::diskBytes);
+                    return btree;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case "mapped":
+                try {
+                    MappedDatabase mapped =
+                            new MappedDatabase(Paths.get(System.getProperty("sfsu.mapped.dir", "mapped")));
+                    Metrics.gauge("mapped.keys", mapped::size);
+                    Metrics.gauge("mapped.disk.bytes", mapped::diskBytes);
+                    Metrics.gauge("mapped.garbage.bytes", mapped::garbageBytes);
+                    return mapped;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case "cache":
+                CacheDatabase cache =
+                        new CacheDatabase(Long.getLong("sfsu.cache.bytes", CacheDatabase.DEFAULT_MAX_BYTES));
+                Metrics.gauge("cache.bytes", cache::bytes);
+                Metrics.gauge("cache.keys", cache::keys);
+                return cache;
+            case "bytes":
+                return new ByteDatabase();
+            default:
+                throw new IllegalArgumentException("Unknown storage engine: " + name);
         }
     }
 
@@ -126,6 +429,40 @@ public class ConcurrentServer implements Runnable {
      * <p>
      * Example:
      * java -cp lib/*:out/production/Database sfsu.ConcurrentServer 1080
+     * <p>
+     * The storage engine is picked with -Dsfsu.engine=bytes|concurrent|ordered|database|offheap|lsm|btree|mapped|cache,
+     * bytes by default. Only ordered, lsm and btree answer SCANs. The lsm engine keeps its files in -Dsfsu.lsm.dir, lsm
+     * by default. The btree engine keeps its pages in -Dsfsu.btree.file, btree by default, and caches
+     * -Dsfsu.btree.cachePages of them. The mapped engine keeps its files in -Dsfsu.mapped.dir, mapped by default.
+     * Engines with files are closed when the server shuts down. The cache engine evicts keys to stay within
+     * -Dsfsu.cache.bytes, 64 MB by default. The way clients are served is picked with
+     * -Dsfsu.server:
+     * threads (default): a fixed pool of 10 threads, each serving one connection at a time.
+     * virtual: a virtual thread per connection and per request, so blocking reads do not limit concurrency.
+     * nio: a few selector threads for all connections (-Dsfsu.eventLoops, one per processor by default).
+     * <p>
+     * Latency and errors can be injected per operation type, see FaultInjector.
+     * <p>
+     * The log level is set with -Dsfsu.log.level, see Log.
+     * <p>
+     * Requests are answered BUSY when more than -Dsfsu.queue (1000 by default) wait for a request thread. Queue depths
+     * and rejections are published as metrics, see Metrics. -Dsfsu.codel=5:100 sheds requests that queued for more
+     * than 5 ms once that has lasted for 100 ms. -Dsfsu.fair=true shares the threads fairly between clients, which are
+     * told apart by address or by the client field of their requests. -Dsfsu.lanes=true runs high priority requests
+     * (GETs, unless requests say otherwise) on threads of their own. None of these apply to the virtual server, which
+     * starts a virtual thread for every request at once: it never answers BUSY, and its only bound is the number of
+     * requests a connection may have in flight.
+     * <p>
+     * With -Dsfsu.wal=DIRECTORY every PUT and DELETE is logged in that directory and replayed on the next start, see
+     * LoggedDatabase. -Dsfsu.wal.sync picks when writes reach the disk: always (the default), group:MILLIS:RECORDS or
+     * buffered. -Dsfsu.snapshot.interval=SECONDS also writes a snapshot of every key that often, so that a restart
+     * loads the snapshot and only replays the log written after it.
+     * <p>
+     * With -Dsfsu.filter=true GETs for missing keys are answered from a bloom filter of the keys, sized for at least
+     * -Dsfsu.filter.keys of them (a million by default), see FilteredDatabase.
+     * <p>
+     * With -Dsfsu.ttl=true PUTs may give their key a time to live, see ExpiringDatabase. The server refuses to start
+     * with it on over data written with it off, and the other way round.
      *
      * @param args the first element must be a port number
      * @throws Exception whenever anything bad happens, good enough for a quick test.
@@ -143,7 +480,52 @@ public class ConcurrentServer implements Runnable {
         // thus that server is concurrent. What we do not, because we do not need to, is to run multiple servers, each
         // on different ports. Most services do not have to do this (but can when needed, such as a webserver.)
         ExecutorService serverThreads = Executors.newSingleThreadExecutor();
-        ConcurrentServer server = new ConcurrentServer(port);
+        StorageEngine engine = createEngine(System.getProperty("sfsu.engine", "bytes"));
+        StorageEngine database = engine;
+        if (Boolean.getBoolean("sfsu.filter")) {
+            database = new FilteredDatabase(database, Long.getLong("sfsu.filter.keys", 1_000_000));
+        }
+        String wal = System.getProperty("sfsu.wal");
+        LoggedDatabase logged = wal == null ? null
+                : new LoggedDatabase(database, Paths.get(wal), System.getProperty("sfsu.wal.sync", "always"));
+        if (logged != null) {
+            long snapshotInterval = Long.getLong("sfsu.snapshot.interval", 0);
+            if (snapshotInterval > 0) {
+                logged.snapshotEvery(snapshotInterval);
+            }
+            database = logged;
+        }
+        ExpiringDatabase expiring = Boolean.getBoolean("sfsu.ttl") ? new ExpiringDatabase(database) : null;
+        if (expiring != null) {
+            database = expiring;
+        } else {
+            ExpiringDatabase.checkPlain(database);
+        }
+        // One hook closes the layers from the outside in, so that none of them writes to one already closed: expiry
+        // stops deleting, then the log is forced, then the engine writes itself out.
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (expiring != null) {
+                expiring.close();
+            }
+            try {
+                if (logged != null) {
+                    logged.close();
+                }
+            } catch (IOException e) {
+                Log.error("Could not close the write-ahead log", e);
+            }
+            try {
+                if (engine instanceof Closeable) {
+                    ((Closeable) engine).close();
+                }
+            } catch (IOException e) {
+                Log.error("Could not close the storage engine", e);
+            }
+        }));
+        FaultInjector injector = FaultInjector.fromProperties();
+        Metrics.gauge("log.dropped", Log::dropped);
+        Metrics.publish();
+        Runnable server = createServer(System.getProperty("sfsu.server", "threads"), port, database, injector);
         Future serverFuture = serverThreads.submit(server);
         serverFuture.get();
     }
@@ -0,0 +1,112 @@
+package sfsu;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the same load against each kind of server at several numbers of concurrent clients. Every client opens its own
+ * connection, sends its requests one after the other over it, and closes it. The benchmark reports how long it took
+ * for all clients to finish and the latency of individual requests, which includes the time a client waits for a
+ * server thread to pick its connection up.
+ * <p>
+ * Servers and clients run in the same process, so 10000 clients need about 20000 file descriptors (ulimit -n).
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.ConnectionScalingBenchmark [requests per client] [clients...]
+ */
+public class ConnectionScalingBenchmark {
+
+    static final String[] SERVERS = {"threads", "virtual", "nio"};
+    static final int[] CLIENTS = {10, 1000, 10000};
+    static final int FIRST_PORT = 7300;
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int[] clientCounts = CLIENTS;
+        if (args.length > 1) {
+            clientCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; ++i) {
+                clientCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        report.println(String.format("%-8s %8s %12s %12s %12s %12s", "server", "clients", "total ms", "p50 ms",
+                "p99 ms", "max ms"));
+        int port = FIRST_PORT;
+        for (String kind : SERVERS) {
+            int serverPort = port++;
+            Thread server = new Thread(ConcurrentServer.createServer(kind, serverPort, new ByteDatabase(),
+                    FaultInjector.NONE));
+            server.setDaemon(true);
+            server.start();
+            Thread.sleep(500);
+
+            for (int clients : clientCounts) {
+                long[] latencies = new long[clients * requests];
+                CountDownLatch done = new CountDownLatch(clients);
+                ExecutorService clientThreads = ConcurrentServer.newVirtualThreadPerTaskExecutor();
+
+                long begin = System.nanoTime();
+                for (int c = 0; c < clients; ++c) {
+                    final int client = c;
+                    clientThreads.execute(() -> {
+                        try {
+                            runClient(serverPort, client, requests, latencies);
+                        } catch (Exception e) {
+                            e.printStackTrace();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                done.await();
+                long total = System.nanoTime() - begin;
+                clientThreads.shutdown();
+
+                Benchmark.Latencies sorted = new Benchmark.Latencies(latencies, latencies.length);
+                report.println(String.format("%-8s %8d %12d %12.1f %12.1f %12.1f", kind, clients, total / 1_000_000,
+                        sorted.percentile(50) / 1e6, sorted.percentile(99) / 1e6, sorted.max() / 1e6));
+            }
+        }
+        // The servers never stop on their own.
+        System.exit(0);
+    }
+
+    /**
+     * Connects, sends the requests one at a time and records the latency of each one, measured from the moment the
+     * client wanted to send it.
+     */
+    private static void runClient(int port, int client, int requests, long[] latencies) throws Exception {
+        long begin = System.nanoTime();
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            for (int i = 0; i < requests; ++i) {
+                DatabaseProtos.Request.newBuilder()
+                        .setOperation(i % 2 == 0
+                                ? DatabaseProtos.Request.OperationType.PUT
+                                : DatabaseProtos.Request.OperationType.GET)
+                        .setKey(Integer.toString(client))
+                        .setValue(Integer.toString(i))
+                        .build()
+                        .writeDelimitedTo(out);
+                out.flush();
+                DatabaseProtos.Response.parseDelimitedFrom(in);
+
+                long now = System.nanoTime();
+                latencies[client * requests + i] = now - begin;
+                begin = now;
+            }
+        }
+    }
+}
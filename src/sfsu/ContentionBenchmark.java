@@ -0,0 +1,53 @@
+package sfsu;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares the original semaphore based readers-writers design, the Database and the ConcurrentDatabase under
+ * contention. Every thread runs a mix of GET, PUT and DELETE operations on random keys of a shared engine.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.ContentionBenchmark [seconds per run]
+ */
+public class ContentionBenchmark {
+
+    static final int[] THREADS = {1, 4, 16, 64};
+    static final int KEYS = 100_000;
+
+    // Out of every 100 operations, this many are reads. The rest are split evenly between PUT and DELETE.
+    static final int READ_PERCENT = 80;
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) * 1000 : 2000;
+
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            keys[i] = Integer.toString(i);
+        }
+
+        System.out.println(String.format("%-20s %8s %15s", "engine", "threads", "ops/sec"));
+        for (int threads : THREADS) {
+            StorageEngine[] engines = {new SemaphoreDatabase(), Database.create(), new ConcurrentDatabase(KEYS)};
+            for (StorageEngine engine : engines) {
+                for (String key : keys) {
+                    engine.PUT(key, key);
+                }
+
+                double opsPerSecond = Benchmark.throughput(threads, millis, (thread, iteration) -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String key = keys[random.nextInt(KEYS)];
+                    int dice = random.nextInt(100);
+                    if (dice < READ_PERCENT) {
+                        engine.GET(key);
+                    } else if ((dice & 1) == 0) {
+                        engine.PUT(key, key);
+                    } else {
+                        engine.DELETE(key);
+                    }
+                });
+                System.out.println(String.format("%-20s %8d %15.0f", engine.getClass().getSimpleName(), threads,
+                        opsPerSecond));
+            }
+        }
+    }
+}
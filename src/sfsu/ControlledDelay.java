@@ -0,0 +1,77 @@
+package sfsu;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Controlled Delay (CoDel) decision, shared by the queues that shed load. A queue asks it about every task it
+ * takes out. Once the time tasks spent in the queue has stayed above the target for a whole interval, the queue is not
+ * absorbing a burst any more but standing, and every task that waited longer than the target should be dropped, until
+ * one comes out within the target.
+ * <p>
+ * Network CoDel drops one packet at a time, at a slowly increasing rate. A server can answer a request it will not run
+ * for almost nothing, so here every late task is dropped while overloaded, which keeps the queueing delay near the
+ * target even when requests arrive twice as fast as they are served.
+ * <p>
+ * Not thread safe. Queues call it under their own lock.
+ */
+final class ControlledDelay {
+
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    // When the queueing delay will have been above the target for a whole interval, or 0 while it is below.
+    private long firstAboveTime;
+
+    // Whether the queue is overloaded and dropping late tasks.
+    private boolean dropping;
+
+    ControlledDelay(long target, long interval, TimeUnit unit) {
+        this.targetNanos = unit.toNanos(target);
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    /**
+     * Reads -Dsfsu.codel=TARGET:INTERVAL, in milliseconds. Returns null if it is not set.
+     */
+    static ControlledDelay fromProperties() {
+        String codel = System.getProperty("sfsu.codel");
+        if (codel == null) {
+            return null;
+        }
+        String[] parts = codel.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected -Dsfsu.codel=TARGET:INTERVAL in milliseconds: " + codel);
+        }
+        return new ControlledDelay(Long.parseLong(parts[0]), Long.parseLong(parts[1]), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns whether a task queued at the given time and taken out now should be dropped.
+     */
+    boolean shouldDrop(long queued, long now) {
+        if (now - queued < targetNanos) {
+            firstAboveTime = 0;
+            dropping = false;
+            return false;
+        }
+        if (!dropping) {
+            if (firstAboveTime == 0) {
+                firstAboveTime = now + intervalNanos;
+                return false;
+            }
+            if (now < firstAboveTime) {
+                return false;
+            }
+            dropping = true;
+        }
+        return true;
+    }
+
+    /**
+     * Tells that the queue ran empty, which ends any overload.
+     */
+    void empty() {
+        firstAboveTime = 0;
+        dropping = false;
+    }
+}
@@ -2,23 +2,32 @@
 Kevin Baltazar Reyes
 SFSU Spring 2019
 
-Database implemented using the Readers-Writers algorithm
+Database implemented as an open-addressing hash table behind a StampedLock: GETs read optimistically without
+locking and retry under the read lock only if a write got in the way.
  */
 
 package sfsu;
 
-import java.util.HashMap;
-import java.util.concurrent.Semaphore;
+import com.google.protobuf.ByteString;
 
-public class Database<K, V> {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+public class Database<K, V> implements StorageEngine {
 
     // Class member variables.
-    Semaphore mutex = new Semaphore(1); //used for reader and write
-    Semaphore write = new Semaphore(1); //used just for writer
-    int read_count = 0;
 
-    // TODO: Implement. Use a java.util.HashMap as the underlying hash table.
-    HashMap<String, String> javaMap;
+    // Writers take the write lock. Readers first try an optimistic read, which does not write any shared state, and
+    // only take the read lock when a writer got in the way.
+    private final StampedLock lock = new StampedLock();
+
+    // Open addressing hash table with linear probing. Keys live in the even slots and each value in the slot right
+    // after its key. Optimistic readers may probe the table while a writer is changing it, so a lookup never follows
+    // a pointer a writer can leave half-updated and never probes more than the whole table.
+    private String[] table;
+    private int size;
 
     // Public methods
 
@@ -33,58 +42,36 @@ public class Database<K, V> {
     /**
      * Inserts a new value in the hash table.
      */
+    @Override
     public void PUT(String key, String value) {
-        // TODO: Implement. Writer
+        long stamp = lock.writeLock();
         try {
-            write.acquire();
-//            System.out.println("Write semaphore acquired for insert operator");
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            insert(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        javaMap.put(key, value);
-        write.release();
     }
 
     /**
      * Looks for a value with key k. Return null if the value does not exist.
      */
+    @Override
     public String GET(String k) {
-        // TODO: Implement. Reader
-        if (javaMap.containsKey(k)) {
-            try {
-                mutex.acquire();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            read_count++;
-            if (read_count == 1) {
-                try {
-                    write.acquire();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            String[] snapshot = table;
+            String valueReturned = snapshot[2 * slotOf(snapshot, k) + 1];
+            if (lock.validate(stamp)) {    // no writer ran while reading, so the value is consistent
+                return valueReturned;
             }
-            mutex.release();
-
-            String valueReturned = javaMap.get(k);   //reading is performed
-
-            try {
-                mutex.acquire();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            read_count--;
-            if (read_count == 0) {  //makes sure that read count gets back to zero before releasing the write semaphore
-                write.release();
-            }
-            mutex.release();
-
-            //            System.out.println("The value that is returned is: " + javaMap.get(k));
-            return valueReturned;
-        } else {
-            return null;
         }
 
+        stamp = lock.readLock();
+        try {
+            return table[2 * slotOf(table, k) + 1];
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -92,30 +79,183 @@ public class Database<K, V> {
      *
      * @param k
      */
+    @Override
     public void DELETE(String k) {
-        // TODO: Implement. Writer
-        if (javaMap.containsKey(k)) {
-            try {
-                write.acquire();
-//            System.out.println("Write semaphore acquired for insert operator");
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        long stamp = lock.writeLock();
+        try {
+            remove(k);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Looks up every key under a single read lock.
+     */
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        List<String> strings = new ArrayList<>(keys.size());
+        for (ByteString key : keys) {
+            strings.add(key.toStringUtf8());
+        }
+        List<ByteString> values = new ArrayList<>(keys.size());
+        long stamp = lock.readLock();
+        try {
+            for (String key : strings) {
+                String value = table[2 * slotOf(table, key) + 1];
+                values.add(value == null ? null : ByteString.copyFromUtf8(value));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return values;
+    }
+
+    /**
+     * Inserts every pair under a single write lock. Keys and values are decoded before taking the lock.
+     */
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        String[] pairs = new String[2 * keys.size()];
+        for (int i = 0; i < keys.size(); ++i) {
+            pairs[2 * i] = keys.get(i).toStringUtf8();
+            pairs[2 * i + 1] = values.get(i).toStringUtf8();
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < pairs.length; i += 2) {
+                insert(pairs[i], pairs[i + 1]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes every key under a single write lock.
+     */
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        List<String> strings = new ArrayList<>(keys.size());
+        for (ByteString key : keys) {
+            strings.add(key.toStringUtf8());
+        }
+        long stamp = lock.writeLock();
+        try {
+            for (String key : strings) {
+                remove(key);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies the table under the read lock and iterates over the copy, so writers only wait for the copy. Keys and
+     * values are immutable Strings, so the copy is a consistent point in time.
+     */
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        String[] copy;
+        long stamp = lock.readLock();
+        try {
+            copy = table.clone();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int i = 0; i < copy.length; i += 2) {
+            if (copy[i] != null) {
+                action.accept(ByteString.copyFromUtf8(copy[i]), ByteString.copyFromUtf8(copy[i + 1]));
             }
-            javaMap.remove(k);
-            write.release();
         }
     }
 
     // Private methods
 
+    /**
+     * Inserts or replaces a value. The caller holds the write lock.
+     */
+    private void insert(String key, String value) {
+        if (2 * (size + 1) > capacity(table)) {
+            resize(2 * capacity(table));
+        }
+        int slot = slotOf(table, key);
+        if (table[2 * slot] == null) {
+            table[2 * slot] = key;
+            ++size;
+        }
+        table[2 * slot + 1] = value;
+    }
+
+    /**
+     * Removes a key if it exists. The caller holds the write lock.
+     */
+    private void remove(String k) {
+        int mask = capacity(table) - 1;
+        int hole = slotOf(table, k);
+        if (table[2 * hole] == null) {
+            return;
+        }
+        table[2 * hole] = null;
+        table[2 * hole + 1] = null;
+        --size;
+
+        // Shift the rest of the probe sequence back so that no key is left behind the hole.
+        for (int slot = (hole + 1) & mask; table[2 * slot] != null; slot = (slot + 1) & mask) {
+            int home = hash(table[2 * slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[2 * hole] = table[2 * slot];
+                table[2 * hole + 1] = table[2 * slot + 1];
+                table[2 * slot] = null;
+                table[2 * slot + 1] = null;
+                hole = slot;
+            }
+        }
+    }
+
     /**
      * Private constructor.
      */
     Database() {
-        // TODO: Implement
-        javaMap = new HashMap<String, String>();
+        table = new String[2 * 16];
+    }
+
+    private static int capacity(String[] table) {
+        return table.length / 2;
+    }
 
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
     }
 
+    /**
+     * Returns the slot that holds the key, or the empty slot where it would be inserted. The table is never full,
+     * but a reader racing with a writer can see it that way, so the probe is bounded and the caller validates.
+     */
+    private static int slotOf(String[] table, String key) {
+        int mask = capacity(table) - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < mask; ++probes) {
+            String candidate = table[2 * slot];
+            if (candidate == null || candidate.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
 
-}
\ No newline at end of file
+    private void resize(int newCapacity) {
+        String[] old = table;
+        String[] resized = new String[2 * newCapacity];
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != null) {
+                int slot = slotOf(resized, old[i]);
+                resized[2 * slot] = old[i];
+                resized[2 * slot + 1] = old[i + 1];
+            }
+        }
+        table = resized;
+    }
+}
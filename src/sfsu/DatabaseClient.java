@@ -0,0 +1,396 @@
+package sfsu;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A connection to the database server. Requests may be pipelined: send() returns immediately, and every request gets
+ * an id that a background thread uses to match responses, which the server may send in any order.
+ * <p>
+ * Safe to use from multiple threads.
+ */
+public class DatabaseClient implements Closeable {
+
+    // How often get, put, delete and the batch operations retry a request the server was too busy to execute, and
+    // the longest wait before the first retry. The wait doubles with every retry.
+    static final int BUSY_RETRIES = 5;
+    static final long FIRST_BACKOFF_MICROS = 1000;
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<Long, CompletableFuture<DatabaseProtos.Response>> pending =
+            new ConcurrentHashMap<>();
+
+    // The pages of streamed SCANs not yet handed to their action, by request id. The credit given to the server
+    // bounds each queue. CLOSED is queued when the connection is gone.
+    private final ConcurrentHashMap<Long, BlockingQueue<DatabaseProtos.Response>> streams = new ConcurrentHashMap<>();
+    private static final DatabaseProtos.Response CLOSED =
+            DatabaseProtos.Response.newBuilder().setStatus(DatabaseProtos.Response.Status.ERROR).build();
+    private volatile IOException failure;
+
+    /**
+     * Connects to the server. Requests are small and often wait for each other, so Nagle's algorithm is disabled to
+     * avoid delaying them.
+     */
+    public DatabaseClient(String serverAddress, int port) throws IOException {
+        socket = new Socket(serverAddress, port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedInputStream(socket.getInputStream());
+        out = new BufferedOutputStream(socket.getOutputStream());
+
+        Thread reader = new Thread(this::readResponses, "DatabaseClient reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Sends a request without waiting for its response. The id of the request is overwritten.
+     */
+    public CompletableFuture<DatabaseProtos.Response> send(DatabaseProtos.Request request) {
+        long id = nextId.incrementAndGet();
+        CompletableFuture<DatabaseProtos.Response> response = new CompletableFuture<>();
+        pending.put(id, response);
+        if (failure != null) {    // the connection is gone, nobody would ever complete the response
+            pending.remove(id);
+            response.completeExceptionally(failure);
+            return response;
+        }
+
+        try {
+            write(request.toBuilder().setId(id).build());
+        } catch (IOException e) {
+            pending.remove(id);
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private void write(DatabaseProtos.Request request) throws IOException {
+        writeLock.lock();
+        try {
+            // Write the request message to the socket, in a single segment.
+            request.writeDelimitedTo(out);
+            out.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     */
+    public DatabaseProtos.Response execute(DatabaseProtos.Request request) throws IOException {
+        try {
+            return send(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the value stored for the key, or null if there is none.
+     */
+    public String get(String key) throws IOException {
+        DatabaseProtos.Response response = check(DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.GET)
+                .setKey(key)
+                .build());
+        return response.hasValue() ? response.getValue() : null;
+    }
+
+    /**
+     * Stores a value for the key.
+     */
+    public void put(String key, String value) throws IOException {
+        check(DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.PUT)
+                .setKey(key)
+                .setValue(value)
+                .build());
+    }
+
+    /**
+     * Stores a value for the key that expires after the given number of milliseconds. The server must run with
+     * -Dsfsu.ttl=true.
+     */
+    public void put(String key, String value, long ttlMillis) throws IOException {
+        check(DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.PUT)
+                .setKey(key)
+                .setValue(value)
+                .setTtl(ttlMillis)
+                .build());
+    }
+
+    /**
+     * Deletes the key, if it exists.
+     */
+    public void delete(String key) throws IOException {
+        check(DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.DELETE)
+                .setKey(key)
+                .build());
+    }
+
+    /**
+     * Returns the values stored for the keys, in the same order, with null for keys that have none. All the keys are
+     * looked up in a single round trip.
+     */
+    public List<String> multiGet(List<String> keys) throws IOException {
+        DatabaseProtos.Request.Builder batch = newBatch();
+        for (String key : keys) {
+            batch.addBatchBuilder()
+                    .setOperation(DatabaseProtos.Request.OperationType.GET)
+                    .setKey(key);
+        }
+        DatabaseProtos.Response response = check(batch.build());
+        List<String> values = new ArrayList<>(keys.size());
+        for (DatabaseProtos.Response value : response.getBatchList()) {
+            values.add(value.hasValue() ? value.getValue() : null);
+        }
+        return values;
+    }
+
+    /**
+     * Stores every entry in a single round trip.
+     */
+    public void multiPut(Map<String, String> entries) throws IOException {
+        DatabaseProtos.Request.Builder batch = newBatch();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            batch.addBatchBuilder()
+                    .setOperation(DatabaseProtos.Request.OperationType.PUT)
+                    .setKey(entry.getKey())
+                    .setValue(entry.getValue());
+        }
+        check(batch.build());
+    }
+
+    /**
+     * Deletes every key that exists, in a single round trip.
+     */
+    public void multiDelete(Collection<String> keys) throws IOException {
+        DatabaseProtos.Request.Builder batch = newBatch();
+        for (String key : keys) {
+            batch.addBatchBuilder()
+                    .setOperation(DatabaseProtos.Request.OperationType.DELETE)
+                    .setKey(key);
+        }
+        check(batch.build());
+    }
+
+    /**
+     * Hands every key from start (included) to end (excluded, or the last key if null) and its value to the action,
+     * in key order. The keys are fetched a page of up to pageSize at a time, each page in a round trip of its own, so
+     * the server never holds the range in memory; keys written meanwhile may or may not be seen.
+     */
+    public void scan(String start, String end, int pageSize, BiConsumer<String, String> action) throws IOException {
+        DatabaseProtos.Request.Builder request = DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.SCAN)
+                .setKey(start)
+                .setLimit(pageSize);
+        if (end != null) {
+            request.setEnd(end);
+        }
+        while (true) {
+            DatabaseProtos.Response page = check(request.build());
+            for (DatabaseProtos.Response pair : page.getBatchList()) {
+                action.accept(pair.getKey(), pair.getValue());
+            }
+            if (!page.hasCursor()) {
+                return;
+            }
+            request.setCursorBytes(page.getCursorBytes());
+        }
+    }
+
+    /**
+     * Like scan, but the server streams the pages without waiting for a request for each: it sends up to window pages
+     * ahead, and every page handed to the action lets it send one more. The first keys reach the action after a
+     * single round trip, and neither side holds more than window pages. If the server becomes too busy midway, the
+     * scan starts again after the last page it sent.
+     */
+    public void streamScan(String start, String end, int pageSize, int window, BiConsumer<String, String> action)
+            throws IOException {
+        DatabaseProtos.Request.Builder request = DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.SCAN)
+                .setKey(start)
+                .setLimit(pageSize)
+                .setCredit(window);
+        if (end != null) {
+            request.setEnd(end);
+        }
+        long backoff = FIRST_BACKOFF_MICROS;
+        for (int retries = 0; ; ++retries) {
+            DatabaseProtos.Response.Status status = stream(request, action);
+            if (status == DatabaseProtos.Response.Status.OK) {
+                return;
+            }
+            if (status != DatabaseProtos.Response.Status.BUSY || retries == BUSY_RETRIES) {
+                throw new IOException("The server could not execute the request: " + status);
+            }
+            try {
+                TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextLong(backoff) + 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to retry", e);
+            }
+            backoff *= 2;
+        }
+    }
+
+    /**
+     * Runs one streamed SCAN, moving the cursor of the request past every page handed to the action, and returns the
+     * status it ended with. Cancels the stream if the action throws.
+     */
+    private DatabaseProtos.Response.Status stream(DatabaseProtos.Request.Builder request,
+                                                  BiConsumer<String, String> action) throws IOException {
+        long id = nextId.incrementAndGet();
+        BlockingQueue<DatabaseProtos.Response> pages = new LinkedBlockingQueue<>();
+        streams.put(id, pages);
+        boolean done = false;
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            write(request.setId(id).build());
+            DatabaseProtos.Request credit = DatabaseProtos.Request.newBuilder()
+                    .setOperation(DatabaseProtos.Request.OperationType.CREDIT)
+                    .setId(id)
+                    .setCredit(1)
+                    .build();
+            while (true) {
+                DatabaseProtos.Response page = pages.take();
+                if (page == CLOSED) {
+                    done = true;
+                    throw failure;
+                }
+                done = !page.getMore();
+                if (page.getStatus() != DatabaseProtos.Response.Status.OK) {
+                    return page.getStatus();
+                }
+                for (DatabaseProtos.Response pair : page.getBatchList()) {
+                    action.accept(pair.getKey(), pair.getValue());
+                }
+                if (page.hasCursor()) {
+                    request.setCursorBytes(page.getCursorBytes());
+                }
+                if (done) {
+                    return DatabaseProtos.Response.Status.OK;
+                }
+                write(credit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a response", e);
+        } finally {
+            streams.remove(id);
+            if (!done) {
+                try {
+                    write(DatabaseProtos.Request.newBuilder()
+                            .setOperation(DatabaseProtos.Request.OperationType.CANCEL)
+                            .setId(id)
+                            .build());
+                } catch (IOException e) {
+                    // The connection is gone, and the stream with it.
+                }
+            }
+        }
+    }
+
+    private static DatabaseProtos.Request.Builder newBatch() {
+        return DatabaseProtos.Request.newBuilder().setOperation(DatabaseProtos.Request.OperationType.BATCH);
+    }
+
+    /**
+     * Sends a request, waits for its response and fails if the server could not execute it. A server that is too busy
+     * did not change anything, so the request is sent again after a random wait, up to BUSY_RETRIES times.
+     */
+    private DatabaseProtos.Response check(DatabaseProtos.Request request) throws IOException {
+        long backoff = FIRST_BACKOFF_MICROS;
+        for (int retries = 0; ; ++retries) {
+            DatabaseProtos.Response response = execute(request);
+            if (response.getStatus() == DatabaseProtos.Response.Status.BUSY && retries < BUSY_RETRIES) {
+                try {
+                    TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextLong(backoff) + 1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting to retry", e);
+                }
+                backoff *= 2;
+                continue;
+            }
+            if (response.getStatus() != DatabaseProtos.Response.Status.OK) {
+                throw new IOException("The server could not execute the request: " + response.getStatus());
+            }
+            return response;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Matches every response from the server with the request it answers, until the connection is closed. Requests
+     * still waiting at that point fail.
+     */
+    private void readResponses() {
+        IOException closed = new IOException("Connection closed");
+        try {
+            DatabaseProtos.Response response;
+            while ((response = DatabaseProtos.Response.parseDelimitedFrom(in)) != null) {
+                BlockingQueue<DatabaseProtos.Response> pages = streams.get(response.getId());
+                if (pages != null) {
+                    pages.add(response);
+                    continue;
+                }
+                CompletableFuture<DatabaseProtos.Response> waiting = pending.remove(response.getId());
+                if (waiting != null) {
+                    waiting.complete(response);
+                }
+            }
+        } catch (IOException e) {
+            closed = e;
+        }
+        failure = closed;
+        for (Long id : pending.keySet()) {
+            CompletableFuture<DatabaseProtos.Response> waiting = pending.remove(id);
+            if (waiting != null) {
+                waiting.completeExceptionally(closed);
+            }
+        }
+        for (BlockingQueue<DatabaseProtos.Response> pages : streams.values()) {
+            pages.add(CLOSED);
+        }
+    }
+}
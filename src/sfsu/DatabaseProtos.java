@@ -4,1893 +4,5134 @@
 package sfsu;
 
 public final class DatabaseProtos {
-    private DatabaseProtos() {
-    }
-
-    public static void registerAllExtensions(
-            com.google.protobuf.ExtensionRegistryLite registry) {
-    }
+  private DatabaseProtos() {}
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistryLite registry) {
+  }
+
+  public static void registerAllExtensions(
+      com.google.protobuf.ExtensionRegistry registry) {
+    registerAllExtensions(
+        (com.google.protobuf.ExtensionRegistryLite) registry);
+  }
+  public interface RequestOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:sfsu.Request)
+      com.google.protobuf.MessageOrBuilder {
 
-    public static void registerAllExtensions(
-            com.google.protobuf.ExtensionRegistry registry) {
-        registerAllExtensions(
-                (com.google.protobuf.ExtensionRegistryLite) registry);
-    }
-
-    public interface RequestOrBuilder extends
-            // @@protoc_insertion_point(interface_extends:sfsu.Request)
-            com.google.protobuf.MessageOrBuilder {
-
-        /**
-         * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-         */
-        boolean hasOperation();
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    boolean hasOperation();
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    sfsu.DatabaseProtos.Request.OperationType getOperation();
 
-        /**
-         * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-         */
-        sfsu.DatabaseProtos.Request.OperationType getOperation();
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    boolean hasKey();
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    java.lang.String getKey();
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getKeyBytes();
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        boolean hasKey();
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    boolean hasValue();
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    java.lang.String getValue();
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getValueBytes();
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        java.lang.String getKey();
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    boolean hasId();
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    long getId();
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        com.google.protobuf.ByteString
-        getKeyBytes();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    java.util.List<sfsu.DatabaseProtos.Request> 
+        getBatchList();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.Request getBatch(int index);
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    int getBatchCount();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+        getBatchOrBuilderList();
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+        int index);
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        boolean hasValue();
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    boolean hasClient();
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    java.lang.String getClient();
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    com.google.protobuf.ByteString
+        getClientBytes();
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        java.lang.String getValue();
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    boolean hasPriority();
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    sfsu.DatabaseProtos.Request.Priority getPriority();
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        com.google.protobuf.ByteString
-        getValueBytes();
-    }
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    boolean hasEnd();
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    java.lang.String getEnd();
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    com.google.protobuf.ByteString
+        getEndBytes();
 
     /**
-     * Protobuf type {@code sfsu.Request}
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    boolean hasLimit();
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
      */
-    public static final class Request extends
-            com.google.protobuf.GeneratedMessageV3 implements
-            // @@protoc_insertion_point(message_implements:sfsu.Request)
-            RequestOrBuilder {
-        private static final long serialVersionUID = 0L;
+    int getLimit();
 
-        // Use Request.newBuilder() to construct.
-        private Request(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
-            super(builder);
-        }
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    boolean hasCursor();
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    java.lang.String getCursor();
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    com.google.protobuf.ByteString
+        getCursorBytes();
 
-        private Request() {
-            operation_ = 0;
-            key_ = "";
-            value_ = "";
-        }
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    boolean hasCredit();
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    int getCredit();
 
-        @java.lang.Override
-        public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-            return this.unknownFields;
-        }
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    boolean hasTtl();
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    long getTtl();
+  }
+  /**
+   * <pre>
+   * A request intended to be sent from the client to the database server.
+   * </pre>
+   *
+   * Protobuf type {@code sfsu.Request}
+   */
+  public  static final class Request extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:sfsu.Request)
+      RequestOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Request.newBuilder() to construct.
+    private Request(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Request() {
+      operation_ = 0;
+      key_ = "";
+      value_ = "";
+      batch_ = java.util.Collections.emptyList();
+      client_ = "";
+      priority_ = 0;
+      end_ = "";
+      cursor_ = "";
+    }
 
-        private Request(
-                com.google.protobuf.CodedInputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            this();
-            if (extensionRegistry == null) {
-                throw new java.lang.NullPointerException();
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Request(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 8: {
+              int rawValue = input.readEnum();
+                @SuppressWarnings("deprecation")
+              sfsu.DatabaseProtos.Request.OperationType value = sfsu.DatabaseProtos.Request.OperationType.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(1, rawValue);
+              } else {
+                bitField0_ |= 0x00000001;
+                operation_ = rawValue;
+              }
+              break;
             }
-            int mutable_bitField0_ = 0;
-            com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-                    com.google.protobuf.UnknownFieldSet.newBuilder();
-            try {
-                boolean done = false;
-                while (!done) {
-                    int tag = input.readTag();
-                    switch (tag) {
-                        case 0:
-                            done = true;
-                            break;
-                        case 8: {
-                            int rawValue = input.readEnum();
-                            @SuppressWarnings("deprecation")
-                            sfsu.DatabaseProtos.Request.OperationType value = sfsu.DatabaseProtos.Request.OperationType.valueOf(rawValue);
-                            if (value == null) {
-                                unknownFields.mergeVarintField(1, rawValue);
-                            } else {
-                                bitField0_ |= 0x00000001;
-                                operation_ = rawValue;
-                            }
-                            break;
-                        }
-                        case 18: {
-                            com.google.protobuf.ByteString bs = input.readBytes();
-                            bitField0_ |= 0x00000002;
-                            key_ = bs;
-                            break;
-                        }
-                        case 26: {
-                            com.google.protobuf.ByteString bs = input.readBytes();
-                            bitField0_ |= 0x00000004;
-                            value_ = bs;
-                            break;
-                        }
-                        default: {
-                            if (!parseUnknownField(
-                                    input, unknownFields, extensionRegistry, tag)) {
-                                done = true;
-                            }
-                            break;
-                        }
-                    }
-                }
-            } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-                throw e.setUnfinishedMessage(this);
-            } catch (java.io.IOException e) {
-                throw new com.google.protobuf.InvalidProtocolBufferException(
-                        e).setUnfinishedMessage(this);
-            } finally {
-                this.unknownFields = unknownFields.build();
-                makeExtensionsImmutable();
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              key_ = bs;
+              break;
             }
-        }
-
-        public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-            return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
-        }
-
-        @java.lang.Override
-        protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-        internalGetFieldAccessorTable() {
-            return sfsu.DatabaseProtos.internal_static_sfsu_Request_fieldAccessorTable
-                    .ensureFieldAccessorsInitialized(
-                            sfsu.DatabaseProtos.Request.class, sfsu.DatabaseProtos.Request.Builder.class);
-        }
-
-        /**
-         * Protobuf enum {@code sfsu.Request.OperationType}
-         */
-        public enum OperationType
-                implements com.google.protobuf.ProtocolMessageEnum {
-            /**
-             * <code>GET = 0;</code>
-             */
-            GET(0),
-            /**
-             * <code>PUT = 1;</code>
-             */
-            PUT(1),
-            /**
-             * <code>DELETE = 2;</code>
-             */
-            DELETE(2),
-            ;
-
-            /**
-             * <code>GET = 0;</code>
-             */
-            public static final int GET_VALUE = 0;
-            /**
-             * <code>PUT = 1;</code>
-             */
-            public static final int PUT_VALUE = 1;
-            /**
-             * <code>DELETE = 2;</code>
-             */
-            public static final int DELETE_VALUE = 2;
-
-
-            public final int getNumber() {
-                return value;
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000004;
+              value_ = bs;
+              break;
             }
-
-            /**
-             * @deprecated Use {@link #forNumber(int)} instead.
-             */
-            @java.lang.Deprecated
-            public static OperationType valueOf(int value) {
-                return forNumber(value);
+            case 32: {
+              bitField0_ |= 0x00000008;
+              id_ = input.readUInt64();
+              break;
             }
-
-            public static OperationType forNumber(int value) {
-                switch (value) {
-                    case 0:
-                        return GET;
-                    case 1:
-                        return PUT;
-                    case 2:
-                        return DELETE;
-                    default:
-                        return null;
-                }
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) != 0)) {
+                batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Request>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              batch_.add(
+                  input.readMessage(sfsu.DatabaseProtos.Request.PARSER, extensionRegistry));
+              break;
             }
-
-            public static com.google.protobuf.Internal.EnumLiteMap<OperationType>
-            internalGetValueMap() {
-                return internalValueMap;
+            case 50: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000010;
+              client_ = bs;
+              break;
             }
-
-            private static final com.google.protobuf.Internal.EnumLiteMap<
-                    OperationType> internalValueMap =
-                    new com.google.protobuf.Internal.EnumLiteMap<OperationType>() {
-                        public OperationType findValueByNumber(int number) {
-                            return OperationType.forNumber(number);
-                        }
-                    };
-
-            public final com.google.protobuf.Descriptors.EnumValueDescriptor
-            getValueDescriptor() {
-                return getDescriptor().getValues().get(ordinal());
+            case 56: {
+              int rawValue = input.readEnum();
+                @SuppressWarnings("deprecation")
+              sfsu.DatabaseProtos.Request.Priority value = sfsu.DatabaseProtos.Request.Priority.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(7, rawValue);
+              } else {
+                bitField0_ |= 0x00000020;
+                priority_ = rawValue;
+              }
+              break;
             }
-
-            public final com.google.protobuf.Descriptors.EnumDescriptor
-            getDescriptorForType() {
-                return getDescriptor();
+            case 66: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000040;
+              end_ = bs;
+              break;
             }
-
-            public static final com.google.protobuf.Descriptors.EnumDescriptor
-            getDescriptor() {
-                return sfsu.DatabaseProtos.Request.getDescriptor().getEnumTypes().get(0);
+            case 72: {
+              bitField0_ |= 0x00000080;
+              limit_ = input.readUInt32();
+              break;
+            }
+            case 82: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000100;
+              cursor_ = bs;
+              break;
+            }
+            case 88: {
+              bitField0_ |= 0x00000200;
+              credit_ = input.readUInt32();
+              break;
+            }
+            case 96: {
+              bitField0_ |= 0x00000400;
+              ttl_ = input.readUInt64();
+              break;
             }
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000010) != 0)) {
+          batch_ = java.util.Collections.unmodifiableList(batch_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
+    }
 
-            private static final OperationType[] VALUES = values();
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return sfsu.DatabaseProtos.internal_static_sfsu_Request_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              sfsu.DatabaseProtos.Request.class, sfsu.DatabaseProtos.Request.Builder.class);
+    }
 
-            public static OperationType valueOf(
-                    com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
-                if (desc.getType() != getDescriptor()) {
-                    throw new java.lang.IllegalArgumentException(
-                            "EnumValueDescriptor is not for this type.");
-                }
-                return VALUES[desc.getIndex()];
-            }
+    /**
+     * Protobuf enum {@code sfsu.Request.OperationType}
+     */
+    public enum OperationType
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>GET = 0;</code>
+       */
+      GET(0),
+      /**
+       * <code>PUT = 1;</code>
+       */
+      PUT(1),
+      /**
+       * <code>DELETE = 2;</code>
+       */
+      DELETE(2),
+      /**
+       * <pre>
+       * Executes the requests in batch, in order, and answers them all in a single response. A batch is not atomic: if
+       * a request fails, the requests before it stay applied, and the response is ERROR. Its batch then answers every
+       * request, OK up to the failure and ERROR from there on; the failed ones may have been applied, in part for
+       * consecutive writes, which are handed to the engine together, and the ones after were not executed.
+       * </pre>
+       *
+       * <code>BATCH = 3;</code>
+       */
+      BATCH(3),
+      /**
+       * <pre>
+       * Lists the keys from key (included) to end (excluded) in order, with their values, a page at a time. Only
+       * engines that keep their keys in order can scan; the others answer ERROR.
+       * </pre>
+       *
+       * <code>SCAN = 4;</code>
+       */
+      SCAN(4),
+      /**
+       * <pre>
+       * Lets the streamed SCAN with the same id send credit more responses. Not answered.
+       * </pre>
+       *
+       * <code>CREDIT = 5;</code>
+       */
+      CREDIT(5),
+      /**
+       * <pre>
+       * Stops the streamed SCAN with the same id, which ends with the response it sends next. Not answered.
+       * </pre>
+       *
+       * <code>CANCEL = 6;</code>
+       */
+      CANCEL(6),
+      ;
+
+      /**
+       * <code>GET = 0;</code>
+       */
+      public static final int GET_VALUE = 0;
+      /**
+       * <code>PUT = 1;</code>
+       */
+      public static final int PUT_VALUE = 1;
+      /**
+       * <code>DELETE = 2;</code>
+       */
+      public static final int DELETE_VALUE = 2;
+      /**
+       * <pre>
+       * Executes the requests in batch, in order, and answers them all in a single response. A batch is not atomic: if
+       * a request fails, the requests before it stay applied, and the response is ERROR. Its batch then answers every
+       * request, OK up to the failure and ERROR from there on; the failed ones may have been applied, in part for
+       * consecutive writes, which are handed to the engine together, and the ones after were not executed.
+       * </pre>
+       *
+       * <code>BATCH = 3;</code>
+       */
+      public static final int BATCH_VALUE = 3;
+      /**
+       * <pre>
+       * Lists the keys from key (included) to end (excluded) in order, with their values, a page at a time. Only
+       * engines that keep their keys in order can scan; the others answer ERROR.
+       * </pre>
+       *
+       * <code>SCAN = 4;</code>
+       */
+      public static final int SCAN_VALUE = 4;
+      /**
+       * <pre>
+       * Lets the streamed SCAN with the same id send credit more responses. Not answered.
+       * </pre>
+       *
+       * <code>CREDIT = 5;</code>
+       */
+      public static final int CREDIT_VALUE = 5;
+      /**
+       * <pre>
+       * Stops the streamed SCAN with the same id, which ends with the response it sends next. Not answered.
+       * </pre>
+       *
+       * <code>CANCEL = 6;</code>
+       */
+      public static final int CANCEL_VALUE = 6;
+
+
+      public final int getNumber() {
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static OperationType valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static OperationType forNumber(int value) {
+        switch (value) {
+          case 0: return GET;
+          case 1: return PUT;
+          case 2: return DELETE;
+          case 3: return BATCH;
+          case 4: return SCAN;
+          case 5: return CREDIT;
+          case 6: return CANCEL;
+          default: return null;
+        }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<OperationType>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          OperationType> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<OperationType>() {
+              public OperationType findValueByNumber(int number) {
+                return OperationType.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.Request.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final OperationType[] VALUES = values();
+
+      public static OperationType valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
 
-            private final int value;
+      private final int value;
 
-            private OperationType(int value) {
-                this.value = value;
-            }
+      private OperationType(int value) {
+        this.value = value;
+      }
 
-            // @@protoc_insertion_point(enum_scope:sfsu.Request.OperationType)
+      // @@protoc_insertion_point(enum_scope:sfsu.Request.OperationType)
+    }
+
+    /**
+     * <pre>
+     * When the server runs priority lanes, high priority requests run on threads of their own, so low priority work
+     * never queues in front of them. Without it, GETs have high priority and everything else low.
+     * </pre>
+     *
+     * Protobuf enum {@code sfsu.Request.Priority}
+     */
+    public enum Priority
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>HIGH = 0;</code>
+       */
+      HIGH(0),
+      /**
+       * <code>LOW = 1;</code>
+       */
+      LOW(1),
+      ;
+
+      /**
+       * <code>HIGH = 0;</code>
+       */
+      public static final int HIGH_VALUE = 0;
+      /**
+       * <code>LOW = 1;</code>
+       */
+      public static final int LOW_VALUE = 1;
+
+
+      public final int getNumber() {
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Priority valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static Priority forNumber(int value) {
+        switch (value) {
+          case 0: return HIGH;
+          case 1: return LOW;
+          default: return null;
         }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Priority>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Priority> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Priority>() {
+              public Priority findValueByNumber(int number) {
+                return Priority.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.Request.getDescriptor().getEnumTypes().get(1);
+      }
+
+      private static final Priority[] VALUES = values();
+
+      public static Priority valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
 
-        private int bitField0_;
-        public static final int OPERATION_FIELD_NUMBER = 1;
-        private int operation_;
+      private final int value;
 
-        /**
-         * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-         */
-        public boolean hasOperation() {
-            return ((bitField0_ & 0x00000001) != 0);
-        }
+      private Priority(int value) {
+        this.value = value;
+      }
 
-        /**
-         * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-         */
-        public sfsu.DatabaseProtos.Request.OperationType getOperation() {
-            @SuppressWarnings("deprecation")
-            sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
-            return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
-        }
+      // @@protoc_insertion_point(enum_scope:sfsu.Request.Priority)
+    }
 
-        public static final int KEY_FIELD_NUMBER = 2;
-        private volatile java.lang.Object key_;
+    private int bitField0_;
+    public static final int OPERATION_FIELD_NUMBER = 1;
+    private int operation_;
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    public boolean hasOperation() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * All requests must specify the type of operation to be executed.
+     * </pre>
+     *
+     * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+     */
+    public sfsu.DatabaseProtos.Request.OperationType getOperation() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
+      return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
+    }
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        public boolean hasKey() {
-            return ((bitField0_ & 0x00000002) != 0);
+    public static final int KEY_FIELD_NUMBER = 2;
+    private volatile java.lang.Object key_;
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    public boolean hasKey() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    public java.lang.String getKey() {
+      java.lang.Object ref = key_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          key_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The key to get, set or delete, or the first key of a SCAN.
+     * </pre>
+     *
+     * <code>optional string key = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getKeyBytes() {
+      java.lang.Object ref = key_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        key_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        public java.lang.String getKey() {
-            java.lang.Object ref = key_;
-            if (ref instanceof java.lang.String) {
-                return (java.lang.String) ref;
-            } else {
-                com.google.protobuf.ByteString bs =
-                        (com.google.protobuf.ByteString) ref;
-                java.lang.String s = bs.toStringUtf8();
-                if (bs.isValidUtf8()) {
-                    key_ = s;
-                }
-                return s;
-            }
+    public static final int VALUE_FIELD_NUMBER = 3;
+    private volatile java.lang.Object value_;
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    public boolean hasValue() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    public java.lang.String getValue() {
+      java.lang.Object ref = value_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          value_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The value to put (ignored in all other operations.)
+     * </pre>
+     *
+     * <code>optional string value = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getValueBytes() {
+      java.lang.Object ref = value_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        value_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        /**
-         * <code>optional string key = 2;</code>
-         */
-        public com.google.protobuf.ByteString
-        getKeyBytes() {
-            java.lang.Object ref = key_;
-            if (ref instanceof java.lang.String) {
-                com.google.protobuf.ByteString b =
-                        com.google.protobuf.ByteString.copyFromUtf8(
-                                (java.lang.String) ref);
-                key_ = b;
-                return b;
-            } else {
-                return (com.google.protobuf.ByteString) ref;
-            }
-        }
+    public static final int ID_FIELD_NUMBER = 4;
+    private long id_;
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000008) != 0);
+    }
+    /**
+     * <pre>
+     * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+     * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+     * </pre>
+     *
+     * <code>optional uint64 id = 4;</code>
+     */
+    public long getId() {
+      return id_;
+    }
 
-        public static final int VALUE_FIELD_NUMBER = 3;
-        private volatile java.lang.Object value_;
+    public static final int BATCH_FIELD_NUMBER = 5;
+    private java.util.List<sfsu.DatabaseProtos.Request> batch_;
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public java.util.List<sfsu.DatabaseProtos.Request> getBatchList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+        getBatchOrBuilderList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public int getBatchCount() {
+      return batch_.size();
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.Request getBatch(int index) {
+      return batch_.get(index);
+    }
+    /**
+     * <pre>
+     * The requests of a BATCH operation. Their ids are ignored.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Request batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+        int index) {
+      return batch_.get(index);
+    }
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        public boolean hasValue() {
-            return ((bitField0_ & 0x00000004) != 0);
+    public static final int CLIENT_FIELD_NUMBER = 6;
+    private volatile java.lang.Object client_;
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public boolean hasClient() {
+      return ((bitField0_ & 0x00000010) != 0);
+    }
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public java.lang.String getClient() {
+      java.lang.Object ref = client_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          client_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+     * are attributed to the address they came from. Not authenticated in any way.
+     * </pre>
+     *
+     * <code>optional string client = 6;</code>
+     */
+    public com.google.protobuf.ByteString
+        getClientBytes() {
+      java.lang.Object ref = client_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        client_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        public java.lang.String getValue() {
-            java.lang.Object ref = value_;
-            if (ref instanceof java.lang.String) {
-                return (java.lang.String) ref;
-            } else {
-                com.google.protobuf.ByteString bs =
-                        (com.google.protobuf.ByteString) ref;
-                java.lang.String s = bs.toStringUtf8();
-                if (bs.isValidUtf8()) {
-                    value_ = s;
-                }
-                return s;
-            }
+    public static final int PRIORITY_FIELD_NUMBER = 7;
+    private int priority_;
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    public boolean hasPriority() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <code>optional .sfsu.Request.Priority priority = 7;</code>
+     */
+    public sfsu.DatabaseProtos.Request.Priority getPriority() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Request.Priority result = sfsu.DatabaseProtos.Request.Priority.valueOf(priority_);
+      return result == null ? sfsu.DatabaseProtos.Request.Priority.HIGH : result;
+    }
+
+    public static final int END_FIELD_NUMBER = 8;
+    private volatile java.lang.Object end_;
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public boolean hasEnd() {
+      return ((bitField0_ & 0x00000040) != 0);
+    }
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public java.lang.String getEnd() {
+      java.lang.Object ref = end_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          end_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The key a SCAN stops before. Without it the scan runs to the last key.
+     * </pre>
+     *
+     * <code>optional string end = 8;</code>
+     */
+    public com.google.protobuf.ByteString
+        getEndBytes() {
+      java.lang.Object ref = end_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        end_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        /**
-         * <code>optional string value = 3;</code>
-         */
-        public com.google.protobuf.ByteString
-        getValueBytes() {
-            java.lang.Object ref = value_;
-            if (ref instanceof java.lang.String) {
-                com.google.protobuf.ByteString b =
-                        com.google.protobuf.ByteString.copyFromUtf8(
-                                (java.lang.String) ref);
-                value_ = b;
-                return b;
-            } else {
-                return (com.google.protobuf.ByteString) ref;
-            }
+    public static final int LIMIT_FIELD_NUMBER = 9;
+    private int limit_;
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    public boolean hasLimit() {
+      return ((bitField0_ & 0x00000080) != 0);
+    }
+    /**
+     * <pre>
+     * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+     * </pre>
+     *
+     * <code>optional uint32 limit = 9;</code>
+     */
+    public int getLimit() {
+      return limit_;
+    }
+
+    public static final int CURSOR_FIELD_NUMBER = 10;
+    private volatile java.lang.Object cursor_;
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public boolean hasCursor() {
+      return ((bitField0_ & 0x00000100) != 0);
+    }
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public java.lang.String getCursor() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          cursor_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+     * </pre>
+     *
+     * <code>optional string cursor = 10;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCursorBytes() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        cursor_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        private byte memoizedIsInitialized = -1;
+    public static final int CREDIT_FIELD_NUMBER = 11;
+    private int credit_;
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    public boolean hasCredit() {
+      return ((bitField0_ & 0x00000200) != 0);
+    }
+    /**
+     * <pre>
+     * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+     * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+     * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+     * number of responses more the stream may send.
+     * </pre>
+     *
+     * <code>optional uint32 credit = 11;</code>
+     */
+    public int getCredit() {
+      return credit_;
+    }
 
-        @java.lang.Override
-        public final boolean isInitialized() {
-            byte isInitialized = memoizedIsInitialized;
-            if (isInitialized == 1) return true;
-            if (isInitialized == 0) return false;
+    public static final int TTL_FIELD_NUMBER = 12;
+    private long ttl_;
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    public boolean hasTtl() {
+      return ((bitField0_ & 0x00000400) != 0);
+    }
+    /**
+     * <pre>
+     * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+     * never expires, even if it was set to before.
+     * </pre>
+     *
+     * <code>optional uint64 ttl = 12;</code>
+     */
+    public long getTtl() {
+      return ttl_;
+    }
 
-            memoizedIsInitialized = 1;
-            return true;
-        }
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
-        @java.lang.Override
-        public void writeTo(com.google.protobuf.CodedOutputStream output)
-                throws java.io.IOException {
-            if (((bitField0_ & 0x00000001) != 0)) {
-                output.writeEnum(1, operation_);
-            }
-            if (((bitField0_ & 0x00000002) != 0)) {
-                com.google.protobuf.GeneratedMessageV3.writeString(output, 2, key_);
-            }
-            if (((bitField0_ & 0x00000004) != 0)) {
-                com.google.protobuf.GeneratedMessageV3.writeString(output, 3, value_);
-            }
-            unknownFields.writeTo(output);
-        }
+      memoizedIsInitialized = 1;
+      return true;
+    }
 
-        @java.lang.Override
-        public int getSerializedSize() {
-            int size = memoizedSize;
-            if (size != -1) return size;
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeEnum(1, operation_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, key_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, value_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeUInt64(4, id_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        output.writeMessage(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, client_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeEnum(7, priority_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 8, end_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        output.writeUInt32(9, limit_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 10, cursor_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        output.writeUInt32(11, credit_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        output.writeUInt64(12, ttl_);
+      }
+      unknownFields.writeTo(output);
+    }
 
-            size = 0;
-            if (((bitField0_ & 0x00000001) != 0)) {
-                size += com.google.protobuf.CodedOutputStream
-                        .computeEnumSize(1, operation_);
-            }
-            if (((bitField0_ & 0x00000002) != 0)) {
-                size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, key_);
-            }
-            if (((bitField0_ & 0x00000004) != 0)) {
-                size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, value_);
-            }
-            size += unknownFields.getSerializedSize();
-            memoizedSize = size;
-            return size;
-        }
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(1, operation_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, key_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, value_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(4, id_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, client_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(7, priority_);
+      }
+      if (((bitField0_ & 0x00000040) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(8, end_);
+      }
+      if (((bitField0_ & 0x00000080) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(9, limit_);
+      }
+      if (((bitField0_ & 0x00000100) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(10, cursor_);
+      }
+      if (((bitField0_ & 0x00000200) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(11, credit_);
+      }
+      if (((bitField0_ & 0x00000400) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(12, ttl_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
 
-        @java.lang.Override
-        public boolean equals(final java.lang.Object obj) {
-            if (obj == this) {
-                return true;
-            }
-            if (!(obj instanceof sfsu.DatabaseProtos.Request)) {
-                return super.equals(obj);
-            }
-            sfsu.DatabaseProtos.Request other = (sfsu.DatabaseProtos.Request) obj;
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof sfsu.DatabaseProtos.Request)) {
+        return super.equals(obj);
+      }
+      sfsu.DatabaseProtos.Request other = (sfsu.DatabaseProtos.Request) obj;
+
+      if (hasOperation() != other.hasOperation()) return false;
+      if (hasOperation()) {
+        if (operation_ != other.operation_) return false;
+      }
+      if (hasKey() != other.hasKey()) return false;
+      if (hasKey()) {
+        if (!getKey()
+            .equals(other.getKey())) return false;
+      }
+      if (hasValue() != other.hasValue()) return false;
+      if (hasValue()) {
+        if (!getValue()
+            .equals(other.getValue())) return false;
+      }
+      if (hasId() != other.hasId()) return false;
+      if (hasId()) {
+        if (getId()
+            != other.getId()) return false;
+      }
+      if (!getBatchList()
+          .equals(other.getBatchList())) return false;
+      if (hasClient() != other.hasClient()) return false;
+      if (hasClient()) {
+        if (!getClient()
+            .equals(other.getClient())) return false;
+      }
+      if (hasPriority() != other.hasPriority()) return false;
+      if (hasPriority()) {
+        if (priority_ != other.priority_) return false;
+      }
+      if (hasEnd() != other.hasEnd()) return false;
+      if (hasEnd()) {
+        if (!getEnd()
+            .equals(other.getEnd())) return false;
+      }
+      if (hasLimit() != other.hasLimit()) return false;
+      if (hasLimit()) {
+        if (getLimit()
+            != other.getLimit()) return false;
+      }
+      if (hasCursor() != other.hasCursor()) return false;
+      if (hasCursor()) {
+        if (!getCursor()
+            .equals(other.getCursor())) return false;
+      }
+      if (hasCredit() != other.hasCredit()) return false;
+      if (hasCredit()) {
+        if (getCredit()
+            != other.getCredit()) return false;
+      }
+      if (hasTtl() != other.hasTtl()) return false;
+      if (hasTtl()) {
+        if (getTtl()
+            != other.getTtl()) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
 
-            if (hasOperation() != other.hasOperation()) return false;
-            if (hasOperation()) {
-                if (operation_ != other.operation_) return false;
-            }
-            if (hasKey() != other.hasKey()) return false;
-            if (hasKey()) {
-                if (!getKey()
-                        .equals(other.getKey())) return false;
-            }
-            if (hasValue() != other.hasValue()) return false;
-            if (hasValue()) {
-                if (!getValue()
-                        .equals(other.getValue())) return false;
-            }
-            if (!unknownFields.equals(other.unknownFields)) return false;
-            return true;
-        }
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasOperation()) {
+        hash = (37 * hash) + OPERATION_FIELD_NUMBER;
+        hash = (53 * hash) + operation_;
+      }
+      if (hasKey()) {
+        hash = (37 * hash) + KEY_FIELD_NUMBER;
+        hash = (53 * hash) + getKey().hashCode();
+      }
+      if (hasValue()) {
+        hash = (37 * hash) + VALUE_FIELD_NUMBER;
+        hash = (53 * hash) + getValue().hashCode();
+      }
+      if (hasId()) {
+        hash = (37 * hash) + ID_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getId());
+      }
+      if (getBatchCount() > 0) {
+        hash = (37 * hash) + BATCH_FIELD_NUMBER;
+        hash = (53 * hash) + getBatchList().hashCode();
+      }
+      if (hasClient()) {
+        hash = (37 * hash) + CLIENT_FIELD_NUMBER;
+        hash = (53 * hash) + getClient().hashCode();
+      }
+      if (hasPriority()) {
+        hash = (37 * hash) + PRIORITY_FIELD_NUMBER;
+        hash = (53 * hash) + priority_;
+      }
+      if (hasEnd()) {
+        hash = (37 * hash) + END_FIELD_NUMBER;
+        hash = (53 * hash) + getEnd().hashCode();
+      }
+      if (hasLimit()) {
+        hash = (37 * hash) + LIMIT_FIELD_NUMBER;
+        hash = (53 * hash) + getLimit();
+      }
+      if (hasCursor()) {
+        hash = (37 * hash) + CURSOR_FIELD_NUMBER;
+        hash = (53 * hash) + getCursor().hashCode();
+      }
+      if (hasCredit()) {
+        hash = (37 * hash) + CREDIT_FIELD_NUMBER;
+        hash = (53 * hash) + getCredit();
+      }
+      if (hasTtl()) {
+        hash = (37 * hash) + TTL_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getTtl());
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
 
-        @java.lang.Override
-        public int hashCode() {
-            if (memoizedHashCode != 0) {
-                return memoizedHashCode;
-            }
-            int hash = 41;
-            hash = (19 * hash) + getDescriptor().hashCode();
-            if (hasOperation()) {
-                hash = (37 * hash) + OPERATION_FIELD_NUMBER;
-                hash = (53 * hash) + operation_;
-            }
-            if (hasKey()) {
-                hash = (37 * hash) + KEY_FIELD_NUMBER;
-                hash = (53 * hash) + getKey().hashCode();
-            }
-            if (hasValue()) {
-                hash = (37 * hash) + VALUE_FIELD_NUMBER;
-                hash = (53 * hash) + getValue().hashCode();
-            }
-            hash = (29 * hash) + unknownFields.hashCode();
-            memoizedHashCode = hash;
-            return hash;
-        }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Request parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Request parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Request parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
 
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                java.nio.ByteBuffer data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
-        }
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(sfsu.DatabaseProtos.Request prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
 
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                java.nio.ByteBuffer data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * A request intended to be sent from the client to the database server.
+     * </pre>
+     *
+     * Protobuf type {@code sfsu.Request}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:sfsu.Request)
+        sfsu.DatabaseProtos.RequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Request_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                sfsu.DatabaseProtos.Request.class, sfsu.DatabaseProtos.Request.Builder.class);
+      }
+
+      // Construct using sfsu.DatabaseProtos.Request.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getBatchFieldBuilder();
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                com.google.protobuf.ByteString data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        operation_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        key_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        } else {
+          batchBuilder_.clear();
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                com.google.protobuf.ByteString data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+        client_ = "";
+        bitField0_ = (bitField0_ & ~0x00000020);
+        priority_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        end_ = "";
+        bitField0_ = (bitField0_ & ~0x00000080);
+        limit_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000100);
+        cursor_ = "";
+        bitField0_ = (bitField0_ & ~0x00000200);
+        credit_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000400);
+        ttl_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000800);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Request getDefaultInstanceForType() {
+        return sfsu.DatabaseProtos.Request.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Request build() {
+        sfsu.DatabaseProtos.Request result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(byte[] data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
+        return result;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Request buildPartial() {
+        sfsu.DatabaseProtos.Request result = new sfsu.DatabaseProtos.Request(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          to_bitField0_ |= 0x00000001;
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                byte[] data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+        result.operation_ = operation_;
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          to_bitField0_ |= 0x00000002;
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(java.io.InputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input);
+        result.key_ = key_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          to_bitField0_ |= 0x00000004;
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                java.io.InputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input, extensionRegistry);
+        result.value_ = value_;
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          result.id_ = id_;
+          to_bitField0_ |= 0x00000008;
         }
-
-        public static sfsu.DatabaseProtos.Request parseDelimitedFrom(java.io.InputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseDelimitedWithIOException(PARSER, input);
+        if (batchBuilder_ == null) {
+          if (((bitField0_ & 0x00000010) != 0)) {
+            batch_ = java.util.Collections.unmodifiableList(batch_);
+            bitField0_ = (bitField0_ & ~0x00000010);
+          }
+          result.batch_ = batch_;
+        } else {
+          result.batch_ = batchBuilder_.build();
         }
-
-        public static sfsu.DatabaseProtos.Request parseDelimitedFrom(
-                java.io.InputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          to_bitField0_ |= 0x00000010;
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                com.google.protobuf.CodedInputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input);
+        result.client_ = client_;
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          to_bitField0_ |= 0x00000020;
         }
-
-        public static sfsu.DatabaseProtos.Request parseFrom(
-                com.google.protobuf.CodedInputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input, extensionRegistry);
+        result.priority_ = priority_;
+        if (((from_bitField0_ & 0x00000080) != 0)) {
+          to_bitField0_ |= 0x00000040;
         }
-
-        @java.lang.Override
-        public Builder newBuilderForType() {
-            return newBuilder();
+        result.end_ = end_;
+        if (((from_bitField0_ & 0x00000100) != 0)) {
+          result.limit_ = limit_;
+          to_bitField0_ |= 0x00000080;
         }
-
-        public static Builder newBuilder() {
-            return DEFAULT_INSTANCE.toBuilder();
+        if (((from_bitField0_ & 0x00000200) != 0)) {
+          to_bitField0_ |= 0x00000100;
         }
-
-        public static Builder newBuilder(sfsu.DatabaseProtos.Request prototype) {
-            return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+        result.cursor_ = cursor_;
+        if (((from_bitField0_ & 0x00000400) != 0)) {
+          result.credit_ = credit_;
+          to_bitField0_ |= 0x00000200;
         }
-
-        @java.lang.Override
-        public Builder toBuilder() {
-            return this == DEFAULT_INSTANCE
-                    ? new Builder() : new Builder().mergeFrom(this);
+        if (((from_bitField0_ & 0x00000800) != 0)) {
+          result.ttl_ = ttl_;
+          to_bitField0_ |= 0x00000400;
         }
-
-        @java.lang.Override
-        protected Builder newBuilderForType(
-                com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-            Builder builder = new Builder(parent);
-            return builder;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof sfsu.DatabaseProtos.Request) {
+          return mergeFrom((sfsu.DatabaseProtos.Request)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
         }
+      }
 
-        /**
-         * Protobuf type {@code sfsu.Request}
-         */
-        public static final class Builder extends
-                com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-                // @@protoc_insertion_point(builder_implements:sfsu.Request)
-                sfsu.DatabaseProtos.RequestOrBuilder {
-            public static final com.google.protobuf.Descriptors.Descriptor
-            getDescriptor() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
-            }
-
-            @java.lang.Override
-            protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-            internalGetFieldAccessorTable() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Request_fieldAccessorTable
-                        .ensureFieldAccessorsInitialized(
-                                sfsu.DatabaseProtos.Request.class, sfsu.DatabaseProtos.Request.Builder.class);
-            }
-
-            // Construct using sfsu.DatabaseProtos.Request.newBuilder()
-            private Builder() {
-                maybeForceBuilderInitialization();
+      public Builder mergeFrom(sfsu.DatabaseProtos.Request other) {
+        if (other == sfsu.DatabaseProtos.Request.getDefaultInstance()) return this;
+        if (other.hasOperation()) {
+          setOperation(other.getOperation());
+        }
+        if (other.hasKey()) {
+          bitField0_ |= 0x00000002;
+          key_ = other.key_;
+          onChanged();
+        }
+        if (other.hasValue()) {
+          bitField0_ |= 0x00000004;
+          value_ = other.value_;
+          onChanged();
+        }
+        if (other.hasId()) {
+          setId(other.getId());
+        }
+        if (batchBuilder_ == null) {
+          if (!other.batch_.isEmpty()) {
+            if (batch_.isEmpty()) {
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+            } else {
+              ensureBatchIsMutable();
+              batch_.addAll(other.batch_);
             }
-
-            private Builder(
-                    com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-                super(parent);
-                maybeForceBuilderInitialization();
+            onChanged();
+          }
+        } else {
+          if (!other.batch_.isEmpty()) {
+            if (batchBuilder_.isEmpty()) {
+              batchBuilder_.dispose();
+              batchBuilder_ = null;
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+              batchBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getBatchFieldBuilder() : null;
+            } else {
+              batchBuilder_.addAllMessages(other.batch_);
             }
+          }
+        }
+        if (other.hasClient()) {
+          bitField0_ |= 0x00000020;
+          client_ = other.client_;
+          onChanged();
+        }
+        if (other.hasPriority()) {
+          setPriority(other.getPriority());
+        }
+        if (other.hasEnd()) {
+          bitField0_ |= 0x00000080;
+          end_ = other.end_;
+          onChanged();
+        }
+        if (other.hasLimit()) {
+          setLimit(other.getLimit());
+        }
+        if (other.hasCursor()) {
+          bitField0_ |= 0x00000200;
+          cursor_ = other.cursor_;
+          onChanged();
+        }
+        if (other.hasCredit()) {
+          setCredit(other.getCredit());
+        }
+        if (other.hasTtl()) {
+          setTtl(other.getTtl());
+        }
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        sfsu.DatabaseProtos.Request parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (sfsu.DatabaseProtos.Request) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      private int operation_ = 0;
+      /**
+       * <pre>
+       * All requests must specify the type of operation to be executed.
+       * </pre>
+       *
+       * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+       */
+      public boolean hasOperation() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <pre>
+       * All requests must specify the type of operation to be executed.
+       * </pre>
+       *
+       * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+       */
+      public sfsu.DatabaseProtos.Request.OperationType getOperation() {
+        @SuppressWarnings("deprecation")
+        sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
+        return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
+      }
+      /**
+       * <pre>
+       * All requests must specify the type of operation to be executed.
+       * </pre>
+       *
+       * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+       */
+      public Builder setOperation(sfsu.DatabaseProtos.Request.OperationType value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000001;
+        operation_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * All requests must specify the type of operation to be executed.
+       * </pre>
+       *
+       * <code>optional .sfsu.Request.OperationType operation = 1;</code>
+       */
+      public Builder clearOperation() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        operation_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object key_ = "";
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public boolean hasKey() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public java.lang.String getKey() {
+        java.lang.Object ref = key_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            key_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getKeyBytes() {
+        java.lang.Object ref = key_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          key_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public Builder setKey(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        key_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public Builder clearKey() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        key_ = getDefaultInstance().getKey();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key to get, set or delete, or the first key of a SCAN.
+       * </pre>
+       *
+       * <code>optional string key = 2;</code>
+       */
+      public Builder setKeyBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        key_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object value_ = "";
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public java.lang.String getValue() {
+        java.lang.Object ref = value_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            value_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getValueBytes() {
+        java.lang.Object ref = value_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          value_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public Builder setValue(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        value_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public Builder clearValue() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        value_ = getDefaultInstance().getValue();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The value to put (ignored in all other operations.)
+       * </pre>
+       *
+       * <code>optional string value = 3;</code>
+       */
+      public Builder setValueBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        value_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long id_ ;
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000008;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Chosen by the client and copied into the response. Requests sent on the same connection without waiting for
+       * their responses may be executed concurrently and answered in any order; the id tells the responses apart.
+       * </pre>
+       *
+       * <code>optional uint64 id = 4;</code>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<sfsu.DatabaseProtos.Request> batch_ =
+        java.util.Collections.emptyList();
+      private void ensureBatchIsMutable() {
+        if (!((bitField0_ & 0x00000010) != 0)) {
+          batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Request>(batch_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder> batchBuilder_;
+
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Request> getBatchList() {
+        if (batchBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(batch_);
+        } else {
+          return batchBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public int getBatchCount() {
+        if (batchBuilder_ == null) {
+          return batch_.size();
+        } else {
+          return batchBuilder_.getCount();
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request getBatch(int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);
+        } else {
+          return batchBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.set(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Request value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Request.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder addAllBatch(
+          java.lang.Iterable<? extends sfsu.DatabaseProtos.Request> values) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, batch_);
+          onChanged();
+        } else {
+          batchBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder clearBatch() {
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+          onChanged();
+        } else {
+          batchBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public Builder removeBatch(int index) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.remove(index);
+          onChanged();
+        } else {
+          batchBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder getBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.RequestOrBuilder getBatchOrBuilder(
+          int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);  } else {
+          return batchBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<? extends sfsu.DatabaseProtos.RequestOrBuilder> 
+           getBatchOrBuilderList() {
+        if (batchBuilder_ != null) {
+          return batchBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(batch_);
+        }
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder addBatchBuilder() {
+        return getBatchFieldBuilder().addBuilder(
+            sfsu.DatabaseProtos.Request.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Builder addBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().addBuilder(
+            index, sfsu.DatabaseProtos.Request.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The requests of a BATCH operation. Their ids are ignored.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Request batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Request.Builder> 
+           getBatchBuilderList() {
+        return getBatchFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder> 
+          getBatchFieldBuilder() {
+        if (batchBuilder_ == null) {
+          batchBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              sfsu.DatabaseProtos.Request, sfsu.DatabaseProtos.Request.Builder, sfsu.DatabaseProtos.RequestOrBuilder>(
+                  batch_,
+                  ((bitField0_ & 0x00000010) != 0),
+                  getParentForChildren(),
+                  isClean());
+          batch_ = null;
+        }
+        return batchBuilder_;
+      }
+
+      private java.lang.Object client_ = "";
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public boolean hasClient() {
+        return ((bitField0_ & 0x00000020) != 0);
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public java.lang.String getClient() {
+        java.lang.Object ref = client_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            client_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public com.google.protobuf.ByteString
+          getClientBytes() {
+        java.lang.Object ref = client_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          client_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder setClient(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        client_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder clearClient() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        client_ = getDefaultInstance().getClient();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Names the client for fair scheduling: the server shares its threads evenly between clients. Requests without it
+       * are attributed to the address they came from. Not authenticated in any way.
+       * </pre>
+       *
+       * <code>optional string client = 6;</code>
+       */
+      public Builder setClientBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        client_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int priority_ = 0;
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public boolean hasPriority() {
+        return ((bitField0_ & 0x00000040) != 0);
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public sfsu.DatabaseProtos.Request.Priority getPriority() {
+        @SuppressWarnings("deprecation")
+        sfsu.DatabaseProtos.Request.Priority result = sfsu.DatabaseProtos.Request.Priority.valueOf(priority_);
+        return result == null ? sfsu.DatabaseProtos.Request.Priority.HIGH : result;
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public Builder setPriority(sfsu.DatabaseProtos.Request.Priority value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000040;
+        priority_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .sfsu.Request.Priority priority = 7;</code>
+       */
+      public Builder clearPriority() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        priority_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object end_ = "";
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public boolean hasEnd() {
+        return ((bitField0_ & 0x00000080) != 0);
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public java.lang.String getEnd() {
+        java.lang.Object ref = end_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            end_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public com.google.protobuf.ByteString
+          getEndBytes() {
+        java.lang.Object ref = end_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          end_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder setEnd(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        end_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder clearEnd() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        end_ = getDefaultInstance().getEnd();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key a SCAN stops before. Without it the scan runs to the last key.
+       * </pre>
+       *
+       * <code>optional string end = 8;</code>
+       */
+      public Builder setEndBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000080;
+        end_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int limit_ ;
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public boolean hasLimit() {
+        return ((bitField0_ & 0x00000100) != 0);
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public int getLimit() {
+        return limit_;
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public Builder setLimit(int value) {
+        bitField0_ |= 0x00000100;
+        limit_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The most pairs a SCAN answers with. The server caps it, and uses the cap when it is missing.
+       * </pre>
+       *
+       * <code>optional uint32 limit = 9;</code>
+       */
+      public Builder clearLimit() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        limit_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object cursor_ = "";
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public boolean hasCursor() {
+        return ((bitField0_ & 0x00000200) != 0);
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public java.lang.String getCursor() {
+        java.lang.Object ref = cursor_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            cursor_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCursorBytes() {
+        java.lang.Object ref = cursor_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          cursor_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder setCursor(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder clearCursor() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        cursor_ = getDefaultInstance().getCursor();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Continues a SCAN where the page before it stopped: the cursor of its response. Overrides key.
+       * </pre>
+       *
+       * <code>optional string cursor = 10;</code>
+       */
+      public Builder setCursorBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000200;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+
+      private int credit_ ;
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public boolean hasCredit() {
+        return ((bitField0_ & 0x00000400) != 0);
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public int getCredit() {
+        return credit_;
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public Builder setCredit(int value) {
+        bitField0_ |= 0x00000400;
+        credit_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Streams a SCAN: instead of one page, the server sends page after page, each a response with the id of the
+       * request and at most limit pairs, until the range is done. It sends this many responses and then waits until
+       * CREDIT requests let it send more, so neither side ever holds more than a window of pages. For a CREDIT, the
+       * number of responses more the stream may send.
+       * </pre>
+       *
+       * <code>optional uint32 credit = 11;</code>
+       */
+      public Builder clearCredit() {
+        bitField0_ = (bitField0_ & ~0x00000400);
+        credit_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private long ttl_ ;
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public boolean hasTtl() {
+        return ((bitField0_ & 0x00000800) != 0);
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public long getTtl() {
+        return ttl_;
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public Builder setTtl(long value) {
+        bitField0_ |= 0x00000800;
+        ttl_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Makes the key of a PUT expire this many milliseconds later, if the server runs with expiry. Without it the key
+       * never expires, even if it was set to before.
+       * </pre>
+       *
+       * <code>optional uint64 ttl = 12;</code>
+       */
+      public Builder clearTtl() {
+        bitField0_ = (bitField0_ & ~0x00000800);
+        ttl_ = 0L;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:sfsu.Request)
+    }
 
-            private void maybeForceBuilderInitialization() {
-                if (com.google.protobuf.GeneratedMessageV3
-                        .alwaysUseFieldBuilders) {
-                }
-            }
+    // @@protoc_insertion_point(class_scope:sfsu.Request)
+    private static final sfsu.DatabaseProtos.Request DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new sfsu.DatabaseProtos.Request();
+    }
 
-            @java.lang.Override
-            public Builder clear() {
-                super.clear();
-                operation_ = 0;
-                bitField0_ = (bitField0_ & ~0x00000001);
-                key_ = "";
-                bitField0_ = (bitField0_ & ~0x00000002);
-                value_ = "";
-                bitField0_ = (bitField0_ & ~0x00000004);
-                return this;
-            }
+    public static sfsu.DatabaseProtos.Request getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
 
-            @java.lang.Override
-            public com.google.protobuf.Descriptors.Descriptor
-            getDescriptorForType() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Request_descriptor;
-            }
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Request>
+        PARSER = new com.google.protobuf.AbstractParser<Request>() {
+      @java.lang.Override
+      public Request parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Request(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Request> parser() {
+      return PARSER;
+    }
 
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Request getDefaultInstanceForType() {
-                return sfsu.DatabaseProtos.Request.getDefaultInstance();
-            }
+    @java.lang.Override
+    public com.google.protobuf.Parser<Request> getParserForType() {
+      return PARSER;
+    }
 
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Request build() {
-                sfsu.DatabaseProtos.Request result = buildPartial();
-                if (!result.isInitialized()) {
-                    throw newUninitializedMessageException(result);
-                }
-                return result;
-            }
+    @java.lang.Override
+    public sfsu.DatabaseProtos.Request getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
 
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Request buildPartial() {
-                sfsu.DatabaseProtos.Request result = new sfsu.DatabaseProtos.Request(this);
-                int from_bitField0_ = bitField0_;
-                int to_bitField0_ = 0;
-                if (((from_bitField0_ & 0x00000001) != 0)) {
-                    to_bitField0_ |= 0x00000001;
-                }
-                result.operation_ = operation_;
-                if (((from_bitField0_ & 0x00000002) != 0)) {
-                    to_bitField0_ |= 0x00000002;
-                }
-                result.key_ = key_;
-                if (((from_bitField0_ & 0x00000004) != 0)) {
-                    to_bitField0_ |= 0x00000004;
-                }
-                result.value_ = value_;
-                result.bitField0_ = to_bitField0_;
-                onBuilt();
-                return result;
-            }
+  }
 
-            @java.lang.Override
-            public Builder clone() {
-                return super.clone();
-            }
+  public interface ResponseOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:sfsu.Response)
+      com.google.protobuf.MessageOrBuilder {
 
-            @java.lang.Override
-            public Builder setField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    java.lang.Object value) {
-                return super.setField(field, value);
-            }
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    boolean hasKey();
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    java.lang.String getKey();
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getKeyBytes();
 
-            @java.lang.Override
-            public Builder clearField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field) {
-                return super.clearField(field);
-            }
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    boolean hasValue();
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    java.lang.String getValue();
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    com.google.protobuf.ByteString
+        getValueBytes();
 
-            @java.lang.Override
-            public Builder clearOneof(
-                    com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-                return super.clearOneof(oneof);
-            }
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    boolean hasId();
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    long getId();
 
-            @java.lang.Override
-            public Builder setRepeatedField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    int index, java.lang.Object value) {
-                return super.setRepeatedField(field, index, value);
-            }
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    boolean hasStatus();
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    sfsu.DatabaseProtos.Response.Status getStatus();
 
-            @java.lang.Override
-            public Builder addRepeatedField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    java.lang.Object value) {
-                return super.addRepeatedField(field, value);
-            }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    java.util.List<sfsu.DatabaseProtos.Response> 
+        getBatchList();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.Response getBatch(int index);
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    int getBatchCount();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+        getBatchOrBuilderList();
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+        int index);
 
-            @java.lang.Override
-            public Builder mergeFrom(com.google.protobuf.Message other) {
-                if (other instanceof sfsu.DatabaseProtos.Request) {
-                    return mergeFrom((sfsu.DatabaseProtos.Request) other);
-                } else {
-                    super.mergeFrom(other);
-                    return this;
-                }
-            }
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    boolean hasCursor();
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    java.lang.String getCursor();
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    com.google.protobuf.ByteString
+        getCursorBytes();
 
-            public Builder mergeFrom(sfsu.DatabaseProtos.Request other) {
-                if (other == sfsu.DatabaseProtos.Request.getDefaultInstance()) return this;
-                if (other.hasOperation()) {
-                    setOperation(other.getOperation());
-                }
-                if (other.hasKey()) {
-                    bitField0_ |= 0x00000002;
-                    key_ = other.key_;
-                    onChanged();
-                }
-                if (other.hasValue()) {
-                    bitField0_ |= 0x00000004;
-                    value_ = other.value_;
-                    onChanged();
-                }
-                this.mergeUnknownFields(other.unknownFields);
-                onChanged();
-                return this;
-            }
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    boolean hasMore();
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    boolean getMore();
+  }
+  /**
+   * <pre>
+   * A response intended to be sent from the server to the client.
+   * </pre>
+   *
+   * Protobuf type {@code sfsu.Response}
+   */
+  public  static final class Response extends
+      com.google.protobuf.GeneratedMessageV3 implements
+      // @@protoc_insertion_point(message_implements:sfsu.Response)
+      ResponseOrBuilder {
+  private static final long serialVersionUID = 0L;
+    // Use Response.newBuilder() to construct.
+    private Response(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
+      super(builder);
+    }
+    private Response() {
+      key_ = "";
+      value_ = "";
+      status_ = 0;
+      batch_ = java.util.Collections.emptyList();
+      cursor_ = "";
+    }
 
-            @java.lang.Override
-            public final boolean isInitialized() {
-                return true;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+    getUnknownFields() {
+      return this.unknownFields;
+    }
+    private Response(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      this();
+      if (extensionRegistry == null) {
+        throw new java.lang.NullPointerException();
+      }
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            case 10: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000001;
+              key_ = bs;
+              break;
             }
-
-            @java.lang.Override
-            public Builder mergeFrom(
-                    com.google.protobuf.CodedInputStream input,
-                    com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                    throws java.io.IOException {
-                sfsu.DatabaseProtos.Request parsedMessage = null;
-                try {
-                    parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-                } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-                    parsedMessage = (sfsu.DatabaseProtos.Request) e.getUnfinishedMessage();
-                    throw e.unwrapIOException();
-                } finally {
-                    if (parsedMessage != null) {
-                        mergeFrom(parsedMessage);
-                    }
-                }
-                return this;
+            case 18: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              value_ = bs;
+              break;
             }
-
-            private int bitField0_;
-
-            private int operation_ = 0;
-
-            /**
-             * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-             */
-            public boolean hasOperation() {
-                return ((bitField0_ & 0x00000001) != 0);
+            case 24: {
+              bitField0_ |= 0x00000004;
+              id_ = input.readUInt64();
+              break;
             }
-
-            /**
-             * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-             */
-            public sfsu.DatabaseProtos.Request.OperationType getOperation() {
+            case 32: {
+              int rawValue = input.readEnum();
                 @SuppressWarnings("deprecation")
-                sfsu.DatabaseProtos.Request.OperationType result = sfsu.DatabaseProtos.Request.OperationType.valueOf(operation_);
-                return result == null ? sfsu.DatabaseProtos.Request.OperationType.GET : result;
-            }
-
-            /**
-             * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-             */
-            public Builder setOperation(sfsu.DatabaseProtos.Request.OperationType value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000001;
-                operation_ = value.getNumber();
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional .sfsu.Request.OperationType operation = 1;</code>
-             */
-            public Builder clearOperation() {
-                bitField0_ = (bitField0_ & ~0x00000001);
-                operation_ = 0;
-                onChanged();
-                return this;
+              sfsu.DatabaseProtos.Response.Status value = sfsu.DatabaseProtos.Response.Status.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(4, rawValue);
+              } else {
+                bitField0_ |= 0x00000008;
+                status_ = rawValue;
+              }
+              break;
             }
-
-            private java.lang.Object key_ = "";
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public boolean hasKey() {
-                return ((bitField0_ & 0x00000002) != 0);
+            case 42: {
+              if (!((mutable_bitField0_ & 0x00000010) != 0)) {
+                batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Response>();
+                mutable_bitField0_ |= 0x00000010;
+              }
+              batch_.add(
+                  input.readMessage(sfsu.DatabaseProtos.Response.PARSER, extensionRegistry));
+              break;
             }
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public java.lang.String getKey() {
-                java.lang.Object ref = key_;
-                if (!(ref instanceof java.lang.String)) {
-                    com.google.protobuf.ByteString bs =
-                            (com.google.protobuf.ByteString) ref;
-                    java.lang.String s = bs.toStringUtf8();
-                    if (bs.isValidUtf8()) {
-                        key_ = s;
-                    }
-                    return s;
-                } else {
-                    return (java.lang.String) ref;
-                }
+            case 50: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000010;
+              cursor_ = bs;
+              break;
             }
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public com.google.protobuf.ByteString
-            getKeyBytes() {
-                java.lang.Object ref = key_;
-                if (ref instanceof String) {
-                    com.google.protobuf.ByteString b =
-                            com.google.protobuf.ByteString.copyFromUtf8(
-                                    (java.lang.String) ref);
-                    key_ = b;
-                    return b;
-                } else {
-                    return (com.google.protobuf.ByteString) ref;
-                }
+            case 56: {
+              bitField0_ |= 0x00000020;
+              more_ = input.readBool();
+              break;
             }
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public Builder setKey(
-                    java.lang.String value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000002;
-                key_ = value;
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public Builder clearKey() {
-                bitField0_ = (bitField0_ & ~0x00000002);
-                key_ = getDefaultInstance().getKey();
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string key = 2;</code>
-             */
-            public Builder setKeyBytes(
-                    com.google.protobuf.ByteString value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000002;
-                key_ = value;
-                onChanged();
-                return this;
-            }
-
-            private java.lang.Object value_ = "";
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public boolean hasValue() {
-                return ((bitField0_ & 0x00000004) != 0);
-            }
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public java.lang.String getValue() {
-                java.lang.Object ref = value_;
-                if (!(ref instanceof java.lang.String)) {
-                    com.google.protobuf.ByteString bs =
-                            (com.google.protobuf.ByteString) ref;
-                    java.lang.String s = bs.toStringUtf8();
-                    if (bs.isValidUtf8()) {
-                        value_ = s;
-                    }
-                    return s;
-                } else {
-                    return (java.lang.String) ref;
-                }
-            }
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public com.google.protobuf.ByteString
-            getValueBytes() {
-                java.lang.Object ref = value_;
-                if (ref instanceof String) {
-                    com.google.protobuf.ByteString b =
-                            com.google.protobuf.ByteString.copyFromUtf8(
-                                    (java.lang.String) ref);
-                    value_ = b;
-                    return b;
-                } else {
-                    return (com.google.protobuf.ByteString) ref;
-                }
-            }
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public Builder setValue(
-                    java.lang.String value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000004;
-                value_ = value;
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public Builder clearValue() {
-                bitField0_ = (bitField0_ & ~0x00000004);
-                value_ = getDefaultInstance().getValue();
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string value = 3;</code>
-             */
-            public Builder setValueBytes(
-                    com.google.protobuf.ByteString value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000004;
-                value_ = value;
-                onChanged();
-                return this;
-            }
-
-            @java.lang.Override
-            public final Builder setUnknownFields(
-                    final com.google.protobuf.UnknownFieldSet unknownFields) {
-                return super.setUnknownFields(unknownFields);
-            }
-
-            @java.lang.Override
-            public final Builder mergeUnknownFields(
-                    final com.google.protobuf.UnknownFieldSet unknownFields) {
-                return super.mergeUnknownFields(unknownFields);
+            default: {
+              if (!parseUnknownField(
+                  input, unknownFields, extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
             }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000010) != 0)) {
+          batch_ = java.util.Collections.unmodifiableList(batch_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+    }
 
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
+    }
 
-            // @@protoc_insertion_point(builder_scope:sfsu.Request)
+    /**
+     * Protobuf enum {@code sfsu.Response.Status}
+     */
+    public enum Status
+        implements com.google.protobuf.ProtocolMessageEnum {
+      /**
+       * <code>OK = 0;</code>
+       */
+      OK(0),
+      /**
+       * <pre>
+       * The request could not be executed. A read changed nothing, but a write may have been applied before it failed,
+       * for instance when the write-ahead log could not force it to disk; whether it survives a restart is unknown.
+       * </pre>
+       *
+       * <code>ERROR = 1;</code>
+       */
+      ERROR(1),
+      /**
+       * <pre>
+       * The server is overloaded and turned the request away without executing it. Nothing was changed; the client
+       * may retry later.
+       * </pre>
+       *
+       * <code>BUSY = 2;</code>
+       */
+      BUSY(2),
+      ;
+
+      /**
+       * <code>OK = 0;</code>
+       */
+      public static final int OK_VALUE = 0;
+      /**
+       * <pre>
+       * The request could not be executed. A read changed nothing, but a write may have been applied before it failed,
+       * for instance when the write-ahead log could not force it to disk; whether it survives a restart is unknown.
+       * </pre>
+       *
+       * <code>ERROR = 1;</code>
+       */
+      public static final int ERROR_VALUE = 1;
+      /**
+       * <pre>
+       * The server is overloaded and turned the request away without executing it. Nothing was changed; the client
+       * may retry later.
+       * </pre>
+       *
+       * <code>BUSY = 2;</code>
+       */
+      public static final int BUSY_VALUE = 2;
+
+
+      public final int getNumber() {
+        return value;
+      }
+
+      /**
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static Status valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static Status forNumber(int value) {
+        switch (value) {
+          case 0: return OK;
+          case 1: return ERROR;
+          case 2: return BUSY;
+          default: return null;
         }
+      }
+
+      public static com.google.protobuf.Internal.EnumLiteMap<Status>
+          internalGetValueMap() {
+        return internalValueMap;
+      }
+      private static final com.google.protobuf.Internal.EnumLiteMap<
+          Status> internalValueMap =
+            new com.google.protobuf.Internal.EnumLiteMap<Status>() {
+              public Status findValueByNumber(int number) {
+                return Status.forNumber(number);
+              }
+            };
+
+      public final com.google.protobuf.Descriptors.EnumValueDescriptor
+          getValueDescriptor() {
+        return getDescriptor().getValues().get(ordinal());
+      }
+      public final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptorForType() {
+        return getDescriptor();
+      }
+      public static final com.google.protobuf.Descriptors.EnumDescriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.Response.getDescriptor().getEnumTypes().get(0);
+      }
+
+      private static final Status[] VALUES = values();
+
+      public static Status valueOf(
+          com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+        if (desc.getType() != getDescriptor()) {
+          throw new java.lang.IllegalArgumentException(
+            "EnumValueDescriptor is not for this type.");
+        }
+        return VALUES[desc.getIndex()];
+      }
+
+      private final int value;
 
-        // @@protoc_insertion_point(class_scope:sfsu.Request)
-        private static final sfsu.DatabaseProtos.Request DEFAULT_INSTANCE;
+      private Status(int value) {
+        this.value = value;
+      }
 
-        static {
-            DEFAULT_INSTANCE = new sfsu.DatabaseProtos.Request();
+      // @@protoc_insertion_point(enum_scope:sfsu.Response.Status)
+    }
+
+    private int bitField0_;
+    public static final int KEY_FIELD_NUMBER = 1;
+    private volatile java.lang.Object key_;
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    public boolean hasKey() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    public java.lang.String getKey() {
+      java.lang.Object ref = key_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          key_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The key that was operated upon.
+     * </pre>
+     *
+     * <code>optional string key = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getKeyBytes() {
+      java.lang.Object ref = key_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        key_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        public static sfsu.DatabaseProtos.Request getDefaultInstance() {
-            return DEFAULT_INSTANCE;
+    public static final int VALUE_FIELD_NUMBER = 2;
+    private volatile java.lang.Object value_;
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    public boolean hasValue() {
+      return ((bitField0_ & 0x00000002) != 0);
+    }
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    public java.lang.String getValue() {
+      java.lang.Object ref = value_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          value_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+     * </pre>
+     *
+     * <code>optional string value = 2;</code>
+     */
+    public com.google.protobuf.ByteString
+        getValueBytes() {
+      java.lang.Object ref = value_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        value_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
-        @java.lang.Deprecated
-        public static final com.google.protobuf.Parser<Request>
-                PARSER = new com.google.protobuf.AbstractParser<Request>() {
-            @java.lang.Override
-            public Request parsePartialFrom(
-                    com.google.protobuf.CodedInputStream input,
-                    com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                    throws com.google.protobuf.InvalidProtocolBufferException {
-                return new Request(input, extensionRegistry);
-            }
-        };
+    public static final int ID_FIELD_NUMBER = 3;
+    private long id_;
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    public boolean hasId() {
+      return ((bitField0_ & 0x00000004) != 0);
+    }
+    /**
+     * <pre>
+     * The id of the request this response answers.
+     * </pre>
+     *
+     * <code>optional uint64 id = 3;</code>
+     */
+    public long getId() {
+      return id_;
+    }
 
-        public static com.google.protobuf.Parser<Request> parser() {
-            return PARSER;
-        }
+    public static final int STATUS_FIELD_NUMBER = 4;
+    private int status_;
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    public boolean hasStatus() {
+      return ((bitField0_ & 0x00000008) != 0);
+    }
+    /**
+     * <pre>
+     * Whether the request was executed. Missing means OK.
+     * </pre>
+     *
+     * <code>optional .sfsu.Response.Status status = 4;</code>
+     */
+    public sfsu.DatabaseProtos.Response.Status getStatus() {
+      @SuppressWarnings("deprecation")
+      sfsu.DatabaseProtos.Response.Status result = sfsu.DatabaseProtos.Response.Status.valueOf(status_);
+      return result == null ? sfsu.DatabaseProtos.Response.Status.OK : result;
+    }
 
-        @java.lang.Override
-        public com.google.protobuf.Parser<Request> getParserForType() {
-            return PARSER;
-        }
+    public static final int BATCH_FIELD_NUMBER = 5;
+    private java.util.List<sfsu.DatabaseProtos.Response> batch_;
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public java.util.List<sfsu.DatabaseProtos.Response> getBatchList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+        getBatchOrBuilderList() {
+      return batch_;
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public int getBatchCount() {
+      return batch_.size();
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.Response getBatch(int index) {
+      return batch_.get(index);
+    }
+    /**
+     * <pre>
+     * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+     * order.
+     * </pre>
+     *
+     * <code>repeated .sfsu.Response batch = 5;</code>
+     */
+    public sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+        int index) {
+      return batch_.get(index);
+    }
 
-        @java.lang.Override
-        public sfsu.DatabaseProtos.Request getDefaultInstanceForType() {
-            return DEFAULT_INSTANCE;
+    public static final int CURSOR_FIELD_NUMBER = 6;
+    private volatile java.lang.Object cursor_;
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public boolean hasCursor() {
+      return ((bitField0_ & 0x00000010) != 0);
+    }
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public java.lang.String getCursor() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          cursor_ = s;
         }
+        return s;
+      }
+    }
+    /**
+     * <pre>
+     * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+     * </pre>
+     *
+     * <code>optional string cursor = 6;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCursorBytes() {
+      java.lang.Object ref = cursor_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        cursor_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
 
+    public static final int MORE_FIELD_NUMBER = 7;
+    private boolean more_;
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    public boolean hasMore() {
+      return ((bitField0_ & 0x00000020) != 0);
+    }
+    /**
+     * <pre>
+     * Set on every response of a streamed SCAN but the last one.
+     * </pre>
+     *
+     * <code>optional bool more = 7;</code>
+     */
+    public boolean getMore() {
+      return more_;
     }
 
-    public interface ResponseOrBuilder extends
-            // @@protoc_insertion_point(interface_extends:sfsu.Response)
-            com.google.protobuf.MessageOrBuilder {
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
 
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        boolean hasKey();
+      memoizedIsInitialized = 1;
+      return true;
+    }
 
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        java.lang.String getKey();
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (((bitField0_ & 0x00000001) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 1, key_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 2, value_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        output.writeUInt64(3, id_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        output.writeEnum(4, status_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        output.writeMessage(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 6, cursor_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        output.writeBool(7, more_);
+      }
+      unknownFields.writeTo(output);
+    }
 
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        com.google.protobuf.ByteString
-        getKeyBytes();
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, key_);
+      }
+      if (((bitField0_ & 0x00000002) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, value_);
+      }
+      if (((bitField0_ & 0x00000004) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, id_);
+      }
+      if (((bitField0_ & 0x00000008) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(4, status_);
+      }
+      for (int i = 0; i < batch_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(5, batch_.get(i));
+      }
+      if (((bitField0_ & 0x00000010) != 0)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(6, cursor_);
+      }
+      if (((bitField0_ & 0x00000020) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(7, more_);
+      }
+      size += unknownFields.getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
 
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        boolean hasValue();
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof sfsu.DatabaseProtos.Response)) {
+        return super.equals(obj);
+      }
+      sfsu.DatabaseProtos.Response other = (sfsu.DatabaseProtos.Response) obj;
+
+      if (hasKey() != other.hasKey()) return false;
+      if (hasKey()) {
+        if (!getKey()
+            .equals(other.getKey())) return false;
+      }
+      if (hasValue() != other.hasValue()) return false;
+      if (hasValue()) {
+        if (!getValue()
+            .equals(other.getValue())) return false;
+      }
+      if (hasId() != other.hasId()) return false;
+      if (hasId()) {
+        if (getId()
+            != other.getId()) return false;
+      }
+      if (hasStatus() != other.hasStatus()) return false;
+      if (hasStatus()) {
+        if (status_ != other.status_) return false;
+      }
+      if (!getBatchList()
+          .equals(other.getBatchList())) return false;
+      if (hasCursor() != other.hasCursor()) return false;
+      if (hasCursor()) {
+        if (!getCursor()
+            .equals(other.getCursor())) return false;
+      }
+      if (hasMore() != other.hasMore()) return false;
+      if (hasMore()) {
+        if (getMore()
+            != other.getMore()) return false;
+      }
+      if (!unknownFields.equals(other.unknownFields)) return false;
+      return true;
+    }
 
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        java.lang.String getValue();
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (hasKey()) {
+        hash = (37 * hash) + KEY_FIELD_NUMBER;
+        hash = (53 * hash) + getKey().hashCode();
+      }
+      if (hasValue()) {
+        hash = (37 * hash) + VALUE_FIELD_NUMBER;
+        hash = (53 * hash) + getValue().hashCode();
+      }
+      if (hasId()) {
+        hash = (37 * hash) + ID_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+            getId());
+      }
+      if (hasStatus()) {
+        hash = (37 * hash) + STATUS_FIELD_NUMBER;
+        hash = (53 * hash) + status_;
+      }
+      if (getBatchCount() > 0) {
+        hash = (37 * hash) + BATCH_FIELD_NUMBER;
+        hash = (53 * hash) + getBatchList().hashCode();
+      }
+      if (hasCursor()) {
+        hash = (37 * hash) + CURSOR_FIELD_NUMBER;
+        hash = (53 * hash) + getCursor().hashCode();
+      }
+      if (hasMore()) {
+        hash = (37 * hash) + MORE_FIELD_NUMBER;
+        hash = (53 * hash) + com.google.protobuf.Internal.hashBoolean(
+            getMore());
+      }
+      hash = (29 * hash) + unknownFields.hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
 
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        com.google.protobuf.ByteString
-        getValueBytes();
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Response parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Response parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input);
+    }
+    public static sfsu.DatabaseProtos.Response parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessageV3
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(sfsu.DatabaseProtos.Response prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
     }
 
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
     /**
+     * <pre>
+     * A response intended to be sent from the server to the client.
+     * </pre>
+     *
      * Protobuf type {@code sfsu.Response}
      */
-    public static final class Response extends
-            com.google.protobuf.GeneratedMessageV3 implements
-            // @@protoc_insertion_point(message_implements:sfsu.Response)
-            ResponseOrBuilder {
-        private static final long serialVersionUID = 0L;
-
-        // Use Response.newBuilder() to construct.
-        private Response(com.google.protobuf.GeneratedMessageV3.Builder<?> builder) {
-            super(builder);
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:sfsu.Response)
+        sfsu.DatabaseProtos.ResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
+      }
+
+      // Construct using sfsu.DatabaseProtos.Response.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessageV3
+                .alwaysUseFieldBuilders) {
+          getBatchFieldBuilder();
         }
-
-        private Response() {
-            key_ = "";
-            value_ = "";
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        key_ = "";
+        bitField0_ = (bitField0_ & ~0x00000001);
+        value_ = "";
+        bitField0_ = (bitField0_ & ~0x00000002);
+        id_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        status_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+        } else {
+          batchBuilder_.clear();
         }
-
-        @java.lang.Override
-        public final com.google.protobuf.UnknownFieldSet
-        getUnknownFields() {
-            return this.unknownFields;
+        cursor_ = "";
+        bitField0_ = (bitField0_ & ~0x00000020);
+        more_ = false;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
+        return sfsu.DatabaseProtos.Response.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response build() {
+        sfsu.DatabaseProtos.Response result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
         }
-
-        private Response(
-                com.google.protobuf.CodedInputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            this();
-            if (extensionRegistry == null) {
-                throw new java.lang.NullPointerException();
-            }
-            int mutable_bitField0_ = 0;
-            com.google.protobuf.UnknownFieldSet.Builder unknownFields =
-                    com.google.protobuf.UnknownFieldSet.newBuilder();
-            try {
-                boolean done = false;
-                while (!done) {
-                    int tag = input.readTag();
-                    switch (tag) {
-                        case 0:
-                            done = true;
-                            break;
-                        case 10: {
-                            com.google.protobuf.ByteString bs = input.readBytes();
-                            bitField0_ |= 0x00000001;
-                            key_ = bs;
-                            break;
-                        }
-                        case 18: {
-                            com.google.protobuf.ByteString bs = input.readBytes();
-                            bitField0_ |= 0x00000002;
-                            value_ = bs;
-                            break;
-                        }
-                        default: {
-                            if (!parseUnknownField(
-                                    input, unknownFields, extensionRegistry, tag)) {
-                                done = true;
-                            }
-                            break;
-                        }
-                    }
-                }
-            } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-                throw e.setUnfinishedMessage(this);
-            } catch (java.io.IOException e) {
-                throw new com.google.protobuf.InvalidProtocolBufferException(
-                        e).setUnfinishedMessage(this);
-            } finally {
-                this.unknownFields = unknownFields.build();
-                makeExtensionsImmutable();
-            }
+        return result;
+      }
+
+      @java.lang.Override
+      public sfsu.DatabaseProtos.Response buildPartial() {
+        sfsu.DatabaseProtos.Response result = new sfsu.DatabaseProtos.Response(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          to_bitField0_ |= 0x00000001;
         }
-
-        public static final com.google.protobuf.Descriptors.Descriptor
-        getDescriptor() {
-            return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
+        result.key_ = key_;
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          to_bitField0_ |= 0x00000002;
         }
-
-        @java.lang.Override
-        protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-        internalGetFieldAccessorTable() {
-            return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
-                    .ensureFieldAccessorsInitialized(
-                            sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
+        result.value_ = value_;
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.id_ = id_;
+          to_bitField0_ |= 0x00000004;
         }
-
-        private int bitField0_;
-        public static final int KEY_FIELD_NUMBER = 1;
-        private volatile java.lang.Object key_;
-
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        public boolean hasKey() {
-            return ((bitField0_ & 0x00000001) != 0);
+        if (((from_bitField0_ & 0x00000008) != 0)) {
+          to_bitField0_ |= 0x00000008;
         }
-
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        public java.lang.String getKey() {
-            java.lang.Object ref = key_;
-            if (ref instanceof java.lang.String) {
-                return (java.lang.String) ref;
-            } else {
-                com.google.protobuf.ByteString bs =
-                        (com.google.protobuf.ByteString) ref;
-                java.lang.String s = bs.toStringUtf8();
-                if (bs.isValidUtf8()) {
-                    key_ = s;
-                }
-                return s;
-            }
+        result.status_ = status_;
+        if (batchBuilder_ == null) {
+          if (((bitField0_ & 0x00000010) != 0)) {
+            batch_ = java.util.Collections.unmodifiableList(batch_);
+            bitField0_ = (bitField0_ & ~0x00000010);
+          }
+          result.batch_ = batch_;
+        } else {
+          result.batch_ = batchBuilder_.build();
         }
-
-        /**
-         * <code>optional string key = 1;</code>
-         */
-        public com.google.protobuf.ByteString
-        getKeyBytes() {
-            java.lang.Object ref = key_;
-            if (ref instanceof java.lang.String) {
-                com.google.protobuf.ByteString b =
-                        com.google.protobuf.ByteString.copyFromUtf8(
-                                (java.lang.String) ref);
-                key_ = b;
-                return b;
-            } else {
-                return (com.google.protobuf.ByteString) ref;
-            }
+        if (((from_bitField0_ & 0x00000020) != 0)) {
+          to_bitField0_ |= 0x00000010;
         }
-
-        public static final int VALUE_FIELD_NUMBER = 2;
-        private volatile java.lang.Object value_;
-
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        public boolean hasValue() {
-            return ((bitField0_ & 0x00000002) != 0);
+        result.cursor_ = cursor_;
+        if (((from_bitField0_ & 0x00000040) != 0)) {
+          result.more_ = more_;
+          to_bitField0_ |= 0x00000020;
         }
-
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        public java.lang.String getValue() {
-            java.lang.Object ref = value_;
-            if (ref instanceof java.lang.String) {
-                return (java.lang.String) ref;
-            } else {
-                com.google.protobuf.ByteString bs =
-                        (com.google.protobuf.ByteString) ref;
-                java.lang.String s = bs.toStringUtf8();
-                if (bs.isValidUtf8()) {
-                    value_ = s;
-                }
-                return s;
-            }
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      @java.lang.Override
+      public Builder clone() {
+        return super.clone();
+      }
+      @java.lang.Override
+      public Builder setField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.setField(field, value);
+      }
+      @java.lang.Override
+      public Builder clearField(
+          com.google.protobuf.Descriptors.FieldDescriptor field) {
+        return super.clearField(field);
+      }
+      @java.lang.Override
+      public Builder clearOneof(
+          com.google.protobuf.Descriptors.OneofDescriptor oneof) {
+        return super.clearOneof(oneof);
+      }
+      @java.lang.Override
+      public Builder setRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          int index, java.lang.Object value) {
+        return super.setRepeatedField(field, index, value);
+      }
+      @java.lang.Override
+      public Builder addRepeatedField(
+          com.google.protobuf.Descriptors.FieldDescriptor field,
+          java.lang.Object value) {
+        return super.addRepeatedField(field, value);
+      }
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof sfsu.DatabaseProtos.Response) {
+          return mergeFrom((sfsu.DatabaseProtos.Response)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
         }
-
-        /**
-         * <code>optional string value = 2;</code>
-         */
-        public com.google.protobuf.ByteString
-        getValueBytes() {
-            java.lang.Object ref = value_;
-            if (ref instanceof java.lang.String) {
-                com.google.protobuf.ByteString b =
-                        com.google.protobuf.ByteString.copyFromUtf8(
-                                (java.lang.String) ref);
-                value_ = b;
-                return b;
-            } else {
-                return (com.google.protobuf.ByteString) ref;
-            }
+      }
+
+      public Builder mergeFrom(sfsu.DatabaseProtos.Response other) {
+        if (other == sfsu.DatabaseProtos.Response.getDefaultInstance()) return this;
+        if (other.hasKey()) {
+          bitField0_ |= 0x00000001;
+          key_ = other.key_;
+          onChanged();
         }
-
-        private byte memoizedIsInitialized = -1;
-
-        @java.lang.Override
-        public final boolean isInitialized() {
-            byte isInitialized = memoizedIsInitialized;
-            if (isInitialized == 1) return true;
-            if (isInitialized == 0) return false;
-
-            memoizedIsInitialized = 1;
-            return true;
+        if (other.hasValue()) {
+          bitField0_ |= 0x00000002;
+          value_ = other.value_;
+          onChanged();
         }
-
-        @java.lang.Override
-        public void writeTo(com.google.protobuf.CodedOutputStream output)
-                throws java.io.IOException {
-            if (((bitField0_ & 0x00000001) != 0)) {
-                com.google.protobuf.GeneratedMessageV3.writeString(output, 1, key_);
-            }
-            if (((bitField0_ & 0x00000002) != 0)) {
-                com.google.protobuf.GeneratedMessageV3.writeString(output, 2, value_);
-            }
-            unknownFields.writeTo(output);
+        if (other.hasId()) {
+          setId(other.getId());
         }
-
-        @java.lang.Override
-        public int getSerializedSize() {
-            int size = memoizedSize;
-            if (size != -1) return size;
-
-            size = 0;
-            if (((bitField0_ & 0x00000001) != 0)) {
-                size += com.google.protobuf.GeneratedMessageV3.computeStringSize(1, key_);
-            }
-            if (((bitField0_ & 0x00000002) != 0)) {
-                size += com.google.protobuf.GeneratedMessageV3.computeStringSize(2, value_);
-            }
-            size += unknownFields.getSerializedSize();
-            memoizedSize = size;
-            return size;
+        if (other.hasStatus()) {
+          setStatus(other.getStatus());
         }
-
-        @java.lang.Override
-        public boolean equals(final java.lang.Object obj) {
-            if (obj == this) {
-                return true;
-            }
-            if (!(obj instanceof sfsu.DatabaseProtos.Response)) {
-                return super.equals(obj);
-            }
-            sfsu.DatabaseProtos.Response other = (sfsu.DatabaseProtos.Response) obj;
-
-            if (hasKey() != other.hasKey()) return false;
-            if (hasKey()) {
-                if (!getKey()
-                        .equals(other.getKey())) return false;
+        if (batchBuilder_ == null) {
+          if (!other.batch_.isEmpty()) {
+            if (batch_.isEmpty()) {
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+            } else {
+              ensureBatchIsMutable();
+              batch_.addAll(other.batch_);
             }
-            if (hasValue() != other.hasValue()) return false;
-            if (hasValue()) {
-                if (!getValue()
-                        .equals(other.getValue())) return false;
+            onChanged();
+          }
+        } else {
+          if (!other.batch_.isEmpty()) {
+            if (batchBuilder_.isEmpty()) {
+              batchBuilder_.dispose();
+              batchBuilder_ = null;
+              batch_ = other.batch_;
+              bitField0_ = (bitField0_ & ~0x00000010);
+              batchBuilder_ = 
+                com.google.protobuf.GeneratedMessageV3.alwaysUseFieldBuilders ?
+                   getBatchFieldBuilder() : null;
+            } else {
+              batchBuilder_.addAllMessages(other.batch_);
             }
-            if (!unknownFields.equals(other.unknownFields)) return false;
-            return true;
+          }
         }
-
-        @java.lang.Override
-        public int hashCode() {
-            if (memoizedHashCode != 0) {
-                return memoizedHashCode;
-            }
-            int hash = 41;
-            hash = (19 * hash) + getDescriptor().hashCode();
-            if (hasKey()) {
-                hash = (37 * hash) + KEY_FIELD_NUMBER;
-                hash = (53 * hash) + getKey().hashCode();
-            }
-            if (hasValue()) {
-                hash = (37 * hash) + VALUE_FIELD_NUMBER;
-                hash = (53 * hash) + getValue().hashCode();
-            }
-            hash = (29 * hash) + unknownFields.hashCode();
-            memoizedHashCode = hash;
-            return hash;
+        if (other.hasCursor()) {
+          bitField0_ |= 0x00000020;
+          cursor_ = other.cursor_;
+          onChanged();
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                java.nio.ByteBuffer data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
+        if (other.hasMore()) {
+          setMore(other.getMore());
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                java.nio.ByteBuffer data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+        this.mergeUnknownFields(other.unknownFields);
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        sfsu.DatabaseProtos.Response parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (sfsu.DatabaseProtos.Response) e.getUnfinishedMessage();
+          throw e.unwrapIOException();
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                com.google.protobuf.ByteString data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
+        return this;
+      }
+      private int bitField0_;
+
+      private java.lang.Object key_ = "";
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public boolean hasKey() {
+        return ((bitField0_ & 0x00000001) != 0);
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public java.lang.String getKey() {
+        java.lang.Object ref = key_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            key_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                com.google.protobuf.ByteString data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public com.google.protobuf.ByteString
+          getKeyBytes() {
+        java.lang.Object ref = key_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          key_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(byte[] data)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data);
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder setKey(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        key_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder clearKey() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        key_ = getDefaultInstance().getKey();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The key that was operated upon.
+       * </pre>
+       *
+       * <code>optional string key = 1;</code>
+       */
+      public Builder setKeyBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        key_ = value;
+        onChanged();
+        return this;
+      }
+
+      private java.lang.Object value_ = "";
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public boolean hasValue() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public java.lang.String getValue() {
+        java.lang.Object ref = value_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            value_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                byte[] data,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws com.google.protobuf.InvalidProtocolBufferException {
-            return PARSER.parseFrom(data, extensionRegistry);
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public com.google.protobuf.ByteString
+          getValueBytes() {
+        java.lang.Object ref = value_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          value_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(java.io.InputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input);
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder setValue(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        value_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder clearValue() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        value_ = getDefaultInstance().getValue();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The value from a get operation, if found. Empty for any other operation, or when a the key is not found.
+       * </pre>
+       *
+       * <code>optional string value = 2;</code>
+       */
+      public Builder setValueBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000002;
+        value_ = value;
+        onChanged();
+        return this;
+      }
+
+      private long id_ ;
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public boolean hasId() {
+        return ((bitField0_ & 0x00000004) != 0);
+      }
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public long getId() {
+        return id_;
+      }
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public Builder setId(long value) {
+        bitField0_ |= 0x00000004;
+        id_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * The id of the request this response answers.
+       * </pre>
+       *
+       * <code>optional uint64 id = 3;</code>
+       */
+      public Builder clearId() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        id_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private int status_ = 0;
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public boolean hasStatus() {
+        return ((bitField0_ & 0x00000008) != 0);
+      }
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Status getStatus() {
+        @SuppressWarnings("deprecation")
+        sfsu.DatabaseProtos.Response.Status result = sfsu.DatabaseProtos.Response.Status.valueOf(status_);
+        return result == null ? sfsu.DatabaseProtos.Response.Status.OK : result;
+      }
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public Builder setStatus(sfsu.DatabaseProtos.Response.Status value) {
+        if (value == null) {
+          throw new NullPointerException();
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                java.io.InputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input, extensionRegistry);
+        bitField0_ |= 0x00000008;
+        status_ = value.getNumber();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Whether the request was executed. Missing means OK.
+       * </pre>
+       *
+       * <code>optional .sfsu.Response.Status status = 4;</code>
+       */
+      public Builder clearStatus() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        status_ = 0;
+        onChanged();
+        return this;
+      }
+
+      private java.util.List<sfsu.DatabaseProtos.Response> batch_ =
+        java.util.Collections.emptyList();
+      private void ensureBatchIsMutable() {
+        if (!((bitField0_ & 0x00000010) != 0)) {
+          batch_ = new java.util.ArrayList<sfsu.DatabaseProtos.Response>(batch_);
+          bitField0_ |= 0x00000010;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder> batchBuilder_;
+
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Response> getBatchList() {
+        if (batchBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(batch_);
+        } else {
+          return batchBuilder_.getMessageList();
         }
-
-        public static sfsu.DatabaseProtos.Response parseDelimitedFrom(java.io.InputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseDelimitedWithIOException(PARSER, input);
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public int getBatchCount() {
+        if (batchBuilder_ == null) {
+          return batch_.size();
+        } else {
+          return batchBuilder_.getCount();
         }
-
-        public static sfsu.DatabaseProtos.Response parseDelimitedFrom(
-                java.io.InputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response getBatch(int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);
+        } else {
+          return batchBuilder_.getMessage(index);
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                com.google.protobuf.CodedInputStream input)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input);
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.set(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, value);
         }
-
-        public static sfsu.DatabaseProtos.Response parseFrom(
-                com.google.protobuf.CodedInputStream input,
-                com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                throws java.io.IOException {
-            return com.google.protobuf.GeneratedMessageV3
-                    .parseWithIOException(PARSER, input, extensionRegistry);
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder setBatch(
+          int index, sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.setMessage(index, builderForValue.build());
         }
-
-        @java.lang.Override
-        public Builder newBuilderForType() {
-            return newBuilder();
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addBatch(sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(value);
         }
-
-        public static Builder newBuilder() {
-            return DEFAULT_INSTANCE.toBuilder();
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Response value) {
+        if (batchBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureBatchIsMutable();
+          batch_.add(index, value);
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, value);
         }
-
-        public static Builder newBuilder(sfsu.DatabaseProtos.Response prototype) {
-            return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addBatch(
+          sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(builderForValue.build());
         }
-
-        @java.lang.Override
-        public Builder toBuilder() {
-            return this == DEFAULT_INSTANCE
-                    ? new Builder() : new Builder().mergeFrom(this);
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addBatch(
+          int index, sfsu.DatabaseProtos.Response.Builder builderForValue) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          batchBuilder_.addMessage(index, builderForValue.build());
         }
-
-        @java.lang.Override
-        protected Builder newBuilderForType(
-                com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-            Builder builder = new Builder(parent);
-            return builder;
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder addAllBatch(
+          java.lang.Iterable<? extends sfsu.DatabaseProtos.Response> values) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          com.google.protobuf.AbstractMessageLite.Builder.addAll(
+              values, batch_);
+          onChanged();
+        } else {
+          batchBuilder_.addAllMessages(values);
         }
-
-        /**
-         * Protobuf type {@code sfsu.Response}
-         */
-        public static final class Builder extends
-                com.google.protobuf.GeneratedMessageV3.Builder<Builder> implements
-                // @@protoc_insertion_point(builder_implements:sfsu.Response)
-                sfsu.DatabaseProtos.ResponseOrBuilder {
-            public static final com.google.protobuf.Descriptors.Descriptor
-            getDescriptor() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
-            }
-
-            @java.lang.Override
-            protected com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-            internalGetFieldAccessorTable() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Response_fieldAccessorTable
-                        .ensureFieldAccessorsInitialized(
-                                sfsu.DatabaseProtos.Response.class, sfsu.DatabaseProtos.Response.Builder.class);
-            }
-
-            // Construct using sfsu.DatabaseProtos.Response.newBuilder()
-            private Builder() {
-                maybeForceBuilderInitialization();
-            }
-
-            private Builder(
-                    com.google.protobuf.GeneratedMessageV3.BuilderParent parent) {
-                super(parent);
-                maybeForceBuilderInitialization();
-            }
-
-            private void maybeForceBuilderInitialization() {
-                if (com.google.protobuf.GeneratedMessageV3
-                        .alwaysUseFieldBuilders) {
-                }
-            }
-
-            @java.lang.Override
-            public Builder clear() {
-                super.clear();
-                key_ = "";
-                bitField0_ = (bitField0_ & ~0x00000001);
-                value_ = "";
-                bitField0_ = (bitField0_ & ~0x00000002);
-                return this;
-            }
-
-            @java.lang.Override
-            public com.google.protobuf.Descriptors.Descriptor
-            getDescriptorForType() {
-                return sfsu.DatabaseProtos.internal_static_sfsu_Response_descriptor;
-            }
-
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
-                return sfsu.DatabaseProtos.Response.getDefaultInstance();
-            }
-
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Response build() {
-                sfsu.DatabaseProtos.Response result = buildPartial();
-                if (!result.isInitialized()) {
-                    throw newUninitializedMessageException(result);
-                }
-                return result;
-            }
-
-            @java.lang.Override
-            public sfsu.DatabaseProtos.Response buildPartial() {
-                sfsu.DatabaseProtos.Response result = new sfsu.DatabaseProtos.Response(this);
-                int from_bitField0_ = bitField0_;
-                int to_bitField0_ = 0;
-                if (((from_bitField0_ & 0x00000001) != 0)) {
-                    to_bitField0_ |= 0x00000001;
-                }
-                result.key_ = key_;
-                if (((from_bitField0_ & 0x00000002) != 0)) {
-                    to_bitField0_ |= 0x00000002;
-                }
-                result.value_ = value_;
-                result.bitField0_ = to_bitField0_;
-                onBuilt();
-                return result;
-            }
-
-            @java.lang.Override
-            public Builder clone() {
-                return super.clone();
-            }
-
-            @java.lang.Override
-            public Builder setField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    java.lang.Object value) {
-                return super.setField(field, value);
-            }
-
-            @java.lang.Override
-            public Builder clearField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field) {
-                return super.clearField(field);
-            }
-
-            @java.lang.Override
-            public Builder clearOneof(
-                    com.google.protobuf.Descriptors.OneofDescriptor oneof) {
-                return super.clearOneof(oneof);
-            }
-
-            @java.lang.Override
-            public Builder setRepeatedField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    int index, java.lang.Object value) {
-                return super.setRepeatedField(field, index, value);
-            }
-
-            @java.lang.Override
-            public Builder addRepeatedField(
-                    com.google.protobuf.Descriptors.FieldDescriptor field,
-                    java.lang.Object value) {
-                return super.addRepeatedField(field, value);
-            }
-
-            @java.lang.Override
-            public Builder mergeFrom(com.google.protobuf.Message other) {
-                if (other instanceof sfsu.DatabaseProtos.Response) {
-                    return mergeFrom((sfsu.DatabaseProtos.Response) other);
-                } else {
-                    super.mergeFrom(other);
-                    return this;
-                }
-            }
-
-            public Builder mergeFrom(sfsu.DatabaseProtos.Response other) {
-                if (other == sfsu.DatabaseProtos.Response.getDefaultInstance()) return this;
-                if (other.hasKey()) {
-                    bitField0_ |= 0x00000001;
-                    key_ = other.key_;
-                    onChanged();
-                }
-                if (other.hasValue()) {
-                    bitField0_ |= 0x00000002;
-                    value_ = other.value_;
-                    onChanged();
-                }
-                this.mergeUnknownFields(other.unknownFields);
-                onChanged();
-                return this;
-            }
-
-            @java.lang.Override
-            public final boolean isInitialized() {
-                return true;
-            }
-
-            @java.lang.Override
-            public Builder mergeFrom(
-                    com.google.protobuf.CodedInputStream input,
-                    com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                    throws java.io.IOException {
-                sfsu.DatabaseProtos.Response parsedMessage = null;
-                try {
-                    parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-                } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-                    parsedMessage = (sfsu.DatabaseProtos.Response) e.getUnfinishedMessage();
-                    throw e.unwrapIOException();
-                } finally {
-                    if (parsedMessage != null) {
-                        mergeFrom(parsedMessage);
-                    }
-                }
-                return this;
-            }
-
-            private int bitField0_;
-
-            private java.lang.Object key_ = "";
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public boolean hasKey() {
-                return ((bitField0_ & 0x00000001) != 0);
-            }
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public java.lang.String getKey() {
-                java.lang.Object ref = key_;
-                if (!(ref instanceof java.lang.String)) {
-                    com.google.protobuf.ByteString bs =
-                            (com.google.protobuf.ByteString) ref;
-                    java.lang.String s = bs.toStringUtf8();
-                    if (bs.isValidUtf8()) {
-                        key_ = s;
-                    }
-                    return s;
-                } else {
-                    return (java.lang.String) ref;
-                }
-            }
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public com.google.protobuf.ByteString
-            getKeyBytes() {
-                java.lang.Object ref = key_;
-                if (ref instanceof String) {
-                    com.google.protobuf.ByteString b =
-                            com.google.protobuf.ByteString.copyFromUtf8(
-                                    (java.lang.String) ref);
-                    key_ = b;
-                    return b;
-                } else {
-                    return (com.google.protobuf.ByteString) ref;
-                }
-            }
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public Builder setKey(
-                    java.lang.String value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000001;
-                key_ = value;
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public Builder clearKey() {
-                bitField0_ = (bitField0_ & ~0x00000001);
-                key_ = getDefaultInstance().getKey();
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string key = 1;</code>
-             */
-            public Builder setKeyBytes(
-                    com.google.protobuf.ByteString value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000001;
-                key_ = value;
-                onChanged();
-                return this;
-            }
-
-            private java.lang.Object value_ = "";
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public boolean hasValue() {
-                return ((bitField0_ & 0x00000002) != 0);
-            }
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public java.lang.String getValue() {
-                java.lang.Object ref = value_;
-                if (!(ref instanceof java.lang.String)) {
-                    com.google.protobuf.ByteString bs =
-                            (com.google.protobuf.ByteString) ref;
-                    java.lang.String s = bs.toStringUtf8();
-                    if (bs.isValidUtf8()) {
-                        value_ = s;
-                    }
-                    return s;
-                } else {
-                    return (java.lang.String) ref;
-                }
-            }
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public com.google.protobuf.ByteString
-            getValueBytes() {
-                java.lang.Object ref = value_;
-                if (ref instanceof String) {
-                    com.google.protobuf.ByteString b =
-                            com.google.protobuf.ByteString.copyFromUtf8(
-                                    (java.lang.String) ref);
-                    value_ = b;
-                    return b;
-                } else {
-                    return (com.google.protobuf.ByteString) ref;
-                }
-            }
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public Builder setValue(
-                    java.lang.String value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000002;
-                value_ = value;
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public Builder clearValue() {
-                bitField0_ = (bitField0_ & ~0x00000002);
-                value_ = getDefaultInstance().getValue();
-                onChanged();
-                return this;
-            }
-
-            /**
-             * <code>optional string value = 2;</code>
-             */
-            public Builder setValueBytes(
-                    com.google.protobuf.ByteString value) {
-                if (value == null) {
-                    throw new NullPointerException();
-                }
-                bitField0_ |= 0x00000002;
-                value_ = value;
-                onChanged();
-                return this;
-            }
-
-            @java.lang.Override
-            public final Builder setUnknownFields(
-                    final com.google.protobuf.UnknownFieldSet unknownFields) {
-                return super.setUnknownFields(unknownFields);
-            }
-
-            @java.lang.Override
-            public final Builder mergeUnknownFields(
-                    final com.google.protobuf.UnknownFieldSet unknownFields) {
-                return super.mergeUnknownFields(unknownFields);
-            }
-
-
-            // @@protoc_insertion_point(builder_scope:sfsu.Response)
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder clearBatch() {
+        if (batchBuilder_ == null) {
+          batch_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000010);
+          onChanged();
+        } else {
+          batchBuilder_.clear();
         }
-
-        // @@protoc_insertion_point(class_scope:sfsu.Response)
-        private static final sfsu.DatabaseProtos.Response DEFAULT_INSTANCE;
-
-        static {
-            DEFAULT_INSTANCE = new sfsu.DatabaseProtos.Response();
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public Builder removeBatch(int index) {
+        if (batchBuilder_ == null) {
+          ensureBatchIsMutable();
+          batch_.remove(index);
+          onChanged();
+        } else {
+          batchBuilder_.remove(index);
         }
-
-        public static sfsu.DatabaseProtos.Response getDefaultInstance() {
-            return DEFAULT_INSTANCE;
+        return this;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder getBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.ResponseOrBuilder getBatchOrBuilder(
+          int index) {
+        if (batchBuilder_ == null) {
+          return batch_.get(index);  } else {
+          return batchBuilder_.getMessageOrBuilder(index);
         }
-
-        @java.lang.Deprecated
-        public static final com.google.protobuf.Parser<Response>
-                PARSER = new com.google.protobuf.AbstractParser<Response>() {
-            @java.lang.Override
-            public Response parsePartialFrom(
-                    com.google.protobuf.CodedInputStream input,
-                    com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-                    throws com.google.protobuf.InvalidProtocolBufferException {
-                return new Response(input, extensionRegistry);
-            }
-        };
-
-        public static com.google.protobuf.Parser<Response> parser() {
-            return PARSER;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<? extends sfsu.DatabaseProtos.ResponseOrBuilder> 
+           getBatchOrBuilderList() {
+        if (batchBuilder_ != null) {
+          return batchBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(batch_);
         }
-
-        @java.lang.Override
-        public com.google.protobuf.Parser<Response> getParserForType() {
-            return PARSER;
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder addBatchBuilder() {
+        return getBatchFieldBuilder().addBuilder(
+            sfsu.DatabaseProtos.Response.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public sfsu.DatabaseProtos.Response.Builder addBatchBuilder(
+          int index) {
+        return getBatchFieldBuilder().addBuilder(
+            index, sfsu.DatabaseProtos.Response.getDefaultInstance());
+      }
+      /**
+       * <pre>
+       * The responses to the requests of a BATCH operation, in the same order, or the pairs found by a SCAN, in key
+       * order.
+       * </pre>
+       *
+       * <code>repeated .sfsu.Response batch = 5;</code>
+       */
+      public java.util.List<sfsu.DatabaseProtos.Response.Builder> 
+           getBatchBuilderList() {
+        return getBatchFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilderV3<
+          sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder> 
+          getBatchFieldBuilder() {
+        if (batchBuilder_ == null) {
+          batchBuilder_ = new com.google.protobuf.RepeatedFieldBuilderV3<
+              sfsu.DatabaseProtos.Response, sfsu.DatabaseProtos.Response.Builder, sfsu.DatabaseProtos.ResponseOrBuilder>(
+                  batch_,
+                  ((bitField0_ & 0x00000010) != 0),
+                  getParentForChildren(),
+                  isClean());
+          batch_ = null;
         }
-
-        @java.lang.Override
-        public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
-            return DEFAULT_INSTANCE;
+        return batchBuilder_;
+      }
+
+      private java.lang.Object cursor_ = "";
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public boolean hasCursor() {
+        return ((bitField0_ & 0x00000020) != 0);
+      }
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public java.lang.String getCursor() {
+        java.lang.Object ref = cursor_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            cursor_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCursorBytes() {
+        java.lang.Object ref = cursor_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          cursor_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
         }
+      }
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public Builder setCursor(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public Builder clearCursor() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        cursor_ = getDefaultInstance().getCursor();
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Set when a SCAN filled its page, streamed or not. Send it back in the cursor of a SCAN to continue after it.
+       * </pre>
+       *
+       * <code>optional string cursor = 6;</code>
+       */
+      public Builder setCursorBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        cursor_ = value;
+        onChanged();
+        return this;
+      }
+
+      private boolean more_ ;
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public boolean hasMore() {
+        return ((bitField0_ & 0x00000040) != 0);
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public boolean getMore() {
+        return more_;
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public Builder setMore(boolean value) {
+        bitField0_ |= 0x00000040;
+        more_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <pre>
+       * Set on every response of a streamed SCAN but the last one.
+       * </pre>
+       *
+       * <code>optional bool more = 7;</code>
+       */
+      public Builder clearMore() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        more_ = false;
+        onChanged();
+        return this;
+      }
+      @java.lang.Override
+      public final Builder setUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.setUnknownFields(unknownFields);
+      }
+
+      @java.lang.Override
+      public final Builder mergeUnknownFields(
+          final com.google.protobuf.UnknownFieldSet unknownFields) {
+        return super.mergeUnknownFields(unknownFields);
+      }
+
+
+      // @@protoc_insertion_point(builder_scope:sfsu.Response)
+    }
 
+    // @@protoc_insertion_point(class_scope:sfsu.Response)
+    private static final sfsu.DatabaseProtos.Response DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new sfsu.DatabaseProtos.Response();
     }
 
-    private static final com.google.protobuf.Descriptors.Descriptor
-            internal_static_sfsu_Request_descriptor;
-    private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-            internal_static_sfsu_Request_fieldAccessorTable;
-    private static final com.google.protobuf.Descriptors.Descriptor
-            internal_static_sfsu_Response_descriptor;
-    private static final
-    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
-            internal_static_sfsu_Response_fieldAccessorTable;
+    public static sfsu.DatabaseProtos.Response getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
 
-    public static com.google.protobuf.Descriptors.FileDescriptor
-    getDescriptor() {
-        return descriptor;
+    @java.lang.Deprecated public static final com.google.protobuf.Parser<Response>
+        PARSER = new com.google.protobuf.AbstractParser<Response>() {
+      @java.lang.Override
+      public Response parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new Response(input, extensionRegistry);
+      }
+    };
+
+    public static com.google.protobuf.Parser<Response> parser() {
+      return PARSER;
     }
 
-    private static com.google.protobuf.Descriptors.FileDescriptor
-            descriptor;
+    @java.lang.Override
+    public com.google.protobuf.Parser<Response> getParserForType() {
+      return PARSER;
+    }
 
-    static {
-        java.lang.String[] descriptorData = {
-                "\n\016database.proto\022\004sfsu\"\204\001\n\007Request\022.\n\top" +
-                        "eration\030\001 \001(\0162\033.sfsu.Request.OperationTy" +
-                        "pe\022\013\n\003key\030\002 \001(\t\022\r\n\005value\030\003 \001(\t\"-\n\rOperat" +
-                        "ionType\022\007\n\003GET\020\000\022\007\n\003PUT\020\001\022\n\n\006DELETE\020\002\"&\n" +
-                        "\010Response\022\013\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\tB\026\n" +
-                        "\004sfsuB\016DatabaseProtos"
+    @java.lang.Override
+    public sfsu.DatabaseProtos.Response getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_sfsu_Request_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_sfsu_Request_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_sfsu_Response_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_sfsu_Response_fieldAccessorTable;
+
+  public static com.google.protobuf.Descriptors.FileDescriptor
+      getDescriptor() {
+    return descriptor;
+  }
+  private static  com.google.protobuf.Descriptors.FileDescriptor
+      descriptor;
+  static {
+    java.lang.String[] descriptorData = {
+      "\n\016database.proto\022\004sfsu\"\375\002\n\007Request\022.\n\top" +
+      "eration\030\001 \001(\0162\033.sfsu.Request.OperationTy" +
+      "pe\022\013\n\003key\030\002 \001(\t\022\r\n\005value\030\003 \001(\t\022\n\n\002id\030\004 \001" +
+      "(\004\022\034\n\005batch\030\005 \003(\0132\r.sfsu.Request\022\016\n\006clie" +
+      "nt\030\006 \001(\t\022(\n\010priority\030\007 \001(\0162\026.sfsu.Reques" +
+      "t.Priority\022\013\n\003end\030\010 \001(\t\022\r\n\005limit\030\t \001(\r\022\016" +
+      "\n\006cursor\030\n \001(\t\022\016\n\006credit\030\013 \001(\r\022\013\n\003ttl\030\014 " +
+      "\001(\004\"Z\n\rOperationType\022\007\n\003GET\020\000\022\007\n\003PUT\020\001\022\n" +
+      "\n\006DELETE\020\002\022\t\n\005BATCH\020\003\022\010\n\004SCAN\020\004\022\n\n\006CREDI" +
+      "T\020\005\022\n\n\006CANCEL\020\006\"\035\n\010Priority\022\010\n\004HIGH\020\000\022\007\n" +
+      "\003LOW\020\001\"\275\001\n\010Response\022\013\n\003key\030\001 \001(\t\022\r\n\005valu" +
+      "e\030\002 \001(\t\022\n\n\002id\030\003 \001(\004\022%\n\006status\030\004 \001(\0162\025.sf" +
+      "su.Response.Status\022\035\n\005batch\030\005 \003(\0132\016.sfsu" +
+      ".Response\022\016\n\006cursor\030\006 \001(\t\022\014\n\004more\030\007 \001(\010\"" +
+      "%\n\006Status\022\006\n\002OK\020\000\022\t\n\005ERROR\020\001\022\010\n\004BUSY\020\002B\026" +
+      "\n\004sfsuB\016DatabaseProtos"
+    };
+    com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
+        new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
+          public com.google.protobuf.ExtensionRegistry assignDescriptors(
+              com.google.protobuf.Descriptors.FileDescriptor root) {
+            descriptor = root;
+            return null;
+          }
         };
-        com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
-                new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
-                    public com.google.protobuf.ExtensionRegistry assignDescriptors(
-                            com.google.protobuf.Descriptors.FileDescriptor root) {
-                        descriptor = root;
-                        return null;
-                    }
-                };
-        com.google.protobuf.Descriptors.FileDescriptor
-                .internalBuildGeneratedFileFrom(descriptorData,
-                        new com.google.protobuf.Descriptors.FileDescriptor[]{
-                        }, assigner);
-        internal_static_sfsu_Request_descriptor =
-                getDescriptor().getMessageTypes().get(0);
-        internal_static_sfsu_Request_fieldAccessorTable = new
-                com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-                internal_static_sfsu_Request_descriptor,
-                new java.lang.String[]{"Operation", "Key", "Value",});
-        internal_static_sfsu_Response_descriptor =
-                getDescriptor().getMessageTypes().get(1);
-        internal_static_sfsu_Response_fieldAccessorTable = new
-                com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
-                internal_static_sfsu_Response_descriptor,
-                new java.lang.String[]{"Key", "Value",});
-    }
-
-    // @@protoc_insertion_point(outer_class_scope)
+    com.google.protobuf.Descriptors.FileDescriptor
+      .internalBuildGeneratedFileFrom(descriptorData,
+        new com.google.protobuf.Descriptors.FileDescriptor[] {
+        }, assigner);
+    internal_static_sfsu_Request_descriptor =
+      getDescriptor().getMessageTypes().get(0);
+    internal_static_sfsu_Request_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_sfsu_Request_descriptor,
+        new java.lang.String[] { "Operation", "Key", "Value", "Id", "Batch", "Client", "Priority", "End", "Limit", "Cursor", "Credit", "Ttl", });
+    internal_static_sfsu_Response_descriptor =
+      getDescriptor().getMessageTypes().get(1);
+    internal_static_sfsu_Response_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_sfsu_Response_descriptor,
+        new java.lang.String[] { "Key", "Value", "Id", "Status", "Batch", "Cursor", "More", });
+  }
+
+  // @@protoc_insertion_point(outer_class_scope)
 }
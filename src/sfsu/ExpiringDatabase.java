@@ -0,0 +1,370 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Lets the keys of another storage engine expire. A PUT may give its key a time to live, after which the key is gone:
+ * reads stop seeing it at once, and a background thread deletes it soon after, driven by a TimingWheel, so that
+ * neither scheduling nor expiring a key costs more than O(1) however many keys have one.
+ * <p>
+ * Every value is stored with the time it expires in front of it, as 8 bytes of milliseconds since the epoch, zero for
+ * never. The deadline is written, logged and snapshotted with the value, so keys keep their time to live when the
+ * server restarts, and a PUT without one clears it. When the database is opened the keys of the engine are scheduled
+ * again, if it can iterate over them; otherwise the keys that expired while the server was down are only deleted once
+ * they are read.
+ * <p>
+ * Since every value of the engine must have a deadline, the engine is marked as holding them: the first time an
+ * ExpiringDatabase opens it, it must be empty, and it gets a key of its own, FORMAT_KEY, which clients can neither read
+ * nor write. Opening an engine that has keys but not that one fails, and so does opening one that has it without an
+ * ExpiringDatabase, see checkPlain.
+ * <p>
+ * Expiring a key takes the lock of its stripe, checks that the stored deadline has passed and deletes it, so a key
+ * written again meanwhile is left alone. Timers are not removed when their key is written again or deleted; they find
+ * nothing to do.
+ */
+public class ExpiringDatabase implements StorageEngine, Closeable {
+
+    // The length of a tick of the timing wheel, which is how late a key may be deleted after it expires.
+    static final long TICK_MILLIS = Long.getLong("sfsu.ttl.tickMillis", 10);
+
+    static final int DEADLINE_SIZE = Long.BYTES;
+
+    // Marks an engine whose values all have a deadline in front. Sorts before any key a client is likely to use.
+    static final ByteString FORMAT_KEY = ByteString.copyFromUtf8("\0sfsu.ttl.format");
+    static final ByteString FORMAT = ByteString.copyFromUtf8("deadline:8");
+
+    private final StorageEngine engine;
+    private final TimingWheel wheel;
+    private final ReentrantLock[] stripes = new ReentrantLock[LoggedDatabase.STRIPES];
+    private final Thread expirer;
+    private final LongAdder expiredActively = Metrics.counter("ttl.expired.active");
+    private final LongAdder expiredLazily = Metrics.counter("ttl.expired.lazy");
+
+    /**
+     * Wraps the engine, which must be empty or have been written through an ExpiringDatabase only, schedules the keys
+     * it already has and starts the expiry thread. Throws IllegalStateException if the engine has values without a
+     * deadline.
+     */
+    public ExpiringDatabase(StorageEngine engine) {
+        this.engine = engine;
+        for (int i = 0; i < stripes.length; ++i) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.wheel = new TimingWheel(TICK_MILLIS, System.currentTimeMillis());
+        checkFormat(engine);
+        try {
+            long begin = System.nanoTime();
+            long[] scheduled = new long[1];
+            engine.forEach((key, value) -> {
+                if (key.equals(FORMAT_KEY)) {
+                    return;
+                }
+                long deadline = deadline(value);
+                if (deadline != 0) {
+                    wheel.schedule(key, deadline);
+                    ++scheduled[0];
+                }
+            });
+            Log.info("Scheduled {} keys to expire in {} ms", scheduled[0], (System.nanoTime() - begin) / 1_000_000);
+        } catch (UnsupportedOperationException e) {
+            Log.warn("Keys that expired before the start are deleted when read: {}", e.getMessage());
+        }
+
+        expirer = new Thread(this::expireLoop, "Expiry");
+        expirer.setDaemon(true);
+        expirer.start();
+        Metrics.gauge("ttl.timers", wheel::size);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads.isThreadCpuTimeSupported()) {
+            Metrics.gauge("ttl.expiry.cpu.micros", () -> threads.getThreadCpuTime(expirer.getId()) / 1000);
+        }
+    }
+
+    /**
+     * Throws IllegalStateException if the engine was written through an ExpiringDatabase, whose values would be read
+     * with their deadlines in front. For servers that run without one.
+     */
+    public static void checkPlain(StorageEngine engine) {
+        if (engine.GET(FORMAT_KEY) != null) {
+            throw new IllegalStateException("The engine holds values with a time to live; run with -Dsfsu.ttl=true");
+        }
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        return k.equals(FORMAT_KEY) ? null : live(k, engine.GET(k), System.currentTimeMillis());
+    }
+
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        List<ByteString> stored = engine.GET(keys);
+        List<ByteString> values = new ArrayList<>(stored.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < stored.size(); ++i) {
+            values.add(keys.get(i).equals(FORMAT_KEY) ? null : live(keys.get(i), stored.get(i), now));
+        }
+        return values;
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        PUT(key, value, 0);
+    }
+
+    /**
+     * Stores the value for the key until the time to live has passed, or for good if it is zero.
+     */
+    @Override
+    public void PUT(ByteString key, ByteString value, long ttlMillis) {
+        checkKey(key);
+        long deadline = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+        ReentrantLock stripe = stripeFor(key);
+        stripe.lock();
+        try {
+            engine.PUT(key, withDeadline(value, deadline));
+        } finally {
+            stripe.unlock();
+        }
+        if (deadline != 0) {
+            wheel.schedule(key, deadline);
+        }
+    }
+
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        keys.forEach(ExpiringDatabase::checkKey);
+        List<ByteString> stored = new ArrayList<>(values.size());
+        for (ByteString value : values) {
+            stored.add(withDeadline(value, 0));
+        }
+        // The engine may apply the batch at once, so lock every stripe it touches for the whole of it.
+        boolean[] locked = new boolean[stripes.length];
+        for (ByteString key : keys) {
+            locked[stripeIndex(key)] = true;
+        }
+        for (int i = 0; i < stripes.length; ++i) {
+            if (locked[i]) {
+                stripes[i].lock();
+            }
+        }
+        try {
+            engine.PUT(keys, stored);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; --i) {
+                if (locked[i]) {
+                    stripes[i].unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        checkKey(k);
+        engine.DELETE(k);
+    }
+
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        keys.forEach(ExpiringDatabase::checkKey);
+        engine.DELETE(keys);
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        long now = System.currentTimeMillis();
+        engine.forEach((key, value) -> {
+            if (!key.equals(FORMAT_KEY) && !expired(value, now)) {
+                action.accept(key, value.substring(DEADLINE_SIZE));
+            }
+        });
+    }
+
+    /**
+     * Scans the engine, skipping expired pairs, and scans on after the last key if they left the page short.
+     */
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<ByteString, ByteString>> pairs = new ArrayList<>();
+        while (true) {
+            int wanted = limit - pairs.size();
+            List<Map.Entry<ByteString, ByteString>> page = engine.SCAN(start, end, wanted);
+            for (Map.Entry<ByteString, ByteString> pair : page) {
+                if (!pair.getKey().equals(FORMAT_KEY) && !expired(pair.getValue(), now)) {
+                    pairs.add(Map.entry(pair.getKey(), pair.getValue().substring(DEADLINE_SIZE)));
+                }
+            }
+            if (page.size() < wanted || pairs.size() == limit) {
+                return pairs;
+            }
+            start = page.get(page.size() - 1).getKey().concat(ByteString.copyFrom(new byte[1]));
+        }
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    /**
+     * Stops the expiry thread and waits for it, so that it deletes nothing once this returns. The engine is left as it
+     * is.
+     */
+    @Override
+    public void close() {
+        expirer.interrupt();
+        try {
+            expirer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of keys waiting to expire, counting a key once for every time it was given a time to live
+     * that has not run out yet.
+     */
+    long timers() {
+        return wheel.size();
+    }
+
+    /**
+     * Hands the keys due to the expiry thread every tick.
+     */
+    private void expireLoop() {
+        try {
+            while (true) {
+                Thread.sleep(TICK_MILLIS);
+                for (ByteString key : wheel.advance(System.currentTimeMillis())) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    if (expire(key)) {
+                        expiredActively.increment();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed.
+        } catch (RuntimeException e) {
+            Log.error("The expiry thread stopped, keys are only expired when read", e);
+        }
+    }
+
+    /**
+     * Returns the value without its deadline, or null if there is none or it expired, in which case the key is deleted.
+     */
+    private ByteString live(ByteString key, ByteString value, long now) {
+        if (value == null) {
+            return null;
+        }
+        if (expired(value, now)) {
+            if (expire(key)) {
+                expiredLazily.increment();
+            }
+            return null;
+        }
+        return value.substring(DEADLINE_SIZE);
+    }
+
+    /**
+     * Deletes the key if it has expired. Returns whether it did.
+     */
+    private boolean expire(ByteString key) {
+        ReentrantLock stripe = stripeFor(key);
+        stripe.lock();
+        try {
+            ByteString value = engine.GET(key);
+            if (value == null || !expired(value, System.currentTimeMillis())) {
+                return false;
+            }
+            engine.DELETE(key);
+            return true;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Marks an empty engine as holding values with deadlines, and checks that one with keys already is.
+     */
+    private static void checkFormat(StorageEngine engine) {
+        if (FORMAT.equals(engine.GET(FORMAT_KEY))) {
+            return;
+        }
+        boolean[] empty = {true};
+        try {
+            engine.forEach((key, value) -> empty[0] = false);
+        } catch (UnsupportedOperationException e) {
+            Log.warn("Cannot check that the engine only holds values with a time to live: {}", e.getMessage());
+        }
+        if (!empty[0]) {
+            throw new IllegalStateException("The engine holds values written without a time to live; run without "
+                    + "-Dsfsu.ttl or start from an empty engine");
+        }
+        engine.PUT(FORMAT_KEY, FORMAT);
+    }
+
+    private static void checkKey(ByteString key) {
+        if (key.equals(FORMAT_KEY)) {
+            throw new IllegalArgumentException("The key is reserved");
+        }
+    }
+
+    private static boolean expired(ByteString value, long now) {
+        long deadline = deadline(value);
+        return deadline != 0 && deadline <= now;
+    }
+
+    private static long deadline(ByteString value) {
+        long deadline = 0;
+        for (int i = 0; i < DEADLINE_SIZE; ++i) {
+            deadline = deadline << 8 | (value.byteAt(i) & 0xff);
+        }
+        return deadline;
+    }
+
+    /**
+     * Returns the value to store: the deadline and the value in one flat array, so that in-memory engines do not keep
+     * a rope of two pieces.
+     */
+    private static ByteString withDeadline(ByteString value, long deadline) {
+        byte[] stored = new byte[DEADLINE_SIZE + value.size()];
+        ByteBuffer.wrap(stored).putLong(deadline);
+        value.copyTo(stored, DEADLINE_SIZE);
+        return UnsafeByteOperations.unsafeWrap(stored);
+    }
+
+    private ReentrantLock stripeFor(ByteString key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(ByteString key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (LoggedDatabase.STRIPES - 1);
+    }
+}
@@ -0,0 +1,61 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes keys with random times to live into an ExpiringDatabase over the bytes engine, and reports the write
+ * throughput compared with writes that never expire, how late the expiry thread deletes the keys, and the CPU time it
+ * spends per key.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.ExpiryBenchmark [keys] [longest ttl in ms]
+ */
+public class ExpiryBenchmark {
+
+    static final int VALUE_SIZE = 100;
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxTtl = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        ByteString value = ByteString.copyFrom(new byte[VALUE_SIZE]);
+        ExpiringDatabase database = new ExpiringDatabase(new ByteDatabase());
+        long begin = System.nanoTime();
+        for (int i = 0; i < keys; ++i) {
+            database.PUT(ByteString.copyFromUtf8("persistent" + i), value);
+        }
+        report.println(String.format("%-32s %12.0f", "PUTs/sec without ttl",
+                keys / ((System.nanoTime() - begin) / 1e9)));
+
+        long cpuBefore = Metrics.snapshot().getOrDefault("ttl.expiry.cpu.micros", 0L);
+        begin = System.nanoTime();
+        long lastDeadline = 0;
+        for (int i = 0; i < keys; ++i) {
+            long ttl = 1 + ThreadLocalRandom.current().nextInt(maxTtl);
+            database.PUT(ByteString.copyFromUtf8("expiring" + i), value, ttl);
+            lastDeadline = Math.max(lastDeadline, System.currentTimeMillis() + ttl);
+        }
+        report.println(String.format("%-32s %12.0f", "PUTs/sec with ttl",
+                keys / ((System.nanoTime() - begin) / 1e9)));
+
+        while (Metrics.snapshot().get("ttl.expired.active") < keys) {
+            Thread.sleep(1);
+        }
+        long late = System.currentTimeMillis() - lastDeadline;
+        double elapsedMicros = (System.nanoTime() - begin) / 1e3;
+        SortedMap<String, Long> metrics = Metrics.snapshot();
+        long cpu = metrics.getOrDefault("ttl.expiry.cpu.micros", 0L) - cpuBefore;
+        report.println(String.format("%-32s %12d", "keys expired", metrics.get("ttl.expired.active")));
+        report.println(String.format("%-32s %12d", "ms late for the last key", late));
+        report.println(String.format("%-32s %12.2f", "expiry CPU us/key", (double) cpu / keys));
+        report.println(String.format("%-32s %12.0f", "expiry CPU % of one core", 100.0 * cpu / elapsedMicros));
+        database.close();
+    }
+}
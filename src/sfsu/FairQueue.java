@@ -0,0 +1,159 @@
+package sfsu;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded work queue that shares the threads fairly between clients, with deficit round robin. Every client with
+ * queued tasks has a queue of its own, and the clients take turns: on its turn a client earns a quantum of credit and
+ * runs tasks in order for as long as its credit covers their cost. A client that sends much more than the others only
+ * fills up its own queue, and each of the others still gets its share of the threads.
+ * <p>
+ * When the queue is full, the client with the longest queue loses its most recent task to make room, unless the
+ * newcomer's own queue is about as long, so a heavy client cannot lock the others out by filling the queue either.
+ */
+final class FairQueue extends SheddingQueue {
+
+    private static final class Flow {
+        final String client;
+        final ArrayDeque<Entry> entries = new ArrayDeque<>();
+        int deficit;
+
+        Flow(String client) {
+            this.client = client;
+        }
+    }
+
+    private final int quantum;
+    private final Function<Runnable, String> clientOf;
+    private final ToIntFunction<Runnable> costOf;
+
+    // The clients with queued tasks, by name and in turn order. The first one is the client whose turn it is.
+    private final HashMap<String, Flow> flows = new HashMap<>();
+    private final ArrayDeque<Flow> turns = new ArrayDeque<>();
+
+    /**
+     * Creates a queue for up to capacity tasks. ClientOf names the client a task belongs to, and costOf tells how much
+     * of a client's credit it uses. The delay may be null.
+     */
+    FairQueue(int capacity, int quantum, ControlledDelay delay, Function<Runnable, String> clientOf,
+              ToIntFunction<Runnable> costOf, Consumer<Runnable> dropHandler) {
+        super(capacity, delay, dropHandler);
+        this.quantum = quantum;
+        this.clientOf = clientOf;
+        this.costOf = costOf;
+    }
+
+    /**
+     * Returns the number of clients with queued tasks.
+     */
+    int clients() {
+        lock.lock();
+        try {
+            return flows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    void enqueue(Entry entry) {
+        String client = clientOf.apply(entry.task);
+        Flow flow = flows.get(client);
+        if (flow == null) {
+            flow = new Flow(client);
+            flows.put(client, flow);
+            turns.addLast(flow);
+        }
+        flow.entries.addLast(entry);
+    }
+
+    @Override
+    Entry dequeue() {
+        while (true) {
+            Flow flow = turns.peekFirst();
+            int cost = costOf.applyAsInt(flow.entries.peekFirst().task);
+            if (flow.deficit < cost) {
+                // Its turn is over. It earns a quantum for the next one.
+                flow.deficit += quantum;
+                turns.addLast(turns.pollFirst());
+                continue;
+            }
+            flow.deficit -= cost;
+            Entry entry = flow.entries.pollFirst();
+            if (flow.entries.isEmpty()) {
+                // Credit is not saved up while idle.
+                turns.pollFirst();
+                flows.remove(flow.client);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Finds the client dequeue would serve without handing out any credit: the one that needs the fewest more turns
+     * to afford its next task, and of those the first in turn order.
+     */
+    @Override
+    Entry head() {
+        Flow next = null;
+        long fewest = Long.MAX_VALUE;
+        for (Flow flow : turns) {
+            int cost = costOf.applyAsInt(flow.entries.peekFirst().task);
+            long turnsNeeded = flow.deficit >= cost ? 0 : (cost - flow.deficit + quantum - 1L) / quantum;
+            if (turnsNeeded < fewest) {
+                next = flow;
+                fewest = turnsNeeded;
+            }
+        }
+        return next.entries.peekFirst();
+    }
+
+    @Override
+    Entry evict(Runnable task) {
+        Flow longest = null;
+        for (Flow flow : turns) {
+            if (longest == null || flow.entries.size() > longest.entries.size()) {
+                longest = flow;
+            }
+        }
+        Flow own = flows.get(clientOf.apply(task));
+        int ownSize = own == null ? 0 : own.entries.size();
+        if (longest == null || ownSize + 1 >= longest.entries.size()) {
+            return null;
+        }
+        Entry evicted = longest.entries.pollLast();
+        if (longest.entries.isEmpty()) {
+            turns.remove(longest);
+            flows.remove(longest.client);
+        }
+        return evicted;
+    }
+
+    @Override
+    boolean removeEntry(Object task) {
+        for (Flow flow : turns) {
+            if (flow.entries.removeIf(entry -> entry.task.equals(task))) {
+                if (flow.entries.isEmpty()) {
+                    turns.remove(flow);
+                    flows.remove(flow.client);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    void collect(List<Runnable> tasks) {
+        for (Flow flow : turns) {
+            for (Entry entry : flow.entries) {
+                tasks.add(entry.task);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package sfsu;
+
+import java.util.EnumMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds artificial latency and errors to requests, to rehearse how clients behave when the server is slow or failing.
+ * Nothing is injected unless it is configured when the server starts, per operation type:
+ * <p>
+ * -Dsfsu.latency.GET=fixed:5 delays every GET by 5 ms.
+ * -Dsfsu.latency.PUT=uniform:1:10 delays every PUT by 1 to 10 ms.
+ * -Dsfsu.latency.GET=exponential:2 delays GETs by 2 ms on average.
+ * -Dsfsu.latency.DELETE=pareto:1:1.5 delays DELETEs by at least 1 ms, with a long tail (a smaller shape means a
+ * longer tail).
+ * -Dsfsu.errors.PUT=0.01 fails 1% of the PUTs with an ERROR response, without running them.
+ * <p>
+ * Durations are in milliseconds and may have a fraction.
+ */
+final class FaultInjector {
+
+    /**
+     * Injects nothing.
+     */
+    static final FaultInjector NONE = new FaultInjector();
+
+    /**
+     * A latency distribution.
+     */
+    interface Delay {
+        long nanos(ThreadLocalRandom random);
+    }
+
+    private final EnumMap<DatabaseProtos.Request.OperationType, Delay> delays =
+            new EnumMap<>(DatabaseProtos.Request.OperationType.class);
+    private final EnumMap<DatabaseProtos.Request.OperationType, Double> errorRates =
+            new EnumMap<>(DatabaseProtos.Request.OperationType.class);
+
+    private FaultInjector() {
+    }
+
+    /**
+     * Reads the sfsu.latency.OPERATION and sfsu.errors.OPERATION system properties.
+     */
+    static FaultInjector fromProperties() {
+        FaultInjector injector = new FaultInjector();
+        for (DatabaseProtos.Request.OperationType operation : DatabaseProtos.Request.OperationType.values()) {
+            String latency = System.getProperty("sfsu.latency." + operation);
+            if (latency != null) {
+                injector.delays.put(operation, parseDelay(latency));
+            }
+            String errors = System.getProperty("sfsu.errors." + operation);
+            if (errors != null) {
+                double rate = Double.parseDouble(errors);
+                if (rate < 0 || rate > 1) {
+                    throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errors);
+                }
+                injector.errorRates.put(operation, rate);
+            }
+        }
+        return injector;
+    }
+
+    /**
+     * Parses a latency distribution such as fixed:5, uniform:1:10, exponential:2 or pareto:1:1.5.
+     */
+    static Delay parseDelay(String spec) {
+        String[] parts = spec.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed": {
+                    long nanos = millisToNanos(parts[1]);
+                    return random -> nanos;
+                }
+                case "uniform": {
+                    long min = millisToNanos(parts[1]);
+                    long max = millisToNanos(parts[2]);
+                    return random -> min + (long) (random.nextDouble() * (max - min));
+                }
+                case "exponential": {
+                    long mean = millisToNanos(parts[1]);
+                    return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+                }
+                case "pareto": {
+                    long scale = millisToNanos(parts[1]);
+                    double shape = Double.parseDouble(parts[2]);
+                    return random -> (long) (scale / Math.pow(1 - random.nextDouble(), 1 / shape));
+                }
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed latency: " + spec, e);
+        }
+        throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+    }
+
+    /**
+     * Delays the calling thread as configured for the operation. Returns false if the request should fail instead of
+     * running.
+     */
+    boolean inject(DatabaseProtos.Request.OperationType operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Delay delay = delays.get(operation);
+        if (delay != null) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay.nanos(random));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Double errorRate = errorRates.get(operation);
+        return errorRate == null || random.nextDouble() >= errorRate;
+    }
+
+    private static long millisToNanos(String millis) {
+        return (long) (Double.parseDouble(millis) * 1_000_000);
+    }
+}
@@ -0,0 +1,80 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads the even keys into a BTreeDatabase with a small page cache and compares GETs for missing keys, the odd ones,
+ * and for existing keys with and without a FilteredDatabase in front of it. Then deletes a third of the keys, which
+ * makes the filter rebuild itself, and reports the false positive rate and the missing key throughput again.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.FilterBenchmark [keys] [seconds per measurement] [directory]
+ */
+public class FilterBenchmark {
+
+    static final int VALUE_SIZE = 100;
+    static final int CACHE_PAGES = 1024;
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path parent = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        Path directory = Files.createTempDirectory(parent, "filter");
+        BTreeDatabase btree = new BTreeDatabase(directory.resolve("tree"), CACHE_PAGES);
+        ByteString value = ByteString.copyFrom(new byte[VALUE_SIZE]);
+        for (int i = 0; i < keys; ++i) {
+            btree.PUT(key(2 * i), value);
+        }
+        btree.checkpoint();
+
+        long begin = System.nanoTime();
+        FilteredDatabase filtered = new FilteredDatabase(btree, keys);
+        report.println(String.format("%d keys, %d MB on disk, filter built in %d ms", keys, btree.diskBytes() >> 20,
+                (System.nanoTime() - begin) / 1_000_000));
+
+        report.println(String.format("%-28s %14s %14s", "GETs/sec", "btree", "filtered"));
+        report.println(String.format("%-28s %14.0f %14.0f", "missing keys",
+                missing(btree, keys, seconds), missing(filtered, keys, seconds)));
+        report.println(String.format("%-28s %14.0f %14.0f", "existing keys",
+                existing(btree, keys, seconds), existing(filtered, keys, seconds)));
+        report.println(String.format("%-28s %14d", "false positives ppm", filtered.falsePositivePpm()));
+
+        for (int i = 0; i < keys; i += 3) {
+            filtered.DELETE(key(2 * i));
+        }
+        while (Metrics.snapshot().get("filter.rebuilds") == 0) {
+            Thread.sleep(10);
+        }
+        // Deleted keys are missing keys too, and the rebuilt filter no longer holds them.
+        double deleted = Benchmark.throughput(1, seconds * 1000L, (thread, iteration) ->
+                filtered.GET(key(6 * ThreadLocalRandom.current().nextInt(keys / 3))));
+        report.println(String.format("%-28s %14s %14.0f", "deleted keys, rebuilt", "", deleted));
+        report.println(String.format("%-28s %14d", "false positives ppm so far", filtered.falsePositivePpm()));
+
+        btree.close();
+        Benchmark.delete(directory);
+    }
+
+    private static double missing(StorageEngine engine, int keys, int seconds) throws InterruptedException {
+        return Benchmark.throughput(1, seconds * 1000L, (thread, iteration) ->
+                engine.GET(key(2 * ThreadLocalRandom.current().nextInt(keys) + 1)));
+    }
+
+    private static double existing(StorageEngine engine, int keys, int seconds) throws InterruptedException {
+        return Benchmark.throughput(1, seconds * 1000L, (thread, iteration) ->
+                engine.GET(key(2 * ThreadLocalRandom.current().nextInt(keys))));
+    }
+
+    private static ByteString key(int i) {
+        return ByteString.copyFromUtf8(String.format("key%010d", i));
+    }
+}
@@ -0,0 +1,272 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Answers GETs for keys that do not exist without asking the storage engine, from a BloomFilter in memory holding
+ * every key written. Only keys the filter may hold reach the engine, which for an engine on disk saves the most
+ * expensive reads there are: the ones that find nothing.
+ * <p>
+ * A bloom filter cannot forget a key, so deleted keys stay in it and only cost a wasted lookup. The filter keeps an
+ * estimate of the live keys: the keys the engine had when it was built, plus the keys written that the filter surely
+ * did not hold, less the keys deleted that it may hold. Overwrites of existing keys leave it alone. Once the deletes
+ * reach a quarter of the keys the filter was built for, or the live keys outgrow it, a new filter is built in the
+ * background from the keys of the engine, with room for twice the live keys. Writes made meanwhile go to both
+ * filters, and the new one replaces the old one once the iteration is over. The engine must be able to iterate over
+ * its keys.
+ * <p>
+ * The false positive rate, the share of lookups for missing keys that the filter let through, is published as
+ * filter.false.positive.ppm.
+ */
+public class FilteredDatabase implements StorageEngine {
+
+    static final int BITS_PER_KEY = 10;
+
+    private final StorageEngine engine;
+    private final long minimumKeys;
+
+    // Every key in the engine is in filter, and in next while a new filter is being built. Writes hold the read lock
+    // while they add their keys and write them to the engine; the builder takes the write lock to start writes going
+    // to next and to replace filter with it, so that no write falls between the iteration and next.
+    private final ReentrantReadWriteLock swap = new ReentrantReadWriteLock();
+    private volatile BloomFilter filter;
+    private BloomFilter next;
+    private volatile long capacity;
+    private volatile long keysAtBuild;
+    private final LongAdder added = new LongAdder();      // keys new to the filter since it was built
+    private final LongAdder deleted = new LongAdder();    // keys deleted since then that the filter may hold
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final LongAdder negatives = Metrics.counter("filter.negatives");
+    private final LongAdder falsePositives = Metrics.counter("filter.false.positives");
+    private final LongAdder rebuilds = Metrics.counter("filter.rebuilds");
+
+    /**
+     * Wraps the engine and builds a filter of the keys it already has, with room for at least the given number of
+     * keys.
+     */
+    public FilteredDatabase(StorageEngine engine, long expectedKeys) {
+        this.engine = engine;
+        this.minimumKeys = expectedKeys;
+        long begin = System.nanoTime();
+        long keys = build(expectedKeys);
+        Log.info("Built a bloom filter of {} keys in {} ms", keys, (System.nanoTime() - begin) / 1_000_000);
+        Metrics.gauge("filter.false.positive.ppm", this::falsePositivePpm);
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        if (!filter.mightContain(k)) {
+            negatives.increment();
+            return null;
+        }
+        ByteString value = engine.GET(k);
+        if (value == null) {
+            falsePositives.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Looks up in the engine only the keys the filter may hold, in one batch.
+     */
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        BloomFilter current = filter;
+        List<ByteString> candidates = new ArrayList<>(keys.size());
+        for (ByteString key : keys) {
+            if (current.mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        negatives.add(keys.size() - candidates.size());
+        List<ByteString> found = candidates.isEmpty() ? candidates : engine.GET(candidates);
+        List<ByteString> values = new ArrayList<>(keys.size());
+        int candidate = 0;
+        for (ByteString key : keys) {
+            ByteString value = null;
+            if (candidate < candidates.size() && candidates.get(candidate) == key) {
+                value = found.get(candidate++);
+                if (value == null) {
+                    falsePositives.increment();
+                }
+            }
+            values.add(value);
+        }
+        return values;
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        swap.readLock().lock();
+        try {
+            add(key);
+            engine.PUT(key, value);
+        } finally {
+            swap.readLock().unlock();
+        }
+        rebuildIfStale();
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value, long ttlMillis) {
+        swap.readLock().lock();
+        try {
+            add(key);
+            engine.PUT(key, value, ttlMillis);
+        } finally {
+            swap.readLock().unlock();
+        }
+        rebuildIfStale();
+    }
+
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        swap.readLock().lock();
+        try {
+            for (ByteString key : keys) {
+                add(key);
+            }
+            engine.PUT(keys, values);
+        } finally {
+            swap.readLock().unlock();
+        }
+        rebuildIfStale();
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        engine.DELETE(k);
+        if (filter.mightContain(k)) {
+            deleted.increment();
+        }
+        rebuildIfStale();
+    }
+
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        engine.DELETE(keys);
+        BloomFilter current = filter;
+        for (ByteString key : keys) {
+            if (current.mightContain(key)) {
+                deleted.increment();
+            }
+        }
+        rebuildIfStale();
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        engine.forEach(action);
+    }
+
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        return engine.SCAN(start, end, limit);
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    /**
+     * Returns how many lookups for missing keys in a million the filter let through to the engine.
+     */
+    long falsePositivePpm() {
+        long falsePositives = this.falsePositives.sum();
+        long lookups = falsePositives + negatives.sum();
+        return lookups == 0 ? 0 : falsePositives * 1_000_000 / lookups;
+    }
+
+    /**
+     * Adds the key to the filter, and to the one being built, before the engine has it, so that no GET can miss it.
+     * Called holding the read lock.
+     */
+    private void add(ByteString key) {
+        if (filter.add(key)) {
+            added.increment();
+        }
+        if (next != null) {
+            next.add(key);
+        }
+    }
+
+    private void rebuildIfStale() {
+        long capacity = this.capacity;
+        long keys = keysAtBuild + added.sum();
+        long removed = deleted.sum();
+        if ((removed > capacity / 4 || keys > capacity) && rebuilding.compareAndSet(false, true)) {
+            Thread builder = new Thread(() -> {
+                try {
+                    long begin = System.nanoTime();
+                    long found = build(Math.max(minimumKeys, 2 * (keys - removed)));
+                    rebuilds.increment();
+                    Log.info("Rebuilt the bloom filter of {} keys in {} ms", found,
+                            (System.nanoTime() - begin) / 1_000_000);
+                } catch (RuntimeException e) {
+                    Log.error("Could not rebuild the bloom filter", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            }, "Bloom filter builder");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    /**
+     * Builds a filter with room for the given number of keys from the keys of the engine, and makes it the filter.
+     * Returns the number of keys the engine had.
+     */
+    private long build(long keys) {
+        BloomFilter built = new BloomFilter(keys, BITS_PER_KEY);
+        // Writes from now on also go to the new filter, and the iteration sees every key written before.
+        swap.writeLock().lock();
+        try {
+            next = built;
+        } finally {
+            swap.writeLock().unlock();
+        }
+        long[] count = new long[1];
+        try {
+            engine.forEach((key, value) -> {
+                built.add(key);
+                ++count[0];
+            });
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalArgumentException("Cannot filter an engine that cannot iterate over its keys", e);
+        }
+        swap.writeLock().lock();
+        try {
+            filter = built;
+            next = null;
+            capacity = Math.max(keys, count[0]);
+            keysAtBuild = count[0];
+            added.reset();
+            deleted.reset();
+        } finally {
+            swap.writeLock().unlock();
+        }
+        return count[0];
+    }
+}
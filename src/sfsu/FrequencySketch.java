@@ -0,0 +1,77 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Estimates how often keys were seen recently, in a count-min sketch of 4 bit counters: four rows of counters, each
+ * key counted once in every row at a position picked by hashing it, and its frequency read as the smallest of its
+ * counters, which collisions can only have made larger. Counters stop at 15. Once the sketch has counted ten times
+ * its width, every counter is halved, so old popularity fades and newly popular keys can catch up.
+ */
+final class FrequencySketch {
+
+    static final int DEPTH = 4;
+    static final int MAX_COUNT = 15;
+
+    // Sixteen counters to a word.
+    private final long[][] rows = new long[DEPTH][];
+    private final int mask;
+    private final long sampleSize;
+    private long additions;
+
+    /**
+     * Creates a sketch with at least the given number of counters per row, which should be about the number of keys
+     * it has to tell apart.
+     */
+    FrequencySketch(int width) {
+        int counters = Integer.highestOneBit(Math.max(64, Math.min(width, 1 << 30)) - 1) << 1;
+        for (int i = 0; i < DEPTH; ++i) {
+            rows[i] = new long[counters / 16];
+        }
+        this.mask = counters - 1;
+        this.sampleSize = 10L * counters;
+    }
+
+    void increment(ByteString key) {
+        long hash = BloomFilter.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean added = false;
+        for (int i = 0; i < DEPTH; ++i) {
+            int index = (h1 + i * h2) & mask;
+            long[] row = rows[i];
+            int shift = (index & 15) << 2;
+            if (((row[index >>> 4] >>> shift) & 0xf) < MAX_COUNT) {
+                row[index >>> 4] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(ByteString key) {
+        long hash = BloomFilter.hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; ++i) {
+            int index = (h1 + i * h2) & mask;
+            frequency = Math.min(frequency, (int) (rows[i][index >>> 4] >>> ((index & 15) << 2)) & 0xf);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halves every counter, all sixteen of a word in one shift.
+     */
+    private void reset() {
+        for (long[] row : rows) {
+            for (int i = 0; i < row.length; ++i) {
+                row[i] = (row[i] >>> 1) & 0x7777777777777777L;
+            }
+        }
+        additions /= 2;
+    }
+}
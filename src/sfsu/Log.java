@@ -0,0 +1,185 @@
+package sfsu;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The server log. Logging a record only copies its arguments into a slot of a ring buffer; a background thread formats
+ * the records and writes them to standard output. Request threads never format text or wait on the console, and when
+ * the ring buffer is full records are dropped rather than slowing the server down.
+ * <p>
+ * Records below the level set with -Dsfsu.log.level (INFO by default) cost a single comparison. DEBUG records, which
+ * is where every request is logged, can also be sampled with -Dsfsu.log.sample=N to keep one in N.
+ * <p>
+ * Messages use {} as placeholders for the arguments.
+ */
+final class Log {
+
+    enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    static final int RING_SIZE = 1 << 14;
+
+    private static volatile Level level = Level.valueOf(System.getProperty("sfsu.log.level", "INFO"));
+    private static volatile int sample = Integer.getInteger("sfsu.log.sample", 1);
+
+    private static final Entry[] ring = new Entry[RING_SIZE];
+    private static final AtomicLong claimed = new AtomicLong();
+    private static volatile long consumed;
+    private static final LongAdder dropped = new LongAdder();
+    private static final PrintStream out = System.out;
+
+    /**
+     * A slot in the ring buffer. Published holds the sequence number of the record it contains, once complete.
+     */
+    private static final class Entry {
+        volatile long published = -1;
+        long millis;
+        Level level;
+        String thread;
+        String message;
+        Object first;
+        Object second;
+        Throwable failure;
+    }
+
+    static {
+        for (int i = 0; i < RING_SIZE; ++i) {
+            ring[i] = new Entry();
+        }
+        Thread writer = new Thread(Log::drain, "Log writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private Log() {
+    }
+
+    static void debug(String message, Object first) {
+        if (level == Level.DEBUG && (sample == 1 || ThreadLocalRandom.current().nextInt(sample) == 0)) {
+            append(Level.DEBUG, message, first, null, null);
+        }
+    }
+
+    static void debug(String message, Object first, Object second) {
+        if (level == Level.DEBUG && (sample == 1 || ThreadLocalRandom.current().nextInt(sample) == 0)) {
+            append(Level.DEBUG, message, first, second, null);
+        }
+    }
+
+    static void info(String message, Object first) {
+        if (level.compareTo(Level.INFO) <= 0) {
+            append(Level.INFO, message, first, null, null);
+        }
+    }
+
+    static void info(String message, Object first, Object second) {
+        if (level.compareTo(Level.INFO) <= 0) {
+            append(Level.INFO, message, first, second, null);
+        }
+    }
+
+    static void warn(String message, Object first) {
+        if (level.compareTo(Level.WARN) <= 0) {
+            append(Level.WARN, message, first, null, null);
+        }
+    }
+
+    static void error(String message, Throwable failure) {
+        append(Level.ERROR, message, null, null, failure);
+    }
+
+    static boolean isDebugEnabled() {
+        return level == Level.DEBUG;
+    }
+
+    /**
+     * Changes the level and the DEBUG sampling rate at run time.
+     */
+    static void configure(Level newLevel, int newSample) {
+        level = newLevel;
+        sample = newSample;
+    }
+
+    /**
+     * Returns the number of records dropped so far because the ring buffer was full.
+     */
+    static long dropped() {
+        return dropped.sum();
+    }
+
+    private static void append(Level recordLevel, String message, Object first, Object second, Throwable failure) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= RING_SIZE) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Entry entry = ring[(int) sequence & (RING_SIZE - 1)];
+        entry.millis = System.currentTimeMillis();
+        entry.level = recordLevel;
+        entry.thread = Thread.currentThread().getName();
+        entry.message = message;
+        entry.first = first;
+        entry.second = second;
+        entry.failure = failure;
+        entry.published = sequence;
+    }
+
+    /**
+     * Formats and writes records in order, forever. Flushes whenever it catches up with the producers.
+     */
+    private static void drain() {
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            long sequence = consumed;
+            Entry entry = ring[(int) sequence & (RING_SIZE - 1)];
+            if (entry.published != sequence) {
+                out.flush();
+                LockSupport.parkNanos(1_000_000);
+                continue;
+            }
+
+            line.setLength(0);
+            line.append(time.format(new Date(entry.millis))).append(' ').append(entry.level)
+                    .append(" [").append(entry.thread).append("] ");
+            format(line, entry.message, entry.first, entry.second);
+            if (entry.failure != null) {
+                StringWriter trace = new StringWriter();
+                entry.failure.printStackTrace(new PrintWriter(trace));
+                line.append(System.lineSeparator()).append(trace);
+            }
+            out.println(line);
+
+            entry.first = null;
+            entry.second = null;
+            entry.failure = null;
+            consumed = sequence + 1;
+        }
+    }
+
+    private static void format(StringBuilder line, String message, Object first, Object second) {
+        int argument = 0;
+        int from = 0;
+        int placeholder;
+        while ((placeholder = message.indexOf("{}", from)) >= 0) {
+            line.append(message, from, placeholder);
+            line.append(argument == 0 ? first : argument == 1 ? second : "{}");
+            ++argument;
+            from = placeholder + 2;
+        }
+        line.append(message, from, message.length());
+    }
+}
@@ -0,0 +1,288 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Makes another storage engine durable: every PUT and DELETE is appended to a write-ahead log before it is applied,
+ * and the log is replayed into the engine when the database is opened again. See WriteAheadLog for the durability
+ * policies.
+ * <p>
+ * A snapshot writes the whole engine to a file so that a restart loads it instead of replaying every write ever made.
+ * It is a fuzzy checkpoint: the log moves on to a new file, and the engine is copied while writes go on, each of
+ * them logged in the new file. Loading the snapshot and replaying the new file gives back every write, since
+ * replaying a PUT or a DELETE over a state that already has it changes nothing. The older files are deleted once the
+ * snapshot is on disk.
+ * <p>
+ * A write returns once its record is as durable as the policy promises. It is applied to the engine before that, so
+ * readers may see a write that a crash would still lose. Writes to the same key are appended and applied under the
+ * same lock, so the log replays them in the order the engine saw them. If the log fails, writes throw
+ * UncheckedIOException. A write whose commit failed has already been applied and stays visible, although it may not
+ * be in the log.
+ */
+public class LoggedDatabase implements StorageEngine, Closeable {
+
+    // The number of locks keys are spread over. Writers to different stripes only contend on the log itself.
+    static final int STRIPES = 64;
+
+    private final Path directory;
+    private final StorageEngine engine;
+    private final WriteAheadLog log;
+    private final LongAdder snapshots = Metrics.counter("wal.snapshots");
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    /**
+     * Opens the log in the given directory, creating it if needed, and loads the latest snapshot and the log after it
+     * into the engine, which should be empty. The policy is always, group:MILLIS:RECORDS or buffered.
+     */
+    public LoggedDatabase(StorageEngine engine, Path directory, String policy) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.engine = engine;
+        List<Long> generations = snapshotGenerations(directory);
+        long from = 0;
+        if (!generations.isEmpty()) {
+            from = generations.get(generations.size() - 1);
+            long begin = System.nanoTime();
+            long keys = Snapshot.load(snapshotFile(directory, from), engine);
+            Log.info("Loaded {} keys from the snapshot in {} ms", keys, (System.nanoTime() - begin) / 1_000_000);
+        }
+        this.log = WriteAheadLog.open(directory, from, policy, engine);
+        for (int i = 0; i < STRIPES; ++i) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public String GET(String k) {
+        return engine.GET(k);
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        return engine.GET(k);
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        ReentrantLock stripe = stripeFor(key);
+        long position;
+        stripe.lock();
+        try {
+            position = append(WriteAheadLog.PUT, key, value);
+            engine.PUT(key, value);
+        } finally {
+            stripe.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        ReentrantLock stripe = stripeFor(k);
+        long position;
+        stripe.lock();
+        try {
+            position = append(WriteAheadLog.DELETE, k, ByteString.EMPTY);
+            engine.DELETE(k);
+        } finally {
+            stripe.unlock();
+        }
+        commit(position);
+    }
+
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        return engine.GET(keys);
+    }
+
+    /**
+     * Logs and applies the whole batch under the locks of all its keys, taken in order, and waits for the log once.
+     */
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        boolean[] locked = lockAll(keys);
+        long position = 0;
+        try {
+            for (int i = 0; i < keys.size(); ++i) {
+                position = append(WriteAheadLog.PUT, keys.get(i), values.get(i));
+            }
+            engine.PUT(keys, values);
+        } finally {
+            unlock(locked);
+        }
+        commit(position);
+    }
+
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        boolean[] locked = lockAll(keys);
+        long position = 0;
+        try {
+            for (ByteString key : keys) {
+                position = append(WriteAheadLog.DELETE, key, ByteString.EMPTY);
+            }
+            engine.DELETE(keys);
+        } finally {
+            unlock(locked);
+        }
+        commit(position);
+    }
+
+    /**
+     * Writes a snapshot of the engine and deletes the log files and snapshots it makes unnecessary. Writers only
+     * wait while the log moves on to a new file. Returns the number of keys in the snapshot.
+     */
+    public synchronized long snapshot() throws IOException {
+        long begin = System.nanoTime();
+        long generation;
+        boolean[] all = new boolean[STRIPES];
+        Arrays.fill(all, true);
+        // With every stripe locked, every record in the current file has been applied to the engine.
+        lock(all);
+        try {
+            generation = log.rotate();
+        } finally {
+            unlock(all);
+        }
+        long keys = Snapshot.write(snapshotFile(directory, generation), engine);
+        for (long old : snapshotGenerations(directory)) {
+            if (old < generation) {
+                Files.delete(snapshotFile(directory, old));
+            }
+        }
+        log.deleteBefore(generation);
+        snapshots.increment();
+        Log.info("Wrote a snapshot of {} keys in {} ms", keys, (System.nanoTime() - begin) / 1_000_000);
+        return keys;
+    }
+
+    /**
+     * Writes a snapshot every given number of seconds, on a thread of its own.
+     */
+    public void snapshotEvery(long seconds) {
+        ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Snapshot writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                Log.error("Could not write a snapshot", e);
+            }
+        }, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        engine.forEach(action);
+    }
+
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        return engine.SCAN(start, end, limit);
+    }
+
+    /**
+     * Writes out and forces the rest of the log and closes it. The engine is left as it is.
+     */
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private ReentrantLock stripeFor(ByteString key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(ByteString key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static List<Long> snapshotGenerations(Path directory) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "snapshot-*.snap")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                generations.add(Long.parseLong(name.substring(9, name.length() - 5)));
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    private static Path snapshotFile(Path directory, long generation) {
+        return directory.resolve(String.format("snapshot-%016d.snap", generation));
+    }
+
+    private boolean[] lockAll(List<ByteString> keys) {
+        boolean[] locked = new boolean[STRIPES];
+        for (ByteString key : keys) {
+            locked[stripeIndex(key)] = true;
+        }
+        lock(locked);
+        return locked;
+    }
+
+    private void lock(boolean[] locked) {
+        for (int i = 0; i < STRIPES; ++i) {
+            if (locked[i]) {
+                stripes[i].lock();
+            }
+        }
+    }
+
+    private void unlock(boolean[] locked) {
+        for (int i = STRIPES - 1; i >= 0; --i) {
+            if (locked[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    private long append(byte operation, ByteString key, ByteString value) {
+        try {
+            return log.append(operation, key, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void commit(long position) {
+        try {
+            log.commit(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package sfsu;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Measures what logging costs the server. A server runs in this process with logging at INFO, where requests are not
+ * logged at all, then with every request logged at DEBUG, then with one request in a hundred logged. Pipelined clients
+ * send a mix of GETs and PUTs and the benchmark reports requests per second and how many records the log had to drop.
+ * <p>
+ * The log is written to a temporary file, like a server whose output is redirected.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.LoggingBenchmark [clients] [milliseconds per run]
+ */
+public class LoggingBenchmark {
+
+    static final int PORT = 7400;
+    static final int KEYS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 3000;
+
+        // The log captures standard output when it starts, so redirect it first.
+        PrintStream report = System.out;
+        File logFile = File.createTempFile("sfsu", ".log");
+        logFile.deleteOnExit();
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(logFile)), false));
+
+        Thread server = new Thread(ConcurrentServer.createServer("nio", PORT, new ByteDatabase(),
+                FaultInjector.NONE));
+        server.setDaemon(true);
+        server.start();
+        Thread.sleep(500);
+
+        DatabaseClient[] connections = new DatabaseClient[clients];
+        for (int c = 0; c < clients; ++c) {
+            connections[c] = new DatabaseClient("localhost", PORT);
+        }
+
+        report.println(String.format("%-10s %15s %12s", "logging", "requests/sec", "dropped"));
+        run(report, "warm up", Log.Level.INFO, 1, connections, millis);
+        run(report, "off", Log.Level.INFO, 1, connections, millis);
+        run(report, "every", Log.Level.DEBUG, 1, connections, millis);
+        run(report, "1 in 100", Log.Level.DEBUG, 100, connections, millis);
+
+        for (DatabaseClient connection : connections) {
+            connection.close();
+        }
+        // The server never stops on its own.
+        System.exit(0);
+    }
+
+    private static void run(PrintStream report, String name, Log.Level level, int sample,
+                            DatabaseClient[] connections, long millis) throws Exception {
+        Log.configure(level, sample);
+        long dropped = Log.dropped();
+        double throughput = Benchmark.throughput(connections.length, millis, (thread, iteration) -> {
+            String key = Long.toString(iteration % KEYS);
+            if (iteration % 4 == 0) {
+                connections[thread].put(key, key);
+            } else {
+                connections[thread].get(key);
+            }
+        });
+        report.println(String.format("%-10s %15.0f %12d", name, throughput, Log.dropped() - dropped));
+    }
+}
@@ -0,0 +1,68 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads an LsmDatabase with several times more data than the heap can hold, then reports write throughput, write
+ * amplification and GET latency for keys that exist and keys that do not. Keys are written in a scrambled order, so
+ * every table covers the whole key space and compaction has real merging to do. Run it with a small heap, e.g.
+ * -Xmx128m; the memtables get an eighth of it.
+ * <p>
+ * Invocation and arguments:
+ * java -Xmx128m -cp lib/*:out/production/Database sfsu.LsmBenchmark [data size in heaps] [seconds of reads] [directory]
+ */
+public class LsmBenchmark {
+
+    static final int VALUE_SIZE = 100;
+
+    public static void main(String[] args) throws Exception {
+        int heaps = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path parent = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+        Path directory = Files.createTempDirectory(parent, "lsm");
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        long heap = Runtime.getRuntime().maxMemory();
+        int keys = (int) Math.min(Integer.MAX_VALUE, heaps * heap / (VALUE_SIZE + Benchmark.key(0).size()));
+        report.println(String.format("Writing %d keys of %d byte values, %d MB, into a %d MB heap", keys, VALUE_SIZE,
+                (long) keys * (VALUE_SIZE + Benchmark.key(0).size()) >> 20, heap >> 20));
+
+        LsmDatabase database = new LsmDatabase(directory, heap / 8);
+        byte[] value = new byte[VALUE_SIZE];
+        long begin = System.nanoTime();
+        for (int i = 0; i < keys; ++i) {
+            ThreadLocalRandom.current().nextBytes(value);
+            database.PUT(Benchmark.key(Benchmark.scramble(i, keys)), ByteString.copyFrom(value));
+        }
+        double loadSeconds = (System.nanoTime() - begin) / 1e9;
+        database.awaitCompaction();
+        double settledSeconds = (System.nanoTime() - begin) / 1e9;
+
+        report.println(String.format("%-26s %12.0f", "PUTs/sec", keys / loadSeconds));
+        report.println(String.format("%-26s %12.1f", "seconds until compacted", settledSeconds));
+        report.println(String.format("%-26s %12.2f", "write amplification", database.writeAmplification()));
+        report.println(String.format("%-26s %12d", "tables", database.tables()));
+        report.println(String.format("%-26s %12d", "disk MB", database.diskBytes() >> 20));
+        report.println(String.format("%-26s %12d", "write stalls", Metrics.counter("lsm.stalls").sum()));
+
+        reads(report, "GET existing key", database, keys, 0, seconds);
+        reads(report, "GET missing key", database, keys, keys, seconds);
+
+        database.close();
+        Benchmark.delete(directory);
+    }
+
+    private static void reads(PrintStream report, String name, LsmDatabase database, int keys, int offset,
+                              int seconds) throws Exception {
+        Benchmark.Latencies latencies = Benchmark.reads(database, keys, offset, seconds * 1000L);
+        report.println(String.format("%-26s %8.0f/sec  p50 %7.1f us  p99 %7.1f us", name,
+                latencies.count() / (double) seconds, latencies.percentile(50) / 1e3, latencies.percentile(99) / 1e3));
+    }
+}
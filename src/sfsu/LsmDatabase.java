@@ -0,0 +1,618 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A log-structured merge tree on disk, for data sets much larger than the heap. Writes go to a sorted in-memory
+ * memtable; a full memtable is frozen and written by a background thread to an immutable sorted table file (see
+ * SortedTable), so the disk only sees sequential writes. A DELETE writes a tombstone. A GET looks in the memtables and
+ * then in the tables from newest to oldest, and stops at the first one that has the key.
+ * <p>
+ * Compaction is size tiered: when TIER_WIDTH tables of about the same size sit next to each other in age, the
+ * background thread merges them into one, keeping the newest value of every key. Tombstones are dropped when the oldest
+ * table takes part, since there is nothing older left for them to hide. The live tables are listed, newest first, in
+ * a manifest file that is replaced atomically.
+ * <p>
+ * Writes still in a memtable are lost if the server crashes; close() flushes them. Wrap the engine in a
+ * LoggedDatabase to log them ahead. Writers stall while MAX_FROZEN memtables wait to be written.
+ */
+public class LsmDatabase implements StorageEngine, Closeable {
+
+    static final long DEFAULT_MEMTABLE_BYTES = 32 << 20;
+    static final int MAX_FROZEN = 2;
+    static final int TIER_WIDTH = 4;
+    static final int BITS_PER_KEY = 10;
+
+    // What a memtable entry costs besides its key and value, roughly, for deciding when the memtable is full.
+    static final int ENTRY_OVERHEAD = 128;
+
+    static final String MANIFEST = "MANIFEST";
+
+    // Marks deleted keys in memtables and merges. Always compared by identity.
+    private static final ByteString TOMBSTONE = UnsafeByteOperations.unsafeWrap(new byte[0]);
+
+    private static final class Memtable {
+        final ConcurrentSkipListMap<ByteString, ByteString> map = new ConcurrentSkipListMap<>(SortedTable.KEY_ORDER);
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    /**
+     * Where every key lives at one point in time: the memtable taking writes, the frozen ones waiting to be written
+     * and the tables, both newest first. Replaced as a whole, never changed.
+     */
+    private static final class State {
+        final Memtable active;
+        final List<Memtable> frozen;
+        final List<SortedTable> tables;
+
+        State(Memtable active, List<Memtable> frozen, List<SortedTable> tables) {
+            this.active = active;
+            this.frozen = Collections.unmodifiableList(frozen);
+            this.tables = Collections.unmodifiableList(tables);
+        }
+    }
+
+    private final Path directory;
+    private final long memtableBytes;
+
+    // Writers hold the read lock while they write to the active memtable; changing the state takes the write lock.
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final Condition frozenWritten = stateLock.writeLock().newCondition();
+    private volatile State state;
+
+    // Flushes and compactions run one at a time on this thread, which is the only one that changes the tables.
+    private final ExecutorService background;
+    private long nextTableId;
+    private volatile IOException failure;
+
+    private final LongAdder userBytes = Metrics.counter("lsm.bytes.written");
+    private final LongAdder flushedBytes = Metrics.counter("lsm.bytes.flushed");
+    private final LongAdder compactedBytes = Metrics.counter("lsm.bytes.compacted");
+    private final LongAdder stalls = Metrics.counter("lsm.stalls");
+
+    /**
+     * Opens the database in the given directory, creating it if needed.
+     */
+    public LsmDatabase(Path directory) throws IOException {
+        this(directory, DEFAULT_MEMTABLE_BYTES);
+    }
+
+    /**
+     * Opens the database in the given directory, creating it if needed, with memtables of about the given size.
+     */
+    public LsmDatabase(Path directory, long memtableBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.memtableBytes = memtableBytes;
+        List<SortedTable> tables = openTables();
+        this.state = new State(new Memtable(), new ArrayList<>(), tables);
+        this.background = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "LSM compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        background.execute(this::compact);
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        retry:
+        while (true) {
+            State current = state;
+            ByteString value = current.active.map.get(k);
+            for (int i = 0; value == null && i < current.frozen.size(); ++i) {
+                value = current.frozen.get(i).map.get(k);
+            }
+            for (int i = 0; value == null && i < current.tables.size(); ++i) {
+                SortedTable table = current.tables.get(i);
+                if (!table.acquire()) {
+                    // Compacted away meanwhile; its keys are in the tables that replaced it.
+                    continue retry;
+                }
+                try {
+                    value = table.get(k, TOMBSTONE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    table.release();
+                }
+            }
+            return value == TOMBSTONE ? null : value;
+        }
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        write(key, value);
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        write(k, TOMBSTONE);
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        write(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        write(ByteString.copyFromUtf8(k), TOMBSTONE);
+    }
+
+    /**
+     * Hands every live key to the action in key order, merging the memtables and the tables.
+     */
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        scan(ByteString.EMPTY, null, Integer.MAX_VALUE, action);
+    }
+
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        List<Map.Entry<ByteString, ByteString>> pairs = new ArrayList<>();
+        scan(start, end, limit, (key, value) -> pairs.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+        return pairs;
+    }
+
+    /**
+     * Hands up to limit live keys from start (included) to end (excluded, or the last key if null) to the action, in
+     * key order. Every source is entered at the start key, so only the table blocks of the range are read.
+     */
+    private void scan(ByteString start, ByteString end, int limit, BiConsumer<ByteString, ByteString> action) {
+        while (true) {
+            State current = state;
+            List<SortedTable> acquired = new ArrayList<>();
+            try {
+                List<Iterator<Map.Entry<ByteString, ByteString>>> sources = new ArrayList<>();
+                sources.add(current.active.map.tailMap(start).entrySet().iterator());
+                for (Memtable memtable : current.frozen) {
+                    sources.add(memtable.map.tailMap(start).entrySet().iterator());
+                }
+                for (SortedTable table : current.tables) {
+                    if (!table.acquire()) {
+                        break;
+                    }
+                    acquired.add(table);
+                    sources.add(table.iterator(start, TOMBSTONE));
+                }
+                if (acquired.size() < current.tables.size()) {
+                    continue;
+                }
+                Iterator<Map.Entry<ByteString, ByteString>> merged = merge(sources);
+                int count = 0;
+                while (count < limit && merged.hasNext()) {
+                    Map.Entry<ByteString, ByteString> entry = merged.next();
+                    if (end != null && SortedTable.KEY_ORDER.compare(entry.getKey(), end) >= 0) {
+                        break;
+                    }
+                    if (entry.getValue() != TOMBSTONE) {
+                        action.accept(entry.getKey(), entry.getValue());
+                        ++count;
+                    }
+                }
+                return;
+            } finally {
+                for (SortedTable table : acquired) {
+                    table.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of table files.
+     */
+    public int tables() {
+        return state.tables.size();
+    }
+
+    /**
+     * Returns the total size of the table files in bytes.
+     */
+    public long diskBytes() {
+        long total = 0;
+        for (SortedTable table : state.tables) {
+            total += table.size;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bytes written to table files, by flushes and compactions, per byte of keys and values written by
+     * clients.
+     */
+    public double writeAmplification() {
+        long written = userBytes.sum();
+        return written == 0 ? 0 : (double) (flushedBytes.sum() + compactedBytes.sum()) / written;
+    }
+
+    /**
+     * Waits until every frozen memtable is written and no compaction is due.
+     */
+    public void awaitCompaction() throws IOException {
+        try {
+            background.submit(() -> { }).get();
+        } catch (Exception e) {
+            throw new IOException("Background work failed", e);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Writes the memtables out, waits for the background work to finish and closes the tables.
+     */
+    @Override
+    public void close() throws IOException {
+        stateLock.writeLock().lock();
+        try {
+            State current = state;
+            if (!current.active.map.isEmpty()) {
+                freeze(current);
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        background.shutdown();
+        try {
+            background.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SortedTable table : state.tables) {
+            table.close();
+        }
+        checkFailure();
+    }
+
+    private void write(ByteString key, ByteString value) {
+        checkFailure();
+        Memtable memtable;
+        stateLock.readLock().lock();
+        try {
+            memtable = state.active;
+            memtable.map.put(key, value);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        long size = key.size() + (value == TOMBSTONE ? 0 : value.size());
+        userBytes.add(size);
+        if (memtable.bytes.addAndGet(size + ENTRY_OVERHEAD) >= memtableBytes) {
+            stateLock.writeLock().lock();
+            try {
+                // Another writer may have frozen it already.
+                if (state.active == memtable) {
+                    while (state.frozen.size() >= MAX_FROZEN && failure == null) {
+                        stalls.increment();
+                        frozenWritten.awaitUninterruptibly();
+                    }
+                    freeze(state);
+                }
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Freezes the active memtable and has the background thread write it out. Called with the write lock held.
+     */
+    private void freeze(State current) {
+        List<Memtable> frozen = new ArrayList<>(current.frozen.size() + 1);
+        frozen.add(current.active);
+        frozen.addAll(current.frozen);
+        state = new State(new Memtable(), frozen, current.tables);
+        background.execute(this::flush);
+    }
+
+    /**
+     * Writes the oldest frozen memtable to a table. Runs on the background thread.
+     */
+    private void flush() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            State current = state;
+            Memtable memtable = current.frozen.get(current.frozen.size() - 1);
+            SortedTable table = SortedTable.write(nextTableId, tableFile(nextTableId),
+                    memtable.map.entrySet().iterator(), memtable.map.size(), BITS_PER_KEY, TOMBSTONE);
+            ++nextTableId;
+            flushedBytes.add(table.size);
+
+            List<SortedTable> tables = new ArrayList<>(current.tables.size() + 1);
+            tables.add(table);
+            tables.addAll(current.tables);
+            writeManifest(tables);
+            stateLock.writeLock().lock();
+            try {
+                List<Memtable> frozen = new ArrayList<>(state.frozen);
+                frozen.remove(memtable);
+                state = new State(state.active, frozen, tables);
+                frozenWritten.signalAll();
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            fail(e);
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * Merges runs of tables of about the same size until there are none left. Runs on the background thread.
+     */
+    private void compact() {
+        try {
+            List<SortedTable> run;
+            while (failure == null && !(run = nextRun(state.tables)).isEmpty()) {
+                compact(run);
+            }
+        } catch (IOException | RuntimeException | OutOfMemoryError e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Returns the newest TIER_WIDTH tables in a row that are in the same tier, or an empty list.
+     */
+    private List<SortedTable> nextRun(List<SortedTable> tables) {
+        int start = 0;
+        for (int i = 1; i <= tables.size(); ++i) {
+            if (i == tables.size() || tier(tables.get(i).size) != tier(tables.get(start).size)) {
+                if (i - start >= TIER_WIDTH) {
+                    return tables.subList(start, start + TIER_WIDTH);
+                }
+                start = i;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Tables up to the memtable size are in tier 0, up to TIER_WIDTH times that in tier 1, and so on.
+     */
+    private int tier(long size) {
+        int tier = 0;
+        for (long limit = memtableBytes; size > limit; limit *= TIER_WIDTH) {
+            ++tier;
+        }
+        return tier;
+    }
+
+    private void compact(List<SortedTable> run) throws IOException {
+        List<SortedTable> tables = state.tables;
+        boolean oldest = run.get(run.size() - 1) == tables.get(tables.size() - 1);
+        List<Iterator<Map.Entry<ByteString, ByteString>>> sources = new ArrayList<>();
+        long expectedKeys = 0;
+        for (SortedTable table : run) {
+            sources.add(table.iterator(TOMBSTONE));
+            expectedKeys += table.keys;
+        }
+        Iterator<Map.Entry<ByteString, ByteString>> merged = merge(sources);
+        if (oldest) {
+            merged = withoutTombstones(merged);
+        }
+        long begin = System.nanoTime();
+        SortedTable table = SortedTable.write(nextTableId, tableFile(nextTableId), merged, expectedKeys, BITS_PER_KEY,
+                TOMBSTONE);
+        ++nextTableId;
+        compactedBytes.add(table.size);
+
+        List<SortedTable> replaced = new ArrayList<>(tables.size());
+        int at = tables.indexOf(run.get(0));
+        replaced.addAll(tables.subList(0, at));
+        replaced.add(table);
+        replaced.addAll(tables.subList(at + run.size(), tables.size()));
+        writeManifest(replaced);
+        stateLock.writeLock().lock();
+        try {
+            state = new State(state.active, state.frozen, replaced);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        for (SortedTable old : run) {
+            old.retire();
+        }
+        Log.debug("Compacted {} tables in {} ms", run.size(), (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /**
+     * Merges sorted sources, given newest first, into one sorted sequence in which every key appears once, with the
+     * value from the newest source that has it.
+     */
+    static Iterator<Map.Entry<ByteString, ByteString>> merge(
+            List<Iterator<Map.Entry<ByteString, ByteString>>> sources) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>();
+        for (int i = 0; i < sources.size(); ++i) {
+            Cursor cursor = new Cursor(sources.get(i), i);
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return new Iterator<Map.Entry<ByteString, ByteString>>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Map.Entry<ByteString, ByteString> next() {
+                Cursor newest = heads.poll();
+                if (newest == null) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<ByteString, ByteString> entry = newest.head;
+                // Older values of the same key are skipped.
+                while (!heads.isEmpty() && SortedTable.KEY_ORDER.compare(heads.peek().head.getKey(),
+                        entry.getKey()) == 0) {
+                    Cursor older = heads.poll();
+                    if (older.advance()) {
+                        heads.add(older);
+                    }
+                }
+                if (newest.advance()) {
+                    heads.add(newest);
+                }
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * The next entry of one merge source. Cursors order by key, and by age for equal keys, the newest first.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+        final Iterator<Map.Entry<ByteString, ByteString>> source;
+        final int age;
+        Map.Entry<ByteString, ByteString> head;
+
+        Cursor(Iterator<Map.Entry<ByteString, ByteString>> source, int age) {
+            this.source = source;
+            this.age = age;
+        }
+
+        boolean advance() {
+            head = source.hasNext() ? source.next() : null;
+            return head != null;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int comparison = SortedTable.KEY_ORDER.compare(head.getKey(), other.head.getKey());
+            return comparison != 0 ? comparison : Integer.compare(age, other.age);
+        }
+    }
+
+    private static Iterator<Map.Entry<ByteString, ByteString>> withoutTombstones(
+            Iterator<Map.Entry<ByteString, ByteString>> entries) {
+        return new Iterator<Map.Entry<ByteString, ByteString>>() {
+            Map.Entry<ByteString, ByteString> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && entries.hasNext()) {
+                    Map.Entry<ByteString, ByteString> entry = entries.next();
+                    if (entry.getValue() != TOMBSTONE) {
+                        next = entry;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<ByteString, ByteString> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<ByteString, ByteString> entry = next;
+                next = null;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Opens the tables listed in the manifest and deletes any other table file, left over from a flush or compaction
+     * that did not finish.
+     */
+    private List<SortedTable> openTables() throws IOException {
+        List<SortedTable> tables = new ArrayList<>();
+        Set<Path> live = new HashSet<>();
+        Path manifest = directory.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    long id = Long.parseLong(line);
+                    tables.add(SortedTable.open(id, tableFile(id)));
+                    live.add(tableFile(id));
+                    nextTableId = Math.max(nextTableId, id + 1);
+                }
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{sst,tmp}")) {
+            for (Path file : files) {
+                if (!live.contains(file)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        return tables;
+    }
+
+    private void writeManifest(List<SortedTable> tables) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (SortedTable table : tables) {
+            lines.append(table.id).append('\n');
+        }
+        Path temporary = directory.resolve(MANIFEST + ".tmp");
+        Files.write(temporary, lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        Snapshot.syncDirectory(directory);
+    }
+
+    private Path tableFile(long id) {
+        return directory.resolve(String.format("%016d.sst", id));
+    }
+
+    private void fail(Throwable e) {
+        Log.error("The LSM background thread failed, writes are refused from now on", e);
+        failure = e instanceof IOException ? (IOException) e : new IOException(e);
+        stateLock.writeLock().lock();
+        try {
+            frozenWritten.signalAll();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    private void checkFailure() {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException(failed);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads keys into a MappedDatabase, closes it and opens it again, as a restarting server would, then reports how
+ * long the restart took until the first GET was answered and the GET latency after it. For comparison the same keys
+ * are written to a snapshot and loaded into the bytes engine, which is how an in-memory engine restarts.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.MappedBenchmark [keys] [seconds of reads] [directory]
+ */
+public class MappedBenchmark {
+
+    static final int VALUE_SIZE = 100;
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path parent = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+        Path directory = Files.createTempDirectory(parent, "mapped");
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        MappedDatabase database = new MappedDatabase(directory.resolve("database"));
+        byte[] value = new byte[VALUE_SIZE];
+        long begin = System.nanoTime();
+        for (int i = 0; i < keys; ++i) {
+            ThreadLocalRandom.current().nextBytes(value);
+            database.PUT(Benchmark.key(i), ByteString.copyFrom(value));
+        }
+        database.force();
+        double loadSeconds = (System.nanoTime() - begin) / 1e9;
+        Path snapshot = directory.resolve("snapshot");
+        Snapshot.write(snapshot, database);
+        report.println(String.format("%d keys of %d byte values, %d MB on disk", keys, VALUE_SIZE,
+                database.diskBytes() >> 20));
+        database.close();
+        report.println(String.format("%-32s %12.0f", "PUTs/sec", keys / loadSeconds));
+
+        begin = System.nanoTime();
+        MappedDatabase reopened = new MappedDatabase(directory.resolve("database"));
+        reopened.GET(Benchmark.key(ThreadLocalRandom.current().nextInt(keys)));
+        report.println(String.format("%-32s %12.1f", "mapped: ms to first GET", (System.nanoTime() - begin) / 1e6));
+        reads(report, "mapped: GET", reopened, keys, seconds);
+        reopened.close();
+
+        begin = System.nanoTime();
+        ByteDatabase bytes = new ByteDatabase();
+        Snapshot.load(snapshot, bytes);
+        bytes.GET(Benchmark.key(ThreadLocalRandom.current().nextInt(keys)));
+        report.println(String.format("%-32s %12.1f", "bytes: ms to first GET", (System.nanoTime() - begin) / 1e6));
+        reads(report, "bytes: GET", bytes, keys, seconds);
+
+        Benchmark.delete(directory);
+    }
+
+    private static void reads(PrintStream report, String name, StorageEngine database, int keys, int seconds)
+            throws Exception {
+        Benchmark.Latencies latencies = Benchmark.reads(database, keys, 0, seconds * 1000L);
+        report.println(String.format("%-32s p50 %7.1f us  p99 %7.1f us", name, latencies.percentile(50) / 1e3,
+                latencies.percentile(99) / 1e3));
+    }
+}
@@ -0,0 +1,516 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Database kept in two memory-mapped files, so that it survives restarts and serves again as soon as the files are
+ * mapped, with no load phase: the operating system's page cache does the caching and pages in what GETs touch.
+ * <p>
+ * The index file is an open addressing hash table with linear probing. Slots are 16 bytes: the position of the record
+ * in the data file plus one (zero marks an empty slot, DELETED a deleted one) and the key hash. The data file is
+ * append only, records of key length, value length, key and value, mapped in CHUNK_SIZE pieces that records do not
+ * cross. A PUT appends a record and points the key's slot at it; a DELETE marks the slot. Space of replaced and deleted
+ * records is not reclaimed, garbageBytes() reports how much there is.
+ * <p>
+ * Every change is written so that a process crash at any point leaves consistent files: the record and the new end of
+ * the data before the slot, and a slot is switched by a single write of its position. An index that outgrows half its
+ * slots is rebuilt into a new file which replaces the old one atomically. The operating system writes the mapped
+ * pages back when it likes; force() and close() write them now. Writes since then may be lost if the machine goes down;
+ * wrap the engine in a LoggedDatabase to log them ahead.
+ */
+public class MappedDatabase implements StorageEngine, Closeable {
+
+    static final int CHUNK_SIZE = 64 << 20;
+    static final int INITIAL_CAPACITY = 1024;
+    static final int MAX_CAPACITY = 1 << 26;
+    static final int MAGIC = 0x53484d31;    // "SHM1"
+
+    static final String INDEX = "index";
+    static final String DATA = "data";
+
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final long DELETED = -1;
+    private static final int PADDING = -1;
+
+    // Index header: magic, capacity, keys, slots in use (keys and deleted ones).
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int KEYS_OFFSET = 8;
+    private static final int USED_OFFSET = 16;
+    // Data header: magic, end of the records, bytes of replaced and deleted records.
+    private static final int END_OFFSET = 8;
+    private static final int GARBAGE_OFFSET = 16;
+
+    private final Path directory;
+    private final StampedLock lock = new StampedLock();
+
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+
+    private final FileChannel dataChannel;
+    private final ArrayList<MappedByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Opens the database in the given directory, creating it if needed.
+     */
+    public MappedDatabase(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        Files.deleteIfExists(directory.resolve(INDEX + ".tmp"));
+        this.dataChannel = FileChannel.open(directory.resolve(DATA), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = dataChannel.size() == 0;
+            chunks.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, CHUNK_SIZE));
+            MappedByteBuffer header = chunks.get(0);
+            if (created) {
+                header.putLong(END_OFFSET, HEADER_SIZE);
+                header.putInt(0, MAGIC);
+            } else if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a mapped database: " + directory);
+            }
+            for (long mapped = CHUNK_SIZE; mapped < end(); mapped += CHUNK_SIZE) {
+                chunks.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, mapped, CHUNK_SIZE));
+            }
+
+            Path indexFile = directory.resolve(INDEX);
+            if (!Files.exists(indexFile)) {
+                writeIndex(indexFile, INITIAL_CAPACITY, new ArrayList<>());
+            }
+            openIndex(indexFile);
+        } catch (IOException | RuntimeException e) {
+            dataChannel.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        int hash = hash(k);
+        long stamp = lock.readLock();
+        try {
+            return read(k, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        int hash = hash(key);
+        long stamp = lock.writeLock();
+        try {
+            write(key, hash, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        int hash = hash(k);
+        long stamp = lock.writeLock();
+        try {
+            remove(k, hash);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        List<ByteString> values = new ArrayList<>(keys.size());
+        long stamp = lock.readLock();
+        try {
+            for (ByteString key : keys) {
+                values.add(read(key, hash(key)));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return values;
+    }
+
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < keys.size(); ++i) {
+                write(keys.get(i), hash(keys.get(i)), values.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        long stamp = lock.writeLock();
+        try {
+            for (ByteString key : keys) {
+                remove(key, hash(key));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Walks the data file in the order records were written, a batch at a time under the read lock, and hands over
+     * the records that the index still points at. Records only ever go at the end, so one that is not changed
+     * meanwhile is met exactly once, whatever the index does.
+     */
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        List<ByteString> pairs = new ArrayList<>();
+        long position = HEADER_SIZE;
+        while (true) {
+            pairs.clear();
+            long stamp = lock.readLock();
+            try {
+                long end = end();
+                while (position < end && pairs.size() < 2048) {
+                    position = recordAt(position);
+                    if (position >= end) {
+                        break;
+                    }
+                    MappedByteBuffer chunk = chunks.get((int) (position / CHUNK_SIZE));
+                    int offset = (int) (position % CHUNK_SIZE);
+                    int keySize = chunk.getInt(offset);
+                    int valueSize = chunk.getInt(offset + 4);
+                    ByteString key = copy(chunk, offset + RECORD_HEADER, keySize);
+                    int slot = find(key, hash(key));
+                    if (slot >= 0 && index.getLong(slotOffset(slot)) - 1 == position) {
+                        pairs.add(key);
+                        pairs.add(copy(chunk, offset + RECORD_HEADER + keySize, valueSize));
+                    }
+                    position += RECORD_HEADER + keySize + valueSize;
+                }
+                if (pairs.isEmpty() && position >= end) {
+                    return;
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (int i = 0; i < pairs.size(); i += 2) {
+                action.accept(pairs.get(i), pairs.get(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys stored.
+     */
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return index.getLong(KEYS_OFFSET);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the bytes used in both files.
+     */
+    public long diskBytes() {
+        long stamp = lock.readLock();
+        try {
+            return end() + HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the bytes of the data file taken by records that were replaced or deleted.
+     */
+    public long garbageBytes() {
+        long stamp = lock.readLock();
+        try {
+            return chunks.get(0).getLong(GARBAGE_OFFSET);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Writes the changed pages of both files to the disk.
+     */
+    public void force() {
+        long stamp = lock.readLock();
+        try {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+            index.force();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Forces the files to the disk and closes them. The mappings stay valid until they are collected.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        long stamp = lock.writeLock();
+        try {
+            indexChannel.close();
+            dataChannel.close();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // The methods below expect the caller to hold the lock.
+
+    private ByteString read(ByteString key, int hash) {
+        int slot = find(key, hash);
+        if (slot < 0) {
+            return null;
+        }
+        long position = index.getLong(slotOffset(slot)) - 1;
+        MappedByteBuffer chunk = chunks.get((int) (position / CHUNK_SIZE));
+        int offset = (int) (position % CHUNK_SIZE);
+        return copy(chunk, offset + RECORD_HEADER + chunk.getInt(offset), chunk.getInt(offset + 4));
+    }
+
+    private void write(ByteString key, int hash, ByteString value) throws IOException {
+        int recordSize = RECORD_HEADER + key.size() + value.size();
+        if (recordSize > CHUNK_SIZE - HEADER_SIZE) {
+            throw new IllegalArgumentException("record too large: " + recordSize + " bytes");
+        }
+        if (2 * (index.getLong(USED_OFFSET) + 1) > capacity) {
+            resize();
+        }
+        long position = append(key, value, recordSize);
+
+        int slot = find(key, hash);
+        if (slot >= 0) {
+            addGarbage(index.getLong(slotOffset(slot)) - 1);
+            index.putLong(slotOffset(slot), position + 1);
+            return;
+        }
+        slot = -slot - 1;
+        boolean reused = index.getLong(slotOffset(slot)) == DELETED;
+        // Counted before the slot is taken, so a crash in between leaves the counts high rather than low.
+        index.putLong(KEYS_OFFSET, index.getLong(KEYS_OFFSET) + 1);
+        if (!reused) {
+            index.putLong(USED_OFFSET, index.getLong(USED_OFFSET) + 1);
+        }
+        index.putInt(slotOffset(slot) + 8, hash);
+        index.putLong(slotOffset(slot), position + 1);
+    }
+
+    private void remove(ByteString key, int hash) {
+        int slot = find(key, hash);
+        if (slot < 0) {
+            return;
+        }
+        long position = index.getLong(slotOffset(slot)) - 1;
+        index.putLong(slotOffset(slot), DELETED);
+        index.putLong(KEYS_OFFSET, index.getLong(KEYS_OFFSET) - 1);
+        addGarbage(position);
+    }
+
+    /**
+     * Appends the record at the end of the data file, or at the start of the next chunk if it does not fit in the
+     * current one, and moves the end past it. Returns its position.
+     */
+    private long append(ByteString key, ByteString value, int recordSize) throws IOException {
+        long position = end();
+        if (position % CHUNK_SIZE + recordSize > CHUNK_SIZE) {
+            if (position % CHUNK_SIZE + RECORD_HEADER <= CHUNK_SIZE) {
+                chunks.get((int) (position / CHUNK_SIZE)).putInt((int) (position % CHUNK_SIZE), PADDING);
+            }
+            position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+        }
+        int chunkIndex = (int) (position / CHUNK_SIZE);
+        if (chunkIndex == chunks.size()) {
+            chunks.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_SIZE));
+        }
+        MappedByteBuffer chunk = chunks.get(chunkIndex);
+        int offset = (int) (position % CHUNK_SIZE);
+        chunk.putInt(offset, key.size());
+        chunk.putInt(offset + 4, value.size());
+        key.copyTo(chunk.duplicate().position(offset + RECORD_HEADER));
+        value.copyTo(chunk.duplicate().position(offset + RECORD_HEADER + key.size()));
+        chunks.get(0).putLong(END_OFFSET, position + recordSize);
+        return position;
+    }
+
+    /**
+     * Returns the position of the record at or after the given one, skipping the padding at the end of a chunk.
+     */
+    private long recordAt(long position) {
+        int offset = (int) (position % CHUNK_SIZE);
+        if (offset + RECORD_HEADER > CHUNK_SIZE
+                || chunks.get((int) (position / CHUNK_SIZE)).getInt(offset) == PADDING) {
+            return (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+        }
+        return position;
+    }
+
+    private void addGarbage(long position) {
+        MappedByteBuffer chunk = chunks.get((int) (position / CHUNK_SIZE));
+        int offset = (int) (position % CHUNK_SIZE);
+        long size = RECORD_HEADER + chunk.getInt(offset) + chunk.getInt(offset + 4);
+        MappedByteBuffer header = chunks.get(0);
+        header.putLong(GARBAGE_OFFSET, header.getLong(GARBAGE_OFFSET) + size);
+    }
+
+    /**
+     * Returns the slot holding the key, or minus one minus the slot where it would be inserted: the first deleted slot
+     * on its probe sequence, else the empty slot that ends it.
+     */
+    private int find(ByteString key, int hash) {
+        int mask = capacity - 1;
+        int firstDeleted = -1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long address = index.getLong(slotOffset(slot));
+            if (address == 0) {
+                return -(firstDeleted >= 0 ? firstDeleted : slot) - 1;
+            }
+            if (address == DELETED) {
+                if (firstDeleted < 0) {
+                    firstDeleted = slot;
+                }
+            } else if (index.getInt(slotOffset(slot) + 8) == hash && keyEquals(address - 1, key)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(long position, ByteString key) {
+        MappedByteBuffer chunk = chunks.get((int) (position / CHUNK_SIZE));
+        int offset = (int) (position % CHUNK_SIZE);
+        if (chunk.getInt(offset) != key.size()) {
+            return false;
+        }
+        for (int i = 0; i < key.size(); ++i) {
+            if (chunk.get(offset + RECORD_HEADER + i) != key.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the index without its deleted slots, twice as large if the keys alone fill more than a quarter of it,
+     * into a new file that then replaces the current one.
+     */
+    private void resize() throws IOException {
+        long keys = index.getLong(KEYS_OFFSET);
+        int newCapacity = 4 * (keys + 1) > capacity ? 2 * capacity : capacity;
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("index full: " + keys + " keys");
+        }
+        List<long[]> slots = new ArrayList<>();
+        for (int slot = 0; slot < capacity; ++slot) {
+            long address = index.getLong(slotOffset(slot));
+            if (address != 0 && address != DELETED) {
+                slots.add(new long[]{address, index.getInt(slotOffset(slot) + 8)});
+            }
+        }
+        Path temporary = directory.resolve(INDEX + ".tmp");
+        writeIndex(temporary, newCapacity, slots);
+        Files.move(temporary, directory.resolve(INDEX), StandardCopyOption.ATOMIC_MOVE);
+        Snapshot.syncDirectory(directory);
+        indexChannel.close();
+        openIndex(directory.resolve(INDEX));
+    }
+
+    private static void writeIndex(Path file, int capacity, List<long[]> slots) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            int mask = capacity - 1;
+            for (long[] entry : slots) {
+                int slot = (int) entry[1] & mask;
+                while (buffer.getLong(slotOffset(slot)) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                buffer.putLong(slotOffset(slot), entry[0]);
+                buffer.putInt(slotOffset(slot) + 8, (int) entry[1]);
+            }
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putLong(KEYS_OFFSET, slots.size());
+            buffer.putLong(USED_OFFSET, slots.size());
+            buffer.putInt(0, MAGIC);
+            buffer.force();
+        }
+    }
+
+    private void openIndex(Path file) throws IOException {
+        indexChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a mapped database index: " + file);
+        }
+        index = buffer;
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+    }
+
+    private long end() {
+        return chunks.get(0).getLong(END_OFFSET);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static ByteString copy(MappedByteBuffer chunk, int offset, int length) {
+        byte[] bytes = new byte[length];
+        chunk.get(offset, bytes);
+        // The array was freshly copied out of the mapping and nobody else holds it, so it is safe to wrap.
+        return UnsafeByteOperations.unsafeWrap(bytes);
+    }
+
+    // The hash is stored in the index, so it must not change between versions.
+    private static int hash(ByteString key) {
+        return (int) BloomFilter.hash(key);
+    }
+}
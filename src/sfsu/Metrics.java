@@ -0,0 +1,139 @@
+package sfsu;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Named numbers describing what the server is doing: counters that only go up, such as rejected requests, and gauges
+ * read when asked for, such as the current queue depth. Registering a metric with a name already in use replaces it.
+ * <p>
+ * Every metric is an attribute of the sfsu:type=Metrics MBean, so jconsole or any JMX client can watch them. With
+ * -Dsfsu.metrics.interval=SECONDS the server also logs all of them periodically.
+ */
+final class Metrics {
+
+    private static final ConcurrentHashMap<String, LongSupplier> metrics = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with the given name, creating it at zero the first time.
+     */
+    static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> {
+            LongAdder counter = new LongAdder();
+            metrics.put(n, counter::sum);
+            return counter;
+        });
+    }
+
+    /**
+     * Registers a value that is read every time the metrics are.
+     */
+    static void gauge(String name, LongSupplier value) {
+        counters.remove(name);
+        metrics.put(name, value);
+    }
+
+    /**
+     * Returns the current value of every metric, by name.
+     */
+    static SortedMap<String, Long> snapshot() {
+        SortedMap<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> metric : metrics.entrySet()) {
+            values.put(metric.getKey(), metric.getValue().getAsLong());
+        }
+        return values;
+    }
+
+    /**
+     * Publishes the metrics over JMX, and starts logging them if an interval is configured.
+     */
+    static void publish() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), new ObjectName("sfsu:type=Metrics"));
+        } catch (JMException e) {
+            Log.error("Could not publish the metrics over JMX", e);
+        }
+
+        int interval = Integer.getInteger("sfsu.metrics.interval", 0);
+        if (interval > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "Metrics reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(() -> Log.info("Metrics {}", snapshot()), interval, interval,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Exposes each metric as a read only attribute. The set of attributes is read again every time it is asked for,
+     * since metrics are registered as the server starts its parts.
+     */
+    private static final class MBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String name) throws AttributeNotFoundException {
+            LongSupplier metric = metrics.get(name);
+            if (metric == null) {
+                throw new AttributeNotFoundException(name);
+            }
+            return metric.getAsLong();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] names) {
+            AttributeList attributes = new AttributeList();
+            for (String name : names) {
+                LongSupplier metric = metrics.get(name);
+                if (metric != null) {
+                    attributes.add(new Attribute(name, metric.getAsLong()));
+                }
+            }
+            return attributes;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Metrics are read only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String action, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException(action);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            MBeanAttributeInfo[] attributes = metrics.keySet().stream().sorted()
+                    .map(name -> new MBeanAttributeInfo(name, "long", name, true, false, false))
+                    .toArray(MBeanAttributeInfo[]::new);
+            return new MBeanInfo(Metrics.class.getName(), "sfsu server metrics", attributes, null, null, null);
+        }
+    }
+}
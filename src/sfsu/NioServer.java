@@ -0,0 +1,353 @@
+package sfsu;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server built on java.nio selectors. A few event loop threads do all the network work for every connection: they
+ * read bytes, cut them into varint delimited protobuf requests, and write the responses back. The requests themselves
+ * run on the request threads of the request processor, so a slow storage operation never stalls the network. The
+ * number of threads stays the same no matter how many clients are connected.
+ * <p>
+ * Speaks exactly the same protocol as the ConcurrentServer, including pipelining and request ids.
+ */
+public class NioServer implements Runnable {
+
+    // Requests larger than this are considered garbage and close the connection.
+    static final int MAX_MESSAGE_SIZE = 64 << 20;
+
+    // Connections start with a read buffer this large. It grows for larger messages and shrinks back when empty.
+    static final int READ_BUFFER_SIZE = 4096;
+
+    private final int port;
+    private final RequestProcessor processor;
+    private final EventLoop[] loops;
+
+    /**
+     * Creates a server in the specified port. The server will not start to listen until run is called.
+     */
+    public NioServer(int port, RequestProcessor processor, int eventLoops) {
+        this.port = port;
+        this.processor = processor;
+        this.loops = new EventLoop[eventLoops];
+    }
+
+    /**
+     * Starts the event loops and accepts connections on the calling thread, handing them out to the loops in turn.
+     */
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < loops.length; ++i) {
+                loops[i] = new EventLoop();
+                Thread thread = new Thread(loops[i], "NioServer event loop " + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            ServerSocketChannel serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(port), ConcurrentServer.ACCEPT_BACKLOG);
+            Log.info("NIO server on port {} ready", port);
+
+            for (int next = 0; ; next = (next + 1) % loops.length) {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                EventLoop loop = loops[next];
+                loop.execute(() -> loop.register(channel));
+            }
+        } catch (IOException e) {
+            Log.error("NIO server stopped", e);
+        }
+    }
+
+    /**
+     * A selector and the thread that runs it. Everything that touches the connections registered with a loop, other
+     * than queueing responses, happens on that loop's thread.
+     */
+    private final class EventLoop implements Runnable {
+
+        final Selector selector;
+        final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        EventLoop() throws IOException {
+            selector = Selector.open();
+        }
+
+        /**
+         * Runs the task on the loop thread, soon.
+         */
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        void register(SocketChannel channel) {
+            try {
+                Connection connection = new Connection(channel, this);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            long lastIdleCheck = System.nanoTime();
+            while (true) {
+                try {
+                    selector.select(1000);
+                } catch (IOException e) {
+                    Log.error("Event loop stopped", e);
+                    return;
+                }
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.write();
+                        }
+                    } catch (IOException e) {
+                        // The client went away or sent garbage.
+                        connection.close();
+                    }
+                }
+
+                long now = System.nanoTime();
+                if (now - lastIdleCheck > 1_000_000_000L) {
+                    lastIdleCheck = now;
+                    closeIdleConnections(now);
+                }
+            }
+        }
+
+        private void closeIdleConnections(long now) {
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (connection.inFlight == 0
+                        && now - connection.lastActive > ConcurrentServer.IDLE_TIMEOUT_MILLIS * 1_000_000L) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * The state of one client connection. Fields without a comment are only used by the loop thread.
+     */
+    private final class Connection {
+
+        final SocketChannel channel;
+        final EventLoop loop;
+        final String client;
+        SelectionKey key;
+
+        // Bytes read but not yet parsed, between position zero and the buffer position.
+        ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        boolean inputClosed;
+        long lastActive = System.nanoTime();
+
+        // Requests parsed and not yet answered. A streamed SCAN counts until its last response.
+        int inFlight;
+        final RequestProcessor.Streams streams = new RequestProcessor.Streams();
+
+        // Filled by the request threads. The completed count is drained by the loop.
+        final ConcurrentLinkedQueue<ByteBuffer> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        ByteBuffer partialWrite;
+
+        Connection(SocketChannel channel, EventLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+            this.client = channel.socket().getInetAddress().getHostAddress();
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                inputClosed = true;
+            }
+            lastActive = System.nanoTime();
+            parseRequests();
+            if (inputClosed) {
+                // Nothing will grant the streams more credit.
+                streams.cancelAll();
+            }
+            closeIfDone();
+        }
+
+        void write() throws IOException {
+            while (true) {
+                if (partialWrite == null) {
+                    partialWrite = outbox.poll();
+                    if (partialWrite == null) {
+                        break;
+                    }
+                }
+                channel.write(partialWrite);
+                if (partialWrite.hasRemaining()) {    // the socket buffer is full, wait until it drains
+                    break;
+                }
+                partialWrite = null;
+            }
+            updateInterest();
+            closeIfDone();
+        }
+
+        /**
+         * Cuts as many complete requests as possible out of the read buffer and submits them to the request threads.
+         */
+        private void parseRequests() throws IOException {
+            in.flip();
+            while (inFlight < ConcurrentServer.MAX_IN_FLIGHT) {
+                int start = in.position();
+                int size = readVarint(in);
+                if (size < 0 || in.remaining() < size) {
+                    in.position(start);
+                    break;
+                }
+                ByteBuffer frame = in.slice();
+                frame.limit(size);
+                in.position(in.position() + size);
+
+                DatabaseProtos.Request request = DatabaseProtos.Request.parseFrom(frame);
+                if (RequestProcessor.control(request, streams)) {
+                    continue;
+                }
+                ++inFlight;
+                processor.submit(request, client, this::respond, streams);
+            }
+            in.compact();
+
+            if (in.position() == 0 && in.capacity() > READ_BUFFER_SIZE) {
+                in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            } else if (!in.hasRemaining() && inFlight < ConcurrentServer.MAX_IN_FLIGHT) {
+                // A single request does not fit, make room for it.
+                ByteBuffer larger = ByteBuffer.allocate(Math.min(2 * in.capacity(), MAX_MESSAGE_SIZE + 5));
+                in.flip();
+                larger.put(in);
+                in = larger;
+            }
+            updateInterest();
+        }
+
+        /**
+         * Queues the response to a request. Runs on a request thread.
+         */
+        private void respond(DatabaseProtos.Response response) {
+            int size = response.getSerializedSize();
+            byte[] frame = new byte[CodedOutputStream.computeUInt32SizeNoTag(size) + size];
+            CodedOutputStream output = CodedOutputStream.newInstance(frame);
+            try {
+                output.writeUInt32NoTag(size);
+                response.writeTo(output);
+            } catch (IOException e) {
+                throw new IllegalStateException("Writing to an array cannot fail", e);
+            }
+            outbox.add(ByteBuffer.wrap(frame));
+            if (!response.getMore()) {
+                completed.incrementAndGet();
+            }
+
+            // A single wake up of the loop flushes every response queued so far.
+            if (flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            flushScheduled.set(false);
+            inFlight -= completed.getAndSet(0);
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                write();
+                // Requests left in the read buffer while too many were in flight can go now.
+                if (in.position() > 0) {
+                    parseRequests();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int ops = 0;
+            if (!inputClosed && inFlight < ConcurrentServer.MAX_IN_FLIGHT) {
+                ops |= SelectionKey.OP_READ;
+            }
+            if (partialWrite != null) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+
+        private void closeIfDone() {
+            if (inputClosed && inFlight == 0 && partialWrite == null && outbox.isEmpty()) {
+                close();
+            }
+        }
+
+        void close() {
+            streams.cancelAll();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Reads the varint length prefix of a delimited message. Returns -1, leaving the position undefined, if the buffer
+     * does not hold the whole varint yet.
+     */
+    private static int readVarint(ByteBuffer buffer) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            byte b = buffer.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (result < 0 || result > MAX_MESSAGE_SIZE) {
+                    throw new InvalidProtocolBufferException("Message too large: " + result);
+                }
+                return result;
+            }
+        }
+        throw new InvalidProtocolBufferException("Malformed varint");
+    }
+}
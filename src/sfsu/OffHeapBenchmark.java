@@ -0,0 +1,73 @@
+package sfsu;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Loads a large number of keys into one storage engine and reports heap usage, garbage collection cost and, for the
+ * off-heap engine, direct memory usage. Run it once per engine, each in a fresh JVM, and compare.
+ * <p>
+ * Invocation and arguments:
+ * java -Xmx4g -cp lib/*:out/production/Database sfsu.OffHeapBenchmark offheap|concurrent|database [keys]
+ */
+public class OffHeapBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: OffHeapBenchmark <engine> [keys]");
+            return;
+        }
+        StorageEngine engine = ConcurrentServer.createEngine(args[0]);
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+
+        long heapBefore = usedHeap();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long begin = System.nanoTime();
+        for (int i = 0; i < keys; ++i) {
+            String key = Integer.toString(i);
+            engine.PUT("key:" + key, "value:" + key);
+        }
+        long loadMillis = (System.nanoTime() - begin) / 1_000_000;
+        long gcCount = gcCount() - gcCountBefore;
+        long gcMillis = gcMillis() - gcMillisBefore;
+        long heap = usedHeap() - heapBefore;
+
+        double getsPerSecond = Benchmark.throughput(1, 2000, (thread, iteration) ->
+                engine.GET("key:" + ThreadLocalRandom.current().nextInt(keys)));
+
+        System.out.println(String.format("engine:            %s", engine.getClass().getSimpleName()));
+        System.out.println(String.format("keys:              %d", keys));
+        System.out.println(String.format("load time:         %d ms", loadMillis));
+        System.out.println(String.format("collections:       %d (%d ms)", gcCount, gcMillis));
+        System.out.println(String.format("retained heap:     %d MB", heap >> 20));
+        if (engine instanceof OffHeapDatabase) {
+            System.out.println(String.format("off-heap:          %d MB",
+                    ((OffHeapDatabase) engine).offHeapBytes() >> 20));
+        }
+        System.out.println(String.format("GET throughput:    %.0f ops/sec", getsPerSecond));
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionCount();
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += gc.getCollectionTime();
+        }
+        return total;
+    }
+}
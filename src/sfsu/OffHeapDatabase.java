@@ -0,0 +1,513 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Database that keeps its keys, values and hash index outside of the Java heap, in direct ByteBuffers. The heap only
+ * holds a handful of buffer objects per segment, so heap size and garbage collection pauses do not grow with the
+ * number of keys.
+ * <p>
+ * The key space is split in segments, each with its own lock, index and memory. Records are stored in chunks carved
+ * from 1MB slabs, with one free list per power of two chunk size (like memcached), so overwritten and deleted records
+ * are reused instead of leaking. Slabs are never returned to the operating system.
+ * <p>
+ * Direct memory is limited by -XX:MaxDirectMemorySize and is also reported by the java.nio:type=BufferPool,name=direct
+ * MBean.
+ */
+public class OffHeapDatabase implements StorageEngine {
+
+    static final int DEFAULT_SEGMENTS = 16;
+    static final int SLAB_SIZE = 1 << 20;
+
+    private final Segment[] segments;
+
+    /**
+     * Creates an empty database with the default number of segments.
+     */
+    public OffHeapDatabase() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Creates an empty database. The number of segments must be a power of two, and bounds the number of writers
+     * that can work in parallel.
+     */
+    public OffHeapDatabase(int segments) {
+        if (segments <= 0 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("segments must be a power of two");
+        }
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; ++i) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    @Override
+    public String GET(String k) {
+        byte[] key = k.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        byte[] value = segmentFor(hash).get(key, hash);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(keyBytes);
+        segmentFor(hash).put(keyBytes, hash, ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        byte[] key = k.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(key);
+        segmentFor(hash).delete(key, hash);
+    }
+
+    @Override
+    public ByteString GET(ByteString k) {
+        byte[] key = k.toByteArray();
+        int hash = hash(key);
+        byte[] value = segmentFor(hash).get(key, hash);
+        // The array was freshly copied out of direct memory and nobody else holds it, so it is safe to wrap.
+        return value == null ? null : UnsafeByteOperations.unsafeWrap(value);
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        byte[] keyBytes = key.toByteArray();
+        int hash = hash(keyBytes);
+        segmentFor(hash).put(keyBytes, hash, value);
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        byte[] key = k.toByteArray();
+        int hash = hash(key);
+        segmentFor(hash).delete(key, hash);
+    }
+
+    /**
+     * Looks up every key, locking each segment once for all the keys that fall in it.
+     */
+    @Override
+    public List<ByteString> GET(List<ByteString> keys) {
+        Batch batch = new Batch(keys);
+        ByteString[] values = new ByteString[keys.size()];
+        for (int run = 0; run < batch.runs(); ++run) {
+            Segment segment = batch.segment(run);
+            long stamp = segment.lock.readLock();
+            try {
+                for (int i = batch.start(run); i < batch.start(run + 1); ++i) {
+                    int position = batch.order[i];
+                    byte[] value = segment.read(batch.keys[position], batch.hashes[position]);
+                    values[position] = value == null ? null : UnsafeByteOperations.unsafeWrap(value);
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Inserts every pair, locking each segment once for all the keys that fall in it.
+     */
+    @Override
+    public void PUT(List<ByteString> keys, List<ByteString> values) {
+        Batch batch = new Batch(keys);
+        for (int run = 0; run < batch.runs(); ++run) {
+            Segment segment = batch.segment(run);
+            long stamp = segment.lock.writeLock();
+            try {
+                for (int i = batch.start(run); i < batch.start(run + 1); ++i) {
+                    int position = batch.order[i];
+                    segment.write(batch.keys[position], batch.hashes[position], values.get(position));
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Deletes every key, locking each segment once for all the keys that fall in it.
+     */
+    @Override
+    public void DELETE(List<ByteString> keys) {
+        Batch batch = new Batch(keys);
+        for (int run = 0; run < batch.runs(); ++run) {
+            Segment segment = batch.segment(run);
+            long stamp = segment.lock.writeLock();
+            try {
+                for (int i = batch.start(run); i < batch.start(run + 1); ++i) {
+                    int position = batch.order[i];
+                    segment.remove(batch.keys[position], batch.hashes[position]);
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Copies the records of one segment at a time to the heap under its read lock, and hands them to the action
+     * after unlocking, so writers only wait for the copy of their own segment.
+     */
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        for (Segment segment : segments) {
+            ArrayList<byte[]> pairs = new ArrayList<>();
+            long stamp = segment.lock.readLock();
+            try {
+                segment.copyTo(pairs);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+            for (int i = 0; i < pairs.size(); i += 2) {
+                action.accept(UnsafeByteOperations.unsafeWrap(pairs.get(i)),
+                        UnsafeByteOperations.unsafeWrap(pairs.get(i + 1)));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes of direct memory reserved by this database, for slabs and indexes.
+     */
+    public long offHeapBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.reservedBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of keys stored.
+     */
+    public long size() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.size;
+        }
+        return total;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(int hash) {
+        return ((hash * 0x9E3779B9) >>> 16) & (segments.length - 1);
+    }
+
+    /**
+     * The keys of a batch grouped by segment. Order lists the positions of the keys segment by segment, and within a
+     * segment in their original order, so repeated keys are applied in the order they were given. Only segments that
+     * have keys form a run.
+     */
+    private final class Batch {
+
+        final byte[][] keys;
+        final int[] hashes;
+        final int[] order;
+        final int[] runSegments;
+        final int[] runStarts;
+        int runCount;
+
+        Batch(List<ByteString> batchKeys) {
+            int n = batchKeys.size();
+            keys = new byte[n][];
+            hashes = new int[n];
+            int[] segmentOf = new int[n];
+            int[] counts = new int[segments.length + 1];
+            for (int i = 0; i < n; ++i) {
+                keys[i] = batchKeys.get(i).toByteArray();
+                hashes[i] = hash(keys[i]);
+                segmentOf[i] = segmentIndex(hashes[i]);
+                ++counts[segmentOf[i] + 1];
+            }
+
+            // Counting sort by segment.
+            runSegments = new int[segments.length];
+            runStarts = new int[segments.length + 1];
+            for (int s = 0; s < segments.length; ++s) {
+                if (counts[s + 1] > 0) {
+                    runSegments[runCount] = s;
+                    runStarts[runCount] = counts[s];
+                    ++runCount;
+                }
+                counts[s + 1] += counts[s];
+            }
+            runStarts[runCount] = n;
+            order = new int[n];
+            for (int i = 0; i < n; ++i) {
+                order[counts[segmentOf[i]]++] = i;
+            }
+        }
+
+        int runs() {
+            return runCount;
+        }
+
+        Segment segment(int run) {
+            return segments[runSegments[run]];
+        }
+
+        int start(int run) {
+            return runStarts[run];
+        }
+    }
+
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        h *= 0x85EBCA6B;
+        return h ^ (h >>> 15);
+    }
+
+    /**
+     * An independent part of the key space: an open addressing index and the slabs holding its records.
+     * <p>
+     * Index slots are 16 bytes: the record address plus one (zero marks an empty slot) and the key hash. A record
+     * address is the slab number in the upper 32 bits and the offset in the slab in the lower 32 bits. Records are
+     * laid out as key length, value length, key bytes and value bytes.
+     */
+    private static final class Segment {
+
+        static final int SLOT_SIZE = 16;
+        static final int RECORD_HEADER = 8;
+        static final int MIN_CHUNK_SHIFT = 5;
+        static final int CLASSES = 31 - MIN_CHUNK_SHIFT;
+
+        final StampedLock lock = new StampedLock();
+
+        ByteBuffer index;
+        int capacity;
+        volatile int size;
+
+        final ArrayList<ByteBuffer> slabs = new ArrayList<>();
+        final long[] freeLists = new long[CLASSES];         // address plus one of the first free chunk, per class
+        final int[] currentSlab = new int[CLASSES];         // slab that chunks of each class are carved from
+        final int[] currentOffset = new int[CLASSES];       // next unused offset in that slab
+        volatile long reservedBytes;
+
+        Segment() {
+            capacity = 1024;
+            index = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+            reservedBytes = index.capacity();
+            Arrays.fill(currentSlab, -1);
+        }
+
+        byte[] get(byte[] key, int hash) {
+            long stamp = lock.readLock();
+            try {
+                return read(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void put(byte[] key, int hash, ByteString value) {
+            long stamp = lock.writeLock();
+            try {
+                write(key, hash, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void delete(byte[] key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                remove(key, hash);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        // The methods below expect the caller to hold the lock.
+
+        byte[] read(byte[] key, int hash) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return null;
+            }
+            long address = index.getLong(slot * SLOT_SIZE) - 1;
+            ByteBuffer slab = slabs.get((int) (address >>> 32));
+            int offset = (int) address;
+            byte[] value = new byte[slab.getInt(offset + 4)];
+            slab.get(offset + RECORD_HEADER + key.length, value);
+            return value;
+        }
+
+        void write(byte[] key, int hash, ByteString value) {
+            if (2 * (size + 1) > capacity) {
+                resize(2 * capacity);
+            }
+            int slot = find(key, hash);
+            long address = allocate(RECORD_HEADER + key.length + value.size());
+            ByteBuffer slab = slabs.get((int) (address >>> 32));
+            int offset = (int) address;
+            slab.putInt(offset, key.length);
+            slab.putInt(offset + 4, value.size());
+            slab.put(offset + RECORD_HEADER, key);
+            ByteBuffer target = slab.duplicate();
+            target.position(offset + RECORD_HEADER + key.length);
+            value.copyTo(target);
+
+            if (slot >= 0) {
+                free(index.getLong(slot * SLOT_SIZE) - 1);
+            } else {
+                slot = -slot - 1;
+                ++size;
+            }
+            index.putLong(slot * SLOT_SIZE, address + 1);
+            index.putInt(slot * SLOT_SIZE + 8, hash);
+        }
+
+        /**
+         * Adds the key and the value of every record to the list, one after the other.
+         */
+        void copyTo(List<byte[]> pairs) {
+            for (int slot = 0; slot < capacity; ++slot) {
+                long address = index.getLong(slot * SLOT_SIZE) - 1;
+                if (address < 0) {
+                    continue;
+                }
+                ByteBuffer slab = slabs.get((int) (address >>> 32));
+                int offset = (int) address;
+                byte[] key = new byte[slab.getInt(offset)];
+                byte[] value = new byte[slab.getInt(offset + 4)];
+                slab.get(offset + RECORD_HEADER, key);
+                slab.get(offset + RECORD_HEADER + key.length, value);
+                pairs.add(key);
+                pairs.add(value);
+            }
+        }
+
+        void remove(byte[] key, int hash) {
+            int hole = find(key, hash);
+            if (hole < 0) {
+                return;
+            }
+            free(index.getLong(hole * SLOT_SIZE) - 1);
+            index.putLong(hole * SLOT_SIZE, 0);
+            --size;
+
+            // Shift the rest of the probe sequence back so that no key is left behind the hole.
+            int mask = capacity - 1;
+            for (int slot = (hole + 1) & mask; index.getLong(slot * SLOT_SIZE) != 0; slot = (slot + 1) & mask) {
+                int home = index.getInt(slot * SLOT_SIZE + 8) & mask;
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    index.putLong(hole * SLOT_SIZE, index.getLong(slot * SLOT_SIZE));
+                    index.putInt(hole * SLOT_SIZE + 8, index.getInt(slot * SLOT_SIZE + 8));
+                    index.putLong(slot * SLOT_SIZE, 0);
+                    hole = slot;
+                }
+            }
+        }
+
+        /**
+         * Returns the slot holding the key, or minus one minus the empty slot where it would be inserted.
+         */
+        private int find(byte[] key, int hash) {
+            int mask = capacity - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                long address = index.getLong(slot * SLOT_SIZE);
+                if (address == 0) {
+                    return -slot - 1;
+                }
+                if (index.getInt(slot * SLOT_SIZE + 8) == hash && keyEquals(address - 1, key)) {
+                    return slot;
+                }
+            }
+        }
+
+        private boolean keyEquals(long address, byte[] key) {
+            ByteBuffer slab = slabs.get((int) (address >>> 32));
+            int offset = (int) address;
+            if (slab.getInt(offset) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; ++i) {
+                if (slab.get(offset + RECORD_HEADER + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void resize(int newCapacity) {
+            ByteBuffer old = index;
+            int oldCapacity = capacity;
+            index = ByteBuffer.allocateDirect(newCapacity * SLOT_SIZE);
+            capacity = newCapacity;
+            int mask = newCapacity - 1;
+            for (int i = 0; i < oldCapacity; ++i) {
+                long address = old.getLong(i * SLOT_SIZE);
+                if (address != 0) {
+                    int hash = old.getInt(i * SLOT_SIZE + 8);
+                    int slot = hash & mask;
+                    while (index.getLong(slot * SLOT_SIZE) != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    index.putLong(slot * SLOT_SIZE, address);
+                    index.putInt(slot * SLOT_SIZE + 8, hash);
+                }
+            }
+            // The old index is released once the buffer object is collected.
+            reservedBytes += index.capacity() - old.capacity();
+        }
+
+        private static int classOf(int chunkSize) {
+            return Math.max(0, 32 - Integer.numberOfLeadingZeros(chunkSize - 1) - MIN_CHUNK_SHIFT);
+        }
+
+        private long allocate(int recordSize) {
+            int chunkClass = classOf(recordSize);
+            if (chunkClass >= CLASSES) {
+                throw new IllegalArgumentException("record too large: " + recordSize + " bytes");
+            }
+            long head = freeLists[chunkClass];
+            if (head != 0) {
+                long address = head - 1;
+                freeLists[chunkClass] = slabs.get((int) (address >>> 32)).getLong((int) address);
+                return address;
+            }
+
+            int chunkSize = 1 << (chunkClass + MIN_CHUNK_SHIFT);
+            int slab = currentSlab[chunkClass];
+            if (slab < 0 || currentOffset[chunkClass] + chunkSize > slabs.get(slab).capacity()) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, chunkSize));
+                slabs.add(buffer);
+                reservedBytes += buffer.capacity();
+                slab = slabs.size() - 1;
+                currentSlab[chunkClass] = slab;
+                currentOffset[chunkClass] = 0;
+            }
+            int offset = currentOffset[chunkClass];
+            currentOffset[chunkClass] += chunkSize;
+            return ((long) slab << 32) | offset;
+        }
+
+        private void free(long address) {
+            ByteBuffer slab = slabs.get((int) (address >>> 32));
+            int offset = (int) address;
+            int chunkClass = classOf(RECORD_HEADER + slab.getInt(offset) + slab.getInt(offset + 4));
+            slab.putLong(offset, freeLists[chunkClass]);
+            freeLists[chunkClass] = address + 1;
+        }
+    }
+}
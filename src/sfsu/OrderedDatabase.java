@@ -0,0 +1,77 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Database that keeps its keys in order, in a ConcurrentSkipListMap of the ByteStrings parsed off the wire, so that it
+ * can answer SCANs. Reads, writes and scans take no locks: a scan walks the skip list while writers change it, and
+ * sees every pair that is not changed meanwhile.
+ * <p>
+ * Keys are ordered as unsigned bytes, which for UTF-8 strings is the order of their code points.
+ */
+public class OrderedDatabase implements StorageEngine {
+
+    private final ConcurrentSkipListMap<ByteString, ByteString> table =
+            new ConcurrentSkipListMap<>(SortedTable.KEY_ORDER);
+
+    @Override
+    public ByteString GET(ByteString k) {
+        return table.get(k);
+    }
+
+    @Override
+    public void PUT(ByteString key, ByteString value) {
+        table.put(key, value);
+    }
+
+    @Override
+    public void DELETE(ByteString k) {
+        table.remove(k);
+    }
+
+    @Override
+    public void forEach(BiConsumer<ByteString, ByteString> action) {
+        table.forEach(action);
+    }
+
+    @Override
+    public List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        if (end != null && SortedTable.KEY_ORDER.compare(start, end) >= 0) {
+            return new ArrayList<>();
+        }
+        ConcurrentNavigableMap<ByteString, ByteString> range =
+                end == null ? table.tailMap(start, true) : table.subMap(start, true, end, false);
+        List<Map.Entry<ByteString, ByteString>> pairs = new ArrayList<>(Math.min(limit, 1024));
+        for (Map.Entry<ByteString, ByteString> entry : range.entrySet()) {
+            if (pairs.size() == limit) {
+                break;
+            }
+            // The entries of a skip list's iterator are immutable snapshots, safe to hand out.
+            pairs.add(entry);
+        }
+        return pairs;
+    }
+
+    @Override
+    public String GET(String k) {
+        ByteString value = GET(ByteString.copyFromUtf8(k));
+        return value == null ? null : value.toStringUtf8();
+    }
+
+    @Override
+    public void PUT(String key, String value) {
+        PUT(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    @Override
+    public void DELETE(String k) {
+        DELETE(ByteString.copyFromUtf8(k));
+    }
+}
@@ -0,0 +1,105 @@
+package sfsu;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Offers a server twice the load it can serve and compares latency with a plain bounded queue against the CoDel
+ * queue. Every GET sleeps for a fixed time on a request thread, which fixes the capacity of the server, and requests
+ * are sent at a fixed rate whatever happens to the previous ones (an open loop, like independent users). Latency is
+ * measured from the moment a request was due to be sent, so time spent waiting in socket buffers counts too.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.OverloadBenchmark [seconds] [overload factor]
+ */
+public class OverloadBenchmark {
+
+    static final int FIRST_PORT = 7500;
+    static final int SERVICE_MILLIS = 5;
+    static final int CONNECTIONS = 16;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        double overload = args.length > 1 ? Double.parseDouble(args[1]) : 2;
+        int capacity = ConcurrentServer.REQUEST_THREADS * 1000 / SERVICE_MILLIS;
+        int rate = (int) (capacity * overload);
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+        System.setProperty("sfsu.latency.GET", "fixed:" + SERVICE_MILLIS);
+        FaultInjector injector = FaultInjector.fromProperties();
+
+        report.println(String.format("Capacity %d requests/sec, offering %d requests/sec for %d seconds", capacity,
+                rate, seconds));
+        report.println(String.format("%-10s %10s %10s %10s %10s %10s", "queue", "OK/sec", "BUSY/sec", "p50 ms",
+                "p99 ms", "max ms"));
+
+        String[] queues = {"bounded", "codel"};
+        for (int q = 0; q < queues.length; ++q) {
+            int port = FIRST_PORT + q;
+            ExecutorService requestThreads = q == 0
+                    ? ConcurrentServer.newRequestThreads(new ArrayBlockingQueue<>(ConcurrentServer.QUEUE_CAPACITY))
+                    : ConcurrentServer.newRequestThreads(new CoDelQueue(ConcurrentServer.QUEUE_CAPACITY,
+                            new ControlledDelay(5, 100, TimeUnit.MILLISECONDS), RequestProcessor::reject));
+            Thread server = new Thread(new NioServer(port,
+                    new RequestProcessor(new ByteDatabase(), requestThreads, injector), 1));
+            server.setDaemon(true);
+            server.start();
+            Thread.sleep(500);
+            run(report, queues[q], port, rate, seconds);
+        }
+        // The servers never stop on their own.
+        System.exit(0);
+    }
+
+    private static void run(PrintStream report, String name, int port, int rate, int seconds) throws Exception {
+        DatabaseClient[] connections = new DatabaseClient[CONNECTIONS];
+        for (int c = 0; c < CONNECTIONS; ++c) {
+            connections[c] = new DatabaseClient("localhost", port);
+        }
+        DatabaseProtos.Request get = DatabaseProtos.Request.newBuilder()
+                .setOperation(DatabaseProtos.Request.OperationType.GET)
+                .setKey("key")
+                .build();
+
+        int total = rate * seconds;
+        long period = 1_000_000_000L / rate;
+        long[] latencies = new long[total];
+        boolean[] busy = new boolean[total];
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[total];
+        long begin = System.nanoTime();
+        for (int i = 0; i < total; ++i) {
+            final int request = i;
+            long due = begin + i * period;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            responses[i] = connections[i % CONNECTIONS].send(get).thenAccept(response -> {
+                latencies[request] = System.nanoTime() - due;
+                busy[request] = response.getStatus() == DatabaseProtos.Response.Status.BUSY;
+            });
+        }
+        CompletableFuture.allOf(responses).join();
+        for (DatabaseClient connection : connections) {
+            connection.close();
+        }
+
+        int busyCount = 0;
+        long[] ok = new long[total];
+        for (int i = 0; i < total; ++i) {
+            if (busy[i]) {
+                ++busyCount;
+            } else {
+                ok[i - busyCount] = latencies[i];
+            }
+        }
+        Benchmark.Latencies served = new Benchmark.Latencies(ok, total - busyCount);
+        report.println(String.format("%-10s %10d %10d %10.1f %10.1f %10.1f", name, served.count() / seconds,
+                busyCount / seconds, served.percentile(50) / 1e6, served.percentile(99) / 1e6, served.max() / 1e6));
+    }
+}
@@ -0,0 +1,239 @@
+package sfsu;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of decoded pages of a file, with clock eviction: every frame has a reference bit, set when its page
+ * is used and cleared when the clock hand passes it, and the hand takes the first frame whose bit is already clear.
+ * A page in use is pinned and is not evicted until it is released. Dirty pages are not evicted either; the owner
+ * writes them out and marks them clean, and should do so before they fill the cache. If every frame is pinned or
+ * dirty the cache grows past its capacity rather than fail.
+ * <p>
+ * A miss reserves a frame for its page and reads the page with the lock released, so hits and misses of other pages
+ * go on meanwhile; only threads that want the same page wait for the read to finish. No I/O happens under the lock,
+ * which is a ReentrantLock rather than a monitor so that a virtual thread waiting on it does not pin its carrier.
+ */
+final class PageCache<T> {
+
+    /**
+     * Reads and decodes a page that is not in the cache.
+     */
+    interface Loader<T> {
+        T load(int page) throws IOException;
+    }
+
+    static final class Frame<T> {
+        int page;
+        T content;
+        int pins;
+        boolean referenced;
+        boolean dirty;
+        boolean loading;    // reserved by a miss whose read is not done yet
+    }
+
+    private final int capacity;
+    private final Loader<T> loader;
+    private final HashMap<Integer, Frame<T>> frames = new HashMap<>();
+    private final ArrayList<Frame<T>> clock = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition loaded = lock.newCondition();
+    // Guarded by the lock, like the frames and their fields.
+    private int hand;
+    private int dirty;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a cache for up to capacity pages. Hits and misses are counted as metrics under the given name.
+     */
+    PageCache(int capacity, Loader<T> loader, String name) {
+        this.capacity = capacity;
+        this.loader = loader;
+        this.hits = Metrics.counter(name + ".hits");
+        this.misses = Metrics.counter(name + ".misses");
+    }
+
+    /**
+     * Returns the frame of the page, loading it on a miss, and pins it until release.
+     */
+    Frame<T> fetch(int page) throws IOException {
+        Frame<T> frame;
+        lock.lock();
+        try {
+            while (true) {
+                frame = frames.get(page);
+                if (frame == null || !frame.loading) {
+                    break;
+                }
+                loaded.awaitUninterruptibly();
+            }
+            if (frame != null) {
+                hits.increment();
+                frame.pins++;
+                frame.referenced = true;
+                return frame;
+            }
+            misses.increment();
+            frame = victim();
+            frame.page = page;
+            frame.pins = 1;
+            frame.referenced = true;
+            frame.loading = true;
+            frames.put(page, frame);
+        } finally {
+            lock.unlock();
+        }
+
+        T content = null;
+        try {
+            content = loader.load(page);
+        } finally {
+            lock.lock();
+            try {
+                frame.loading = false;
+                if (content != null) {
+                    frame.content = content;
+                } else {
+                    // The read failed. Free the frame; a thread that waited for it reads the page itself.
+                    frames.remove(page);
+                    frame.page = -1;
+                    frame.pins = 0;
+                }
+                loaded.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Puts a new page in the cache, dirty and pinned until release. A page used again replaces the content of the frame
+     * that still holds it, so that the cache never has two frames for one page.
+     */
+    Frame<T> create(int page, T content) {
+        lock.lock();
+        try {
+            Frame<T> frame = frames.get(page);
+            while (frame != null && frame.loading) {
+                loaded.awaitUninterruptibly();
+                frame = frames.get(page);
+            }
+            if (frame == null) {
+                frame = victim();
+                frame.page = page;
+                frames.put(page, frame);
+            }
+            frame.content = content;
+            frame.pins++;
+            frame.referenced = true;
+            markDirty(frame);
+            return frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(Frame<T> frame) {
+        lock.lock();
+        try {
+            frame.pins--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void markDirty(Frame<T> frame) {
+        lock.lock();
+        try {
+            if (!frame.dirty) {
+                frame.dirty = true;
+                ++dirty;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the dirty frames. The caller writes them out and then calls markClean.
+     */
+    List<Frame<T>> dirtyFrames() {
+        lock.lock();
+        try {
+            List<Frame<T>> result = new ArrayList<>(dirty);
+            for (Frame<T> frame : clock) {
+                if (frame.dirty) {
+                    result.add(frame);
+                }
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void markClean(List<Frame<T>> written) {
+        lock.lock();
+        try {
+            for (Frame<T> frame : written) {
+                if (frame.dirty) {
+                    frame.dirty = false;
+                    --dirty;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int dirty() {
+        lock.lock();
+        try {
+            return dirty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a frame that can take a new page: a free one while the cache is not full, else the first unpinned clean
+     * frame the clock hand finds without its reference bit. Called holding the lock.
+     */
+    private Frame<T> victim() {
+        if (clock.size() < capacity) {
+            Frame<T> frame = new Frame<>();
+            clock.add(frame);
+            return frame;
+        }
+        // Two sweeps clear every reference bit, so a third finds a victim if there is one at all.
+        for (int step = 0; step < 3 * clock.size(); ++step) {
+            Frame<T> frame = clock.get(hand);
+            hand = (hand + 1) % clock.size();
+            if (frame.pins > 0 || frame.dirty) {
+                continue;
+            }
+            if (frame.referenced) {
+                frame.referenced = false;
+                continue;
+            }
+            frames.remove(frame.page);
+            frame.content = null;
+            return frame;
+        }
+        Frame<T> frame = new Frame<>();
+        clock.add(frame);
+        return frame;
+    }
+}
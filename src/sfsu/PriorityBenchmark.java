@@ -0,0 +1,97 @@
+package sfsu;
+
+import java.io.PrintStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures GET latency while other clients flood the server with PUTs, once with every request sharing the request
+ * threads and once with priority lanes. Every PUT sleeps on its request thread, like a write waiting for the disk, and
+ * the writers keep as many PUTs in flight as the server lets them. A single reader sends GETs one at a time.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.PriorityBenchmark [seconds] [writer connections]
+ */
+public class PriorityBenchmark {
+
+    static final int FIRST_PORT = 7600;
+    static final int WRITE_WINDOW = 100;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+        System.setProperty("sfsu.latency.PUT", "fixed:1");
+        FaultInjector injector = FaultInjector.fromProperties();
+
+        report.println(String.format("%-8s %10s %10s %10s %10s %12s", "threads", "GETs", "p50 ms", "p99 ms", "max ms",
+                "PUTs/sec"));
+        for (int lanes = 0; lanes < 2; ++lanes) {
+            int port = FIRST_PORT + lanes;
+            RequestProcessor processor = lanes == 0
+                    ? new RequestProcessor(new ByteDatabase(), ConcurrentServer.newRequestThreads(), injector)
+                    : new RequestProcessor(new ByteDatabase(),
+                            ConcurrentServer.newRequestThreads("requests.high", ConcurrentServer.REQUEST_THREADS),
+                            ConcurrentServer.newRequestThreads("requests.low", ConcurrentServer.LOW_PRIORITY_THREADS),
+                            injector);
+            Thread server = new Thread(new NioServer(port, processor, 1));
+            server.setDaemon(true);
+            server.start();
+            Thread.sleep(500);
+            run(report, lanes == 0 ? "shared" : "lanes", port, seconds, writers);
+        }
+        // The servers never stop on their own.
+        System.exit(0);
+    }
+
+    private static void run(PrintStream report, String name, int port, int seconds, int writers) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder written = new LongAdder();
+        DatabaseClient[] connections = new DatabaseClient[writers];
+        for (int w = 0; w < writers; ++w) {
+            DatabaseClient connection = new DatabaseClient("localhost", port);
+            connections[w] = connection;
+            Thread writer = new Thread(() -> {
+                Semaphore window = new Semaphore(WRITE_WINDOW);
+                DatabaseProtos.Request put = DatabaseProtos.Request.newBuilder()
+                        .setOperation(DatabaseProtos.Request.OperationType.PUT)
+                        .setKey("bulk")
+                        .setValue("value")
+                        .build();
+                try {
+                    while (!stop.get()) {
+                        window.acquire();
+                        connection.send(put).whenComplete((response, failure) -> {
+                            written.increment();
+                            window.release();
+                        });
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+        }
+        // Let the queues fill up.
+        Thread.sleep(1000);
+
+        Benchmark.Latencies latencies;
+        long writtenBefore = written.sum();
+        try (DatabaseClient reader = new DatabaseClient("localhost", port)) {
+            latencies = Benchmark.latencies(seconds * 1000L, () -> "interactive", reader::get);
+        }
+        long writes = written.sum() - writtenBefore;
+        stop.set(true);
+        for (DatabaseClient connection : connections) {
+            connection.close();
+        }
+
+        report.println(String.format("%-8s %10d %10.2f %10.2f %10.2f %12d", name, latencies.count(),
+                latencies.percentile(50) / 1e6, latencies.percentile(99) / 1e6, latencies.max() / 1e6,
+                writes / seconds));
+    }
+}
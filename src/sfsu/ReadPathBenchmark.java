@@ -0,0 +1,51 @@
+package sfsu;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures GET throughput of a read-mostly workload as the number of threads grows. Out of every thousand operations
+ * only a handful are writes, which is where the optimistic read path of Database pays off against the semaphore based
+ * design that bumps a shared reader counter twice per GET.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.ReadPathBenchmark [seconds per run]
+ */
+public class ReadPathBenchmark {
+
+    static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    static final int KEYS = 100_000;
+
+    // Out of every 1000 operations, this many are PUTs. All the others are GETs.
+    static final int WRITES_PER_THOUSAND = 5;
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) * 1000 : 2000;
+
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            keys[i] = Integer.toString(i);
+        }
+
+        System.out.println(String.format("%-20s %8s %15s", "engine", "threads", "ops/sec"));
+        for (int threads : THREADS) {
+            StorageEngine[] engines = {new SemaphoreDatabase(), Database.create(), new ConcurrentDatabase(KEYS)};
+            for (StorageEngine engine : engines) {
+                for (String key : keys) {
+                    engine.PUT(key, key);
+                }
+
+                double opsPerSecond = Benchmark.throughput(threads, millis, (thread, iteration) -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String key = keys[random.nextInt(KEYS)];
+                    if (random.nextInt(1000) < WRITES_PER_THOUSAND) {
+                        engine.PUT(key, key);
+                    } else {
+                        engine.GET(key);
+                    }
+                });
+                System.out.println(String.format("%-20s %8d %15.0f", engine.getClass().getSimpleName(), threads,
+                        opsPerSecond));
+            }
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Executes requests on behalf of the servers. Every kind of server parses requests off its connections and submits
+ * them here; the processor runs each one on its request threads, through the fault injection stage and against the
+ * storage engine, and hands the response back to the server to be written.
+ * <p>
+ * A processor may have two lanes of request threads, one for each priority, so that a burst of low priority writes
+ * queues behind other writes only and never in front of high priority reads.
+ */
+public class RequestProcessor {
+
+    // The most pairs a SCAN answers with, whatever limit it asks for, so that a page stays small.
+    static final int MAX_SCAN_LIMIT = Integer.getInteger("sfsu.scan.maxLimit", 1000);
+
+    private final StorageEngine database;
+    private final ExecutorService highPriorityThreads;
+    private final ExecutorService lowPriorityThreads;
+    private final FaultInjector injector;
+    private final LongAdder highPriorityRejected;
+    private final LongAdder lowPriorityRejected;
+
+    /**
+     * Creates a processor that runs requests on the given threads, without injecting any faults.
+     */
+    public RequestProcessor(StorageEngine database, ExecutorService requestThreads) {
+        this(database, requestThreads, FaultInjector.NONE);
+    }
+
+    RequestProcessor(StorageEngine database, ExecutorService requestThreads, FaultInjector injector) {
+        this.database = database;
+        this.highPriorityThreads = requestThreads;
+        this.lowPriorityThreads = requestThreads;
+        this.injector = injector;
+        this.highPriorityRejected = Metrics.counter("requests.rejected");
+        this.lowPriorityRejected = highPriorityRejected;
+    }
+
+    /**
+     * Creates a processor that runs high and low priority requests on separate threads.
+     */
+    RequestProcessor(StorageEngine database, ExecutorService highPriorityThreads, ExecutorService lowPriorityThreads,
+                     FaultInjector injector) {
+        this.database = database;
+        this.highPriorityThreads = highPriorityThreads;
+        this.lowPriorityThreads = lowPriorityThreads;
+        this.injector = injector;
+        this.highPriorityRejected = Metrics.counter("requests.high.rejected");
+        this.lowPriorityRejected = Metrics.counter("requests.low.rejected");
+    }
+
+    /**
+     * Returns the priority of a request: the one it asks for, or else high for a GET and low for anything else.
+     */
+    static DatabaseProtos.Request.Priority priorityOf(DatabaseProtos.Request request) {
+        if (request.hasPriority()) {
+            return request.getPriority();
+        }
+        return request.getOperation() == DatabaseProtos.Request.OperationType.GET
+                ? DatabaseProtos.Request.Priority.HIGH
+                : DatabaseProtos.Request.Priority.LOW;
+    }
+
+    /**
+     * Runs the request on a request thread and then hands its response to reply, on the same thread. If the request
+     * threads refuse more work, because their queue is full, the request is answered BUSY right away on the calling
+     * thread instead.
+     * <p>
+     * The address is where the request came from. It names the client for fair scheduling, unless the request names
+     * its client itself.
+     * <p>
+     * A SCAN with credit is streamed: reply gets one response per page, all but the last with more set, and the
+     * streams of the connection keep track of it until then. Servers hand CREDIT and CANCEL requests to control
+     * instead.
+     */
+    void submit(DatabaseProtos.Request request, String address, Consumer<DatabaseProtos.Response> reply,
+                Streams streams) {
+        String client = request.hasClient() ? request.getClient() : address;
+        if (request.getOperation() == DatabaseProtos.Request.OperationType.SCAN && request.getCredit() > 0) {
+            if (streams.active.size() >= Streams.MAX_STREAMS || streams.active.containsKey(request.getId())) {
+                reply.accept(refuse(request, DatabaseProtos.Response.Status.ERROR));
+                return;
+            }
+            Stream stream = new Stream(request, client, reply, streams);
+            streams.active.put(request.getId(), stream);
+            stream.grant(request.getCredit());
+            return;
+        }
+        execute(new Task(request, client, reply));
+    }
+
+    /**
+     * Applies a CREDIT or CANCEL request to the stream of the connection it names, and returns true, or returns false
+     * for any other request. These requests are not answered, and do not count as in flight.
+     */
+    static boolean control(DatabaseProtos.Request request, Streams streams) {
+        DatabaseProtos.Request.OperationType operation = request.getOperation();
+        if (operation != DatabaseProtos.Request.OperationType.CREDIT
+                && operation != DatabaseProtos.Request.OperationType.CANCEL) {
+            return false;
+        }
+        Stream stream = streams.active.get(request.getId());
+        if (stream != null) {    // else the stream ended before the request arrived
+            if (operation == DatabaseProtos.Request.OperationType.CREDIT) {
+                stream.grant(request.getCredit());
+            } else {
+                stream.cancel();
+            }
+        }
+        return true;
+    }
+
+    private void execute(Task task) {
+        boolean high = priorityOf(task.request) == DatabaseProtos.Request.Priority.HIGH;
+        try {
+            (high ? highPriorityThreads : lowPriorityThreads).execute(task);
+        } catch (RejectedExecutionException e) {
+            (high ? highPriorityRejected : lowPriorityRejected).increment();
+            task.reject();
+        }
+    }
+
+    /**
+     * The scans being streamed on one connection, by request id. Every connection has its own. A stream waiting for
+     * credit still counts as a request in flight, so a connection may only have a few at once.
+     */
+    static final class Streams {
+        static final int MAX_STREAMS = 16;
+
+        final ConcurrentHashMap<Long, Stream> active = new ConcurrentHashMap<>();
+
+        /**
+         * Cancels every stream, for a connection that will not read any more CREDIT requests.
+         */
+        void cancelAll() {
+            for (Stream stream : active.values()) {
+                stream.cancel();
+            }
+        }
+    }
+
+    /**
+     * A streamed SCAN. Every page is an ordinary SCAN task, going through the same queues, lanes and fault injection
+     * as any request, and continuing at the cursor of the page before it. A page is only queued once the one before
+     * it was handed to reply, and only while there is credit, so pages go out in order and at most one is held by
+     * the server at a time. A page the server is too busy for ends the stream with BUSY; its last cursor tells the
+     * client where to pick up.
+     */
+    private final class Stream {
+        final DatabaseProtos.Request.Builder page;
+        final String client;
+        final Consumer<DatabaseProtos.Response> reply;
+        final Streams streams;
+        final long id;
+
+        // Guarded by this.
+        int credit;
+        boolean sending;
+        boolean cancelled;
+
+        Stream(DatabaseProtos.Request request, String client, Consumer<DatabaseProtos.Response> reply,
+               Streams streams) {
+            this.page = request.toBuilder().clearCredit();
+            this.client = client;
+            this.reply = reply;
+            this.streams = streams;
+            this.id = request.getId();
+        }
+
+        void grant(int more) {
+            Task next;
+            synchronized (this) {
+                credit += more;
+                next = nextPage();
+            }
+            if (next != null) {
+                execute(next);
+            }
+        }
+
+        void cancel() {
+            boolean idle;
+            synchronized (this) {
+                cancelled = true;
+                // Between pages nobody else will end the stream, so end it now.
+                idle = !sending;
+                sending = true;
+            }
+            if (idle) {
+                streams.active.remove(id);
+                reply.accept(DatabaseProtos.Response.newBuilder().setId(id).build());
+            }
+        }
+
+        /**
+         * Returns the task for the next page if it may go now, and marks it sending. Called holding the lock.
+         */
+        private Task nextPage() {
+            if (sending || cancelled || credit == 0) {
+                return null;
+            }
+            sending = true;
+            --credit;
+            return new Task(page.build(), client, this::sent);
+        }
+
+        private void sent(DatabaseProtos.Response response) {
+            boolean more;
+            synchronized (this) {
+                more = response.hasCursor() && !cancelled;
+                if (more) {
+                    page.setCursorBytes(response.getCursorBytes());
+                }
+            }
+            if (!more) {
+                streams.active.remove(id);
+                reply.accept(response);
+                return;
+            }
+            reply.accept(response.toBuilder().setMore(true).build());
+            Task next;
+            boolean ended;
+            synchronized (this) {
+                // A cancel while the page went out left the stream to be ended here. Sending stays set, so only once.
+                ended = cancelled;
+                sending = ended;
+                next = nextPage();
+            }
+            if (ended) {
+                streams.active.remove(id);
+                reply.accept(DatabaseProtos.Response.newBuilder().setId(id).build());
+            } else if (next != null) {
+                execute(next);
+            }
+        }
+    }
+
+    /**
+     * A request on its way to a request thread. Queues that shed load answer it BUSY instead of running it.
+     */
+    final class Task implements Runnable {
+
+        final DatabaseProtos.Request request;
+        final String client;
+        final Consumer<DatabaseProtos.Response> reply;
+
+        Task(DatabaseProtos.Request request, String client, Consumer<DatabaseProtos.Response> reply) {
+            this.request = request;
+            this.client = client;
+            this.reply = reply;
+        }
+
+        /**
+         * Returns how much work the request is, counted in keys.
+         */
+        int cost() {
+            if (request.getOperation() == DatabaseProtos.Request.OperationType.SCAN) {
+                return scanLimit(request);
+            }
+            return Math.max(1, request.getBatchCount());
+        }
+
+        @Override
+        public void run() {
+            DatabaseProtos.Response response = process(request);
+            Log.debug("Request {} answered with {}", request, response);
+            reply.accept(response);
+        }
+
+        void reject() {
+            reply.accept(refuse(request, DatabaseProtos.Response.Status.BUSY));
+        }
+    }
+
+    /**
+     * Answers a task submitted by a processor BUSY, without running it.
+     */
+    static void reject(Runnable task) {
+        ((Task) task).reject();
+    }
+
+    /**
+     * Returns the client that submitted a task.
+     */
+    static String clientOf(Runnable task) {
+        return ((Task) task).client;
+    }
+
+    /**
+     * Returns the cost of a task for fair scheduling.
+     */
+    static int costOf(Runnable task) {
+        return ((Task) task).cost();
+    }
+
+    /**
+     * Runs the request on the calling thread.
+     */
+    DatabaseProtos.Response process(DatabaseProtos.Request request) {
+        if (!injector.inject(request.getOperation())) {
+            return refuse(request, DatabaseProtos.Response.Status.ERROR);
+        }
+        try {
+            return execute(database, request);
+        } catch (UncheckedIOException e) {
+            // The engine could not make the change durable.
+            Log.error("Request failed", e);
+            return refuse(request, DatabaseProtos.Response.Status.ERROR);
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // The engine cannot take this request, such as a record too large for it, but is fine otherwise.
+            Log.warn("Request failed: {}", e.getMessage());
+            return refuse(request, DatabaseProtos.Response.Status.ERROR);
+        } catch (RuntimeException e) {
+            // Anything else is a bug or a full engine. The client still gets an answer and the worker lives on.
+            Log.error("Request failed", e);
+            return refuse(request, DatabaseProtos.Response.Status.ERROR);
+        }
+    }
+
+    /**
+     * Builds the response to a request that was not executed.
+     */
+    static DatabaseProtos.Response refuse(DatabaseProtos.Request request, DatabaseProtos.Response.Status status) {
+        DatabaseProtos.Response.Builder builder = DatabaseProtos.Response.newBuilder()
+                .setStatus(status)
+                .setKeyBytes(request.getKeyBytes());
+        if (request.hasId()) {
+            builder.setId(request.getId());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Runs a request against the storage engine and builds the response. Keys and values are handed over as the
+     * ByteStrings protobuf parsed off the wire, and the response reuses the stored bytes, so nothing is decoded to or
+     * encoded from a String on the way.
+     */
+    static DatabaseProtos.Response execute(StorageEngine db, DatabaseProtos.Request request) {
+        DatabaseProtos.Request.OperationType operation = request.getOperation();
+        ByteString key = request.getKeyBytes();
+        DatabaseProtos.Response.Builder builder = DatabaseProtos.Response.newBuilder().setKeyBytes(key);
+        if (request.hasId()) {
+            builder.setId(request.getId());
+        }
+        if (operation == DatabaseProtos.Request.OperationType.GET) {    //if operation is GET
+            ByteString value = db.GET(key);
+            if (value != null) {    // a missing key is answered with an empty value
+                builder.setValueBytes(value);
+            }
+        } else if (operation == DatabaseProtos.Request.OperationType.PUT) {
+            ByteString value = request.getValueBytes();
+            if (request.hasTtl()) {
+                db.PUT(key, value, request.getTtl());
+            } else {
+                db.PUT(key, value);
+            }
+            builder.setValueBytes(value);
+        } else if (operation == DatabaseProtos.Request.OperationType.DELETE) {
+            db.DELETE(key);
+        } else if (operation == DatabaseProtos.Request.OperationType.BATCH) {
+            executeBatch(db, request.getBatchList(), builder);
+        } else if (operation == DatabaseProtos.Request.OperationType.SCAN) {
+            executeScan(db, request, builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of pairs a SCAN may answer with.
+     */
+    static int scanLimit(DatabaseProtos.Request request) {
+        return request.getLimit() > 0 ? Math.min(request.getLimit(), MAX_SCAN_LIMIT) : MAX_SCAN_LIMIT;
+    }
+
+    /**
+     * Scans one page and adds its pairs to the builder, with a cursor if the page is full. The cursor is the last key
+     * of the page, and the next page starts right after it: at the key followed by a zero byte, the smallest key that
+     * sorts after it.
+     */
+    private static void executeScan(StorageEngine db, DatabaseProtos.Request request,
+                                    DatabaseProtos.Response.Builder builder) {
+        ByteString start = request.hasCursor()
+                ? request.getCursorBytes().concat(ByteString.copyFrom(new byte[1]))
+                : request.getKeyBytes();
+        ByteString end = request.hasEnd() ? request.getEndBytes() : null;
+        int limit = scanLimit(request);
+        List<Map.Entry<ByteString, ByteString>> pairs = db.SCAN(start, end, limit);
+        for (Map.Entry<ByteString, ByteString> pair : pairs) {
+            builder.addBatchBuilder().setKeyBytes(pair.getKey()).setValueBytes(pair.getValue());
+        }
+        if (pairs.size() == limit) {
+            builder.setCursorBytes(pairs.get(limit - 1).getKey());
+        }
+    }
+
+    /**
+     * Runs the requests of a batch in order and adds their responses to the builder. If one fails, the batch stops
+     * there and what ran before it stays done: the response is ERROR, and so is the response of every request from
+     * the first one not answered yet on.
+     */
+    private static void executeBatch(StorageEngine db, List<DatabaseProtos.Request> batch,
+                                     DatabaseProtos.Response.Builder builder) {
+        try {
+            executeRuns(db, batch, builder);
+        } catch (RuntimeException e) {
+            Log.error("Batch request failed", e);
+            builder.setStatus(DatabaseProtos.Response.Status.ERROR);
+            for (int i = builder.getBatchCount(); i < batch.size(); ++i) {
+                builder.addBatchBuilder()
+                        .setStatus(DatabaseProtos.Response.Status.ERROR)
+                        .setKeyBytes(batch.get(i).getKeyBytes());
+            }
+        }
+    }
+
+    /**
+     * Runs the requests of a batch in order. Consecutive requests with the same operation are handed to the storage
+     * engine together, so that it can lock once for all of them. PUTs with a time to live go one at a time.
+     */
+    private static void executeRuns(StorageEngine db, List<DatabaseProtos.Request> batch,
+                                    DatabaseProtos.Response.Builder builder) {
+        int start = 0;
+        while (start < batch.size()) {
+            DatabaseProtos.Request.OperationType operation = batch.get(start).getOperation();
+            int end = start + 1;
+            boolean ttl = batch.get(start).hasTtl();
+            while (end < batch.size() && batch.get(end).getOperation() == operation
+                    && batch.get(end).hasTtl() == ttl) {
+                ++end;
+            }
+            List<DatabaseProtos.Request> run = batch.subList(start, end);
+            List<ByteString> keys = new ArrayList<>(run.size());
+            for (DatabaseProtos.Request request : run) {
+                keys.add(request.getKeyBytes());
+            }
+
+            if (operation == DatabaseProtos.Request.OperationType.GET) {
+                List<ByteString> values = db.GET(keys);
+                for (int i = 0; i < run.size(); ++i) {
+                    DatabaseProtos.Response.Builder response = builder.addBatchBuilder().setKeyBytes(keys.get(i));
+                    if (values.get(i) != null) {
+                        response.setValueBytes(values.get(i));
+                    }
+                }
+            } else if (operation == DatabaseProtos.Request.OperationType.PUT && !ttl) {
+                List<ByteString> values = new ArrayList<>(run.size());
+                for (DatabaseProtos.Request request : run) {
+                    values.add(request.getValueBytes());
+                }
+                db.PUT(keys, values);
+                for (int i = 0; i < run.size(); ++i) {
+                    builder.addBatchBuilder().setKeyBytes(keys.get(i)).setValueBytes(values.get(i));
+                }
+            } else if (operation == DatabaseProtos.Request.OperationType.DELETE) {
+                db.DELETE(keys);
+                for (ByteString key : keys) {
+                    builder.addBatchBuilder().setKeyBytes(key);
+                }
+            } else {
+                for (DatabaseProtos.Request request : run) {
+                    builder.addBatch(execute(db, request));
+                }
+            }
+            start = end;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package sfsu;
+
+import java.util.HashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The original Database, implemented with the semaphore based Readers-Writers algorithm. It is no longer used by the
+ * server and is kept as a baseline for the benchmarks.
+ */
+class SemaphoreDatabase implements StorageEngine {
+
+    Semaphore mutex = new Semaphore(1); //used for reader and write
+    Semaphore write = new Semaphore(1); //used just for writer
+    int read_count = 0;
+
+    HashMap<String, String> javaMap = new HashMap<String, String>();
+
+    @Override
+    public void PUT(String key, String value) {
+        try {
+            write.acquire();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        javaMap.put(key, value);
+        write.release();
+    }
+
+    @Override
+    public String GET(String k) {
+        if (javaMap.containsKey(k)) {
+            try {
+                mutex.acquire();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            read_count++;
+            if (read_count == 1) {
+                try {
+                    write.acquire();
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                }
+            }
+            mutex.release();
+
+            String valueReturned = javaMap.get(k);   //reading is performed
+
+            try {
+                mutex.acquire();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            read_count--;
+            if (read_count == 0) {  //makes sure that read count gets back to zero before releasing the write semaphore
+                write.release();
+            }
+            mutex.release();
+
+            return valueReturned;
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public void DELETE(String k) {
+        if (javaMap.containsKey(k)) {
+            try {
+                write.acquire();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            javaMap.remove(k);
+            write.release();
+        }
+    }
+}
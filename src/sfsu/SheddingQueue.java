@@ -0,0 +1,289 @@
+package sfsu;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Base of the bounded work queues that decide for themselves which task runs next and which ones are not worth
+ * running. Every task is queued with the time it arrived. Subclasses pick the order tasks come out in, and may make
+ * room for a new task by evicting a queued one; with a ControlledDelay, tasks that come out late are dropped.
+ * <p>
+ * Evicted and dropped tasks are handed to the drop handler, outside of the queue lock, on the thread that was offering
+ * or taking a task.
+ */
+abstract class SheddingQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    static final class Entry {
+        final Runnable task;
+        final long queued;
+
+        Entry(Runnable task, long queued) {
+            this.task = task;
+            this.queued = queued;
+        }
+    }
+
+    final int capacity;
+    private final ControlledDelay delay;
+    private final Consumer<Runnable> dropHandler;
+
+    final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // The number of queued tasks. Guarded by the lock, like all the state of subclasses.
+    int count;
+
+    /**
+     * Creates a queue for up to capacity tasks. The delay may be null, to run every task however long it waited.
+     */
+    SheddingQueue(int capacity, ControlledDelay delay, Consumer<Runnable> dropHandler) {
+        this.capacity = capacity;
+        this.delay = delay;
+        this.dropHandler = dropHandler;
+    }
+
+    /**
+     * Queues an entry. There is room for it.
+     */
+    abstract void enqueue(Entry entry);
+
+    /**
+     * Removes and returns the entry that should run next. The queue is not empty.
+     */
+    abstract Entry dequeue();
+
+    /**
+     * Returns the entry dequeue would return, without removing it or changing what comes after. The queue is not
+     * empty.
+     */
+    abstract Entry head();
+
+    /**
+     * Called when the queue is full. Removes and returns a queued entry to make room for the task, or returns null to
+     * refuse the task instead. Refuses by default.
+     */
+    Entry evict(Runnable task) {
+        return null;
+    }
+
+    /**
+     * Removes the entry of the task, if it is queued.
+     */
+    abstract boolean removeEntry(Object task);
+
+    /**
+     * Adds every queued task to the list, in no particular order.
+     */
+    abstract void collect(List<Runnable> tasks);
+
+    @Override
+    public boolean offer(Runnable task) {
+        Entry evicted = null;
+        lock.lock();
+        try {
+            if (count >= capacity) {
+                evicted = evict(task);
+                if (evicted == null) {
+                    return false;
+                }
+                --count;
+            }
+            enqueue(new Entry(task, System.nanoTime()));
+            ++count;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (evicted != null) {
+            dropHandler.accept(evicted.task);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(new Entry(task, System.nanoTime()));
+            ++count;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Runnable task) throws InterruptedException {
+        offer(task, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Runnable poll() {
+        List<Runnable> late = new ArrayList<>();
+        Runnable task;
+        lock.lock();
+        try {
+            task = next(late);
+        } finally {
+            lock.unlock();
+        }
+        drop(late);
+        return task;
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        List<Runnable> late = new ArrayList<>();
+        while (true) {
+            Runnable task;
+            lock.lockInterruptibly();
+            try {
+                while (count == 0) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                task = next(late);
+            } finally {
+                lock.unlock();
+            }
+            drop(late);
+            if (task != null) {
+                return task;
+            }
+        }
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes the next task that should run, adding the ones that should be dropped on the way to late. Returns null
+     * if the queue runs out.
+     */
+    private Runnable next(List<Runnable> late) {
+        long now = System.nanoTime();
+        while (count > 0) {
+            Entry entry = dequeue();
+            --count;
+            notFull.signal();
+            if (delay == null || !delay.shouldDrop(entry.queued, now)) {
+                return entry.task;
+            }
+            late.add(entry.task);
+        }
+        if (delay != null) {
+            delay.empty();
+        }
+        return null;
+    }
+
+    private void drop(List<Runnable> late) {
+        for (Runnable task : late) {
+            dropHandler.accept(task);
+        }
+        late.clear();
+    }
+
+    /**
+     * Returns the task that would be taken next, or null if the queue is empty. With a ControlledDelay it may still be
+     * dropped as late when it is taken.
+     */
+    @Override
+    public Runnable peek() {
+        lock.lock();
+        try {
+            return count == 0 ? null : head().task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object task) {
+        lock.lock();
+        try {
+            if (removeEntry(task)) {
+                --count;
+                notFull.signal();
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> target, int maxElements) {
+        lock.lock();
+        try {
+            int drained = 0;
+            while (drained < maxElements && count > 0) {
+                target.add(dequeue().task);
+                --count;
+                ++drained;
+            }
+            notFull.signalAll();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates over a copy of the queued tasks.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> tasks = new ArrayList<>();
+        lock.lock();
+        try {
+            collect(tasks);
+        } finally {
+            lock.unlock();
+        }
+        return tasks.iterator();
+    }
+}
@@ -0,0 +1,227 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+/**
+ * A copy of every key and value of a storage engine in a file, from which an engine is loaded much faster than by
+ * replaying its log.
+ * <p>
+ * The file starts with a magic number and a version, followed by blocks of records and an empty block that marks the
+ * end. A block is its length, a CRC32C of its records, and the records, each a key length, a value length, the key and
+ * the value. Blocks are independent of each other, so they are loaded in parallel, each one mapped into memory rather
+ * than read through a buffer.
+ */
+final class Snapshot {
+
+    static final int MAGIC = 0x53465355;    // "SFSU"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int BLOCK_SIZE = 4 << 20;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Writes every pair of the engine to the file, replacing it atomically once the snapshot is complete and on disk,
+     * and returns the number of pairs. Writers keep going meanwhile, see StorageEngine.forEach.
+     */
+    static long write(Path file, StorageEngine engine) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long count;
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(out);
+            engine.forEach(writer::add);
+            writer.finish();
+            out.force(true);
+            count = writer.count;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file.getParent());
+        return count;
+    }
+
+    /**
+     * Puts every pair of the snapshot in the engine and returns the number of pairs.
+     */
+    static long load(Path file, StorageEngine engine) throws IOException {
+        ExecutorService loaders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "Snapshot loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(in, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a snapshot: " + file);
+            }
+            List<Future<Long>> blocks = new ArrayList<>();
+            long position = HEADER_SIZE;
+            while (true) {
+                readFully(in, header, position);
+                int length = header.getInt(0);
+                int checksum = header.getInt(4);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || position + HEADER_SIZE + length > in.size()) {
+                    throw new IOException("Corrupt snapshot " + file + " at " + position);
+                }
+                // The mapping stays valid after the channel is closed.
+                MappedByteBuffer block = in.map(FileChannel.MapMode.READ_ONLY, position + HEADER_SIZE, length);
+                long blockPosition = position;
+                blocks.add(loaders.submit(() -> loadBlock(block, checksum, engine, file, blockPosition)));
+                position += HEADER_SIZE + length;
+            }
+
+            long count = 0;
+            for (Future<Long> block : blocks) {
+                count += block.get();
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not load " + file, e.getCause());
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
+
+    private static long loadBlock(ByteBuffer block, int checksum, StorageEngine engine, Path file, long position)
+            throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(block.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Corrupt snapshot " + file + " at " + position);
+        }
+        long count = 0;
+        while (block.hasRemaining()) {
+            int keySize = block.getInt();
+            int valueSize = block.getInt();
+            ByteString key = ByteString.copyFrom(block, keySize);
+            ByteString value = ByteString.copyFrom(block, valueSize);
+            engine.PUT(key, value);
+            ++count;
+        }
+        return count;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Snapshot ends early");
+            }
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk. Not every platform can open a directory, and there is
+     * nothing more to do on those.
+     */
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            Log.debug("Could not sync directory {}: {}", directory, e);
+        }
+    }
+
+    /**
+     * Collects records into blocks and writes each one out when it is full.
+     */
+    private static final class Writer {
+
+        final FileChannel out;
+        final CRC32C crc = new CRC32C();
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long count;
+
+        Writer(FileChannel out) throws IOException {
+            this.out = out;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            writeFully(header);
+            block.position(HEADER_SIZE);
+        }
+
+        void add(ByteString key, ByteString value) {
+            int size = 8 + key.size() + value.size();
+            try {
+                if (block.position() + size > block.capacity()) {
+                    if (block.position() > HEADER_SIZE) {
+                        writeBlock();
+                    }
+                    if (HEADER_SIZE + size > block.capacity()) {
+                        // Blocks grow to fit records larger than them.
+                        block = ByteBuffer.allocate(HEADER_SIZE + size);
+                        block.position(HEADER_SIZE);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            block.putInt(key.size());
+            block.putInt(value.size());
+            key.copyTo(block);
+            value.copyTo(block);
+            ++count;
+        }
+
+        void finish() throws IOException {
+            if (block.position() > HEADER_SIZE) {
+                writeBlock();
+            }
+            // The empty block that marks the end.
+            writeBlock();
+        }
+
+        private void writeBlock() throws IOException {
+            int length = block.position() - HEADER_SIZE;
+            crc.reset();
+            crc.update(block.array(), HEADER_SIZE, length);
+            block.putInt(0, length);
+            block.putInt(4, (int) crc.getValue());
+            block.flip();
+            writeFully(block);
+            block.clear();
+            block.position(HEADER_SIZE);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+}
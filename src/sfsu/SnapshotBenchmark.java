@@ -0,0 +1,91 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures how long a LoggedDatabase takes to start from its log alone and from a snapshot, and how writes fare while
+ * the snapshot is written. Keys are loaded with the buffered policy, a writer keeps writing during the snapshot, and
+ * the database is reopened into a fresh engine after each step.
+ * <p>
+ * Invocation and arguments:
+ * java -Xmx8g -cp lib/*:out/production/Database sfsu.SnapshotBenchmark [keys] [directory]
+ */
+public class SnapshotBenchmark {
+
+    static final int BATCH = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path parent = args.length > 1 ? Path.of(args[1]) : Path.of(System.getProperty("java.io.tmpdir"));
+        Path directory = Files.createTempDirectory(parent, "snapshot");
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        long begin = System.nanoTime();
+        try (LoggedDatabase database = new LoggedDatabase(new ByteDatabase(), directory, "buffered")) {
+            List<ByteString> batchKeys = new ArrayList<>(BATCH);
+            List<ByteString> batchValues = new ArrayList<>(BATCH);
+            for (int i = 0; i < keys; ++i) {
+                batchKeys.add(ByteString.copyFromUtf8("key:" + i));
+                batchValues.add(ByteString.copyFromUtf8("value:" + i));
+                if (batchKeys.size() == BATCH || i == keys - 1) {
+                    database.PUT(batchKeys, batchValues);
+                    batchKeys.clear();
+                    batchValues.clear();
+                }
+            }
+        }
+        report.println(String.format("%-34s %10d ms", "load " + keys + " keys", millisSince(begin)));
+
+        begin = System.nanoTime();
+        try (LoggedDatabase database = new LoggedDatabase(new ByteDatabase(keys), directory, "buffered")) {
+            report.println(String.format("%-34s %10d ms", "start from the log", millisSince(begin)));
+
+            AtomicBoolean stop = new AtomicBoolean();
+            long[] writes = new long[1];
+            long[] slowest = new long[1];
+            Thread writer = new Thread(() -> {
+                ByteString value = ByteString.copyFromUtf8("during");
+                while (!stop.get()) {
+                    long start = System.nanoTime();
+                    database.PUT(ByteString.copyFromUtf8("key:" + writes[0] % keys), value);
+                    slowest[0] = Math.max(slowest[0], System.nanoTime() - start);
+                    ++writes[0];
+                }
+            });
+            writer.start();
+            begin = System.nanoTime();
+            database.snapshot();
+            long snapshotMillis = millisSince(begin);
+            stop.set(true);
+            writer.join();
+            report.println(String.format("%-34s %10d ms", "write the snapshot", snapshotMillis));
+            report.println(String.format("%-34s %10d", "  PUTs meanwhile", writes[0]));
+            report.println(String.format("%-34s %10.1f ms", "  slowest PUT", slowest[0] / 1e6));
+        }
+
+        begin = System.nanoTime();
+        LoggedDatabase restarted = new LoggedDatabase(new ByteDatabase(keys), directory, "buffered");
+        report.println(String.format("%-34s %10d ms", "start from the snapshot", millisSince(begin)));
+        restarted.close();
+
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static long millisSince(long begin) {
+        return (System.nanoTime() - begin) / 1_000_000;
+    }
+}
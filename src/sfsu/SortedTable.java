@@ -0,0 +1,378 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable file of keys and values sorted by key, as written by LsmDatabase. Only a sparse index, the first key of
+ * every block, and a bloom filter are kept in memory; a lookup that passes the filter reads a single block.
+ * <p>
+ * The file is a sequence of blocks of records, each a key length, a value length (-1 for a tombstone), the key and the
+ * value, followed by the index, the bloom filter and a footer that locates them and counts the blocks. A table is
+ * reference counted: readers acquire it around every access, and the file is closed and deleted once it was retired
+ * and the last reader is done.
+ */
+final class SortedTable implements Closeable {
+
+    static final int BLOCK_SIZE = 4096;
+    static final int FOOTER_SIZE = 32;
+    static final int MAGIC = 0x53535431;    // "SST1"
+    static final int TOMBSTONE_SIZE = -1;
+
+    static final Comparator<ByteString> KEY_ORDER = ByteString.unsignedLexicographicalComparator();
+
+    final long id;
+    final Path file;
+    final long keys;
+    final long size;
+
+    private final FileChannel channel;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final BloomFilter filter;
+
+    // The first key of every block, one after the other. The one of block i starts at keyStarts[i].
+    private final byte[] firstKeys;
+    private final int[] keyStarts;
+
+    // One reference belongs to the database until the table is retired, and one to every reader meanwhile.
+    private final AtomicInteger references = new AtomicInteger(1);
+    private volatile boolean deleteOnClose;
+
+    private SortedTable(long id, Path file, FileChannel channel, long keys, long[] offsets, int[] lengths,
+                        byte[] firstKeys, int[] keyStarts, BloomFilter filter) throws IOException {
+        this.id = id;
+        this.file = file;
+        this.channel = channel;
+        this.keys = keys;
+        this.size = channel.size();
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.firstKeys = firstKeys;
+        this.keyStarts = keyStarts;
+        this.filter = filter;
+    }
+
+    /**
+     * Writes the entries, which must be sorted by key, to a new table file and opens it. Tombstones are entries whose
+     * value is the given tombstone instance. The file only appears under its name once it is complete and on disk.
+     */
+    static SortedTable write(long id, Path file, Iterator<Map.Entry<ByteString, ByteString>> entries,
+                             long expectedKeys, int bitsPerKey, ByteString tombstone) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        BloomFilter filter = new BloomFilter(expectedKeys, bitsPerKey);
+        // The index entries: block offset, block length, first key length and first key.
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(indexBytes);
+        int blocks = 0;
+        long keys = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 20);
+            ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+            long position = 0;
+            while (entries.hasNext()) {
+                Map.Entry<ByteString, ByteString> entry = entries.next();
+                ByteString key = entry.getKey();
+                ByteString value = entry.getValue();
+                boolean deleted = value == tombstone;
+                int recordSize = 8 + key.size() + (deleted ? 0 : value.size());
+                if (block.position() > 0 && block.position() + recordSize > block.capacity()) {
+                    position += writeBlock(out, block, position, index);
+                    if (block.capacity() != BLOCK_SIZE) {
+                        block = ByteBuffer.allocate(BLOCK_SIZE);
+                    }
+                }
+                if (block.position() == 0) {
+                    ++blocks;
+                    index.writeInt(key.size());
+                    key.writeTo(index);
+                    if (recordSize > block.capacity()) {
+                        block = ByteBuffer.allocate(recordSize);
+                    }
+                }
+                block.putInt(key.size());
+                block.putInt(deleted ? TOMBSTONE_SIZE : value.size());
+                key.copyTo(block);
+                if (!deleted) {
+                    value.copyTo(block);
+                }
+                filter.add(key);
+                ++keys;
+            }
+            if (block.position() > 0) {
+                position += writeBlock(out, block, position, index);
+            }
+
+            long indexOffset = position;
+            indexBytes.writeTo(out);
+            position += indexBytes.size();
+
+            long filterOffset = position;
+            ByteBuffer filterBytes = ByteBuffer.allocate(filter.serializedSize());
+            filter.writeTo(filterBytes);
+            out.write(filterBytes.array());
+
+            ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+            footer.putLong(indexOffset).putLong(filterOffset).putLong(keys).putInt(blocks).putInt(MAGIC);
+            out.write(footer.array());
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        return open(id, file);
+    }
+
+    /**
+     * Writes the block out and completes its index entry, whose first key is already written.
+     */
+    private static int writeBlock(OutputStream out, ByteBuffer block, long position, DataOutputStream index)
+            throws IOException {
+        int length = block.position();
+        out.write(block.array(), 0, length);
+        index.writeLong(position);
+        index.writeInt(length);
+        block.clear();
+        return length;
+    }
+
+    /**
+     * Opens an existing table file, reading its index and bloom filter into memory.
+     */
+    static SortedTable open(long id, Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < FOOTER_SIZE) {
+                throw new IOException("Not a sorted table: " + file);
+            }
+            ByteBuffer footer = read(channel, fileSize - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            long filterOffset = footer.getLong();
+            long keys = footer.getLong();
+            int blocks = footer.getInt();
+            if (footer.getInt() != MAGIC || indexOffset > filterOffset || filterOffset > fileSize - FOOTER_SIZE) {
+                throw new IOException("Not a sorted table: " + file);
+            }
+
+            ByteBuffer index = read(channel, indexOffset, (int) (filterOffset - indexOffset));
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            int[] keyStarts = new int[blocks + 1];
+            byte[] firstKeys = new byte[index.remaining() - 16 * blocks];
+            for (int i = 0; i < blocks; ++i) {
+                int keySize = index.getInt();
+                index.get(firstKeys, keyStarts[i], keySize);
+                keyStarts[i + 1] = keyStarts[i] + keySize;
+                offsets[i] = index.getLong();
+                lengths[i] = index.getInt();
+            }
+            BloomFilter filter = BloomFilter.readFrom(read(channel, filterOffset,
+                    (int) (fileSize - FOOTER_SIZE - filterOffset)));
+            return new SortedTable(id, file, channel, keys, offsets, lengths, firstKeys, keyStarts, filter);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up a key. Returns its value, the tombstone if it was deleted, or null if the table does not have it.
+     */
+    ByteString get(ByteString key, ByteString tombstone) throws IOException {
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        int block = blockFor(key);
+        if (block < 0) {
+            return null;
+        }
+        ByteBuffer records = read(channel, offsets[block], lengths[block]);
+        while (records.hasRemaining()) {
+            int keySize = records.getInt();
+            int valueSize = records.getInt();
+            int comparison = compare(records.array(), records.position(), keySize, key);
+            if (comparison == 0) {
+                records.position(records.position() + keySize);
+                return valueSize == TOMBSTONE_SIZE ? tombstone : ByteString.copyFrom(records, valueSize);
+            }
+            if (comparison > 0) {
+                return null;
+            }
+            records.position(records.position() + keySize + Math.max(0, valueSize));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the entries in key order, with the tombstone as the value of deleted keys. Reading fails with
+     * UncheckedIOException.
+     */
+    Iterator<Map.Entry<ByteString, ByteString>> iterator(ByteString tombstone) {
+        return iterator(ByteString.EMPTY, tombstone);
+    }
+
+    /**
+     * Returns the entries from the given key on, in key order, with the tombstone as the value of deleted keys. Only
+     * the blocks from the one that may hold the key on are read. Reading fails with UncheckedIOException.
+     */
+    Iterator<Map.Entry<ByteString, ByteString>> iterator(ByteString from, ByteString tombstone) {
+        return new Iterator<Map.Entry<ByteString, ByteString>>() {
+            int block = Math.max(0, blockFor(from)) - 1;
+            ByteBuffer records = ByteBuffer.allocate(0);
+            boolean skipping = !from.isEmpty();
+
+            @Override
+            public boolean hasNext() {
+                while (true) {
+                    while (!records.hasRemaining()) {
+                        if (++block >= offsets.length) {
+                            return false;
+                        }
+                        try {
+                            records = read(channel, offsets[block], lengths[block]);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    if (!skipping) {
+                        return true;
+                    }
+                    // Pass over the records before the key in the first block.
+                    int keySize = records.getInt(records.position());
+                    int valueSize = records.getInt(records.position() + 4);
+                    if (compare(records.array(), records.position() + 8, keySize, from) >= 0) {
+                        skipping = false;
+                        return true;
+                    }
+                    records.position(records.position() + 8 + keySize + Math.max(0, valueSize));
+                }
+            }
+
+            @Override
+            public Map.Entry<ByteString, ByteString> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int keySize = records.getInt();
+                int valueSize = records.getInt();
+                ByteString key = ByteString.copyFrom(records, keySize);
+                ByteString value = valueSize == TOMBSTONE_SIZE ? tombstone : ByteString.copyFrom(records, valueSize);
+                return new AbstractMap.SimpleImmutableEntry<>(key, value);
+            }
+        };
+    }
+
+    /**
+     * Takes a reference for a reader. Returns false if the table was retired and closed meanwhile, in which case the
+     * reader should look again in the tables that replaced it.
+     */
+    boolean acquire() {
+        while (true) {
+            int count = references.get();
+            if (count == 0) {
+                return false;
+            }
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            try {
+                channel.close();
+                if (deleteOnClose) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                Log.error("Could not delete " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Gives up the database's reference, after a compaction replaced the table. The file is deleted once the last
+     * reader is done.
+     */
+    void retire() {
+        deleteOnClose = true;
+        release();
+    }
+
+    /**
+     * Gives up the database's reference and keeps the file.
+     */
+    @Override
+    public void close() {
+        release();
+    }
+
+    /**
+     * Returns the last block whose first key is not greater than the key, or -1 if the key is before every block.
+     */
+    private int blockFor(ByteString key) {
+        int low = 0;
+        int high = offsets.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compare(firstKeys, keyStarts[middle], keyStarts[middle + 1] - keyStarts[middle], key) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compares the key of keySize bytes at start in the array with the given key, in unsigned byte order.
+     */
+    private static int compare(byte[] bytes, int start, int keySize, ByteString key) {
+        int common = Math.min(keySize, key.size());
+        for (int i = 0; i < common; ++i) {
+            int difference = (bytes[start + i] & 0xff) - (key.byteAt(i) & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return keySize - key.size();
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of table file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
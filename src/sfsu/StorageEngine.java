@@ -0,0 +1,113 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The operations a database server dispatches to its storage. A single engine instance is shared by every client
+ * connection, so implementations must be safe to call from many threads at once.
+ */
+public interface StorageEngine {
+
+    /**
+     * Looks for a value with key k. Return null if the value does not exist.
+     */
+    String GET(String k);
+
+    /**
+     * Inserts a new value in the table, replacing any previous value for the same key.
+     */
+    void PUT(String key, String value);
+
+    /**
+     * Deletes the value/key pair for k, or does nothing if the key does not exist.
+     */
+    void DELETE(String k);
+
+    // The server hands keys and values over as the UTF-8 bytes parsed off the wire. Engines that store bytes override
+    // these to skip the conversion to and from String; the defaults go through the String operations.
+
+    /**
+     * Looks for a value with key k. Return null if the value does not exist.
+     */
+    default ByteString GET(ByteString k) {
+        String value = GET(k.toStringUtf8());
+        return value == null ? null : ByteString.copyFromUtf8(value);
+    }
+
+    /**
+     * Inserts a new value in the table, replacing any previous value for the same key.
+     */
+    default void PUT(ByteString key, ByteString value) {
+        PUT(key.toStringUtf8(), value.toStringUtf8());
+    }
+
+    /**
+     * Deletes the value/key pair for k, or does nothing if the key does not exist.
+     */
+    default void DELETE(ByteString k) {
+        DELETE(k.toStringUtf8());
+    }
+
+    /**
+     * Inserts a new value that expires after the given number of milliseconds, or never if it is zero. Engines that
+     * do not expire keys throw UnsupportedOperationException.
+     */
+    default void PUT(ByteString key, ByteString value, long ttlMillis) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not expire keys");
+    }
+
+    // Batches. Engines with coarse locks override these to lock once per batch instead of once per key; the defaults
+    // run the single key operations one after the other.
+
+    /**
+     * Looks up every key. Returns the values in the same order as the keys, with null for keys that do not exist.
+     */
+    default List<ByteString> GET(List<ByteString> keys) {
+        List<ByteString> values = new ArrayList<>(keys.size());
+        for (ByteString key : keys) {
+            values.add(GET(key));
+        }
+        return values;
+    }
+
+    /**
+     * Inserts the value at each position for the key at the same position, in order.
+     */
+    default void PUT(List<ByteString> keys, List<ByteString> values) {
+        for (int i = 0; i < keys.size(); ++i) {
+            PUT(keys.get(i), values.get(i));
+        }
+    }
+
+    /**
+     * Deletes every key that exists.
+     */
+    default void DELETE(List<ByteString> keys) {
+        for (ByteString key : keys) {
+            DELETE(key);
+        }
+    }
+
+    /**
+     * Hands every key and its value to the action, without stopping writers for the whole iteration. A pair that is
+     * not changed meanwhile is seen exactly once; a pair changed meanwhile may be seen with either value or not at
+     * all. Engines that cannot iterate throw UnsupportedOperationException.
+     */
+    default void forEach(BiConsumer<ByteString, ByteString> action) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot iterate over its keys");
+    }
+
+    /**
+     * Returns up to limit pairs in unsigned byte order of their keys, from start (included) to end (excluded, or the
+     * last key if null). Holds no lock that keeps writers out for longer than a part of the range. Engines that do not
+     * keep their keys in order throw UnsupportedOperationException.
+     */
+    default List<Map.Entry<ByteString, ByteString>> SCAN(ByteString start, ByteString end, int limit) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not keep its keys in order");
+    }
+}
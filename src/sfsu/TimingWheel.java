@@ -0,0 +1,113 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timers for keys, in a hierarchical timing wheel: four wheels of 256 slots, each slot a list of the timers due in
+ * it. A slot of the first wheel is one tick, a slot of the second one turn of the first, and so on, so the wheels
+ * cover 2^32 ticks; timers further out wait in the last wheel and are placed again when it gets to them. Scheduling a
+ * timer adds it to one slot; once per tick the slot due is emptied, after the slots of the outer wheels that start at
+ * that tick were spread over the inner ones. A timer is moved at most once per wheel, so both cost O(1) whatever the
+ * number of timers.
+ * <p>
+ * A timer cannot be cancelled. Whoever handles an expired key checks whether it is still due.
+ */
+final class TimingWheel {
+
+    static final int LEVELS = 4;
+    static final int BITS = 8;
+    static final int SLOTS = 1 << BITS;
+
+    private static final class Timer {
+        final ByteString key;
+        final long tick;
+        Timer next;
+
+        Timer(ByteString key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer[][] wheels = new Timer[LEVELS][SLOTS];
+
+    // Guarded by this. The last tick whose timers were handed out.
+    private long current;
+    private long timers;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.current = nowMillis / tickMillis;
+    }
+
+    /**
+     * Adds a timer for the key that expires at the first tick at or after the deadline, or at the next tick if the
+     * deadline has passed.
+     */
+    synchronized void schedule(ByteString key, long deadlineMillis) {
+        long tick = Math.max(current + 1, (deadlineMillis + tickMillis - 1) / tickMillis);
+        place(new Timer(key, tick));
+        ++timers;
+    }
+
+    /**
+     * Moves the wheels on to the given time and returns the keys of the timers that expired on the way, tick by tick.
+     */
+    synchronized List<ByteString> advance(long nowMillis) {
+        List<ByteString> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (current < target) {
+            ++current;
+            // Outer wheels first, so that timers cascading through several wheels end up in the first one.
+            for (int level = LEVELS - 1; level > 0; --level) {
+                if ((current & ((1L << (BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (current >>> (BITS * level)) & (SLOTS - 1));
+                }
+            }
+            int slot = (int) current & (SLOTS - 1);
+            for (Timer timer = wheels[0][slot]; timer != null; timer = timer.next) {
+                expired.add(timer.key);
+                --timers;
+            }
+            wheels[0][slot] = null;
+        }
+        return expired;
+    }
+
+    /**
+     * Returns the number of timers waiting.
+     */
+    synchronized long size() {
+        return timers;
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = wheels[level][slot];
+        wheels[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    /**
+     * Adds the timer to the slot of the innermost wheel that reaches its tick. Ticks too far out for the last wheel go
+     * to the slot it gets to last.
+     */
+    private void place(Timer timer) {
+        long delta = timer.tick - current;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            ++level;
+        }
+        long tick = Math.min(timer.tick, current + (1L << (BITS * LEVELS)) - 1);
+        int slot = (int) (tick >>> (BITS * level)) & (SLOTS - 1);
+        timer.next = wheels[level][slot];
+        wheels[level][slot] = timer;
+    }
+}
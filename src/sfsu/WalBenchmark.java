@@ -0,0 +1,87 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures PUT throughput and latency of a LoggedDatabase for every durability policy, with one writer and with many,
+ * against the engine without a log. Writers call the engine directly, so only the cost of the log is measured. The
+ * log files are written to a temporary directory, or to the given one (the disk under test matters more than anything
+ * else here), and deleted afterwards.
+ * <p>
+ * Invocation and arguments:
+ * java -cp lib/*:out/production/Database sfsu.WalBenchmark [seconds per run] [directory]
+ */
+public class WalBenchmark {
+
+    static final String[] POLICIES = {"none", "buffered", "always", "group:2:1000", "group:10:1000"};
+    static final int[] THREADS = {1, 16};
+    static final int KEYS = 100_000;
+    static final int VALUE_SIZE = 100;
+    static final int MAX_SAMPLES = 1 << 16;
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) * 1000 : 2000;
+        Path parent = args.length > 1 ? Path.of(args[1]) : Path.of(System.getProperty("java.io.tmpdir"));
+
+        Benchmark.quietLog();
+        PrintStream report = System.out;
+
+        ByteString[] keys = new ByteString[KEYS];
+        for (int i = 0; i < KEYS; ++i) {
+            keys[i] = ByteString.copyFromUtf8("key:" + i);
+        }
+        ByteString value = ByteString.copyFrom(new byte[VALUE_SIZE]);
+
+        report.println(String.format("%-14s %8s %12s %10s %10s %14s", "policy", "threads", "PUTs/sec", "p50 us",
+                "p99 us", "PUTs/force"));
+        for (String policy : POLICIES) {
+            for (int threads : THREADS) {
+                Path directory = Files.createTempDirectory(parent, "wal");
+                StorageEngine engine = new ByteDatabase();
+                LoggedDatabase logged = policy.equals("none") ? null : new LoggedDatabase(engine, directory, policy);
+                StorageEngine target = logged == null ? engine : logged;
+                long forcesBefore = Metrics.counter("wal.forces").sum();
+                long recordsBefore = Metrics.counter("wal.records").sum();
+
+                long[][] samples = new long[threads][MAX_SAMPLES];
+                double putsPerSecond = Benchmark.throughput(threads, millis, (thread, iteration) -> {
+                    ByteString key = keys[ThreadLocalRandom.current().nextInt(KEYS)];
+                    long begin = System.nanoTime();
+                    target.PUT(key, value);
+                    samples[thread][(int) (iteration & (MAX_SAMPLES - 1))] = System.nanoTime() - begin;
+                });
+
+                long forces = Metrics.counter("wal.forces").sum() - forcesBefore;
+                long records = Metrics.counter("wal.records").sum() - recordsBefore;
+                if (logged != null) {
+                    logged.close();
+                }
+                Benchmark.delete(directory);
+
+                Benchmark.Latencies latencies = collect(samples);
+                report.println(String.format("%-14s %8d %12.0f %10.1f %10.1f %14s", policy, threads, putsPerSecond,
+                        latencies.percentile(50) / 1e3, latencies.percentile(99) / 1e3,
+                        forces == 0 ? "-" : String.format("%.1f", (double) records / forces)));
+            }
+        }
+    }
+
+    // Returns the recorded samples, sorted. Long runs overwrite their oldest samples.
+    private static Benchmark.Latencies collect(long[][] samples) {
+        int count = 0;
+        long[] all = new long[samples.length * MAX_SAMPLES];
+        for (long[] thread : samples) {
+            for (long sample : thread) {
+                if (sample != 0) {
+                    all[count++] = sample;
+                }
+            }
+        }
+        return new Benchmark.Latencies(all, count);
+    }
+}
@@ -0,0 +1,440 @@
+package sfsu;
+
+import com.google.protobuf.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * An append only log of PUT and DELETE records, replayed into a storage engine when the server starts. The log is a
+ * sequence of files, numbered by generation, and moves on to a new file when it is rotated for a snapshot. Records are
+ * appended to a buffer in memory and reach the file when they are committed, according to the durability policy:
+ * <p>
+ * always: every commit waits until its record is on disk. Writers that commit while a flush is running wait for the
+ * next one together, so a single FileChannel.force covers all of them.
+ * group:MILLIS:RECORDS: a background thread flushes and forces the file every MILLIS milliseconds, or as soon as
+ * RECORDS records are waiting, and commits wait for it.
+ * buffered: commits write their records to the operating system without forcing them to disk. A crash of the server
+ * loses nothing, a crash of the machine may lose the last writes.
+ * <p>
+ * Every record is its payload length, a CRC32C of the payload, and the payload: the operation, the key length, the
+ * key and the value. Replay stops at the first torn or corrupt record, which can only be the tail of an interrupted
+ * write in the last file, and the file is cut there.
+ */
+final class WriteAheadLog implements Closeable {
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    static final int HEADER_SIZE = 8;
+
+    // Larger records are considered corruption.
+    static final int MAX_RECORD_SIZE = 256 << 20;
+
+    private final Path directory;
+    private final String policy;
+    private final long groupNanos;
+    private final int groupRecords;
+    private final Thread flusher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition wake = lock.newCondition();
+
+    // Records appended but not yet handed to the file, and the buffer that will take over when they are.
+    private byte[] buffer = new byte[64 << 10];
+    private int size;
+    private int records;
+    private byte[] spare = new byte[64 << 10];
+
+    // The file being written and its generation. Both change when the log is rotated.
+    private FileChannel channel;
+    private long generation;
+
+    // Positions in the log, counted in bytes since it was opened: the end of the last appended record and how far
+    // the log is written out.
+    private long appended;
+    private long flushedTo;
+    private boolean flushing;
+    private IOException failure;
+    private boolean closed;
+
+    private final CRC32C crc = new CRC32C();
+    private final LongAdder forces = Metrics.counter("wal.forces");
+    private final LongAdder appends = Metrics.counter("wal.records");
+
+    /**
+     * Opens the log in the given directory. Replays the records of every log file from the given generation on into
+     * the engine first, in order, and then starts a new file. The policy is always, group:MILLIS:RECORDS or buffered.
+     */
+    static WriteAheadLog open(Path directory, long fromGeneration, String policy, StorageEngine engine)
+            throws IOException {
+        List<Long> generations = generations(directory);
+        long next = fromGeneration;
+        for (long generation : generations) {
+            if (generation < fromGeneration) {
+                continue;
+            }
+            boolean last = generation == generations.get(generations.size() - 1);
+            try (FileChannel channel = FileChannel.open(file(directory, generation), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                long end = replay(channel, engine);
+                if (end < channel.size()) {
+                    if (!last) {
+                        // Only the file being written when the server stopped can have a torn tail.
+                        throw new IOException("Corrupt write-ahead log " + file(directory, generation) + " at " + end);
+                    }
+                    Log.warn("Cutting the torn tail off the write-ahead log at {}", end);
+                    channel.truncate(end);
+                    channel.force(true);
+                }
+            }
+            next = generation + 1;
+        }
+        return new WriteAheadLog(directory, next, policy);
+    }
+
+    /**
+     * Returns the generations of the log files in the directory, oldest first.
+     */
+    static List<Long> generations(Path directory) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "wal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                generations.add(Long.parseLong(name.substring(4, name.length() - 4)));
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+
+    static Path file(Path directory, long generation) {
+        return directory.resolve(String.format("wal-%016d.log", generation));
+    }
+
+    private WriteAheadLog(Path directory, long generation, String policy) throws IOException {
+        this.directory = directory;
+        this.generation = generation;
+        this.channel = create(directory, generation);
+        String[] parts = policy.split(":");
+        this.policy = parts[0];
+        switch (this.policy) {
+            case "always":
+            case "buffered":
+                groupNanos = 0;
+                groupRecords = 0;
+                flusher = null;
+                break;
+            case "group":
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Expected group:MILLIS:RECORDS: " + policy);
+                }
+                groupNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(parts[1]));
+                groupRecords = Integer.parseInt(parts[2]);
+                flusher = new Thread(this::flushPeriodically, "Write-ahead log flusher");
+                flusher.setDaemon(true);
+                flusher.start();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown durability policy: " + policy);
+        }
+    }
+
+    /**
+     * Appends a record to the buffer and returns the file position it ends at, to be committed. The value of a DELETE
+     * is empty.
+     */
+    long append(byte operation, ByteString key, ByteString value) throws IOException {
+        int payload = 1 + 4 + key.size() + value.size();
+        if (payload > MAX_RECORD_SIZE) {
+            throw new IOException("Record too large: " + payload);
+        }
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("The write-ahead log failed earlier", failure);
+            }
+            if (closed) {
+                throw new IOException("The write-ahead log is closed");
+            }
+            ensureCapacity(HEADER_SIZE + payload);
+            int start = size;
+            ByteBuffer record = ByteBuffer.wrap(buffer, start, HEADER_SIZE + payload);
+            record.putInt(payload);
+            record.putInt(0);    // the checksum goes here once the payload is in place
+            record.put(operation);
+            record.putInt(key.size());
+            key.copyTo(buffer, start + HEADER_SIZE + 5);
+            value.copyTo(buffer, start + HEADER_SIZE + 5 + key.size());
+            crc.reset();
+            crc.update(buffer, start + HEADER_SIZE, payload);
+            ByteBuffer.wrap(buffer, start + 4, 4).putInt((int) crc.getValue());
+
+            size += HEADER_SIZE + payload;
+            ++records;
+            appended += HEADER_SIZE + payload;
+            appends.increment();
+            if (records >= groupRecords && flusher != null) {
+                wake.signal();
+            }
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the records up to the given position are as durable as the policy promises.
+     */
+    void commit(long position) throws IOException {
+        lock.lock();
+        try {
+            while (flushedTo < position) {
+                if (failure != null) {
+                    throw new IOException("The write-ahead log failed", failure);
+                }
+                if (flushing || flusher != null) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flush(policy.equals("always"));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended since the log was opened, including records not written out yet.
+     */
+    long size() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the generation of the file being written.
+     */
+    long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes out and forces everything appended so far, and continues in a new file. Returns the generation of the
+     * new file. Records appended from now on go to the new file, so a snapshot of everything applied before the
+     * rotation only needs the new file and the ones after it.
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new IOException("The write-ahead log failed earlier", failure);
+            }
+            flush(true);
+            FileChannel next = create(directory, generation + 1);
+            channel.close();
+            channel = next;
+            return ++generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the files older than the given generation, once a snapshot made them unnecessary.
+     */
+    void deleteBefore(long generation) throws IOException {
+        for (long old : generations(directory)) {
+            if (old < generation) {
+                Files.delete(file(directory, old));
+            }
+        }
+    }
+
+    /**
+     * Writes out and forces everything appended so far, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            wake.signal();
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (failure == null) {
+                flush(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (flusher != null) {
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+
+    /**
+     * Writes the buffer out, and forces it to disk if asked to. Called with the lock held and no flush running. The
+     * lock is released during the write, so that writers can keep appending to the other buffer.
+     */
+    private void flush(boolean force) throws IOException {
+        flushing = true;
+        byte[] batch = buffer;
+        int length = size;
+        long end = appended;
+        FileChannel out = channel;
+        buffer = spare;
+        size = 0;
+        records = 0;
+
+        IOException failed = null;
+        lock.unlock();
+        try {
+            ByteBuffer records = ByteBuffer.wrap(batch, 0, length);
+            while (records.hasRemaining()) {
+                out.write(records);
+            }
+            if (force) {
+                out.force(false);
+                forces.increment();
+            }
+        } catch (IOException e) {
+            failed = e;
+        } finally {
+            lock.lock();
+        }
+
+        spare = batch;
+        flushing = false;
+        if (failed != null) {
+            failure = failed;
+        } else {
+            flushedTo = end;
+        }
+        flushed.signalAll();
+        if (failed != null) {
+            throw failed;
+        }
+    }
+
+    /**
+     * Runs on the flusher thread of the group policy.
+     */
+    private void flushPeriodically() {
+        lock.lock();
+        try {
+            while (!closed && failure == null) {
+                long deadline = System.nanoTime() + groupNanos;
+                long remaining;
+                while (!closed && records < groupRecords && (remaining = deadline - System.nanoTime()) > 0) {
+                    wake.awaitNanos(remaining);
+                }
+                if (size > 0 && !closed && !flushing) {
+                    flush(true);
+                }
+            }
+        } catch (IOException e) {
+            Log.error("The write-ahead log failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static FileChannel create(Path directory, long generation) throws IOException {
+        FileChannel channel = FileChannel.open(file(directory, generation), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        Snapshot.syncDirectory(directory);
+        return channel;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            byte[] larger = new byte[Math.max(2 * buffer.length, size + extra)];
+            System.arraycopy(buffer, 0, larger, 0, size);
+            buffer = larger;
+        }
+    }
+
+    /**
+     * Applies every intact record in the file to the engine and returns the position after the last one.
+     */
+    private static long replay(FileChannel channel, StorageEngine engine) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        CRC32C crc = new CRC32C();
+        long position = 0;
+        long count = 0;
+        try {
+            while (true) {
+                int payload = in.readInt();
+                int checksum = in.readInt();
+                if (payload < 5 || payload > MAX_RECORD_SIZE) {
+                    break;
+                }
+                byte[] record = new byte[payload];
+                in.readFully(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                int keySize = ByteBuffer.wrap(record, 1, 4).getInt();
+                if (keySize < 0 || keySize > payload - 5) {
+                    break;
+                }
+                ByteString key = ByteString.copyFrom(record, 5, keySize);
+                if (record[0] == PUT) {
+                    engine.PUT(key, ByteString.copyFrom(record, 5 + keySize, payload - 5 - keySize));
+                } else if (record[0] == DELETE) {
+                    engine.DELETE(key);
+                } else {
+                    break;
+                }
+                position += HEADER_SIZE + payload;
+                ++count;
+            }
+        } catch (EOFException e) {
+            // A record cut short by a crash, or simply the end of the file.
+        }
+        Log.info("Replayed {} records from the write-ahead log", count);
+        return position;
+    }
+}